@@ -0,0 +1,135 @@
+package com.matterworks.core;
+
+import com.matterworks.core.database.DatabaseManager;
+import com.matterworks.core.database.dao.MachineDefinitionDAO;
+import com.matterworks.core.database.dao.PlotLeaseDAO;
+import com.matterworks.core.domain.machines.registry.BlockRegistry;
+import com.matterworks.core.domain.player.PlayerProfile;
+import com.matterworks.core.managers.GridManager;
+import com.matterworks.core.synchronization.FactoryLoop;
+import com.matterworks.core.synchronization.GridSaverService;
+import com.matterworks.core.synchronization.InMemoryPlotLeaseStore;
+import com.matterworks.core.synchronization.PlotLeaseManager;
+import com.matterworks.core.synchronization.PlotLeaseStore;
+import com.matterworks.core.ui.CoreConfig;
+import com.matterworks.core.ui.MariaDBAdapter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Several cluster nodes on one box, inside one JVM (headless), to exercise plot leases:
+ * claim, balance, crash failover (lease expiry) and graceful hand-off.
+ *
+ * Each node has its own GridManager / MariaDBAdapter / saver / tick loop; the lease store is
+ * either the in-memory stand-in (default) or the real lease tables:
+ * -Dmw.cluster.store=memory|db
+ *
+ * Args:
+ *  --nodes=3        nodes to start
+ *  --seconds=120    run time
+ *  --crash-after=30 node-1 stops ticking and renewing without releasing (0 = never)
+ *
+ * DB: -Dmw.db.url / -Dmw.db.user / -Dmw.db.password (e.g. a local MariaDB).
+ * For separate processes instead, start Main several times with -Dmw.cluster=true.
+ *
+ * NOTE: SimTime is process-wide, the nodes share one simulated clock (fine for lease tests).
+ */
+public final class LocalClusterMain {
+
+    private record Node(PlotLeaseManager leases, FactoryLoop loop, GridSaverService saver, MariaDBAdapter repository) {}
+
+    public static void main(String[] args) throws InterruptedException {
+        CoreConfig.load();
+
+        int nodes = 3;
+        int seconds = 120;
+        int crashAfter = 30;
+        for (String a : args) {
+            if (a.startsWith("--nodes=")) nodes = Integer.parseInt(a.substring(8).trim());
+            else if (a.startsWith("--seconds=")) seconds = Integer.parseInt(a.substring(10).trim());
+            else if (a.startsWith("--crash-after=")) crashAfter = Integer.parseInt(a.substring(14).trim());
+        }
+
+        DatabaseManager db = new DatabaseManager(
+                System.getProperty("mw.db.url", "jdbc:mariadb://localhost:3306/matterworks_core"),
+                System.getProperty("mw.db.user", "root"),
+                System.getProperty("mw.db.password", ""));
+
+        Main.MockWorld world = new Main.MockWorld();
+        BlockRegistry registry = new BlockRegistry(world, new MachineDefinitionDAO(db));
+        registry.loadFromDatabase();
+
+        PlotLeaseStore store;
+        if ("db".equalsIgnoreCase(System.getProperty("mw.cluster.store", "memory"))) {
+            store = new PlotLeaseDAO(db);
+            store.setHealDone(true); // no integrity pass in local runs
+        } else {
+            InMemoryPlotLeaseStore mem = new InMemoryPlotLeaseStore();
+            MariaDBAdapter scan = new MariaDBAdapter(db);
+            for (PlayerProfile p : scan.getAllPlayers()) {
+                if (p != null && p.getPlayerId() != null && scan.getPlotId(p.getPlayerId()) != null) {
+                    mem.registerPlot(p.getPlayerId());
+                }
+            }
+            scan.close();
+            store = mem;
+        }
+
+        List<Node> cluster = new ArrayList<>();
+        for (int i = 1; i <= nodes; i++) {
+            MariaDBAdapter repository = new MariaDBAdapter(db);
+            GridManager grid = new GridManager(repository, world, registry);
+            GridSaverService saver = new GridSaverService(grid, repository);
+            grid.setSaverService(saver);
+
+            FactoryLoop loop = new FactoryLoop(grid);
+            loop.start();
+
+            PlotLeaseManager leases = new PlotLeaseManager("local-" + i, store, grid, loop);
+            grid.setLeaseManager(leases);
+            leases.start();
+
+            cluster.add(new Node(leases, loop, saver, repository));
+        }
+
+        long endMs = System.currentTimeMillis() + seconds * 1000L;
+        long crashAtMs = (crashAfter > 0) ? System.currentTimeMillis() + crashAfter * 1000L : Long.MAX_VALUE;
+        boolean crashed = false;
+
+        while (System.currentTimeMillis() < endMs) {
+            Thread.sleep(5_000L);
+
+            StringBuilder sb = new StringBuilder("[CLUSTER] plots per node:");
+            for (int i = 0; i < cluster.size(); i++) {
+                Node n = cluster.get(i);
+                boolean down = crashed && i == 0;
+                sb.append(' ').append(n.leases().getNodeId()).append('=')
+                        .append(down ? "down" : String.valueOf(n.leases().getHeldPlotCount()))
+                        .append(String.format("(%.1fms)", n.loop().getAverageTickMs()));
+            }
+            System.out.println(sb);
+
+            for (Node n : cluster) n.saver().autoSaveTask();
+
+            if (!crashed && System.currentTimeMillis() >= crashAtMs && cluster.size() > 1) {
+                // Crash: no flush, no release -> the others must wait for the lease to expire
+                Node victim = cluster.get(0);
+                victim.loop().stop();
+                victim.leases().abandon();
+                crashed = true;
+                System.out.println("[CLUSTER] " + victim.leases().getNodeId() + " crashed (leases left to expire)");
+            }
+        }
+
+        // Graceful stop: flush + release everywhere
+        for (int i = 0; i < cluster.size(); i++) {
+            Node n = cluster.get(i);
+            if (!(crashed && i == 0)) n.leases().close();
+            n.loop().stop();
+            n.saver().close();
+            n.repository().close();
+        }
+        System.out.println("✅ Local cluster run complete.");
+    }
+}
@@ -3,21 +3,31 @@ package com.matterworks.core;
 import com.matterworks.core.database.DatabaseManager;
 import com.matterworks.core.database.dao.MachineDefinitionDAO;
 import com.matterworks.core.database.dao.PlayerDAO;
+import com.matterworks.core.database.dao.PlotLeaseDAO;
 import com.matterworks.core.domain.machines.registry.BlockRegistry;
 import com.matterworks.core.domain.player.PlayerProfile;
 import com.matterworks.core.managers.GridManager;
 import com.matterworks.core.managers.WorldIntegrityValidator;
+import com.matterworks.core.monitoring.FlightRecorderSupport;
 import com.matterworks.core.ports.IWorldAccess;
+import com.matterworks.core.ports.RecordingWorldAccess;
 import com.matterworks.core.synchronization.FactoryLoop;
 import com.matterworks.core.synchronization.GridSaverService;
+import com.matterworks.core.synchronization.PlotLeaseManager;
+import com.matterworks.core.synchronization.StartupGraph;
 import com.matterworks.core.ui.CoreConfig;
 import com.matterworks.core.ui.MariaDBAdapter;
 import com.matterworks.core.ui.swing.app.MatterWorksGUI;
 
 import javax.swing.SwingUtilities;
 import java.awt.GraphicsEnvironment;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
@@ -35,68 +45,117 @@ public class Main {
 
         LaunchOptions opt = LaunchOptions.parse(args);
 
-        // DB init
-        String url = "jdbc:mariadb://dev.matterworks.org:3306/matterworks_core?allowPublicKeyRetrieval=true&useSSL=false";
-        DatabaseManager dbManager = new DatabaseManager(url, "Noctino52", "Yy72s7mRnVs3");
+        // Continuous JFR ring buffer, dumped to jfr/ on slow ticks (-Dmw.jfr=false to disable)
+        FlightRecorderSupport.start();
 
         // World access (mock for now)
-        IWorldAccess world = new MockWorld();
+        // -Dmw.visuals.record=true measures visual calls/bytes per tick (-Dmw.visuals=direct|batch)
+        IWorldAccess world = Boolean.getBoolean("mw.visuals.record")
+                ? new RecordingWorldAccess(new MockWorld())
+                : new MockWorld();
 
-        MachineDefinitionDAO defDao = new MachineDefinitionDAO(dbManager);
-        BlockRegistry blockRegistry = new BlockRegistry(world, defDao);
-        blockRegistry.loadFromDatabase();
+        // Dev player
+        UUID playerUuid = UUID.fromString("550e8400-e29b-41d4-a716-446655440000");
 
+        // Boot graph: independent phases overlap, each one is timed ([BOOT] lines + JFR)
+        //
+        //   db ─┬─ definitions ──────────┬─ integrity ─┐
+        //       ├─ integrity.scan ───────┘             ├─ checkpoint ─┬─ plots (streamed, per player)
+        //       └─ repository ─┬─ grid (tech, config) ─┘              │
+        //                      └─ players ────────────────────────────┘
+        //   tick loop starts after definitions + grid (plots stream in while ticking)
+        StartupGraph boot = new StartupGraph();
+
+        // Clustered mode (-Dmw.cluster=true): several nodes share the DB, plots are leased (see PlotLeaseManager)
+        boolean cluster = Boolean.getBoolean("mw.cluster");
+
+        // -Dmw.db.url / -Dmw.db.user / -Dmw.db.password point the node at another (e.g. local) MariaDB
+        String url = System.getProperty("mw.db.url",
+                "jdbc:mariadb://dev.matterworks.org:3306/matterworks_core?allowPublicKeyRetrieval=true&useSSL=false");
+        String dbUser = System.getProperty("mw.db.user", "Noctino52");
+        String dbPassword = System.getProperty("mw.db.password", "Yy72s7mRnVs3");
+        var dbTask = boot.task("db", () -> new DatabaseManager(url, dbUser, dbPassword));
+        DatabaseManager dbManager = boot.await(dbTask);
+
+        BlockRegistry blockRegistry = new BlockRegistry(world, new MachineDefinitionDAO(dbManager));
         WorldIntegrityValidator validator = new WorldIntegrityValidator(dbManager, blockRegistry);
-        if (!validator.validateWorldIntegrity()) {
-            System.err.println("🚨 ATTENZIONE: Il mondo contiene collisioni!");
-        }
+
+        var definitions = boot.step("definitions", blockRegistry::loadFromDatabase, dbTask);
+        var integrityScan = boot.step("integrity.scan", validator::prefetch, dbTask);
+
+        // Overlap self-heal deletes rows: plots are loaded only after it
+        // Clustered: the heal pass touches every plot, so it runs on one designated node only
+        // (-Dmw.cluster.integrity=true); no node claims a plot before it publishes "heal done"
+        // (PlotLeaseStore.isHealDone)
+        boolean runIntegrity = !cluster || Boolean.getBoolean("mw.cluster.integrity");
+        PlotLeaseDAO leaseStore = cluster ? new PlotLeaseDAO(dbManager) : null;
+        var integrity = boot.step("integrity", () -> {
+            if (!runIntegrity) {
+                System.out.println("[CLUSTER] integrity pass skipped on this node");
+                return;
+            }
+            if (leaseStore != null) leaseStore.setHealDone(false);
+            if (!validator.validateWorldIntegrity()) {
+                System.err.println("🚨 ATTENZIONE: Il mondo contiene collisioni!");
+            }
+            if (leaseStore != null) leaseStore.setHealDone(true);
+        }, definitions, integrityScan);
 
         // MariaDB-only repository adapter
-        MariaDBAdapter repository = new MariaDBAdapter(dbManager);
+        var repositoryTask = boot.task("repository", () -> new MariaDBAdapter(dbManager), dbTask);
 
-        GridManager gridManager = new GridManager(repository, world, blockRegistry);
+        var grid = boot.task("grid", () -> new GridManager(repositoryTask.get(), world, blockRegistry), repositoryTask);
 
-        GridSaverService saverService = new GridSaverService(gridManager, repository);
-        gridManager.setSaverService(saverService);
+        var playersTask = boot.task("players", () -> {
+            ensurePlayerExists(dbManager, playerUuid);
+            return repositoryTask.get().getAllPlayers();
+        }, repositoryTask);
 
-        // Dev player
-        UUID playerUuid = UUID.fromString("550e8400-e29b-41d4-a716-446655440000");
-        ensurePlayerExists(dbManager, playerUuid);
+        // World checkpoint (-Dmw.checkpoint=false to disable): stamps are read after the heal
+        boolean checkpointEnabled = !cluster && !"false".equalsIgnoreCase(System.getProperty("mw.checkpoint", "true"));
+        var checkpoint = boot.task("checkpoint", () -> checkpointEnabled ? grid.get().openCheckpoint() : 0, integrity, grid);
 
-        // Preload plots for all players (as before)
-        List<PlayerProfile> players = repository.getAllPlayers();
-        int errors = 0;
-
-        for (PlayerProfile p : players) {
+        // Clustered: only the plot rows are ensured here, the lease manager loads what it claims
+        var plots = boot.task("plots", () -> {
             try {
-                UUID id = p.getPlayerId();
-
-                if (repository.getPlotId(id) == null) {
-                    repository.createPlot(id, 1, 0, 0);
-                }
-
-                gridManager.preloadPlotFromDB(id);
-            } catch (Exception e) {
-                errors++;
-                e.printStackTrace();
+                return preloadPlots(boot, repositoryTask.get(), grid.get(), playersTask.get(), playerUuid, !cluster);
+            } finally {
+                grid.get().closeCheckpoint();
             }
-        }
+        }, definitions, integrity, grid, playersTask, checkpoint);
 
-        try {
-            if (repository.getPlotId(playerUuid) == null) {
-                repository.createPlot(playerUuid, 1, 0, 0);
-            }
-            gridManager.loadPlotFromDB(playerUuid);
-        } catch (Exception e) {
-            errors++;
-            e.printStackTrace();
-        }
+        // Minimum state for the simulation: definitions + grid managers
+        boot.await(definitions);
+        MariaDBAdapter repository = boot.await(repositoryTask);
+        GridManager gridManager = boot.await(grid);
 
-        System.out.println("✅ Preload plots requested for " + players.size() + " players. Errors: " + errors);
+        GridSaverService saverService = new GridSaverService(gridManager, repository);
+        gridManager.setSaverService(saverService);
 
         // Start tick loop
         FactoryLoop gameLoop = new FactoryLoop(gridManager);
         gameLoop.start();
+        boot.milestone("tick-loop");
+
+        PlotLeaseManager leaseManager = null;
+        if (cluster) {
+            boot.await(plots);
+            leaseManager = new PlotLeaseManager(System.getProperty("mw.cluster.node"),
+                    leaseStore, gridManager, gameLoop);
+            gridManager.setLeaseManager(leaseManager);
+            leaseManager.start();
+            boot.milestone("cluster");
+        }
+        PlotLeaseManager finalLeaseManager = leaseManager;
+        boot.finish();
+
+        // Session recording (-Dmw.record=<dir>), replayed headless by ReplayMain.
+        // Starts once the boot plots are in, so the initial image holds the whole world.
+        String recordDir = System.getProperty("mw.record");
+        if (recordDir != null && !recordDir.isBlank()) {
+            boot.await(plots);
+            gridManager.startRecording(Paths.get(recordDir.trim()));
+        }
 
         // Autosave scheduler (optional)
         ScheduledExecutorService autosaveScheduler = null;
@@ -120,6 +179,8 @@ public class Main {
             // Shutdown hook saves once more + closes scheduler + stops loop
             Runtime.getRuntime().addShutdownHook(new Thread(() -> {
                 try {
+                    // Clustered: final flush + release, the other nodes take the plots over at once
+                    if (finalLeaseManager != null) finalLeaseManager.close();
                     System.out.println("💾 ShutdownHook: saving before exit...");
                     saverService.autoSaveTask();
                     System.out.println("✅ ShutdownHook: save done.");
@@ -128,13 +189,24 @@ public class Main {
                 } finally {
                     shutdownQuietly(finalAutosaveScheduler);
                     gameLoop.stop();
+                    gridManager.stopRecording();
+                    if (checkpointEnabled) gridManager.writeCheckpoint();
+                    gridManager.getProductionHistoryStore().close();
+                    repository.close();
+                    FlightRecorderSupport.stop();
                 }
             }, "mw-shutdown"));
         } else {
             // If autosave disabled, still stop the loop on shutdown
             Runtime.getRuntime().addShutdownHook(new Thread(() -> {
                 try {
+                    if (finalLeaseManager != null) finalLeaseManager.close();
                     gameLoop.stop();
+                    gridManager.stopRecording();
+                    if (checkpointEnabled) gridManager.writeCheckpoint();
+                    gridManager.getProductionHistoryStore().close();
+                    repository.close();
+                    FlightRecorderSupport.stop();
                 } catch (Throwable ignored) {}
             }, "mw-shutdown-stop"));
         }
@@ -157,6 +229,8 @@ public class Main {
                     () -> {
                         System.out.println("💾 Manual Save...");
                         saverService.autoSaveTask();
+                        // Needs a quiet world: written by the loop thread between two ticks
+                        if (checkpointEnabled) gameLoop.runBetweenTicks(gridManager::writeCheckpoint);
                     },
                     repository
             ));
@@ -176,8 +250,14 @@ public class Main {
                 }
             }
 
+            if (leaseManager != null) leaseManager.close();
             shutdownQuietly(autosaveScheduler);
             gameLoop.stop();
+            gridManager.stopRecording();
+            if (checkpointEnabled) gridManager.writeCheckpoint();
+            gridManager.getProductionHistoryStore().close();
+            repository.close();
+            FlightRecorderSupport.stop();
             System.out.println("✅ Timed run complete. Exiting.");
             return;
         }
@@ -203,6 +283,48 @@ public class Main {
         }
     }
 
+    /**
+     * Streams every plot in: each player gets its own task (plot row check + load),
+     * so one slow plot does not hold the others. Completes when all plots are in memory.
+     * With load=false (clustered) only the plot rows are ensured.
+     */
+    private static int preloadPlots(StartupGraph boot,
+                                    MariaDBAdapter repository,
+                                    GridManager gridManager,
+                                    List<PlayerProfile> players,
+                                    UUID devPlayer,
+                                    boolean load) {
+        Set<UUID> owners = new LinkedHashSet<>();
+        owners.add(devPlayer);
+        for (PlayerProfile p : players) {
+            if (p != null && p.getPlayerId() != null) owners.add(p.getPlayerId());
+        }
+
+        List<CompletableFuture<Void>> loads = new ArrayList<>(owners.size());
+        for (UUID id : owners) {
+            loads.add(CompletableFuture
+                    .runAsync(() -> {
+                        if (repository.getPlotId(id) == null) {
+                            repository.createPlot(id, 1, 0, 0);
+                        }
+                    }, boot.executor())
+                    .thenCompose(v -> load ? gridManager.preloadPlotFromDB(id) : CompletableFuture.<Void>completedFuture(null)));
+        }
+
+        int errors = 0;
+        for (CompletableFuture<Void> f : loads) {
+            try {
+                f.join();
+            } catch (Throwable t) {
+                errors++;
+                t.printStackTrace();
+            }
+        }
+
+        System.out.println("✅ Plots loaded for " + owners.size() + " players. Errors: " + errors);
+        return owners.size();
+    }
+
     private static void ensurePlayerExists(DatabaseManager db, UUID uuid) {
         PlayerDAO playerDao = new PlayerDAO(db);
         PlayerProfile p = playerDao.load(uuid);
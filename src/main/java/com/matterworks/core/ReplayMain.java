@@ -0,0 +1,79 @@
+package com.matterworks.core;
+
+import com.matterworks.core.managers.SessionReplayer;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Replays a session recorded with -Dmw.record=<dir> (see SessionRecorder), headless and
+ * without a database, and prints the tick timings and the final state hash.
+ *
+ * Args:
+ *  --dir=recordings/s1   recording directory (required)
+ *  --repeat=1            replays in this JVM; each one restarts from the recording and must
+ *                        end on the same hash (later runs also show the JIT-warm timings)
+ *  --expect=<hash>       exit code 2 when the final hash differs (CI regression check)
+ *
+ * Exit codes: 0 ok, 1 bad args / unreadable recording, 2 hash differs from --expect or
+ * between repeats.
+ */
+public final class ReplayMain {
+
+    public static void main(String[] args) {
+        Path dir = null;
+        int repeat = 1;
+        String expect = null;
+        for (String a : args) {
+            if (a.startsWith("--dir=")) dir = Paths.get(a.substring(6).trim());
+            else if (a.startsWith("--repeat=")) repeat = Math.max(1, Integer.parseInt(a.substring(9).trim()));
+            else if (a.startsWith("--expect=")) expect = a.substring(9).trim();
+        }
+        if (dir == null) {
+            System.err.println("Usage: ReplayMain --dir=<recording> [--repeat=N] [--expect=<hash>]");
+            System.exit(1);
+        }
+
+        String firstHash = null;
+        int exit = 0;
+        for (int run = 1; run <= repeat; run++) {
+            SessionReplayer.Result r;
+            try {
+                r = new SessionReplayer(dir, new Main.MockWorld()).run();
+            } catch (Throwable t) {
+                System.err.println("[REPLAY] Cannot replay " + dir + ": " + t);
+                System.exit(1);
+                return;
+            }
+            print(run, r);
+
+            if (firstHash == null) firstHash = r.hash();
+            else if (!firstHash.equals(r.hash())) {
+                System.err.println("[REPLAY] Run " + run + " ended on another hash than run 1: the simulation is not deterministic");
+                exit = 2;
+            }
+        }
+
+        if (expect != null && !expect.equalsIgnoreCase(firstHash)) {
+            System.err.println("[REPLAY] Expected hash " + expect + ", got " + firstHash);
+            exit = 2;
+        }
+        System.exit(exit);
+    }
+
+    private static void print(int run, SessionReplayer.Result r) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("[REPLAY] run %d | ticks=%d (%d..%d) inputs=%d total=%.1fms (%.0f ticks/s)%n",
+                run, r.ticks(), r.startTick(), r.endTick(), r.inputs(), r.totalMs(), r.ticksPerSecond()));
+        sb.append(String.format("  tick p50=%.3fms p90=%.3fms p99=%.3fms max=%.3fms%n",
+                r.p50Ms(), r.p90Ms(), r.p99Ms(), r.maxMs()));
+        sb.append("  slowest:");
+        for (long[] s : r.slowest()) sb.append(String.format(" t%d=%.3fms", s[0], s[1] / 1e6));
+        sb.append(String.format("%n  outcomes: mismatches=%d unsupported=%d", r.mismatches(), r.unsupported()));
+        if (r.firstMismatch() != null) sb.append(" first=").append(r.firstMismatch());
+        sb.append(String.format("%n  hash=%s recorded=%s (%s)", r.hash(),
+                (r.recordedHash() != null) ? r.recordedHash() : "-",
+                (r.recordedHash() == null) ? "no end line" : (r.hashMatches() ? "MATCH" : "DIFFERS")));
+        System.out.println(sb);
+    }
+}
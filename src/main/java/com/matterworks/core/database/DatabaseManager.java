@@ -7,7 +7,12 @@ import java.sql.SQLException;
 
 public class DatabaseManager {
 
+    private static final int MAX_POOL_SIZE = 10;
+
     private final HikariDataSource dataSource;
+    private final DbScheduler scheduler;
+
+    private volatile SchemaCapabilities schema = SchemaCapabilities.UNPROBED;
 
     public DatabaseManager(String jdbcUrl, String username, String password) {
         HikariConfig config = new HikariConfig();
@@ -16,19 +21,67 @@ public class DatabaseManager {
         config.setPassword(password);
 
         // Ottimizzazioni per Gaming (Bassa latenza)
-        config.setMaximumPoolSize(10);
+        config.setMaximumPoolSize(MAX_POOL_SIZE);
         config.setMinimumIdle(2);
         config.setIdleTimeout(30000);
         config.setConnectionTimeout(2000); // Fail fast se il DB è giù
 
+        // Server-side prepared statements, cached per connection by SQL text:
+        // DAOs keep their SQL constant (SchemaCapabilities) so repeated calls skip the re-parse
+        config.addDataSourceProperty("useServerPrepStmts", "true");
+        config.addDataSourceProperty("cachePrepStmts", "true");
+        config.addDataSourceProperty("prepStmtCacheSize", "256");
+
         this.dataSource = new HikariDataSource(config);
+        this.scheduler = new DbScheduler(MAX_POOL_SIZE);
+
+        probeSchema();
     }
 
+    /**
+     * Tables / columns of the live schema, probed once at startup.
+     * If that probe failed (DB unreachable), the next access probes again.
+     */
+    public SchemaCapabilities getSchema() {
+        SchemaCapabilities s = schema;
+        return s.isProbed() ? s : probeSchema();
+    }
+
+    private synchronized SchemaCapabilities probeSchema() {
+        if (schema.isProbed()) return schema;
+
+        long t0 = System.nanoTime();
+        try (Connection conn = getConnection()) {
+            SchemaCapabilities s = SchemaCapabilities.probe(conn);
+            schema = s;
+            System.out.println("[JDBC] Schema probed: " + s.tableCount() + " tables, " + s.columnCount()
+                    + " columns in " + (System.nanoTime() - t0) / 1_000_000L + "ms");
+            return s;
+        } catch (SQLException e) {
+            System.err.println("[JDBC] Schema probe failed (optional columns treated as absent): " + e.getMessage());
+            return schema;
+        }
+    }
+
+    /** Priority lanes for background DB work, sized on this pool. */
+    public DbScheduler getScheduler() {
+        return scheduler;
+    }
+
+    /**
+     * Pooled connection, instrumented per DAO method (JdbcMetrics / JFR DaoCall).
+     * JdbcGuard flags calls made from the simulation threads.
+     */
     public Connection getConnection() throws SQLException {
-        return dataSource.getConnection();
+        JdbcGuard.check();
+
+        long t0 = System.nanoTime();
+        Connection c = dataSource.getConnection();
+        return InstrumentedConnection.wrap(c, System.nanoTime() - t0);
     }
 
     public void close() {
+        scheduler.close();
         if (dataSource != null) {
             dataSource.close();
         }
@@ -0,0 +1,350 @@
+package com.matterworks.core.database;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Admission control for DB work: every background JDBC job goes through one of four
+ * priority lanes, so a burst of bulk work cannot take all the pool connections away
+ * from a purchase or a placement.
+ *
+ * Lanes (highest first):
+ * - INTERACTIVE  player-facing loads and actions (plot join, prestige, reset)
+ * - ECONOMY      profile / transaction persistence
+ * - AUTOSAVE     bulk plot I/O (autosave flushes, plot preloads)
+ * - ANALYTICS    cache refreshes and rebuilds; stale requests are shed
+ *
+ * Admission: a queued job starts when its lane is under its own limit and the global
+ * in-flight count is under the pool size. Lanes below INTERACTIVE never use the last
+ * RESERVE slots, so interactive work always finds a connection within one job latency.
+ * When a slot frees up, the highest lane with an admissible job goes first.
+ *
+ * Shedding: read jobs submitted with a max age (executeRead) are dropped instead of run
+ * when they waited longer than that; their onShed callback runs so the caller can retry
+ * on its next refresh.
+ *
+ * PERFORMANCE:
+ * - Admitted jobs run on virtual threads (same cost as the old per-task executor); the
+ *   dispatcher itself is a synchronized section doing a few deque operations.
+ * - Wait time (enqueue -> start) is recorded per lane in a JdbcMetrics.Histogram.
+ *
+ * THREADING NOTES:
+ * - call() blocks the caller (dedicated writer threads) until the job ran in its lane.
+ *   From a scheduler worker it runs inline: nested lane waits could otherwise deadlock.
+ *
+ * Tunables:
+ * -Dmw.dbsched.reportSeconds=60   periodic [DBSCHED] line when there was activity (0 = off)
+ * -Dmw.dbsched.staleReadMs=5000   default max age of sheddable reads
+ */
+public final class DbScheduler implements AutoCloseable {
+
+    public enum Lane {
+        INTERACTIVE,
+        ECONOMY,
+        AUTOSAVE,
+        ANALYTICS
+    }
+
+    public record LaneStats(Lane lane, int limit, int queued, int running, long started, long shed,
+                            double waitP50Ms, double waitP99Ms, double waitMaxMs, long oldestQueuedMs) {}
+
+    public static final long DEFAULT_STALE_READ_MS =
+            Math.max(1L, Long.getLong("mw.dbsched.staleReadMs", 5_000L));
+
+    private static final long REPORT_SECONDS = Math.max(0L, Long.getLong("mw.dbsched.reportSeconds", 60L));
+
+    private static final ThreadLocal<Boolean> WORKER = new ThreadLocal<>();
+
+    private static final class Job {
+        final Runnable task;
+        final Runnable onShed;
+        final long enqueuedNs;
+        final long maxAgeNs; // 0 = never shed
+
+        Job(Runnable task, Runnable onShed, long maxAgeNs) {
+            this.task = task;
+            this.onShed = onShed;
+            this.enqueuedNs = System.nanoTime();
+            this.maxAgeNs = maxAgeNs;
+        }
+    }
+
+    private static final class LaneState {
+        final Lane lane;
+        final int limit;
+        final ArrayDeque<Job> queue = new ArrayDeque<>();
+        int running;
+
+        final JdbcMetrics.Histogram wait = new JdbcMetrics.Histogram();
+        final LongAdder started = new LongAdder();
+        final LongAdder shed = new LongAdder();
+
+        LaneState(Lane lane, int limit) {
+            this.lane = lane;
+            this.limit = limit;
+        }
+    }
+
+    private final int capacity;
+    private final int reserve;
+    private final LaneState[] lanes;
+    private final ExecutorService[] views;
+
+    private int running;
+    private boolean closed;
+    private long lastReportedStarts = 0L;
+
+    private final ScheduledExecutorService reporter;
+
+    /** @param poolSize connection pool size the lane limits are derived from */
+    public DbScheduler(int poolSize) {
+        this.capacity = Math.max(1, poolSize);
+        this.reserve = (capacity > 2) ? Math.max(1, capacity / 5) : 0;
+
+        this.lanes = new LaneState[] {
+                new LaneState(Lane.INTERACTIVE, capacity),
+                new LaneState(Lane.ECONOMY, Math.max(1, capacity / 2)),
+                new LaneState(Lane.AUTOSAVE, Math.max(1, capacity * 3 / 10)),
+                new LaneState(Lane.ANALYTICS, Math.max(1, capacity / 5))
+        };
+        this.views = new ExecutorService[lanes.length];
+        for (Lane l : Lane.values()) views[l.ordinal()] = new LaneExecutor(l);
+
+        if (REPORT_SECONDS > 0L) {
+            this.reporter = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "mw-dbsched-metrics");
+                t.setDaemon(true);
+                return t;
+            });
+            reporter.scheduleWithFixedDelay(this::reportSafely, REPORT_SECONDS, REPORT_SECONDS, TimeUnit.SECONDS);
+        } else {
+            this.reporter = null;
+        }
+    }
+
+    // ==========================================================
+    // SUBMIT
+    // ==========================================================
+
+    /** Executor view of one lane (for the services that take an ExecutorService). Never sheds. */
+    public ExecutorService lane(Lane lane) {
+        return views[lane.ordinal()];
+    }
+
+    public void execute(Lane lane, Runnable task) {
+        enqueue(lane, new Job(task, null, 0L));
+    }
+
+    /**
+     * Read job that is dropped if it waited more than maxAgeMs for a slot (its result would
+     * be stale anyway). onShed (may be null) runs instead of the task, on the dispatching thread.
+     */
+    public void executeRead(Lane lane, long maxAgeMs, Runnable task, Runnable onShed) {
+        enqueue(lane, new Job(task, onShed, TimeUnit.MILLISECONDS.toNanos(Math.max(1L, maxAgeMs))));
+    }
+
+    /** Runs task in the lane and waits for it (dedicated writer threads). */
+    public <T> T call(Lane lane, Callable<T> task) throws Exception {
+        if (Boolean.TRUE.equals(WORKER.get())) return task.call();
+
+        FutureTask<T> f = new FutureTask<>(task);
+        execute(lane, f);
+        try {
+            return f.get();
+        } catch (ExecutionException e) {
+            Throwable c = e.getCause();
+            if (c instanceof Exception ex) throw ex;
+            if (c instanceof Error err) throw err;
+            throw e;
+        }
+    }
+
+    private void enqueue(Lane lane, Job job) {
+        List<Job> toShed;
+        synchronized (this) {
+            if (closed) throw new RejectedExecutionException("DB scheduler closed");
+            lanes[lane.ordinal()].queue.addLast(job);
+            toShed = dispatchLocked();
+        }
+        runShed(toShed);
+    }
+
+    // ==========================================================
+    // DISPATCH
+    // ==========================================================
+
+    /** Starts every admissible job, highest lane first. @return jobs shed on the way */
+    private List<Job> dispatchLocked() {
+        List<Job> toShed = null;
+        long now = System.nanoTime();
+
+        for (LaneState ls : lanes) {
+            int cap = (ls.lane == Lane.INTERACTIVE) ? capacity : capacity - reserve;
+
+            while (!ls.queue.isEmpty() && ls.running < ls.limit && running < cap) {
+                Job job = ls.queue.pollFirst();
+                long waitedNs = now - job.enqueuedNs;
+
+                if (job.maxAgeNs > 0L && waitedNs > job.maxAgeNs) {
+                    ls.shed.increment();
+                    if (toShed == null) toShed = new ArrayList<>();
+                    toShed.add(job);
+                    continue;
+                }
+
+                ls.running++;
+                running++;
+                ls.started.increment();
+                ls.wait.record(waitedNs);
+                start(ls, job);
+            }
+        }
+        return (toShed != null) ? toShed : List.of();
+    }
+
+    private void start(LaneState ls, Job job) {
+        try {
+            Thread.ofVirtual().name("mw-db-" + ls.lane.name().toLowerCase()).start(() -> {
+                WORKER.set(Boolean.TRUE);
+                try {
+                    job.task.run();
+                } catch (Throwable t) {
+                    System.err.println("[DBSCHED] " + ls.lane + " job failed: " + t);
+                } finally {
+                    finished(ls);
+                }
+            });
+        } catch (Throwable t) {
+            // could not start: give the slot back
+            ls.running--;
+            running--;
+            System.err.println("[DBSCHED] Cannot start " + ls.lane + " job: " + t);
+        }
+    }
+
+    private void finished(LaneState ls) {
+        List<Job> toShed;
+        synchronized (this) {
+            ls.running--;
+            running--;
+            toShed = dispatchLocked();
+        }
+        runShed(toShed);
+    }
+
+    private static void runShed(List<Job> jobs) {
+        for (Job j : jobs) {
+            if (j.onShed == null) continue;
+            try {
+                j.onShed.run();
+            } catch (Throwable ignored) {}
+        }
+    }
+
+    // ==========================================================
+    // METRICS
+    // ==========================================================
+
+    public synchronized List<LaneStats> snapshot() {
+        long now = System.nanoTime();
+        List<LaneStats> out = new ArrayList<>(lanes.length);
+        for (LaneState ls : lanes) {
+            Job head = ls.queue.peekFirst();
+            long oldestMs = (head != null) ? (now - head.enqueuedNs) / 1_000_000L : 0L;
+            out.add(new LaneStats(ls.lane, ls.limit, ls.queue.size(), ls.running,
+                    ls.started.sum(), ls.shed.sum(),
+                    ls.wait.percentileMs(0.50), ls.wait.percentileMs(0.99), ls.wait.maxMs(), oldestMs));
+        }
+        return out;
+    }
+
+    private void reportSafely() {
+        try {
+            List<LaneStats> snap = snapshot();
+            long starts = 0L;
+            int queued = 0;
+            for (LaneStats s : snap) {
+                starts += s.started();
+                queued += s.queued();
+            }
+            if (starts == lastReportedStarts && queued == 0) return;
+            lastReportedStarts = starts;
+
+            StringBuilder sb = new StringBuilder("[DBSCHED] lanes (pool=").append(capacity)
+                    .append(" reserve=").append(reserve).append(", since start):");
+            for (LaneStats s : snap) {
+                sb.append(String.format("%n  %-11s limit=%d queued=%d running=%d started=%d shed=%d wait.p50=%.1fms wait.p99=%.1fms wait.max=%.1fms oldest=%dms",
+                        s.lane(), s.limit(), s.queued(), s.running(), s.started(), s.shed(),
+                        s.waitP50Ms(), s.waitP99Ms(), s.waitMaxMs(), s.oldestQueuedMs()));
+            }
+            System.out.println(sb);
+        } catch (Throwable t) {
+            System.err.println("[DBSCHED] Report failed: " + t);
+        }
+    }
+
+    // ==========================================================
+    // SHUTDOWN
+    // ==========================================================
+
+    /** Rejects new work; queued non-sheddable jobs still run, sheddable ones are dropped. */
+    @Override
+    public void close() {
+        List<Job> toShed = new ArrayList<>();
+        synchronized (this) {
+            if (closed) return;
+            closed = true;
+            for (LaneState ls : lanes) {
+                ls.queue.removeIf(j -> {
+                    if (j.maxAgeNs == 0L) return false;
+                    toShed.add(j);
+                    return true;
+                });
+            }
+        }
+        runShed(toShed);
+        if (reporter != null) reporter.shutdownNow();
+    }
+
+    private synchronized boolean isIdle() {
+        if (running > 0) return false;
+        for (LaneState ls : lanes) if (!ls.queue.isEmpty()) return false;
+        return true;
+    }
+
+    /** ExecutorService over one lane; lifecycle belongs to the scheduler (shutdown is a no-op). */
+    private final class LaneExecutor extends AbstractExecutorService {
+        private final Lane lane;
+
+        LaneExecutor(Lane lane) {
+            this.lane = lane;
+        }
+
+        @Override public void execute(Runnable command) { DbScheduler.this.execute(lane, command); }
+        @Override public void shutdown() {}
+        @Override public List<Runnable> shutdownNow() { return List.of(); }
+        @Override public boolean isShutdown() { synchronized (DbScheduler.this) { return closed; } }
+        @Override public boolean isTerminated() { return isShutdown() && isIdle(); }
+
+        @Override
+        public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+            long deadline = System.nanoTime() + unit.toNanos(timeout);
+            while (!isTerminated()) {
+                if (System.nanoTime() >= deadline) return false;
+                Thread.sleep(10L);
+            }
+            return true;
+        }
+    }
+}
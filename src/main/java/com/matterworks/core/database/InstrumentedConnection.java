@@ -0,0 +1,225 @@
+package com.matterworks.core.database;
+
+import com.matterworks.core.monitoring.DaoCallEvent;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Optional;
+
+/**
+ * Connection lease wrapper handed out by DatabaseManager (getConnection() .. close()).
+ *
+ * Per lease it is labelled with the calling DAO method ("PlotDAO.loadPlotMachines") and feeds:
+ * - JdbcMetrics: pool wait, latency of every execute*, rows, errors, slow-query log
+ * - DaoCallEvent (JFR) when a recording enables it: the whole lease as one event
+ *
+ * PERFORMANCE:
+ * - wrap() returns the pooled connection untouched when both JdbcMetrics and the JFR event
+ *   are disabled.
+ * - The caller is resolved once per lease with a StackWalker (microseconds, vs. a DB round-trip).
+ *
+ * Rows = update counts + batch counts + rows read through ResultSet.next().
+ * Bytes = payload bound through setString / setBytes.
+ */
+final class InstrumentedConnection implements InvocationHandler {
+
+    private static final String DAO_PACKAGE = "com.matterworks.core.database.dao.";
+    private static final String DB_PACKAGE = "com.matterworks.core.database.";
+
+    private static final StackWalker WALKER = StackWalker.getInstance();
+
+    private final Connection raw;
+    private final String label;
+    private final boolean metrics;
+    private final DaoCallEvent event; // null = JFR event disabled
+
+    // Lease totals (a connection is used by one thread at a time)
+    private int statements;
+    private long rows;
+    private long rowsRead;
+    private long bytes;
+    private boolean failed;
+    private boolean closed;
+
+    private InstrumentedConnection(Connection raw, String label, boolean metrics, DaoCallEvent event) {
+        this.raw = raw;
+        this.label = label;
+        this.metrics = metrics;
+        this.event = event;
+    }
+
+    static Connection wrap(Connection raw, long poolWaitNs) {
+        DaoCallEvent e = new DaoCallEvent();
+        boolean jfr = e.isEnabled();
+        if (!jfr && !JdbcMetrics.ENABLED) return raw;
+
+        String label = callerLabel();
+        if (JdbcMetrics.ENABLED) JdbcMetrics.recordPoolWait(label, poolWaitNs);
+
+        if (jfr) {
+            int dot = label.indexOf('.');
+            e.dao = (dot < 0) ? label : label.substring(0, dot);
+            e.operation = (dot < 0) ? "?" : label.substring(dot + 1);
+            e.poolWait = poolWaitNs;
+            e.begin();
+        }
+
+        return (Connection) Proxy.newProxyInstance(
+                InstrumentedConnection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                new InstrumentedConnection(raw, label, JdbcMetrics.ENABLED, jfr ? e : null));
+    }
+
+    /** "SimpleClass.method" of the DAO method using the connection (or the first non-database frame). */
+    static String callerLabel() {
+        Optional<StackWalker.StackFrame> frame = WALKER.walk(s -> s
+                .filter(f -> f.getClassName().startsWith(DAO_PACKAGE))
+                .findFirst());
+        if (frame.isEmpty()) {
+            // direct DatabaseManager users (Main, adapters): first frame outside this package
+            frame = WALKER.walk(s -> s
+                    .filter(f -> !f.getClassName().startsWith(DB_PACKAGE))
+                    .findFirst());
+        }
+        if (frame.isEmpty()) return "?";
+
+        String cn = frame.get().getClassName();
+        return cn.substring(cn.lastIndexOf('.') + 1) + "." + frame.get().getMethodName();
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        String name = method.getName();
+
+        if (name.equals("close")) {
+            try {
+                return call(raw, method, args);
+            } finally {
+                onClose();
+            }
+        }
+
+        Object r = call(raw, method, args);
+        if (r instanceof Statement st && method.getReturnType().isInterface()) {
+            String sql = (args != null && args.length > 0 && args[0] instanceof String s) ? s : null;
+            return Proxy.newProxyInstance(
+                    InstrumentedConnection.class.getClassLoader(),
+                    new Class<?>[]{method.getReturnType()},
+                    new StatementHandler(st, sql));
+        }
+        return r;
+    }
+
+    private Object call(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException ite) {
+            Throwable cause = ite.getCause();
+            if (cause instanceof SQLException) failed = true;
+            throw cause;
+        }
+    }
+
+    private void onClose() {
+        if (closed) return;
+        closed = true;
+
+        if (metrics) JdbcMetrics.recordRows(label, rowsRead);
+
+        DaoCallEvent e = event;
+        if (e == null) return;
+        e.end();
+        if (e.shouldCommit()) {
+            e.statements = statements;
+            e.rows = rows + rowsRead;
+            e.bytes = bytes;
+            e.failed = failed;
+            e.commit();
+        }
+    }
+
+    // ==========================================================
+    // STATEMENTS / RESULT SETS
+    // ==========================================================
+
+    private final class StatementHandler implements InvocationHandler {
+        private final Statement raw;
+        private String sql;
+
+        StatementHandler(Statement raw, String sql) {
+            this.raw = raw;
+            this.sql = sql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+
+            if (name.startsWith("execute")) {
+                if (args != null && args.length > 0 && args[0] instanceof String s) sql = s;
+                return execute(method, args);
+            }
+
+            Object r = call(raw, method, args);
+            if (args != null && args.length == 2) {
+                if (name.equals("setString") && args[1] instanceof String s) {
+                    bytes += s.length();
+                } else if (name.equals("setBytes") && args[1] instanceof byte[] b) {
+                    bytes += b.length;
+                }
+            }
+            return r;
+        }
+
+        private Object execute(Method method, Object[] args) throws Throwable {
+            long t0 = System.nanoTime();
+            long n = 0L;
+            boolean ok = false;
+            try {
+                Object r = call(raw, method, args);
+                ok = true;
+
+                if (r instanceof Integer c) {
+                    n = Math.max(0, c);
+                } else if (r instanceof Long c) {
+                    n = Math.max(0L, c);
+                } else if (r instanceof int[] counts) {
+                    n = counts.length;
+                } else if (r instanceof long[] counts) {
+                    n = counts.length;
+                } else if (r instanceof ResultSet rs) {
+                    r = Proxy.newProxyInstance(
+                            InstrumentedConnection.class.getClassLoader(),
+                            new Class<?>[]{ResultSet.class},
+                            new ResultSetHandler(rs));
+                }
+                return r;
+            } finally {
+                statements++;
+                rows += n;
+                if (metrics) JdbcMetrics.recordStatement(label, sql, System.nanoTime() - t0, n, !ok);
+            }
+        }
+    }
+
+    private final class ResultSetHandler implements InvocationHandler {
+        private final ResultSet raw;
+
+        ResultSetHandler(ResultSet raw) {
+            this.raw = raw;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object r = call(raw, method, args);
+            if (Boolean.TRUE.equals(r) && method.getName().equals("next")) rowsRead++;
+            return r;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.matterworks.core.database;
+
+import com.matterworks.core.synchronization.FactoryLoop;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Flags JDBC use on the simulation thread (FactoryLoop.THREAD_NAME).
+ *
+ * A blocking DB round-trip there stalls the whole world tick, so every such call is a bug.
+ * The name comes from FactoryLoop itself, so a rename cannot silently disable the guard.
+ *
+ * Modes (-Dmw.jdbc.guard):
+ * - warn  (default): log the call site with its stack trace, once per call site
+ * - throw : fail fast with IllegalStateException (dev / CI runs)
+ * - off
+ *
+ * PERFORMANCE:
+ * - One thread-name check per getConnection(); the stack is only walked on a violation.
+ */
+final class JdbcGuard {
+
+    private JdbcGuard() {}
+
+    private enum Mode { OFF, WARN, THROW }
+
+    private static final Mode MODE = parseMode(System.getProperty("mw.jdbc.guard", "warn"));
+
+
+    private static final Set<String> reportedSites = ConcurrentHashMap.newKeySet();
+
+    private static Mode parseMode(String v) {
+        if (v == null) return Mode.WARN;
+        return switch (v.trim().toLowerCase()) {
+            case "off", "false", "none" -> Mode.OFF;
+            case "throw", "strict" -> Mode.THROW;
+            default -> Mode.WARN;
+        };
+    }
+
+    static boolean isSimulationThread(Thread t) {
+        return FactoryLoop.THREAD_NAME.equals(t.getName());
+    }
+
+    /** Called before a connection is taken from the pool. */
+    static void check() {
+        if (MODE == Mode.OFF) return;
+
+        Thread t = Thread.currentThread();
+        if (!isSimulationThread(t)) return;
+
+        String site = InstrumentedConnection.callerLabel();
+        String msg = "JDBC on simulation thread " + t.getName() + " from " + site;
+
+        if (MODE == Mode.THROW) {
+            throw new IllegalStateException(msg);
+        }
+
+        if (reportedSites.add(site)) {
+            System.err.println("[JDBC_GUARD] " + msg + " (reported once per call site)");
+            new Throwable("JDBC call site").printStackTrace();
+        }
+    }
+}
@@ -0,0 +1,234 @@
+package com.matterworks.core.database;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-DAO-method JDBC statistics, fed by the instrumented connections of DatabaseManager.
+ *
+ * Recorded per label ("PlotDAO.loadPlotMachines"):
+ * - statement latency histogram (every execute*), rows, errors
+ * - pool wait histogram (time spent in HikariDataSource.getConnection)
+ *
+ * PERFORMANCE:
+ * - Histograms are fixed power-of-two microsecond buckets (AtomicLongArray):
+ *   recording is two adds, no locks, no allocation after the first call of a label.
+ * - Percentiles are bucket upper bounds (within 2x), good enough to rank hot spots.
+ *
+ * Slow statements (>= -Dmw.jdbc.slowQueryMs, default 200) are logged with their SQL,
+ * at most once per second per label.
+ *
+ * Tunables:
+ * -Dmw.jdbc.metrics=false        disable (connections are handed out unwrapped unless JFR records DaoCall)
+ * -Dmw.jdbc.slowQueryMs=200
+ * -Dmw.jdbc.reportSeconds=60     periodic [JDBC] top list (0 = off)
+ */
+public final class JdbcMetrics {
+
+    private JdbcMetrics() {}
+
+    static final boolean ENABLED =
+            !"false".equalsIgnoreCase(System.getProperty("mw.jdbc.metrics", "true"));
+
+    private static final long SLOW_QUERY_NS =
+            Math.max(1L, Long.getLong("mw.jdbc.slowQueryMs", 200L)) * 1_000_000L;
+
+    private static final long REPORT_SECONDS = Math.max(0L, Long.getLong("mw.jdbc.reportSeconds", 60L));
+
+    private static final int REPORT_TOP_N = 8;
+    private static final long SLOW_LOG_MIN_INTERVAL_MS = 1000L;
+    private static final int MAX_SQL_CHARS = 240;
+
+    private static final ConcurrentHashMap<String, Op> OPS = new ConcurrentHashMap<>();
+
+    private static volatile ScheduledExecutorService reporter;
+
+    // ==========================================================
+    // HISTOGRAM
+    // ==========================================================
+
+    /** Bucket i counts samples in [2^(i-1), 2^i) microseconds; bucket 0 is < 1us. */
+    private static final int BUCKETS = 32;
+
+    static final class Histogram {
+        private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+        private final LongAdder totalNs = new LongAdder();
+        private volatile long maxNs;
+
+        void record(long ns) {
+            long us = Math.max(0L, ns / 1_000L);
+            int b = Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(us));
+            counts.incrementAndGet(b);
+            totalNs.add(ns);
+            if (ns > maxNs) maxNs = ns; // racy max: a lost update only under-reports by one sample
+        }
+
+        long count() {
+            long n = 0L;
+            for (int i = 0; i < BUCKETS; i++) n += counts.get(i);
+            return n;
+        }
+
+        /** Upper bound (ms) of the bucket holding the q-quantile. */
+        double percentileMs(double q) {
+            long n = count();
+            if (n == 0L) return 0.0;
+
+            long rank = (long) Math.ceil(q * n);
+            long seen = 0L;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += counts.get(i);
+                if (seen >= rank) return (1L << i) / 1000.0;
+            }
+            return maxNs / 1_000_000.0;
+        }
+
+        double totalMs() {
+            return totalNs.sum() / 1_000_000.0;
+        }
+
+        double maxMs() {
+            return maxNs / 1_000_000.0;
+        }
+    }
+
+    private static final class Op {
+        final String label;
+        final Histogram latency = new Histogram();
+        final Histogram poolWait = new Histogram();
+        final LongAdder rows = new LongAdder();
+        final LongAdder errors = new LongAdder();
+        volatile long lastSlowLogMs;
+        final LongAdder slowSuppressed = new LongAdder();
+
+        Op(String label) {
+            this.label = label;
+        }
+    }
+
+    private static Op op(String label) {
+        Op o = OPS.get(label);
+        if (o != null) return o;
+        ensureReporter();
+        return OPS.computeIfAbsent(label, Op::new);
+    }
+
+    // ==========================================================
+    // RECORDING (InstrumentedConnection)
+    // ==========================================================
+
+    static void recordPoolWait(String label, long ns) {
+        op(label).poolWait.record(ns);
+    }
+
+    static void recordStatement(String label, String sql, long ns, long rows, boolean failed) {
+        Op o = op(label);
+        o.latency.record(ns);
+        if (rows > 0L) o.rows.add(rows);
+        if (failed) o.errors.increment();
+
+        if (ns >= SLOW_QUERY_NS) logSlow(o, sql, ns, rows, failed);
+    }
+
+    static void recordRows(String label, long rows) {
+        if (rows > 0L) op(label).rows.add(rows);
+    }
+
+    private static void logSlow(Op o, String sql, long ns, long rows, boolean failed) {
+        long now = System.currentTimeMillis();
+        if (now - o.lastSlowLogMs < SLOW_LOG_MIN_INTERVAL_MS) {
+            o.slowSuppressed.increment();
+            return;
+        }
+        o.lastSlowLogMs = now;
+
+        long suppressed = o.slowSuppressed.sumThenReset();
+        System.out.println("[JDBC] slow query " + (ns / 1_000_000L) + "ms " + o.label
+                + " thread=" + Thread.currentThread().getName()
+                + " rows=" + rows
+                + (failed ? " FAILED" : "")
+                + (suppressed > 0 ? " (+" + suppressed + " more slow)" : "")
+                + " sql=" + abbreviate(sql));
+    }
+
+    private static String abbreviate(String sql) {
+        if (sql == null) return "?";
+        String s = sql.replaceAll("\\s+", " ").trim();
+        return (s.length() <= MAX_SQL_CHARS) ? s : s.substring(0, MAX_SQL_CHARS) + "...";
+    }
+
+    // ==========================================================
+    // SNAPSHOT / REPORT
+    // ==========================================================
+
+    public record OpSnapshot(String label,
+                             long statements,
+                             long errors,
+                             long rows,
+                             double p50Ms,
+                             double p99Ms,
+                             double maxMs,
+                             double totalMs,
+                             long leases,
+                             double poolWaitP99Ms) {}
+
+    /** Cumulative stats since startup, heaviest (total statement time) first. */
+    public static List<OpSnapshot> snapshot() {
+        List<OpSnapshot> out = new ArrayList<>(OPS.size());
+        for (Op o : OPS.values()) {
+            out.add(new OpSnapshot(
+                    o.label,
+                    o.latency.count(),
+                    o.errors.sum(),
+                    o.rows.sum(),
+                    o.latency.percentileMs(0.50),
+                    o.latency.percentileMs(0.99),
+                    o.latency.maxMs(),
+                    o.latency.totalMs(),
+                    o.poolWait.count(),
+                    o.poolWait.percentileMs(0.99)));
+        }
+        out.sort(Comparator.comparingDouble(OpSnapshot::totalMs).reversed());
+        return out;
+    }
+
+    private static void ensureReporter() {
+        if (REPORT_SECONDS <= 0L || reporter != null) return;
+        synchronized (JdbcMetrics.class) {
+            if (reporter != null) return;
+            ScheduledExecutorService s = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "mw-jdbc-metrics");
+                t.setDaemon(true);
+                return t;
+            });
+            s.scheduleWithFixedDelay(JdbcMetrics::reportSafely, REPORT_SECONDS, REPORT_SECONDS, TimeUnit.SECONDS);
+            reporter = s;
+        }
+    }
+
+    private static void reportSafely() {
+        try {
+            List<OpSnapshot> snap = snapshot();
+            if (snap.isEmpty()) return;
+
+            StringBuilder sb = new StringBuilder("[JDBC] top ").append(Math.min(REPORT_TOP_N, snap.size()))
+                    .append(" of ").append(snap.size()).append(" DAO methods by total time (since start):");
+            for (int i = 0; i < Math.min(REPORT_TOP_N, snap.size()); i++) {
+                OpSnapshot s = snap.get(i);
+                sb.append(String.format("%n  %-48s stmts=%d err=%d rows=%d p50=%.1fms p99=%.1fms max=%.1fms total=%.0fms poolWait.p99=%.1fms",
+                        s.label(), s.statements(), s.errors(), s.rows(),
+                        s.p50Ms(), s.p99Ms(), s.maxMs(), s.totalMs(), s.poolWaitP99Ms()));
+            }
+            System.out.println(sb);
+        } catch (Throwable t) {
+            System.err.println("[JDBC] Report failed: " + t);
+        }
+    }
+}
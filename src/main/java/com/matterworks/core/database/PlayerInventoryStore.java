@@ -0,0 +1,399 @@
+package com.matterworks.core.database;
+
+import com.matterworks.core.database.dao.InventoryDAO;
+import com.matterworks.core.synchronization.PlotLeaseStore;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+/**
+ * Authoritative in-memory player inventory with write-behind persistence.
+ *
+ * - A player's whole inventory is loaded with ONE query on first access and then served
+ *   from memory: counts on buy / place / cap checks never hit MariaDB.
+ * - Every change marks the slot dirty; the "mw-inventory-writer" thread writes the dirty
+ *   slots as ONE batch (absolute quantities, one transaction) every FLUSH_EVERY_MS.
+ *
+ * RESERVE / COMMIT (buy -> place flows):
+ * - tryReserve() atomically moves items from "available" to "reserved" (no overdraft).
+ * - commit() consumes them, release() gives them back.
+ * - The persisted value is available + reserved: an uncommitted reservation is still owned,
+ *   so a crash between reserve and commit can never lose the item.
+ *
+ * CRASH-SAFE ORDERING:
+ * - Rows carry absolute values, so a retried / duplicated batch is harmless (last value wins).
+ * - The slot version is captured before its value is read; if it changed while the batch
+ *   was in flight the slot stays dirty and is written again.
+ * - flushAndEvict()/close() drain pending writes on plot unload and shutdown.
+ *
+ * If the initial load fails (DB down), that player falls back to direct DAO calls instead
+ * of caching a possibly wrong empty inventory.
+ */
+public final class PlayerInventoryStore implements AutoCloseable {
+
+    private static final long FLUSH_EVERY_MS = 200L;
+
+    private final InventoryDAO dao;
+    private final ConcurrentHashMap<UUID, PlayerInventory> inventories = new ConcurrentHashMap<>();
+    private final Set<Slot> dirty = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService writer;
+
+    public PlayerInventoryStore(InventoryDAO dao) {
+        this.dao = dao;
+
+        this.writer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "mw-inventory-writer");
+            t.setDaemon(true);
+            return t;
+        });
+        writer.scheduleWithFixedDelay(this::flushSafely, FLUSH_EVERY_MS, FLUSH_EVERY_MS, TimeUnit.MILLISECONDS);
+    }
+
+    // ==========================================================
+    // SLOTS
+    // ==========================================================
+
+    /**
+     * available (low 32 bits) + reserved (high 32 bits) packed in one AtomicLong,
+     * so reserve/commit/release and the persisted value are always consistent.
+     */
+    private static final class Slot {
+        final UUID owner;
+        final String itemId;
+        final AtomicLong state = new AtomicLong();
+        final AtomicLong version = new AtomicLong();
+        volatile boolean discarded; // owner deleted / plot dropped: never written again
+
+        Slot(UUID owner, String itemId, int initial) {
+            this.owner = owner;
+            this.itemId = itemId;
+            this.state.set(pack(Math.max(0, initial), 0));
+        }
+
+        int available() { return availableOf(state.get()); }
+
+        int persistedValue() {
+            long s = state.get();
+            long v = (long) availableOf(s) + reservedOf(s);
+            return (int) Math.min(Integer.MAX_VALUE, v);
+        }
+    }
+
+    private static long pack(int available, int reserved) {
+        return ((long) reserved << 32) | (available & 0xFFFFFFFFL);
+    }
+
+    private static int availableOf(long s) { return (int) s; }
+
+    private static int reservedOf(long s) { return (int) (s >>> 32); }
+
+    private static final class PlayerInventory {
+        final UUID owner;
+        final ConcurrentHashMap<String, Slot> slots = new ConcurrentHashMap<>();
+
+        PlayerInventory(UUID owner, Map<String, Integer> loaded) {
+            this.owner = owner;
+            for (var e : loaded.entrySet()) {
+                if (e.getKey() != null) slots.put(e.getKey(), new Slot(owner, e.getKey(), e.getValue()));
+            }
+        }
+
+        Slot slot(String itemId) {
+            return slots.computeIfAbsent(itemId, k -> new Slot(owner, k, 0));
+        }
+    }
+
+    private PlayerInventory inventory(UUID owner) {
+        PlayerInventory inv = inventories.get(owner);
+        if (inv != null) return inv;
+
+        try {
+            return inventories.computeIfAbsent(owner, k -> {
+                try {
+                    return new PlayerInventory(k, dao.loadAll(k));
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+        } catch (IllegalStateException e) {
+            System.err.println("[INVENTORY] Load failed for " + owner + " (direct DB fallback): " + e.getCause());
+            return null;
+        }
+    }
+
+    private void markDirty(Slot s) {
+        s.version.incrementAndGet();
+        dirty.add(s);
+    }
+
+    // ==========================================================
+    // API
+    // ==========================================================
+
+    public int count(UUID owner, String itemId) {
+        if (owner == null || itemId == null) return 0;
+        PlayerInventory inv = inventory(owner);
+        if (inv == null) return Math.max(0, dao.getItemCount(owner, itemId));
+
+        Slot s = inv.slots.get(itemId);
+        return (s == null) ? 0 : s.available();
+    }
+
+    /** Owned quantities (available + reserved, i.e. what gets persisted) of one player, loading it if needed. */
+    public Map<String, Integer> snapshot(UUID owner) {
+        if (owner == null) return Map.of();
+        PlayerInventory inv = inventory(owner);
+        if (inv == null) {
+            try {
+                return dao.loadAll(owner);
+            } catch (Exception e) {
+                return Map.of();
+            }
+        }
+        Map<String, Integer> out = new HashMap<>(inv.slots.size() * 2);
+        for (Slot s : inv.slots.values()) out.put(s.itemId, s.persistedValue());
+        return out;
+    }
+
+    /** Adds delta (may be negative, clamped at 0 like the DB upsert). */
+    public void modify(UUID owner, String itemId, int delta) {
+        if (owner == null || itemId == null || delta == 0) return;
+        PlayerInventory inv = inventory(owner);
+        if (inv == null) {
+            dao.modifyItemCount(owner, itemId, delta);
+            return;
+        }
+        applyDelta(inv.slot(itemId), delta);
+    }
+
+    /**
+     * Mirrors a change already committed to the DB by another statement
+     * (e.g. the atomic void shop purchase). No-op if the player is not loaded.
+     */
+    public void applyExternalDelta(UUID owner, String itemId, int delta) {
+        if (owner == null || itemId == null || delta == 0) return;
+        PlayerInventory inv = inventories.get(owner);
+        if (inv == null) return;
+        applyDelta(inv.slot(itemId), delta);
+    }
+
+    private void applyDelta(Slot s, int delta) {
+        while (true) {
+            long cur = s.state.get();
+            long next = Math.max(0L, (long) availableOf(cur) + delta);
+            int avail = (int) Math.min(Integer.MAX_VALUE, next);
+            if (s.state.compareAndSet(cur, pack(avail, reservedOf(cur)))) break;
+        }
+        markDirty(s);
+    }
+
+    /**
+     * Atomically reserves amount items.
+     * @return null if not enough items are available
+     */
+    public Reservation tryReserve(UUID owner, String itemId, int amount) {
+        if (owner == null || itemId == null || amount <= 0) return null;
+        PlayerInventory inv = inventory(owner);
+
+        if (inv == null) {
+            // Direct fallback: consume immediately, release() gives it back
+            if (dao.getItemCount(owner, itemId) < amount) return null;
+            dao.modifyItemCount(owner, itemId, -amount);
+            return new Reservation(owner, itemId, amount, null);
+        }
+
+        Slot s = inv.slots.get(itemId);
+        if (s == null) return null;
+
+        while (true) {
+            long cur = s.state.get();
+            int avail = availableOf(cur);
+            if (avail < amount) return null;
+            if (s.state.compareAndSet(cur, pack(avail - amount, reservedOf(cur) + amount))) {
+                return new Reservation(owner, itemId, amount, s);
+            }
+        }
+    }
+
+    public final class Reservation {
+        private final UUID owner;
+        private final String itemId;
+        private final int amount;
+        private final Slot slot; // null = direct DB fallback (already consumed)
+        private final AtomicBoolean done = new AtomicBoolean();
+
+        private Reservation(UUID owner, String itemId, int amount, Slot slot) {
+            this.owner = owner;
+            this.itemId = itemId;
+            this.amount = amount;
+            this.slot = slot;
+        }
+
+        /** Consumes the reserved items (persisted by the write-behind queue). */
+        public void commit() {
+            if (!done.compareAndSet(false, true) || slot == null) return;
+            while (true) {
+                long cur = slot.state.get();
+                if (slot.state.compareAndSet(cur, pack(availableOf(cur), reservedOf(cur) - amount))) break;
+            }
+            markDirty(slot);
+        }
+
+        /** Returns the reserved items (persisted value did not change: nothing to write). */
+        public void release() {
+            if (!done.compareAndSet(false, true)) return;
+            if (slot == null) {
+                dao.modifyItemCount(owner, itemId, amount);
+                return;
+            }
+            while (true) {
+                long cur = slot.state.get();
+                if (slot.state.compareAndSet(cur, pack(availableOf(cur) + amount, reservedOf(cur) - amount))) break;
+            }
+        }
+    }
+
+    // ==========================================================
+    // LIFECYCLE
+    // ==========================================================
+
+    /** Plot unload: write pending rows of the player, then drop the in-memory copy. */
+    public void flushAndEvict(UUID owner) {
+        if (owner == null) return;
+        try {
+            writer.execute(() -> {
+                PlayerInventory inv = inventories.get(owner);
+                if (inv == null) return;
+
+                flush(s -> s.owner.equals(owner));
+
+                for (Slot s : inv.slots.values()) {
+                    if (dirty.contains(s) || reservedOf(s.state.get()) != 0) return; // keep it: still in use
+                }
+                inventories.remove(owner, inv);
+            });
+        } catch (Throwable ignored) {
+            // executor closed: close() already flushed everything
+        }
+    }
+
+    /**
+     * Clustered plot release: like flushAndEvict, but the player's rows are written in a
+     * transaction fenced by the lease guard, and the call waits for the writer thread so the
+     * write happens inside the caller's fenced section (PlotLeaseStore.writeFenced).
+     * Refused (lease lost) -> the pending rows are dropped as in discard().
+     * @return false when the rows were refused or could not be written in time
+     */
+    public boolean flushAndEvictFenced(UUID owner, PlotLeaseStore.LeaseGuard guard) {
+        if (owner == null) return false;
+        try {
+            return writer.submit(() -> {
+                PlayerInventory inv = inventories.get(owner);
+                if (inv == null) return true;
+
+                if (!flush(s -> s.owner.equals(owner), guard)) {
+                    inventories.remove(owner, inv);
+                    for (Slot s : inv.slots.values()) s.discarded = true;
+                    dirty.removeAll(inv.slots.values());
+                    return false;
+                }
+
+                for (Slot s : inv.slots.values()) {
+                    if (dirty.contains(s) || reservedOf(s.state.get()) != 0) return true; // keep it: still in use
+                }
+                inventories.remove(owner, inv);
+                return true;
+            }).get(5, TimeUnit.SECONDS);
+        } catch (Throwable t) {
+            return false;
+        }
+    }
+
+    /**
+     * Player deleted: pending writes are dropped (rows are deleted by the caller).
+     *
+     * Slots are flagged first (flush skips them from now on), then the call waits for the
+     * writer thread: a batch already in flight for this owner completes before discard
+     * returns, so it cannot re-insert rows after the caller's DELETE.
+     */
+    public void discard(UUID owner) {
+        if (owner == null) return;
+        PlayerInventory inv = inventories.remove(owner);
+        if (inv == null) return;
+
+        for (Slot s : inv.slots.values()) s.discarded = true;
+        dirty.removeAll(inv.slots.values());
+
+        try {
+            writer.submit(() -> dirty.removeAll(inv.slots.values())).get(5, TimeUnit.SECONDS);
+        } catch (Throwable ignored) {
+            // executor closed or writer stuck: the flags still keep these slots out of new batches
+        }
+    }
+
+    private void flushSafely() {
+        try {
+            flush(s -> true);
+        } catch (Throwable t) {
+            System.err.println("[INVENTORY] Flush failed: " + t);
+        }
+    }
+
+    private void flush(Predicate<Slot> filter) {
+        flush(filter, null);
+    }
+
+    /** @return false only when the guard refused the batch (slots are NOT re-marked dirty) */
+    private boolean flush(Predicate<Slot> filter, PlotLeaseStore.LeaseGuard guard) {
+        if (dirty.isEmpty()) return true;
+
+        List<Slot> batch = new ArrayList<>();
+        for (Slot s : dirty) {
+            if (s.discarded) dirty.remove(s);
+            else if (filter.test(s) && dirty.remove(s)) batch.add(s);
+        }
+        if (batch.isEmpty()) return true;
+
+        long[] versions = new long[batch.size()];
+        List<InventoryDAO.QuantityRow> rows = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            Slot s = batch.get(i);
+            versions[i] = s.version.get(); // version first, then value
+            rows.add(new InventoryDAO.QuantityRow(s.owner, s.itemId, s.persistedValue()));
+        }
+
+        try {
+            if (!dao.saveQuantities(rows, guard)) return false;
+        } catch (Exception e) {
+            System.err.println("[INVENTORY] Batch of " + rows.size() + " rows failed, will retry: " + e.getMessage());
+            for (Slot s : batch) if (!s.discarded) dirty.add(s);
+            return true;
+        }
+
+        // Changed while the batch was in flight: write it again next round
+        for (int i = 0; i < batch.size(); i++) {
+            Slot s = batch.get(i);
+            if (s.version.get() != versions[i] && !s.discarded) dirty.add(s);
+        }
+        return true;
+    }
+
+    @Override
+    public void close() {
+        try {
+            writer.submit(() -> flush(s -> true)).get(5, TimeUnit.SECONDS);
+        } catch (Throwable ignored) {}
+        writer.shutdown();
+    }
+}
@@ -0,0 +1,90 @@
+package com.matterworks.core.database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable snapshot of the tables / columns of the current schema, read once with a single
+ * information_schema query (DatabaseManager, at startup).
+ *
+ * The schema is owned outside this repo and differs between installs (renamed and optional
+ * columns), so DAOs used to probe information_schema on every call. They now ask this registry
+ * and derive their final SQL text once; with server-side prepared statements that text is
+ * also the key of the driver's per-connection statement cache.
+ *
+ * Names are compared case-insensitively (MariaDB column names are).
+ * An unprobed instance (DB unreachable at startup) answers false everywhere and
+ * DatabaseManager retries the probe on the next access.
+ */
+public final class SchemaCapabilities {
+
+    private static final String PROBE_SQL =
+            "SELECT LOWER(table_name), LOWER(column_name) FROM information_schema.COLUMNS " +
+                    "WHERE table_schema = DATABASE()";
+
+    static final SchemaCapabilities UNPROBED = new SchemaCapabilities(Map.of(), false);
+
+    private final Map<String, Set<String>> columnsByTable;
+    private final boolean probed;
+
+    private SchemaCapabilities(Map<String, Set<String>> columnsByTable, boolean probed) {
+        this.columnsByTable = columnsByTable;
+        this.probed = probed;
+    }
+
+    static SchemaCapabilities probe(Connection conn) throws SQLException {
+        Map<String, Set<String>> out = new HashMap<>();
+        try (PreparedStatement ps = conn.prepareStatement(PROBE_SQL);
+             ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                String table = rs.getString(1);
+                String column = rs.getString(2);
+                if (table == null || column == null) continue;
+                out.computeIfAbsent(table, k -> new HashSet<>()).add(column);
+            }
+        }
+        Map<String, Set<String>> frozen = new HashMap<>(out.size() * 2);
+        for (var e : out.entrySet()) frozen.put(e.getKey(), Set.copyOf(e.getValue()));
+        return new SchemaCapabilities(Map.copyOf(frozen), true);
+    }
+
+    /** False when the probe failed: answers are "absent", callers should not cache derived SQL. */
+    public boolean isProbed() {
+        return probed;
+    }
+
+    public boolean hasTable(String table) {
+        return table != null && columnsByTable.containsKey(table.toLowerCase(Locale.ROOT));
+    }
+
+    public boolean hasColumn(String table, String column) {
+        if (table == null || column == null) return false;
+        Set<String> cols = columnsByTable.get(table.toLowerCase(Locale.ROOT));
+        return cols != null && cols.contains(column.toLowerCase(Locale.ROOT));
+    }
+
+    /** @return the first candidate present in table (as given), or null */
+    public String firstColumn(String table, String... candidates) {
+        for (String c : candidates) {
+            if (c != null && !c.isBlank() && hasColumn(table, c)) return c;
+        }
+        return null;
+    }
+
+    public int tableCount() {
+        return columnsByTable.size();
+    }
+
+    public int columnCount() {
+        int n = 0;
+        for (Set<String> cols : columnsByTable.values()) n += cols.size();
+        return n;
+    }
+}
@@ -0,0 +1,99 @@
+package com.matterworks.core.database;
+
+import com.matterworks.core.database.dao.ServerGameStateDAO;
+import com.matterworks.core.ui.ServerGameState;
+
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.UnaryOperator;
+
+/**
+ * In-memory holder of the server_gamestate snapshot.
+ *
+ * PERFORMANCE:
+ * - get() is a single volatile read: no DB access on placement / tick / UI paths.
+ * - The refresher ("mw-gamestate-refresher") probes the revision column (updated_at / version)
+ *   and reloads the row only when it changed. Without a revision column it reloads the row
+ *   (one query) and swaps the snapshot only if a value differs.
+ *
+ * THREADING NOTES:
+ * - Writers call update() right after their UPDATE statement (optimistic snapshot).
+ * - A refresh swaps its result in with compareAndSet against the snapshot it started from,
+ *   so a slow reload can never overwrite a newer optimistic write.
+ *
+ * Refresh period can be changed via:
+ * -Dmw.gamestate.refreshMs=5000
+ */
+public final class ServerGameStateCache implements AutoCloseable {
+
+    private static final long DEFAULT_REFRESH_MS = 5000L;
+
+    private final ServerGameStateDAO dao;
+    private final AtomicReference<ServerGameState> current;
+    private final ScheduledExecutorService refresher;
+
+    private volatile String lastRevision;
+
+    public ServerGameStateCache(ServerGameStateDAO dao) {
+        this.dao = dao;
+
+        ServerGameState initial = dao.loadGameState();
+        this.current = new AtomicReference<>(initial != null ? initial : ServerGameState.defaults());
+        // lastRevision stays null: the first refresh does one full load and records the revision
+
+        long refreshMs = Math.max(250L, Long.getLong("mw.gamestate.refreshMs", DEFAULT_REFRESH_MS));
+
+        this.refresher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "mw-gamestate-refresher");
+            t.setDaemon(true);
+            return t;
+        });
+        refresher.scheduleWithFixedDelay(this::refreshSafely, refreshMs, refreshMs, TimeUnit.MILLISECONDS);
+    }
+
+    public ServerGameState get() {
+        return current.get();
+    }
+
+    /** Optimistic local update (call after the DB write succeeded or was attempted). */
+    public ServerGameState update(UnaryOperator<ServerGameState> fn) {
+        return current.updateAndGet(fn);
+    }
+
+    /** Forces a full reload now (admin "reload" actions). */
+    public ServerGameState reload() {
+        ServerGameState before = current.get();
+        String rev = dao.loadRevision();
+        ServerGameState fresh = dao.loadGameState();
+        if (fresh == null) return before;
+
+        lastRevision = rev;
+        current.compareAndSet(before, fresh);
+        return current.get();
+    }
+
+    private void refreshSafely() {
+        try {
+            // Revision is read before the row: a change landing in between is caught next round
+            String rev = dao.hasRevisionColumn() ? dao.loadRevision() : null;
+            if (rev != null && Objects.equals(rev, lastRevision)) return;
+
+            ServerGameState before = current.get();
+            ServerGameState fresh = dao.loadGameState();
+            if (fresh == null) return;
+
+            lastRevision = rev;
+            if (!fresh.equals(before)) current.compareAndSet(before, fresh);
+        } catch (Throwable t) {
+            System.err.println("[GAMESTATE] Refresh failed: " + t);
+        }
+    }
+
+    @Override
+    public void close() {
+        refresher.shutdownNow();
+    }
+}
@@ -2,21 +2,116 @@ package com.matterworks.core.database.dao;
 
 import com.matterworks.core.database.DatabaseManager;
 import com.matterworks.core.database.UuidUtils;
+import com.matterworks.core.synchronization.PlotLeaseStore;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.UUID;
 
 public class InventoryDAO {
 
     private final DatabaseManager db;
 
+    /** Absolute quantity to persist (write-behind rows are idempotent: last value wins). */
+    public record QuantityRow(UUID playerUuid, String itemId, int quantity) {}
+
     public InventoryDAO(DatabaseManager db) {
         this.db = db;
     }
 
+    /** Whole inventory of a player in one query (itemId -> quantity). */
+    public Map<String, Integer> loadAll(UUID playerUuid) throws SQLException {
+        String sql = "SELECT item_id, quantity FROM player_inventory WHERE player_uuid = ?";
+        Map<String, Integer> out = new HashMap<>();
+        try (Connection conn = db.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setBytes(1, UuidUtils.asBytes(playerUuid));
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) out.put(rs.getString("item_id"), Math.max(0, rs.getInt("quantity")));
+            }
+        }
+        return out;
+    }
+
+    /**
+     * Writes absolute quantities as ONE batch in ONE transaction.
+     * Re-running the same batch (retry after a failure) is harmless.
+     */
+    public void saveQuantities(Collection<QuantityRow> rows) throws SQLException {
+        if (rows == null || rows.isEmpty()) return;
+
+        String sql = "INSERT INTO player_inventory (player_uuid, item_id, quantity) VALUES (?, ?, ?) " +
+                "ON DUPLICATE KEY UPDATE quantity = VALUES(quantity)";
+
+        try (Connection conn = db.getConnection()) {
+            boolean prevAutoCommit = conn.getAutoCommit();
+            conn.setAutoCommit(false);
+            try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                for (QuantityRow r : rows) {
+                    ps.setBytes(1, UuidUtils.asBytes(r.playerUuid()));
+                    ps.setString(2, r.itemId());
+                    ps.setInt(3, Math.max(0, r.quantity()));
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+                conn.commit();
+            } catch (SQLException e) {
+                try { conn.rollback(); } catch (SQLException ignored) {}
+                throw e;
+            } finally {
+                try { conn.setAutoCommit(prevAutoCommit); } catch (SQLException ignored) {}
+            }
+        }
+    }
+
+    /**
+     * Clustered plot release: same batch, in a transaction that first locks the plot's lease
+     * row (PlotLeaseDAO.lockHeld). guard == null writes unguarded.
+     * @return false when the lease is no longer ours (rolled back, nothing written)
+     */
+    public boolean saveQuantities(Collection<QuantityRow> rows, PlotLeaseStore.LeaseGuard guard) throws SQLException {
+        if (guard == null) {
+            saveQuantities(rows);
+            return true;
+        }
+        if (rows == null || rows.isEmpty()) return true;
+
+        String sql = "INSERT INTO player_inventory (player_uuid, item_id, quantity) VALUES (?, ?, ?) " +
+                "ON DUPLICATE KEY UPDATE quantity = VALUES(quantity)";
+
+        try (Connection conn = db.getConnection()) {
+            boolean prevAutoCommit = conn.getAutoCommit();
+            conn.setAutoCommit(false);
+            try {
+                if (!PlotLeaseDAO.lockHeld(conn, guard)) {
+                    conn.rollback();
+                    return false;
+                }
+                try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                    for (QuantityRow r : rows) {
+                        ps.setBytes(1, UuidUtils.asBytes(r.playerUuid()));
+                        ps.setString(2, r.itemId());
+                        ps.setInt(3, Math.max(0, r.quantity()));
+                        ps.addBatch();
+                    }
+                    ps.executeBatch();
+                }
+                conn.commit();
+                return true;
+            } catch (SQLException e) {
+                try { conn.rollback(); } catch (SQLException ignored) {}
+                throw e;
+            } finally {
+                try { conn.setAutoCommit(prevAutoCommit); } catch (SQLException ignored) {}
+            }
+        }
+    }
+
     public int getItemCount(UUID playerUuid, String itemId) {
         String sql = "SELECT quantity FROM player_inventory WHERE player_uuid = ? AND item_id = ?";
         try (Connection conn = db.getConnection();
@@ -2,6 +2,7 @@ package com.matterworks.core.database.dao;
 
 import com.matterworks.core.common.Vector3Int;
 import com.matterworks.core.database.DatabaseManager;
+import com.matterworks.core.database.SchemaCapabilities;
 import com.matterworks.core.domain.machines.registry.MachineStats;
 
 import java.sql.Connection;
@@ -22,18 +23,20 @@ public class MachineDefinitionDAO {
     public Map<String, MachineStats> loadAllDefinitions() {
         Map<String, MachineStats> statsMap = new HashMap<>();
 
+        SchemaCapabilities schema = db.getSchema();
+
         try (Connection conn = db.getConnection()) {
 
-            boolean hasPrestigeMult = columnExists(conn, "item_definitions", "prestigecostmultiplier");
-            boolean hasShopOrder = columnExists(conn, "item_definitions", "shop_order");
+            boolean hasPrestigeMult = schema.hasColumn("item_definitions", "prestigecostmultiplier");
+            boolean hasShopOrder = schema.hasColumn("item_definitions", "shop_order");
 
             // New nice names:
-            boolean hasPenaltyEveryNew = columnExists(conn, "item_definitions", "price_penalty_every");
-            boolean hasPenaltyAddNew = columnExists(conn, "item_definitions", "price_penalty_add");
+            boolean hasPenaltyEveryNew = schema.hasColumn("item_definitions", "price_penalty_every");
+            boolean hasPenaltyAddNew = schema.hasColumn("item_definitions", "price_penalty_add");
 
             // Old names (compat):
-            boolean hasPenaltyEveryOld = columnExists(conn, "item_definitions", "amount_of_item_required");
-            boolean hasPenaltyAddOld = columnExists(conn, "item_definitions", "money_to_add_per_penality");
+            boolean hasPenaltyEveryOld = schema.hasColumn("item_definitions", "amount_of_item_required");
+            boolean hasPenaltyAddOld = schema.hasColumn("item_definitions", "money_to_add_per_penality");
 
             String penaltyEveryExpr = "0";
             if (hasPenaltyEveryNew) penaltyEveryExpr = "i.price_penalty_every";
@@ -44,9 +47,9 @@ public class MachineDefinitionDAO {
             else if (hasPenaltyAddOld) penaltyAddExpr = "i.money_to_add_per_penality";
 
             // New DB-driven ticks per tier (compat-safe)
-            boolean hasMk1Ticks = columnExists(conn, "machine_definitions", "mk1_process_ticks");
-            boolean hasMk2Ticks = columnExists(conn, "machine_definitions", "mk2_process_ticks");
-            boolean hasMk3Ticks = columnExists(conn, "machine_definitions", "mk3_process_ticks");
+            boolean hasMk1Ticks = schema.hasColumn("machine_definitions", "mk1_process_ticks");
+            boolean hasMk2Ticks = schema.hasColumn("machine_definitions", "mk2_process_ticks");
+            boolean hasMk3Ticks = schema.hasColumn("machine_definitions", "mk3_process_ticks");
 
             String mk1Expr = hasMk1Ticks ? "m.mk1_process_ticks" : "20";
             String mk2Expr = hasMk2Ticks ? "m.mk2_process_ticks" : "20";
@@ -174,20 +177,4 @@ public class MachineDefinitionDAO {
             return Math.max(1L, fallback);
         }
     }
-
-    private boolean columnExists(Connection conn, String table, String column) throws SQLException {
-        String sql =
-                "SELECT 1 FROM information_schema.COLUMNS " +
-                        "WHERE table_schema = DATABASE() " +
-                        "AND LOWER(table_name) = LOWER(?) " +
-                        "AND LOWER(column_name) = LOWER(?) " +
-                        "LIMIT 1";
-        try (PreparedStatement ps = conn.prepareStatement(sql)) {
-            ps.setString(1, table);
-            ps.setString(2, column);
-            try (ResultSet rs = ps.executeQuery()) {
-                return rs.next();
-            }
-        }
-    }
 }
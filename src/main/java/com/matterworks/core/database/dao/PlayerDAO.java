@@ -43,27 +43,63 @@ public class PlayerDAO {
         try (Connection conn = db.getConnection();
              PreparedStatement ps = conn.prepareStatement(UPSERT_SQL)) {
 
-            ps.setBytes(1, UuidUtils.asBytes(p.getPlayerId()));
-            ps.setString(2, p.getUsername());
-            ps.setDouble(3, p.getMoney());
-            ps.setInt(4, p.getVoidCoins());
-            ps.setInt(5, p.getPrestigeLevel());
-            ps.setString(6, p.getRank().name());
+            long v = p.getVersion();
+            bindUpsert(ps, p);
+            ps.executeUpdate();
+            p.markPersisted(v);
 
-            String techJson = gson.toJson(p.getUnlockedTechs() != null ? p.getUnlockedTechs() : Set.of());
-            ps.setString(7, techJson);
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+    }
 
-            ps.setLong(8, p.getOverclockStartPlaytimeSeconds());
-            ps.setLong(9, p.getOverclockDurationSeconds());
-            ps.setDouble(10, p.getOverclockMultiplier());
+    /**
+     * Writes all profiles with ONE connection and ONE JDBC batch.
+     * Each profile is marked persisted at the version read before binding it.
+     *
+     * @return false if the batch failed (nothing is marked persisted, caller may retry)
+     */
+    public boolean saveAll(Collection<PlayerProfile> profiles) {
+        if (profiles == null || profiles.isEmpty()) return true;
 
-            ps.executeUpdate();
+        long[] versions = new long[profiles.size()];
+        try (Connection conn = db.getConnection();
+             PreparedStatement ps = conn.prepareStatement(UPSERT_SQL)) {
+
+            int i = 0;
+            for (PlayerProfile p : profiles) {
+                versions[i++] = p.getVersion();
+                bindUpsert(ps, p);
+                ps.addBatch();
+            }
+            ps.executeBatch();
+
+            i = 0;
+            for (PlayerProfile p : profiles) p.markPersisted(versions[i++]);
+            return true;
 
         } catch (SQLException e) {
             e.printStackTrace();
+            return false;
         }
     }
 
+    private void bindUpsert(PreparedStatement ps, PlayerProfile p) throws SQLException {
+        ps.setBytes(1, UuidUtils.asBytes(p.getPlayerId()));
+        ps.setString(2, p.getUsername());
+        ps.setDouble(3, p.getMoney());
+        ps.setInt(4, p.getVoidCoins());
+        ps.setInt(5, p.getPrestigeLevel());
+        ps.setString(6, p.getRank().name());
+
+        String techJson = gson.toJson(p.getUnlockedTechs() != null ? p.getUnlockedTechs() : Set.of());
+        ps.setString(7, techJson);
+
+        ps.setLong(8, p.getOverclockStartPlaytimeSeconds());
+        ps.setLong(9, p.getOverclockDurationSeconds());
+        ps.setDouble(10, p.getOverclockMultiplier());
+    }
+
     public java.util.List<PlayerProfile> loadAll() {
         String sql = "SELECT * FROM players";
         java.util.List<PlayerProfile> out = new java.util.ArrayList<>();
@@ -37,12 +37,14 @@ public class PlayerSessionDAO {
                 }
 
                 // compat: last_login might not exist
-                try (PreparedStatement ps = conn.prepareStatement(
-                        "UPDATE players SET last_login = NOW() WHERE uuid = ?")) {
-                    ps.setBytes(1, uuidBytes);
-                    ps.executeUpdate();
-                } catch (SQLException e) {
-                    if (!SqlCompat.isUnknownColumn(e)) e.printStackTrace();
+                if (db.getSchema().hasColumn("players", "last_login")) {
+                    try (PreparedStatement ps = conn.prepareStatement(
+                            "UPDATE players SET last_login = NOW() WHERE uuid = ?")) {
+                        ps.setBytes(1, uuidBytes);
+                        ps.executeUpdate();
+                    } catch (SQLException e) {
+                        if (!SqlCompat.isUnknownColumn(e)) e.printStackTrace();
+                    }
                 }
 
                 conn.commit();
@@ -89,6 +91,8 @@ public class PlayerSessionDAO {
     }
 
     private boolean safeUpdateSessionWithSeconds(Connection conn, byte[] uuidBytes) {
+        if (!db.getSchema().hasColumn("player_session", "session_seconds")) return false;
+
         String sql =
                 "UPDATE player_session " +
                         "SET logout_at = NOW(), session_seconds = TIMESTAMPDIFF(SECOND, login_at, NOW()) " +
@@ -9,7 +9,9 @@ import com.matterworks.core.model.PlotUnlockState;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 public class PlotDAO {
@@ -213,6 +215,51 @@ public class PlotDAO {
         return 0;
     }
 
+    // ==========================================================
+    // VERSION STAMPS (world checkpoint)
+    // ==========================================================
+
+    public record PlotStamp(long plotId, long stamp) {}
+
+    /**
+     * One round trip for every plot: a hash of its machine rows (metadata included),
+     * resource rows and unlock state as they are in the DB now.
+     * Any write to the plot (save, place, remove, heal, unlock) changes the stamp.
+     */
+    public Map<UUID, PlotStamp> loadPlotStamps() {
+        String sql =
+                "SELECT p.id, p.owner_id, p.unlocked_extra_x, p.unlocked_extra_y, m.n AS mn, m.h AS mh, r.n AS rn, r.h AS rh " +
+                        "FROM plots p " +
+                        "LEFT JOIN (SELECT plot_id, COUNT(*) AS n, " +
+                        "BIT_XOR(CRC32(CONCAT_WS('|', id, x, y, z, type_id, metadata))) AS h " +
+                        "FROM plot_machines GROUP BY plot_id) m ON m.plot_id = p.id " +
+                        "LEFT JOIN (SELECT plot_id, COUNT(*) AS n, " +
+                        "BIT_XOR(CRC32(CONCAT_WS('|', x, z, resource_type))) AS h " +
+                        "FROM plot_resources GROUP BY plot_id) r ON r.plot_id = p.id";
+
+        Map<UUID, PlotStamp> out = new HashMap<>();
+        try (Connection conn = dbManager.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql);
+             ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                UUID owner = UuidUtils.asUuid(rs.getBytes("owner_id"));
+                if (owner == null) continue;
+
+                long h = 0x84222325CBF29CE4L;
+                h = h * 0x9E3779B97F4A7C15L + rs.getLong("unlocked_extra_x");
+                h = h * 0x9E3779B97F4A7C15L + rs.getLong("unlocked_extra_y");
+                h = h * 0x9E3779B97F4A7C15L + rs.getLong("mn");
+                h = h * 0x9E3779B97F4A7C15L + rs.getLong("mh");
+                h = h * 0x9E3779B97F4A7C15L + rs.getLong("rn");
+                h = h * 0x9E3779B97F4A7C15L + rs.getLong("rh");
+                out.put(owner, new PlotStamp(rs.getLong("id"), h ^ (h >>> 29)));
+            }
+        } catch (SQLException e) {
+            System.err.println("[CHECKPOINT] Loading plot stamps failed: " + e.getMessage());
+        }
+        return out;
+    }
+
     public PlotUnlockState loadPlotUnlockState(UUID ownerId) {
         String sql = "SELECT unlocked_extra_x, unlocked_extra_y FROM plots WHERE owner_id = ?";
         // NOTE: in your original code it's unlocked_extra_y. Keeping safe fallback below.
@@ -259,6 +306,8 @@ public class PlotDAO {
     // ==========================================================
 
     public int getVoidItemCapExtra(UUID ownerId) {
+        if (!dbManager.getSchema().hasColumn("plots", "void_itemcap_extra")) return 0;
+
         String sql = "SELECT void_itemcap_extra FROM plots WHERE owner_id = ?";
         try (Connection conn = dbManager.getConnection();
              PreparedStatement ps = conn.prepareStatement(sql)) {
@@ -279,6 +328,7 @@ public class PlotDAO {
      */
     public int addVoidItemCapExtra(UUID ownerId, int delta) {
         if (ownerId == null || delta <= 0) return getVoidItemCapExtra(ownerId);
+        if (!dbManager.getSchema().hasColumn("plots", "void_itemcap_extra")) return 0;
 
         String upd =
                 "UPDATE plots SET void_itemcap_extra = GREATEST(0, void_itemcap_extra + ?) " +
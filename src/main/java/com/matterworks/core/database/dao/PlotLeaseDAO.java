@@ -0,0 +1,253 @@
+package com.matterworks.core.database.dao;
+
+import com.matterworks.core.database.DatabaseManager;
+import com.matterworks.core.database.UuidUtils;
+import com.matterworks.core.synchronization.PlotLeaseStore;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * MariaDB lease tables of the clustered mode. All expiries use the DB clock (NOW(3)),
+ * so node clocks do not need to agree.
+ *
+ * Expected schema:
+ *   plot_leases  (owner_id BINARY(16) PK, node_id VARCHAR(64) NULL, fencing_token BIGINT NOT NULL,
+ *                 expires_at DATETIME(3) NOT NULL)
+ *   cluster_nodes (node_id VARCHAR(64) PK, plots INT NOT NULL, avg_tick_ms DOUBLE NOT NULL,
+ *                  expires_at DATETIME(3) NOT NULL)
+ *   cluster_state (name VARCHAR(64) PK, value VARCHAR(255) NOT NULL, updated_at DATETIME(3) NOT NULL)
+ *                 optional, holds the "heal_done" flag; without it claims are not gated on the heal
+ *
+ * A released row has node_id NULL and expires_at = NOW(3); a parked row keeps a future
+ * expires_at, so findClaimable skips it until then.
+ */
+public class PlotLeaseDAO implements PlotLeaseStore {
+
+    private static final String EXPIRY = "TIMESTAMPADD(MICROSECOND, ? * 1000, NOW(3))";
+    private static final String STATE_TABLE = "cluster_state";
+    private static final String HEAL_DONE = "heal_done";
+
+    private final DatabaseManager db;
+
+    public PlotLeaseDAO(DatabaseManager db) {
+        this.db = db;
+    }
+
+    @Override
+    public Lease tryAcquire(UUID ownerId, String nodeId, long ttlMs) {
+        if (ownerId == null || nodeId == null) return null;
+        byte[] owner = UuidUtils.asBytes(ownerId);
+
+        try (Connection conn = db.getConnection()) {
+            // 1) never leased
+            try (PreparedStatement ps = conn.prepareStatement(
+                    "INSERT IGNORE INTO plot_leases (owner_id, node_id, fencing_token, expires_at) VALUES (?, ?, 1, " + EXPIRY + ")")) {
+                ps.setBytes(1, owner);
+                ps.setString(2, nodeId);
+                ps.setLong(3, ttlMs);
+                if (ps.executeUpdate() == 1) return new Lease(ownerId, nodeId, 1L);
+            }
+
+            // 2) released / expired (or already ours): a new holder bumps the token.
+            //    SET is evaluated left to right: the token test still sees the old node_id.
+            try (PreparedStatement ps = conn.prepareStatement(
+                    "UPDATE plot_leases SET fencing_token = IF(node_id <=> ?, fencing_token, fencing_token + 1), " +
+                            "node_id = ?, expires_at = " + EXPIRY + " " +
+                            "WHERE owner_id = ? AND (node_id IS NULL OR node_id = ? OR expires_at < NOW(3))")) {
+                ps.setString(1, nodeId);
+                ps.setString(2, nodeId);
+                ps.setLong(3, ttlMs);
+                ps.setBytes(4, owner);
+                ps.setString(5, nodeId);
+                if (ps.executeUpdate() != 1) return null;
+            }
+
+            try (PreparedStatement ps = conn.prepareStatement(
+                    "SELECT fencing_token FROM plot_leases WHERE owner_id = ? AND node_id = ?")) {
+                ps.setBytes(1, owner);
+                ps.setString(2, nodeId);
+                try (ResultSet rs = ps.executeQuery()) {
+                    return rs.next() ? new Lease(ownerId, nodeId, rs.getLong(1)) : null;
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("[CLUSTER] tryAcquire failed for " + ownerId + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    @Override
+    public Map<UUID, Long> renewAll(String nodeId, long ttlMs) {
+        try (Connection conn = db.getConnection()) {
+            try (PreparedStatement ps = conn.prepareStatement(
+                    "UPDATE plot_leases SET expires_at = " + EXPIRY + " WHERE node_id = ? AND expires_at >= NOW(3)")) {
+                ps.setLong(1, ttlMs);
+                ps.setString(2, nodeId);
+                ps.executeUpdate();
+            }
+
+            Map<UUID, Long> held = new LinkedHashMap<>();
+            try (PreparedStatement ps = conn.prepareStatement(
+                    "SELECT owner_id, fencing_token FROM plot_leases WHERE node_id = ? AND expires_at >= NOW(3)")) {
+                ps.setString(1, nodeId);
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        UUID id = UuidUtils.asUuid(rs.getBytes(1));
+                        if (id != null) held.put(id, rs.getLong(2));
+                    }
+                }
+            }
+            return held;
+        } catch (SQLException e) {
+            System.err.println("[CLUSTER] renewAll failed: " + e.getMessage());
+            return null;
+        }
+    }
+
+    @Override
+    public boolean writeFenced(UUID ownerId, String nodeId, long token, FencedWrite write) throws Exception {
+        if (ownerId == null || nodeId == null) return false;
+        return write.write(new LeaseGuard(ownerId, nodeId, token));
+    }
+
+    /**
+     * Lease check inside the caller's write transaction (autocommit off).
+     * The lease row stays locked until commit / rollback: a takeover (tryAcquire's UPDATE)
+     * waits for the write instead of slipping in between check and write.
+     * @return true when the guard's node holds a live lease with the guard's token
+     */
+    public static boolean lockHeld(Connection conn, LeaseGuard guard) throws SQLException {
+        String sql = "SELECT fencing_token FROM plot_leases WHERE owner_id = ? AND node_id = ? AND expires_at >= NOW(3) FOR UPDATE";
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setBytes(1, UuidUtils.asBytes(guard.ownerId()));
+            ps.setString(2, guard.nodeId());
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() && rs.getLong(1) == guard.token();
+            }
+        }
+    }
+
+    @Override
+    public void release(UUID ownerId, String nodeId, long token) {
+        String sql = "UPDATE plot_leases SET node_id = NULL, expires_at = NOW(3) WHERE owner_id = ? AND node_id = ? AND fencing_token = ?";
+        try (Connection conn = db.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setBytes(1, UuidUtils.asBytes(ownerId));
+            ps.setString(2, nodeId);
+            ps.setLong(3, token);
+            ps.executeUpdate();
+        } catch (SQLException e) {
+            System.err.println("[CLUSTER] release failed for " + ownerId + ": " + e.getMessage());
+        }
+    }
+
+    @Override
+    public void park(UUID ownerId, String nodeId, long token, long parkMs) {
+        String sql = "UPDATE plot_leases SET node_id = NULL, expires_at = " + EXPIRY + " WHERE owner_id = ? AND node_id = ? AND fencing_token = ?";
+        try (Connection conn = db.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setLong(1, Math.max(0L, parkMs));
+            ps.setBytes(2, UuidUtils.asBytes(ownerId));
+            ps.setString(3, nodeId);
+            ps.setLong(4, token);
+            ps.executeUpdate();
+        } catch (SQLException e) {
+            System.err.println("[CLUSTER] park failed for " + ownerId + ": " + e.getMessage());
+        }
+    }
+
+    @Override
+    public List<UUID> findClaimable(int limit) {
+        String sql =
+                "SELECT p.owner_id FROM plots p " +
+                        "LEFT JOIN plot_leases l ON l.owner_id = p.owner_id " +
+                        "WHERE p.is_active = 1 AND (l.owner_id IS NULL OR l.expires_at < NOW(3)) " +
+                        "ORDER BY p.id LIMIT ?";
+        List<UUID> out = new ArrayList<>();
+        try (Connection conn = db.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setInt(1, Math.max(1, limit));
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    UUID id = UuidUtils.asUuid(rs.getBytes(1));
+                    if (id != null) out.add(id);
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("[CLUSTER] findClaimable failed: " + e.getMessage());
+        }
+        return out;
+    }
+
+    @Override
+    public void heartbeatNode(String nodeId, int plots, double avgTickMs, long ttlMs) {
+        String sql =
+                "INSERT INTO cluster_nodes (node_id, plots, avg_tick_ms, expires_at) VALUES (?, ?, ?, " + EXPIRY + ") " +
+                        "ON DUPLICATE KEY UPDATE plots = VALUES(plots), avg_tick_ms = VALUES(avg_tick_ms), expires_at = VALUES(expires_at)";
+        try (Connection conn = db.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setString(1, nodeId);
+            ps.setInt(2, plots);
+            ps.setDouble(3, avgTickMs);
+            ps.setLong(4, ttlMs);
+            ps.executeUpdate();
+        } catch (SQLException e) {
+            System.err.println("[CLUSTER] heartbeat failed: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public void setHealDone(boolean done) {
+        if (!db.getSchema().hasTable(STATE_TABLE)) return;
+        String sql = "INSERT INTO " + STATE_TABLE + " (name, value, updated_at) VALUES (?, ?, NOW(3)) " +
+                "ON DUPLICATE KEY UPDATE value = VALUES(value), updated_at = VALUES(updated_at)";
+        try (Connection conn = db.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setString(1, HEAL_DONE);
+            ps.setString(2, done ? "1" : "0");
+            ps.executeUpdate();
+        } catch (SQLException e) {
+            System.err.println("[CLUSTER] setHealDone failed: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public boolean isHealDone() {
+        if (!db.getSchema().hasTable(STATE_TABLE)) return true;
+        String sql = "SELECT value FROM " + STATE_TABLE + " WHERE name = ?";
+        try (Connection conn = db.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setString(1, HEAL_DONE);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() && "1".equals(rs.getString(1));
+            }
+        } catch (SQLException e) {
+            System.err.println("[CLUSTER] isHealDone failed: " + e.getMessage());
+            return false;
+        }
+    }
+
+    @Override
+    public List<NodeLoad> liveNodes() {
+        String sql = "SELECT node_id, plots, avg_tick_ms FROM cluster_nodes WHERE expires_at >= NOW(3)";
+        List<NodeLoad> out = new ArrayList<>();
+        try (Connection conn = db.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql);
+             ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                out.add(new NodeLoad(rs.getString(1), rs.getInt(2), rs.getDouble(3)));
+            }
+        } catch (SQLException e) {
+            System.err.println("[CLUSTER] liveNodes failed: " + e.getMessage());
+        }
+        return out;
+    }
+}
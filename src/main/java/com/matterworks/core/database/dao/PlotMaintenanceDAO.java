@@ -3,6 +3,7 @@ package com.matterworks.core.database.dao;
 import com.matterworks.core.database.DatabaseManager;
 import com.matterworks.core.database.UuidUtils;
 import com.matterworks.core.domain.machines.base.PlacedMachine;
+import com.matterworks.core.synchronization.PlotLeaseStore;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
@@ -25,6 +26,8 @@ public class PlotMaintenanceDAO {
         Long plotId = findPlotIdByOwner(ownerId);
         if (plotId == null) return 0;
 
+        if (!db.getSchema().hasColumn("plots", "item_placed")) return countPlotMachines(plotId);
+
         String sql = "SELECT item_placed FROM plots WHERE id = ?";
         try (Connection conn = db.getConnection();
              PreparedStatement ps = conn.prepareStatement(sql)) {
@@ -72,6 +75,43 @@ public class PlotMaintenanceDAO {
         }
     }
 
+    /**
+     * Clustered mode: metadata of one plot, written in one transaction that first locks the
+     * plot's lease row (PlotLeaseDAO.lockHeld).
+     * @return false when the lease is no longer ours (rolled back, nothing written)
+     */
+    public boolean updateMachinesMetadataFenced(UUID ownerId, List<PlacedMachine> machines, PlotLeaseStore.LeaseGuard guard) {
+        String sql = "UPDATE plot_machines SET metadata = ? WHERE id = ?";
+
+        try (Connection conn = db.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                if (!PlotLeaseDAO.lockHeld(conn, guard)) {
+                    conn.rollback();
+                    return false;
+                }
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                    for (PlacedMachine pm : machines) {
+                        if (pm == null || pm.getDbId() == null) continue;
+                        stmt.setString(1, pm.serialize().toString());
+                        stmt.setLong(2, pm.getDbId());
+                        stmt.addBatch();
+                    }
+                    stmt.executeBatch();
+                }
+                conn.commit();
+                return true;
+            } catch (SQLException ex) {
+                try { conn.rollback(); } catch (SQLException ignored) {}
+                throw ex;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to update machines metadata for ownerId=" + ownerId, e);
+        }
+    }
+
     public void clearPlotData(UUID ownerId) {
         if (ownerId == null) return;
 
@@ -0,0 +1,119 @@
+package com.matterworks.core.database.dao;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.matterworks.core.database.DatabaseManager;
+import com.matterworks.core.database.SchemaCapabilities;
+import com.matterworks.core.domain.matter.MatterColor;
+import com.matterworks.core.domain.matter.MatterEffect;
+import com.matterworks.core.domain.matter.MatterIds;
+import com.matterworks.core.domain.matter.MatterPayload;
+import com.matterworks.core.domain.matter.MatterShape;
+import com.matterworks.core.domain.matter.RecipeBook;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Loads processor recipe overrides from DB (table recipe_definitions, optional).
+ *
+ * Columns:
+ * - machine_type  (VARCHAR) machine type id, e.g. "chromator"
+ * - input_a       (JSON payload, same format as plot metadata items)
+ * - input_b       (JSON payload, NULL for one-input machines)
+ * - output        (JSON payload, NULL = remove this input combination)
+ * - process_ticks (INT, optional; NULL/0 = machine type default)
+ *
+ * Rows are compiled over the built-in recipes by RecipeBook. Only SQL NULL means "one input" /
+ * "remove": a payload that does not parse skips the whole row, it never deletes a recipe.
+ */
+public class RecipeDefinitionDAO {
+
+    private static final String TABLE = "recipe_definitions";
+
+    // parseItemId results besides a real item id
+    private static final int NULL_ITEM = -1;
+    private static final int INVALID_ITEM = -2;
+
+    private final DatabaseManager db;
+
+    public RecipeDefinitionDAO(DatabaseManager db) {
+        this.db = db;
+    }
+
+    public List<RecipeBook.Definition> loadAll() {
+        List<RecipeBook.Definition> out = new ArrayList<>();
+
+        SchemaCapabilities schema = db.getSchema();
+        if (!schema.hasTable(TABLE)) return out;
+
+        boolean hasTicks = schema.hasColumn(TABLE, "process_ticks");
+
+        String sql = "SELECT machine_type, input_a, input_b, output"
+                + (hasTicks ? ", process_ticks" : "")
+                + " FROM " + TABLE;
+
+        try (Connection conn = db.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql);
+             ResultSet rs = ps.executeQuery()) {
+
+            while (rs.next()) {
+                String type = rs.getString("machine_type");
+                if (type == null || type.isBlank()) continue;
+
+                int a = parseItemId(rs.getString("input_a"));
+                if (a < 0) {
+                    System.err.println("⚠️ Invalid input_a in " + TABLE + " for " + type);
+                    continue;
+                }
+                int b = parseItemId(rs.getString("input_b"));
+                if (b == INVALID_ITEM) {
+                    System.err.println("⚠️ Invalid input_b in " + TABLE + " for " + type + ", row skipped");
+                    continue;
+                }
+                int output = parseItemId(rs.getString("output"));
+                if (output == INVALID_ITEM) {
+                    System.err.println("⚠️ Invalid output in " + TABLE + " for " + type + ", row skipped");
+                    continue;
+                }
+
+                int ticks = 0;
+                if (hasTicks) {
+                    ticks = rs.getInt("process_ticks");
+                    if (rs.wasNull()) ticks = 0;
+                }
+
+                out.add(new RecipeBook.Definition(type.trim(), a, b, output, ticks));
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+
+        return out;
+    }
+
+    /** @return the MatterIds id of a JSON payload, NULL_ITEM for SQL / JSON null, INVALID_ITEM otherwise */
+    private static int parseItemId(String json) {
+        if (json == null || "null".equalsIgnoreCase(json.trim())) return NULL_ITEM;
+        try {
+            JsonElement el = JsonParser.parseString(json);
+            if (!el.isJsonObject()) return INVALID_ITEM;
+            JsonObject o = el.getAsJsonObject();
+            // fromJson falls back to a RAW cube on unknown names: check them here so a typo is rejected
+            if (o.has("shape") && !o.get("shape").isJsonNull()) MatterShape.valueOf(o.get("shape").getAsString());
+            if (o.has("color")) MatterColor.valueOf(o.get("color").getAsString());
+            if (o.has("effects")) {
+                for (JsonElement e : o.getAsJsonArray("effects")) MatterEffect.valueOf(e.getAsString());
+            }
+            return MatterIds.of(MatterPayload.fromJson(o));
+        } catch (Exception e) {
+            System.err.println("⚠️ JSON Parse Error in RecipeDefinitionDAO: " + json);
+            return INVALID_ITEM;
+        }
+    }
+}
@@ -1,36 +1,256 @@
 package com.matterworks.core.database.dao;
 
 import com.matterworks.core.database.DatabaseManager;
-import com.matterworks.core.database.dao.SqlCompat;
+import com.matterworks.core.database.SchemaCapabilities;
 import com.matterworks.core.ui.ServerConfig;
+import com.matterworks.core.ui.ServerGameState;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
 
 public class ServerGameStateDAO {
 
     private final DatabaseManager db;
 
+    // Columns usable as a cheap change marker (first one present in the row wins)
+    private static final String[] REVISION_COLUMNS = {"updated_at", "version", "state_version"};
+
+    // Discovered by loadGameState(): null = no revision column, change detection needs a full load
+    private volatile String revisionColumn;
+
+    private static final String TABLE = "server_gamestate";
+
+    private static final String[] ACTIVE_FACTION_COLUMNS = {"active_faction_id", "active_factionid", "active_faction_code"};
+
+    // Optional loadServerConfig columns: {alias, candidate names (legacy spellings)...}
+    private static final String[][] CONFIG_OPTIONAL_COLUMNS = {
+            {"max_inventory_machine", "max_inventory_machine"},
+            {"plot_start_vein_cluster_radius_pct", "plot_start_vein_cluster_radius_pct", "Plot_Start_Vein_Cluster_Radius_Pct", "plotStartVeinClusterRadiusPct"},
+            {"plot_start_x", "plot_start_x", "Plot_Starting_X", "plot_starting_x"},
+            {"plot_start_y", "plot_start_y", "Plot_Starting_Y", "plot_starting_y"},
+            {"plot_max_x", "plot_max_x", "Plot_Max_X"},
+            {"plot_max_y", "plot_max_y", "Plot_Max_Y"},
+            {"plot_inc_x", "plot_increase_x", "Plot_IncreaseX", "Plot_Increase_X", "plot_increasex"},
+            {"plot_inc_y", "plot_increase_y", "Plot_IncreaseY", "Plot_Increase_Y", "plot_increasey"},
+            {"plot_start_vein_raw", "plot_start_vein_raw", "Plot_Start_Vein_Raw", "plotStartVeinRaw"},
+            {"plot_start_vein_red", "plot_start_vein_red", "Plot_Start_Vein_Red", "plotStartVeinRed"},
+            {"plot_start_vein_blue", "plot_start_vein_blue", "Plot_Start_Vein_Blue", "plotStartVeinBlue"},
+            {"plot_start_vein_yellow", "plot_start_vein_yellow", "Plot_Start_Vein_Yellow", "plotStartVeinYellow"},
+            {"plot_height_start", "plot_height_start", "Plot_Height_Start", "plotHeightStart"},
+            {"plot_height_max", "plot_height_max", "Plot_Height_Max", "plotHeightMax"},
+            {"plot_height_inc_per_prestige", "plot_height_increase_per_prestige", "Plot_Height_Increase_Per_Prestige", "plotHeightIncreasePerPrestige"},
+            {"prestige_void_coins_add", "prestige_void_coins_add"},
+            {"prestige_plot_bonus", "prestige_plotbonus", "prestige_plot_bonus"},
+            {"prestige_sell_k", "prestige_sell_k"},
+            {"prestige_action_cost_base", "prestige_action_cost_base"},
+            {"prestige_action_cost_mult", "prestige_action_cost_mult"},
+            {"enable_faction_price_multiplier", "enable_faction_price_multiplier"},
+            {"enable_prestige_sell_multiplier", "enable_prestige_sell_multiplier"},
+            {"enable_voidshop_boosters", "enable_voidshop_boosters"},
+    };
+
+    /**
+     * Final SQL text of the schema-dependent statements, derived once from SchemaCapabilities
+     * (null = the column is missing, the caller returns its default without querying).
+     */
+    private record Statements(String selectActiveFaction, String updateActiveFaction,
+                              String selectVoidItemCapStep, String selectConfig, Set<String> configAliases) {
+
+        static Statements derive(SchemaCapabilities schema) {
+            String faction = schema.firstColumn(TABLE, ACTIVE_FACTION_COLUMNS);
+            String voidStep = schema.firstColumn(TABLE, "itemcap_void_increase_step", "void_itemcap_increase_step");
+
+            StringBuilder sql = new StringBuilder("SELECT player_start_money, vein_raw, vein_red, vein_blue, vein_yellow, sos_threshold");
+            Set<String> aliases = new HashSet<>();
+            for (String[] spec : CONFIG_OPTIONAL_COLUMNS) {
+                String col = schema.firstColumn(TABLE, Arrays.copyOfRange(spec, 1, spec.length));
+                if (col == null) continue;
+                sql.append(", ").append(col).append(" AS ").append(spec[0]);
+                aliases.add(spec[0]);
+            }
+            sql.append(" FROM ").append(TABLE).append(" WHERE id = 1");
+
+            return new Statements(
+                    (faction != null) ? "SELECT " + faction + " FROM " + TABLE + " WHERE id = 1" : null,
+                    (faction != null) ? "UPDATE " + TABLE + " SET " + faction + " = ? WHERE id = 1" : null,
+                    (voidStep != null) ? "SELECT " + voidStep + " FROM " + TABLE + " WHERE id = 1" : null,
+                    sql.toString(),
+                    Set.copyOf(aliases));
+        }
+    }
+
+    private volatile Statements statements;
+
     public ServerGameStateDAO(DatabaseManager db) {
         this.db = db;
     }
 
+    private Statements statements() {
+        Statements s = statements;
+        if (s != null) return s;
+
+        SchemaCapabilities schema = db.getSchema();
+        s = Statements.derive(schema);
+        if (schema.isProbed()) statements = s; // unprobed: derive again once the DB answers
+        return s;
+    }
+
+    // ==========================================================
+    // SNAPSHOT (single query for every runtime setting)
+    // ==========================================================
+
+    /**
+     * Reads the whole server_gamestate row once and maps it to an immutable snapshot.
+     * Missing columns (older DBs) fall back to the same defaults the single getters use.
+     *
+     * @return null if the DB could not be read (callers keep their previous snapshot)
+     */
+    public ServerGameState loadGameState() {
+        String sql = "SELECT * FROM server_gamestate WHERE id = 1";
+        try (Connection conn = db.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql);
+             ResultSet rs = ps.executeQuery()) {
+
+            if (!rs.next()) return ServerGameState.defaults();
+
+            Map<String, Integer> cols = columnIndex(rs.getMetaData());
+
+            String rev = null;
+            for (String c : REVISION_COLUMNS) {
+                if (cols.containsKey(c)) { rev = c; break; }
+            }
+            revisionColumn = rev;
+
+            int defaultCap = Math.max(1, getInt(rs, cols, 1000, "default_item_placed_on_plot"));
+            int capStep = Math.max(0, getInt(rs, cols, 0, "itemcap_increase_step"));
+            int voidCapStep = Math.max(0, getInt(rs, cols, 0, "itemcap_void_increase_step", "void_itemcap_increase_step"));
+            int maxCap = getInt(rs, cols, 0, "max_item_placed_on_plot");
+            if (maxCap <= 0) maxCap = Integer.MAX_VALUE;
+
+            int minutesToInactive = Math.max(1, getInt(rs, cols, 5, "minutestoinactive"));
+            int voidBreaker = Math.max(0, getInt(rs, cols, 0, "void_plotitembreaker_increased"));
+
+            long ocEnd = Math.max(0L, getLong(rs, cols, 0L, "global_overclock_end_ms"));
+            double ocMult = getDouble(rs, cols, 1.0, "global_overclock_multiplier");
+            if (Double.isNaN(ocMult) || Double.isInfinite(ocMult) || ocMult <= 0.0) ocMult = 1.0;
+            long ocDur = Math.max(0L, getLong(rs, cols, 0L, "global_overclock_last_duration_seconds"));
+
+            int rotationHours = Math.max(0, getInt(rs, cols, 0, "faction_rotation_hours"));
+            int activeFaction = resolveActiveFaction(conn,
+                    getString(rs, cols, "active_faction_id", "active_factionid", "active_faction_code"));
+
+            return new ServerGameState(
+                    defaultCap, capStep, voidCapStep, maxCap,
+                    minutesToInactive, voidBreaker,
+                    ocEnd, ocMult, ocDur,
+                    rotationHours, activeFaction
+            );
+
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    /**
+     * Cheap change probe: value of the revision column (updated_at / version).
+     * @return null when the table has no revision column or the read failed
+     */
+    public String loadRevision() {
+        String col = revisionColumn;
+        if (col == null) return null;
+
+        String sql = "SELECT " + col + " FROM server_gamestate WHERE id = 1";
+        try (Connection conn = db.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql);
+             ResultSet rs = ps.executeQuery()) {
+            if (rs.next()) return String.valueOf(rs.getObject(1));
+        } catch (SQLException e) {
+            if (!SqlCompat.isUnknownColumn(e)) e.printStackTrace();
+            else revisionColumn = null;
+        }
+        return null;
+    }
+
+    public boolean hasRevisionColumn() {
+        return revisionColumn != null;
+    }
+
+    private static Map<String, Integer> columnIndex(ResultSetMetaData md) throws SQLException {
+        int n = md.getColumnCount();
+        Map<String, Integer> out = new HashMap<>(n * 2);
+        for (int i = 1; i <= n; i++) {
+            out.putIfAbsent(md.getColumnLabel(i).toLowerCase(Locale.ROOT), i);
+        }
+        return out;
+    }
+
+    private static Integer firstIndex(Map<String, Integer> cols, String... names) {
+        for (String n : names) {
+            Integer idx = cols.get(n.toLowerCase(Locale.ROOT));
+            if (idx != null) return idx;
+        }
+        return null;
+    }
+
+    private static int getInt(ResultSet rs, Map<String, Integer> cols, int def, String... names) throws SQLException {
+        Integer idx = firstIndex(cols, names);
+        if (idx == null) return def;
+        int v = rs.getInt(idx);
+        return rs.wasNull() ? def : v;
+    }
+
+    private static long getLong(ResultSet rs, Map<String, Integer> cols, long def, String... names) throws SQLException {
+        Integer idx = firstIndex(cols, names);
+        if (idx == null) return def;
+        long v = rs.getLong(idx);
+        return rs.wasNull() ? def : v;
+    }
+
+    private static double getDouble(ResultSet rs, Map<String, Integer> cols, double def, String... names) throws SQLException {
+        Integer idx = firstIndex(cols, names);
+        if (idx == null) return def;
+        double v = rs.getDouble(idx);
+        return rs.wasNull() ? def : v;
+    }
+
+    private static String getString(ResultSet rs, Map<String, Integer> cols, String... names) throws SQLException {
+        Integer idx = firstIndex(cols, names);
+        return (idx == null) ? null : rs.getString(idx);
+    }
+
+    private static int resolveActiveFaction(Connection conn, String raw) {
+        if (raw == null) return 1;
+        String v = raw.trim();
+        if (v.isEmpty()) return 1;
+
+        Integer asInt = tryParseInt(v);
+        if (asInt != null) return Math.max(1, asInt);
+
+        int resolved = resolveFactionIdByCodeOrName(conn, v);
+        return (resolved > 0) ? resolved : 1;
+    }
+
     // ==========================================================
     // FACTION ROTATION / ACTIVE FACTION
     // ==========================================================
     public int getActiveFactionId() {
 
-        try (Connection conn = db.getConnection()) {
+        // Supports legacy column names too (resolved once in Statements)
+        String sql = statements().selectActiveFaction();
+        if (sql == null) return 1;
 
-            // Support legacy column names too
-            String col = SqlCompat.firstExistingColumn(conn, "server_gamestate",
-                    "active_faction_id", "active_factionid", "active_faction_code");
-            if (col == null) return 1;
+        try (Connection conn = db.getConnection()) {
 
-            String sql = "SELECT " + col + " FROM server_gamestate WHERE id = 1";
             try (PreparedStatement ps = conn.prepareStatement(sql);
                  ResultSet rs = ps.executeQuery()) {
 
@@ -63,13 +283,11 @@ public class ServerGameStateDAO {
 
         int v = Math.max(1, factionId);
 
-        try (Connection conn = db.getConnection()) {
+        String sql = statements().updateActiveFaction();
+        if (sql == null) return;
 
-            String col = SqlCompat.firstExistingColumn(conn, "server_gamestate",
-                    "active_faction_id", "active_factionid", "active_faction_code");
-            if (col == null) return;
+        try (Connection conn = db.getConnection()) {
 
-            String sql = "UPDATE server_gamestate SET " + col + " = ? WHERE id = 1";
             try (PreparedStatement ps = conn.prepareStatement(sql)) {
                 // write as String to support both VARCHAR and INT columns safely
                 ps.setString(1, String.valueOf(v));
@@ -162,26 +380,17 @@ public class ServerGameStateDAO {
      * If the column does not exist (older DB), returns 0.
      */
     public int getVoidItemCapIncreaseStep() {
-        String sql = "SELECT itemcap_void_increase_step FROM server_gamestate WHERE id = 1";
-        try (Connection conn = db.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql);
-             ResultSet rs = ps.executeQuery()) {
-
-            if (rs.next()) return Math.max(0, rs.getInt("itemcap_void_increase_step"));
-        } catch (SQLException e) {
-            if (!SqlCompat.isUnknownColumn(e)) e.printStackTrace();
-        }
+        String sql = statements().selectVoidItemCapStep();
+        if (sql == null) return 0;
 
-        String sql2 = "SELECT void_itemcap_increase_step FROM server_gamestate WHERE id = 1";
         try (Connection conn = db.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql2);
+             PreparedStatement ps = conn.prepareStatement(sql);
              ResultSet rs = ps.executeQuery()) {
 
-            if (rs.next()) return Math.max(0, rs.getInt("void_itemcap_increase_step"));
+            if (rs.next()) return Math.max(0, rs.getInt(1));
         } catch (SQLException e) {
             if (!SqlCompat.isUnknownColumn(e)) e.printStackTrace();
         }
-
         return 0;
     }
 
@@ -247,95 +456,12 @@ public class ServerGameStateDAO {
         boolean enablePrestigeSellMultiplier = true;
         boolean enableVoidShopBoosters = true;
 
+        Statements st = statements();
+        Set<String> has = st.configAliases();
+
         try (Connection conn = db.getConnection()) {
 
-            boolean hasMaxInv = SqlCompat.columnExists(conn, "server_gamestate", "max_inventory_machine");
-
-            String colStartVeinClusterPct = SqlCompat.firstExistingColumn(conn, "server_gamestate",
-                    "plot_start_vein_cluster_radius_pct", "Plot_Start_Vein_Cluster_Radius_Pct", "plotStartVeinClusterRadiusPct");
-
-            String colPlotStartX = SqlCompat.firstExistingColumn(conn, "server_gamestate",
-                    "plot_start_x", "Plot_Starting_X", "plot_starting_x");
-            String colPlotStartY = SqlCompat.firstExistingColumn(conn, "server_gamestate",
-                    "plot_start_y", "Plot_Starting_Y", "plot_starting_y");
-            String colPlotMaxX = SqlCompat.firstExistingColumn(conn, "server_gamestate",
-                    "plot_max_x", "Plot_Max_X", "plot_max_x");
-            String colPlotMaxY = SqlCompat.firstExistingColumn(conn, "server_gamestate",
-                    "plot_max_y", "Plot_Max_Y", "plot_max_y");
-            String colPlotIncX = SqlCompat.firstExistingColumn(conn, "server_gamestate",
-                    "plot_increase_x", "Plot_IncreaseX", "Plot_Increase_X", "plot_increasex");
-            String colPlotIncY = SqlCompat.firstExistingColumn(conn, "server_gamestate",
-                    "plot_increase_y", "Plot_IncreaseY", "Plot_Increase_Y", "plot_increasey");
-
-            String colStartVeinRaw = SqlCompat.firstExistingColumn(conn, "server_gamestate",
-                    "plot_start_vein_raw", "Plot_Start_Vein_Raw", "plotStartVeinRaw");
-            String colStartVeinRed = SqlCompat.firstExistingColumn(conn, "server_gamestate",
-                    "plot_start_vein_red", "Plot_Start_Vein_Red", "plotStartVeinRed");
-            String colStartVeinBlue = SqlCompat.firstExistingColumn(conn, "server_gamestate",
-                    "plot_start_vein_blue", "Plot_Start_Vein_Blue", "plotStartVeinBlue");
-            String colStartVeinYellow = SqlCompat.firstExistingColumn(conn, "server_gamestate",
-                    "plot_start_vein_yellow", "Plot_Start_Vein_Yellow", "plotStartVeinYellow");
-
-            String colPlotHStart = SqlCompat.firstExistingColumn(conn, "server_gamestate",
-                    "plot_height_start", "Plot_Height_Start", "plotHeightStart");
-            String colPlotHMax = SqlCompat.firstExistingColumn(conn, "server_gamestate",
-                    "plot_height_max", "Plot_Height_Max", "plotHeightMax");
-            String colPlotHInc = SqlCompat.firstExistingColumn(conn, "server_gamestate",
-                    "plot_height_increase_per_prestige", "Plot_Height_Increase_Per_Prestige", "plotHeightIncreasePerPrestige");
-
-            String colPrestigeVoid = SqlCompat.firstExistingColumn(conn, "server_gamestate", "prestige_void_coins_add");
-            String colPrestigePlotBonus = SqlCompat.firstExistingColumn(conn, "server_gamestate", "prestige_plotbonus", "prestige_plot_bonus");
-            String colPrestigeSellK = SqlCompat.firstExistingColumn(conn, "server_gamestate", "prestige_sell_k");
-
-            String colPrestigeActionBase = SqlCompat.firstExistingColumn(conn, "server_gamestate", "prestige_action_cost_base");
-            String colPrestigeActionMult = SqlCompat.firstExistingColumn(conn, "server_gamestate", "prestige_action_cost_mult");
-
-            // NEW: economy debug toggles
-            String colEnableFaction = SqlCompat.firstExistingColumn(conn, "server_gamestate",
-                    "enable_faction_price_multiplier");
-            String colEnablePrestige = SqlCompat.firstExistingColumn(conn, "server_gamestate",
-                    "enable_prestige_sell_multiplier");
-            String colEnableVoidBoosters = SqlCompat.firstExistingColumn(conn, "server_gamestate",
-                    "enable_voidshop_boosters");
-
-            StringBuilder sql = new StringBuilder();
-            sql.append("SELECT ")
-                    .append("player_start_money, vein_raw, vein_red, vein_blue, vein_yellow, sos_threshold");
-
-            if (hasMaxInv) sql.append(", max_inventory_machine");
-
-            if (colStartVeinClusterPct != null) sql.append(", ").append(colStartVeinClusterPct).append(" AS plot_start_vein_cluster_radius_pct");
-
-            if (colPlotStartX != null) sql.append(", ").append(colPlotStartX).append(" AS plot_start_x");
-            if (colPlotStartY != null) sql.append(", ").append(colPlotStartY).append(" AS plot_start_y");
-            if (colPlotMaxX != null) sql.append(", ").append(colPlotMaxX).append(" AS plot_max_x");
-            if (colPlotMaxY != null) sql.append(", ").append(colPlotMaxY).append(" AS plot_max_y");
-            if (colPlotIncX != null) sql.append(", ").append(colPlotIncX).append(" AS plot_inc_x");
-            if (colPlotIncY != null) sql.append(", ").append(colPlotIncY).append(" AS plot_inc_y");
-
-            if (colStartVeinRaw != null) sql.append(", ").append(colStartVeinRaw).append(" AS plot_start_vein_raw");
-            if (colStartVeinRed != null) sql.append(", ").append(colStartVeinRed).append(" AS plot_start_vein_red");
-            if (colStartVeinBlue != null) sql.append(", ").append(colStartVeinBlue).append(" AS plot_start_vein_blue");
-            if (colStartVeinYellow != null) sql.append(", ").append(colStartVeinYellow).append(" AS plot_start_vein_yellow");
-
-            if (colPlotHStart != null) sql.append(", ").append(colPlotHStart).append(" AS plot_height_start");
-            if (colPlotHMax != null) sql.append(", ").append(colPlotHMax).append(" AS plot_height_max");
-            if (colPlotHInc != null) sql.append(", ").append(colPlotHInc).append(" AS plot_height_inc_per_prestige");
-
-            if (colPrestigeVoid != null) sql.append(", ").append(colPrestigeVoid).append(" AS prestige_void_coins_add");
-            if (colPrestigePlotBonus != null) sql.append(", ").append(colPrestigePlotBonus).append(" AS prestige_plot_bonus");
-            if (colPrestigeSellK != null) sql.append(", ").append(colPrestigeSellK).append(" AS prestige_sell_k");
-
-            if (colPrestigeActionBase != null) sql.append(", ").append(colPrestigeActionBase).append(" AS prestige_action_cost_base");
-            if (colPrestigeActionMult != null) sql.append(", ").append(colPrestigeActionMult).append(" AS prestige_action_cost_mult");
-
-            if (colEnableFaction != null) sql.append(", ").append(colEnableFaction).append(" AS enable_faction_price_multiplier");
-            if (colEnablePrestige != null) sql.append(", ").append(colEnablePrestige).append(" AS enable_prestige_sell_multiplier");
-            if (colEnableVoidBoosters != null) sql.append(", ").append(colEnableVoidBoosters).append(" AS enable_voidshop_boosters");
-
-            sql.append(" FROM server_gamestate WHERE id = 1");
-
-            try (PreparedStatement ps = conn.prepareStatement(sql.toString());
+            try (PreparedStatement ps = conn.prepareStatement(st.selectConfig());
                  ResultSet rs = ps.executeQuery()) {
 
                 if (rs.next()) {
@@ -346,36 +472,36 @@ public class ServerGameStateDAO {
                     veinYellow = rs.getInt("vein_yellow");
                     sosThreshold = rs.getDouble("sos_threshold");
 
-                    if (hasMaxInv) maxInventoryMachine = rs.getInt("max_inventory_machine");
+                    if (has.contains("max_inventory_machine")) maxInventoryMachine = rs.getInt("max_inventory_machine");
 
-                    if (colStartVeinClusterPct != null) plotStartVeinClusterRadiusPct = rs.getInt("plot_start_vein_cluster_radius_pct");
+                    if (has.contains("plot_start_vein_cluster_radius_pct")) plotStartVeinClusterRadiusPct = rs.getInt("plot_start_vein_cluster_radius_pct");
 
-                    if (colPlotStartX != null) plotStartingX = rs.getInt("plot_start_x");
-                    if (colPlotStartY != null) plotStartingY = rs.getInt("plot_start_y");
-                    if (colPlotMaxX != null) plotMaxX = rs.getInt("plot_max_x");
-                    if (colPlotMaxY != null) plotMaxY = rs.getInt("plot_max_y");
-                    if (colPlotIncX != null) plotIncreaseX = rs.getInt("plot_inc_x");
-                    if (colPlotIncY != null) plotIncreaseY = rs.getInt("plot_inc_y");
+                    if (has.contains("plot_start_x")) plotStartingX = rs.getInt("plot_start_x");
+                    if (has.contains("plot_start_y")) plotStartingY = rs.getInt("plot_start_y");
+                    if (has.contains("plot_max_x")) plotMaxX = rs.getInt("plot_max_x");
+                    if (has.contains("plot_max_y")) plotMaxY = rs.getInt("plot_max_y");
+                    if (has.contains("plot_inc_x")) plotIncreaseX = rs.getInt("plot_inc_x");
+                    if (has.contains("plot_inc_y")) plotIncreaseY = rs.getInt("plot_inc_y");
 
-                    if (colStartVeinRaw != null) plotStartVeinRaw = rs.getInt("plot_start_vein_raw");
-                    if (colStartVeinRed != null) plotStartVeinRed = rs.getInt("plot_start_vein_red");
-                    if (colStartVeinBlue != null) plotStartVeinBlue = rs.getInt("plot_start_vein_blue");
-                    if (colStartVeinYellow != null) plotStartVeinYellow = rs.getInt("plot_start_vein_yellow");
+                    if (has.contains("plot_start_vein_raw")) plotStartVeinRaw = rs.getInt("plot_start_vein_raw");
+                    if (has.contains("plot_start_vein_red")) plotStartVeinRed = rs.getInt("plot_start_vein_red");
+                    if (has.contains("plot_start_vein_blue")) plotStartVeinBlue = rs.getInt("plot_start_vein_blue");
+                    if (has.contains("plot_start_vein_yellow")) plotStartVeinYellow = rs.getInt("plot_start_vein_yellow");
 
-                    if (colPlotHStart != null) plotHeightStart = rs.getInt("plot_height_start");
-                    if (colPlotHMax != null) plotHeightMax = rs.getInt("plot_height_max");
-                    if (colPlotHInc != null) plotHeightIncreasePerPrestige = rs.getInt("plot_height_inc_per_prestige");
+                    if (has.contains("plot_height_start")) plotHeightStart = rs.getInt("plot_height_start");
+                    if (has.contains("plot_height_max")) plotHeightMax = rs.getInt("plot_height_max");
+                    if (has.contains("plot_height_inc_per_prestige")) plotHeightIncreasePerPrestige = rs.getInt("plot_height_inc_per_prestige");
 
-                    if (colPrestigeVoid != null) prestigeVoidCoinsAdd = rs.getInt("prestige_void_coins_add");
-                    if (colPrestigePlotBonus != null) prestigePlotBonus = rs.getInt("prestige_plot_bonus");
-                    if (colPrestigeSellK != null) prestigeSellK = rs.getDouble("prestige_sell_k");
+                    if (has.contains("prestige_void_coins_add")) prestigeVoidCoinsAdd = rs.getInt("prestige_void_coins_add");
+                    if (has.contains("prestige_plot_bonus")) prestigePlotBonus = rs.getInt("prestige_plot_bonus");
+                    if (has.contains("prestige_sell_k")) prestigeSellK = rs.getDouble("prestige_sell_k");
 
-                    if (colPrestigeActionBase != null) prestigeActionCostBase = rs.getDouble("prestige_action_cost_base");
-                    if (colPrestigeActionMult != null) prestigeActionCostMult = rs.getDouble("prestige_action_cost_mult");
+                    if (has.contains("prestige_action_cost_base")) prestigeActionCostBase = rs.getDouble("prestige_action_cost_base");
+                    if (has.contains("prestige_action_cost_mult")) prestigeActionCostMult = rs.getDouble("prestige_action_cost_mult");
 
-                    if (colEnableFaction != null) enableFactionPriceMultiplier = rs.getInt("enable_faction_price_multiplier") != 0;
-                    if (colEnablePrestige != null) enablePrestigeSellMultiplier = rs.getInt("enable_prestige_sell_multiplier") != 0;
-                    if (colEnableVoidBoosters != null) enableVoidShopBoosters = rs.getInt("enable_voidshop_boosters") != 0;
+                    if (has.contains("enable_faction_price_multiplier")) enableFactionPriceMultiplier = rs.getInt("enable_faction_price_multiplier") != 0;
+                    if (has.contains("enable_prestige_sell_multiplier")) enablePrestigeSellMultiplier = rs.getInt("enable_prestige_sell_multiplier") != 0;
+                    if (has.contains("enable_voidshop_boosters")) enableVoidShopBoosters = rs.getInt("enable_voidshop_boosters") != 0;
                 }
             }
 
@@ -1,10 +1,12 @@
 package com.matterworks.core.database.dao;
 
-import java.sql.Connection;
-import java.sql.PreparedStatement;
-import java.sql.ResultSet;
 import java.sql.SQLException;
 
+/**
+ * Compatibility helpers for the externally owned schema.
+ * Column presence is answered by SchemaCapabilities (probed once); isUnknownColumn remains
+ * as the safety net for columns dropped while the server runs.
+ */
 public final class SqlCompat {
 
     private SqlCompat() {}
@@ -13,27 +15,4 @@ public final class SqlCompat {
         String state = e.getSQLState();
         return "42S22".equals(state) || (e.getMessage() != null && e.getMessage().contains("Unknown column"));
     }
-
-    public static boolean columnExists(Connection conn, String table, String column) throws SQLException {
-        String sql =
-                "SELECT 1 FROM information_schema.COLUMNS " +
-                        "WHERE table_schema = DATABASE() " +
-                        "AND LOWER(table_name) = LOWER(?) " +
-                        "AND LOWER(column_name) = LOWER(?) " +
-                        "LIMIT 1";
-        try (PreparedStatement ps = conn.prepareStatement(sql)) {
-            ps.setString(1, table);
-            ps.setString(2, column);
-            try (ResultSet rs = ps.executeQuery()) {
-                return rs.next();
-            }
-        }
-    }
-
-    public static String firstExistingColumn(Connection conn, String table, String... candidates) throws SQLException {
-        for (String c : candidates) {
-            if (c != null && !c.isBlank() && columnExists(conn, table, c)) return c;
-        }
-        return null;
-    }
 }
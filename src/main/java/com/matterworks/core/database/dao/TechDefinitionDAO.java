@@ -3,6 +3,7 @@ package com.matterworks.core.database.dao;
 import com.google.gson.Gson;
 import com.google.gson.reflect.TypeToken;
 import com.matterworks.core.database.DatabaseManager;
+import com.matterworks.core.database.SchemaCapabilities;
 import com.matterworks.core.managers.TechManager.TechNode;
 
 import java.sql.Connection;
@@ -36,15 +37,17 @@ public class TechDefinitionDAO {
     public List<TechNode> loadAllNodes() {
         List<TechNode> out = new ArrayList<>();
 
+        SchemaCapabilities schema = db.getSchema();
+
         try (Connection conn = db.getConnection()) {
 
-            boolean hasPrestigeMult = SqlCompat.columnExists(conn, "tech_definitions", "prestige_cost_mult");
+            boolean hasPrestigeMult = schema.hasColumn("tech_definitions", "prestige_cost_mult");
 
-            boolean hasUpgradeMachineIds = SqlCompat.columnExists(conn, "tech_definitions", "upgrade_machine_ids");
-            boolean hasUpgradeToTier = SqlCompat.columnExists(conn, "tech_definitions", "upgrade_to_tier");
-            boolean hasSpeedMultiplier = SqlCompat.columnExists(conn, "tech_definitions", "speed_multiplier");
-            boolean hasNexusSellMultiplier = SqlCompat.columnExists(conn, "tech_definitions", "nexus_sell_multiplier");
-            boolean hasEnablesPrestige = SqlCompat.columnExists(conn, "tech_definitions", "enables_prestige");
+            boolean hasUpgradeMachineIds = schema.hasColumn("tech_definitions", "upgrade_machine_ids");
+            boolean hasUpgradeToTier = schema.hasColumn("tech_definitions", "upgrade_to_tier");
+            boolean hasSpeedMultiplier = schema.hasColumn("tech_definitions", "speed_multiplier");
+            boolean hasNexusSellMultiplier = schema.hasColumn("tech_definitions", "nexus_sell_multiplier");
+            boolean hasEnablesPrestige = schema.hasColumn("tech_definitions", "enables_prestige");
 
             StringBuilder sb = new StringBuilder();
             sb.append("SELECT node_id, name_display, cost_money, parent_node_ids, unlock_machine_ids");
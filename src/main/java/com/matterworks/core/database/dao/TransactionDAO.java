@@ -1,6 +1,8 @@
 package com.matterworks.core.database.dao;
 
 import com.matterworks.core.database.DatabaseManager;
+import com.matterworks.core.database.DbScheduler;
+import com.matterworks.core.database.SchemaCapabilities;
 import com.matterworks.core.database.UuidUtils;
 import com.matterworks.core.domain.player.PlayerProfile;
 
@@ -11,9 +13,10 @@ public class TransactionDAO {
 
     private final DatabaseManager db;
 
-    private volatile boolean schemaChecked = false;
-    private volatile boolean hasFactionIdColumn = false;
-    private volatile boolean hasValueColumn = false;
+    // Final INSERT text for the optional columns present in this schema, derived once
+    private record InsertShape(String sql, boolean hasFactionIdColumn, boolean hasValueColumn) {}
+
+    private volatile InsertShape insertShape;
 
     public TransactionDAO(DatabaseManager db) {
         this.db = db;
@@ -34,10 +37,10 @@ public class TransactionDAO {
     ) {
         if (p == null) return;
 
-        new Thread(() -> {
-            ensureSchemaFlags();
-
-            String sql = buildInsertSql();
+        // Economy lane: bounded concurrency instead of one raw thread per row
+        db.getScheduler().execute(DbScheduler.Lane.ECONOMY, () -> {
+            InsertShape shape = insertShape();
+            String sql = shape.sql();
 
             try (Connection conn = db.getConnection();
                  PreparedStatement ps = conn.prepareStatement(sql)) {
@@ -56,12 +59,12 @@ public class TransactionDAO {
                 ps.setBigDecimal(i++, amount != null ? amount : BigDecimal.ZERO);
                 ps.setString(i++, itemId);
 
-                if (hasFactionIdColumn) {
+                if (shape.hasFactionIdColumn()) {
                     if (factionId == null) ps.setNull(i++, Types.INTEGER);
                     else ps.setInt(i++, factionId);
                 }
 
-                if (hasValueColumn) {
+                if (shape.hasValueColumn()) {
                     if (value == null) ps.setNull(i++, Types.DECIMAL);
                     else ps.setBigDecimal(i++, value);
                 }
@@ -71,43 +74,23 @@ public class TransactionDAO {
             } catch (SQLException e) {
                 System.err.println("FAILED TO LOG TRANSACTION: " + e.getMessage());
             }
-        }).start();
-    }
-
-    private void ensureSchemaFlags() {
-        if (schemaChecked) return;
-
-        synchronized (this) {
-            if (schemaChecked) return;
-
-            boolean faction = false;
-            boolean value = false;
-
-            try (Connection conn = db.getConnection()) {
-                DatabaseMetaData meta = conn.getMetaData();
-                faction = hasColumn(meta, "transactions", "faction_id");
-                value = hasColumn(meta, "transactions", "value");
-            } catch (SQLException ignored) {
-                // If we can't check schema, we fall back to minimal insert
-            }
-
-            this.hasFactionIdColumn = faction;
-            this.hasValueColumn = value;
-            this.schemaChecked = true;
-        }
+        });
     }
 
-    private boolean hasColumn(DatabaseMetaData meta, String table, String column) throws SQLException {
-        try (ResultSet rs = meta.getColumns(null, null, table, column)) {
-            if (rs.next()) return true;
-        }
-        // Try uppercase/lowercase variants if the driver is picky
-        try (ResultSet rs = meta.getColumns(null, null, table.toUpperCase(), column.toUpperCase())) {
-            return rs.next();
-        }
+    private InsertShape insertShape() {
+        InsertShape shape = insertShape;
+        if (shape != null) return shape;
+
+        SchemaCapabilities schema = db.getSchema();
+        boolean faction = schema.hasColumn("transactions", "faction_id");
+        boolean value = schema.hasColumn("transactions", "value");
+        shape = new InsertShape(buildInsertSql(faction, value), faction, value);
+        // Unprobed schema: minimal insert for now, derived again once the DB answers
+        if (schema.isProbed()) insertShape = shape;
+        return shape;
     }
 
-    private String buildInsertSql() {
+    private static String buildInsertSql(boolean hasFactionIdColumn, boolean hasValueColumn) {
         StringBuilder cols = new StringBuilder();
         StringBuilder vals = new StringBuilder();
 
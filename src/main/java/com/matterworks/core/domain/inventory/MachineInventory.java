@@ -168,6 +168,30 @@ public class MachineInventory {
         return false;
     }
 
+    /** How many copies of newItem the slot can still take (0 if it holds something else). */
+    public int roomInSlot(int slotIndex, MatterPayload newItem) {
+        if (newItem == null || slotIndex < 0) return 0;
+        if (slotIndex >= slots.size()) return maxStackSize;
+
+        InventorySlot currentSlot = slots.get(slotIndex);
+        if (currentSlot == null) return maxStackSize;
+        if (currentSlot.item == null || !isSameItem(currentSlot.item, newItem)) return 0;
+        return Math.max(0, maxStackSize - currentSlot.count);
+    }
+
+    /** Stack insert: puts up to amount copies into the slot, returns how many went in. */
+    public int insertIntoSlot(int slotIndex, MatterPayload newItem, int amount) {
+        int n = Math.min(amount, roomInSlot(slotIndex, newItem));
+        if (n <= 0) return 0;
+
+        while (slots.size() <= slotIndex) slots.add(null);
+
+        InventorySlot currentSlot = slots.get(slotIndex);
+        if (currentSlot == null) slots.set(slotIndex, new InventorySlot(newItem, n));
+        else currentSlot.count += n;
+        return n;
+    }
+
     public void decreaseSlot(int slotIndex, int amount) {
         if (slotIndex < 0 || slotIndex >= slots.size()) return;
         if (amount <= 0) return;
@@ -0,0 +1,32 @@
+package com.matterworks.core.domain.machines.base;
+
+import com.matterworks.core.common.GridPosition;
+import com.matterworks.core.domain.matter.MatterPayload;
+
+/**
+ * Anything an item can be handed to: belts, the nexus, processors, splitters, mergers,
+ * lifts and droppers.
+ *
+ * Senders resolve the machine in front of their output and call it through this interface
+ * only (one interface call instead of an instanceof ladder over every machine type).
+ * Each receiver keeps its own rules (ports, allowed senders, slot constraints).
+ *
+ * Contract:
+ * - fromPos is the cell the item comes from, as seen by the receiver's port checks.
+ * - canAccept never mutates; a true answer may still be followed by a failed accept if the
+ *   receiver changes in between (senders always go through accept).
+ * - acceptMany moves up to count copies of the same item and returns how many were taken;
+ *   receivers with a stackable buffer take the stack in one step.
+ */
+public interface ItemAcceptor {
+
+    boolean accept(MatterPayload item, GridPosition fromPos, long currentTick);
+
+    boolean canAccept(MatterPayload item, GridPosition fromPos);
+
+    default int acceptMany(MatterPayload item, int count, GridPosition fromPos, long currentTick) {
+        int moved = 0;
+        while (moved < count && accept(item, fromPos, currentTick)) moved++;
+        return moved;
+    }
+}
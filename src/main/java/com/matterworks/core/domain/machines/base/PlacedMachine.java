@@ -5,7 +5,9 @@ import com.matterworks.core.common.Direction;
 import com.matterworks.core.common.GridPosition;
 import com.matterworks.core.common.Vector3Int;
 import com.matterworks.core.managers.GridManager;
+import com.matterworks.core.managers.PlayerStatsTable;
 import com.matterworks.core.ports.IWorldAccess;
+import com.matterworks.core.ports.VisualFrame;
 
 import java.util.Locale;
 import java.util.UUID;
@@ -24,16 +26,11 @@ public abstract class PlacedMachine implements IGridComponent {
     protected GridManager gridManager;
     protected boolean isDirty = false;
 
-    // Speed multiplier cache (overclock-only after tier-driven ticks)
-    private transient long speedCacheValidUntilMs = 0L;
-    private transient double speedCacheMultiplier = 1.0;
-    private static final long SPEED_CACHE_TTL_MS = 1000L;
-
-    // Tier-driven ticks cache (hot path for logistics)
-    private transient long ticksCacheValidUntilMs = 0L;
-    private transient long ticksCacheValue = -1L;
-    private transient long ticksCacheFallback = -1L;
-    private static final long TICKS_CACHE_TTL_MS = 1000L;
+    // Compiled player stats (tier / ticks / speed), rebuilt by GridManager on events.
+    // Hot path: one volatile load of holder.table; re-resolve only when the table changed.
+    private transient PlayerStatsTable.Holder statsHolder;
+    private transient PlayerStatsTable statsTable;
+    private transient PlayerStatsTable.MachineTypeStats typeStats;
 
     public PlacedMachine(Long dbId, UUID ownerId, String typeId, GridPosition pos, JsonObject metadata) {
         this.dbId = dbId;
@@ -100,12 +97,9 @@ public abstract class PlacedMachine implements IGridComponent {
     public void setGridContext(GridManager gm) {
         this.gridManager = gm;
         // Reset caches when context changes
-        this.speedCacheValidUntilMs = 0L;
-        this.speedCacheMultiplier = 1.0;
-
-        this.ticksCacheValidUntilMs = 0L;
-        this.ticksCacheValue = -1L;
-        this.ticksCacheFallback = -1L;
+        this.statsHolder = null;
+        this.statsTable = null;
+        this.typeStats = null;
     }
 
     public void markDirty() { this.isDirty = true; }
@@ -114,6 +108,9 @@ public abstract class PlacedMachine implements IGridComponent {
 
     public abstract void tick(long currentTick);
 
+    /** True when another object ticks this machine (belts merged into a TransportSegment): left out of the tick order. */
+    public boolean isTickDelegated() { return false; }
+
     @Override
     public void onPlace(IWorldAccess world) { }
 
@@ -135,29 +132,35 @@ public abstract class PlacedMachine implements IGridComponent {
     }
 
     // ==========================================================
-    // SPEED HELPERS (Overclock only)
+    // COMPILED STATS (tier / ticks / overclock speed)
     // ==========================================================
-    protected double getEffectiveSpeedMultiplier() {
-        if (gridManager == null) return 1.0;
+    protected PlayerStatsTable.MachineTypeStats getMachineStats() {
+        PlayerStatsTable.Holder h = statsHolder;
+        if (h == null) {
+            if (gridManager == null || ownerId == null) return null;
+            h = gridManager.getPlayerStats(ownerId);
+            statsHolder = h;
+        }
 
-        long nowMs = System.currentTimeMillis();
-        if (nowMs < speedCacheValidUntilMs) {
-            return speedCacheMultiplier;
+        PlayerStatsTable t = h.table();
+        if (t != statsTable) {
+            typeStats = t.forType(typeId);
+            statsTable = t;
         }
+        return typeStats;
+    }
 
-        double v;
+    // ==========================================================
+    // SPEED HELPERS (Overclock only)
+    // ==========================================================
+    protected double getEffectiveSpeedMultiplier() {
+        PlayerStatsTable.MachineTypeStats s;
         try {
-            v = gridManager.getEffectiveMachineSpeedMultiplier(ownerId, typeId);
+            s = getMachineStats();
         } catch (Throwable ignored) {
-            v = 1.0;
+            s = null;
         }
-
-        if (Double.isNaN(v) || Double.isInfinite(v) || v <= 0.0) v = 1.0;
-        if (v < 1.0) v = 1.0;
-
-        speedCacheMultiplier = v;
-        speedCacheValidUntilMs = nowMs + SPEED_CACHE_TTL_MS;
-        return v;
+        return (s == null) ? 1.0 : s.speedMultiplier();
     }
 
     // ==========================================================
@@ -166,28 +169,15 @@ public abstract class PlacedMachine implements IGridComponent {
     protected long getTierDrivenBaseTicks(long fallbackTicks) {
         long fb = Math.max(1L, fallbackTicks);
 
-        if (gridManager == null || ownerId == null || typeId == null || typeId.isBlank()) {
-            return fb;
-        }
-
-        long nowMs = System.currentTimeMillis();
-        if (nowMs < ticksCacheValidUntilMs && ticksCacheFallback == fb && ticksCacheValue > 0) {
-            return ticksCacheValue;
-        }
+        if (typeId == null || typeId.isBlank()) return fb;
 
-        long v;
+        PlayerStatsTable.MachineTypeStats s;
         try {
-            v = gridManager.getEffectiveMachineProcessTicks(ownerId, typeId, fb);
+            s = getMachineStats();
         } catch (Throwable ignored) {
-            v = fb;
+            s = null;
         }
-
-        if (v <= 0) v = fb;
-
-        ticksCacheValue = v;
-        ticksCacheFallback = fb;
-        ticksCacheValidUntilMs = nowMs + TICKS_CACHE_TTL_MS;
-        return v;
+        return (s == null) ? fb : s.processTicksOr(fb);
     }
 
     protected long computeAcceleratedTicks(long baseTicks) {
@@ -204,4 +194,16 @@ public abstract class PlacedMachine implements IGridComponent {
         long effectiveTicks = computeAcceleratedTicks(baseTicks);
         return currentTick + effectiveTicks;
     }
+
+    // ==========================================================
+    // VISUALS (buffered, flushed once per tick as one frame per plot)
+    // ==========================================================
+    protected final boolean visualsEnabled() {
+        return gridManager != null && gridManager.isVisualSyncEnabled();
+    }
+
+    protected final void emitVisual(VisualFrame.Kind kind, String value) {
+        if (gridManager == null) return;
+        gridManager.recordVisual(ownerId, pos, kind, value);
+    }
 }
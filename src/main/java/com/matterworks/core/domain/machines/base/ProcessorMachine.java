@@ -5,8 +5,12 @@ import com.matterworks.core.common.GridPosition;
 import com.matterworks.core.domain.inventory.MachineInventory;
 import com.matterworks.core.domain.machines.logistics.ConveyorBelt;
 import com.matterworks.core.domain.machines.production.NexusMachine;
+import com.matterworks.core.domain.matter.MatterIds;
 import com.matterworks.core.domain.matter.MatterPayload;
 import com.matterworks.core.domain.matter.Recipe;
+import com.matterworks.core.domain.matter.RecipeBook;
+import com.matterworks.core.domain.matter.RecipeTable;
+import com.matterworks.core.ports.VisualFrame;
 
 import java.util.UUID;
 
@@ -23,11 +27,21 @@ import java.util.UUID;
  * - Overclock (player/global) is still applied via scheduleAfter(), but tech-tier no longer
  *   changes speed multipliers.
  *
+ * RECIPES (table-driven):
+ * - What a job turns into comes from the RecipeTable of the machine type (GridManager's
+ *   RecipeBook): startNextJob() looks the input slots up by item id, consumes and starts.
+ * - Subclasses keep the port layout and non-recipe rules (allowsOutput).
+ *
+ * INPUT:
+ * - Subclasses only say which input slot an item from fromPos goes to (inputSlotFor);
+ *   accept / acceptMany / canAccept (ItemAcceptor) are implemented once here.
+ * - acceptMany fills the slot with a whole stack in one step.
+ *
  * Compatibility:
  * - Keeps currentRecipe field and the old flow working for machines not yet migrated.
  * - Keeps saveState() so subclasses that call it still compile.
  */
-public abstract class ProcessorMachine extends PlacedMachine {
+public abstract class ProcessorMachine extends PlacedMachine implements ItemAcceptor {
 
     public final MachineInventory inputBuffer;
     public final MachineInventory outputBuffer;
@@ -51,6 +65,10 @@ public abstract class ProcessorMachine extends PlacedMachine {
     // Runtime dirty flag (avoid JSON churn in hot path)
     private boolean runtimeStateDirty = false;
 
+    // Recipe table of this machine type, re-resolved only when the book is swapped
+    private transient RecipeBook cachedRecipeBook;
+    private transient RecipeTable cachedRecipes = RecipeTable.EMPTY;
+
     public ProcessorMachine(Long dbId, UUID ownerId, GridPosition pos, String typeId, JsonObject metadata) {
         this(dbId, ownerId, pos, typeId, metadata, 64);
     }
@@ -76,7 +94,84 @@ public abstract class ProcessorMachine extends PlacedMachine {
 
     protected abstract GridPosition getOutputPosition();
 
-    public abstract boolean insertItem(MatterPayload item, GridPosition fromPos);
+    /** Input slot for an item arriving from fromPos, or -1 if this machine refuses it there. */
+    protected abstract int inputSlotFor(MatterPayload item, GridPosition fromPos);
+
+    @Override
+    public boolean accept(MatterPayload item, GridPosition fromPos, long currentTick) {
+        int slot = inputSlotFor(item, fromPos);
+        return slot >= 0 && insertIntoBuffer(slot, item);
+    }
+
+    @Override
+    public int acceptMany(MatterPayload item, int count, GridPosition fromPos, long currentTick) {
+        if (count <= 0) return 0;
+        int slot = inputSlotFor(item, fromPos);
+        if (slot < 0) return 0;
+
+        int n = inputBuffer.insertIntoSlot(slot, item, count);
+        if (n > 0) saveState();
+        return n;
+    }
+
+    @Override
+    public boolean canAccept(MatterPayload item, GridPosition fromPos) {
+        int slot = inputSlotFor(item, fromPos);
+        return slot >= 0 && inputBuffer.roomInSlot(slot, item) > 0;
+    }
+
+    protected final RecipeTable recipes() {
+        RecipeBook book = (gridManager != null) ? gridManager.getRecipeBook() : RecipeBook.defaults();
+        if (book != cachedRecipeBook) {
+            cachedRecipeBook = book;
+            cachedRecipes = book.table(typeId);
+        }
+        return cachedRecipes;
+    }
+
+    /** True if some recipe of this machine takes the item in the given input slot. */
+    protected final boolean acceptsInput(int slotIndex, MatterPayload item) {
+        return item != null && recipes().accepts(slotIndex, MatterIds.of(item));
+    }
+
+    /** Non-recipe veto on a matched job (inputs are left untouched). */
+    protected boolean allowsOutput(int outputId) {
+        return true;
+    }
+
+    /**
+     * Starts the next job from the input slots (slot 0, plus slot 1 for two-input tables):
+     * one table lookup by item ids, then consume + startProcessing with the recipe's ticks.
+     * @return false if the slots hold no matching combination
+     */
+    protected final boolean startNextJob(long currentTick) {
+        RecipeTable table = recipes();
+
+        if (inputBuffer.getCountInSlot(0) <= 0) return false;
+        MatterPayload a = inputBuffer.getItemInSlot(0);
+        if (a == null) return false;
+
+        MatterPayload b = null;
+        int key;
+        if (table.inputCount() == 2) {
+            if (inputBuffer.getCountInSlot(1) <= 0) return false;
+            b = inputBuffer.getItemInSlot(1);
+            if (b == null) return false;
+            key = table.match(MatterIds.of(a), MatterIds.of(b));
+        } else {
+            key = table.match(MatterIds.of(a));
+        }
+        if (key < 0) return false;
+
+        int outputId = table.outputId(key);
+        if (!allowsOutput(outputId)) return false;
+
+        consumeInput(0, 1, a);
+        if (b != null) consumeInput(1, 1, b);
+
+        startProcessing(MatterIds.payloadOf(outputId), currentTick, table.ticks(key), "PROCESS_START");
+        return true;
+    }
 
     protected boolean insertIntoBuffer(int slotIndex, MatterPayload item) {
         if (item == null) return false;
@@ -121,6 +216,7 @@ public abstract class ProcessorMachine extends PlacedMachine {
         this.finishTick = scheduleAfter(currentTick, effectiveBaseTicks, reason);
 
         saveState();
+        if (visualsEnabled()) emitVisual(VisualFrame.Kind.ANIMATION, "process_start");
     }
 
     private long resolveTierDrivenProcessTicks(long fallbackTicks) {
@@ -168,6 +264,7 @@ public abstract class ProcessorMachine extends PlacedMachine {
             finishTick = -1;
 
             saveState();
+            if (visualsEnabled()) emitVisual(VisualFrame.Kind.ANIMATION, "process_end");
         }
     }
 
@@ -195,49 +292,33 @@ public abstract class ProcessorMachine extends PlacedMachine {
             return;
         }
 
-        if (neighbor instanceof ConveyorBelt belt) {
-            MatterPayload item = outputBuffer.extractFirst();
-            if (item == null) return;
-
-            boolean moved;
-            try {
-                moved = belt.insertItem(item, currentTick);
-            } catch (Throwable ignored) {
-                moved = false;
-            }
-
-            if (moved) {
-                nextEjectAttemptTick = 0;
-                saveState();
-            } else {
-                outputBuffer.insert(item);
-                nextEjectAttemptTick = currentTick + 1;
-            }
+        // Gameplay rule: processors output onto belts or straight into the nexus only
+        if (!(neighbor instanceof ConveyorBelt) && !(neighbor instanceof NexusMachine)) {
+            nextEjectAttemptTick = currentTick + 2;
             return;
         }
 
-        if (neighbor instanceof NexusMachine nexus) {
-            MatterPayload item = outputBuffer.extractFirst();
-            if (item == null) return;
+        MatterPayload item = outputBuffer.getItemInSlot(0);
+        int available = outputBuffer.getCountInSlot(0);
+        if (item == null || available <= 0) return;
 
-            boolean moved;
-            try {
-                moved = nexus.insertItem(item, this.pos);
-            } catch (Throwable ignored) {
-                moved = false;
-            }
+        // belts take one item per tick; the nexus takes the whole stack in one call
+        int batch = (neighbor instanceof ConveyorBelt) ? 1 : available;
 
-            if (moved) {
-                nextEjectAttemptTick = 0;
-                saveState();
-            } else {
-                outputBuffer.insert(item);
-                nextEjectAttemptTick = currentTick + 1;
-            }
-            return;
+        int moved;
+        try {
+            moved = ((ItemAcceptor) neighbor).acceptMany(item, batch, this.pos, currentTick);
+        } catch (Throwable ignored) {
+            moved = 0;
         }
 
-        nextEjectAttemptTick = currentTick + 2;
+        if (moved > 0) {
+            outputBuffer.decreaseSlot(0, moved);
+            nextEjectAttemptTick = 0;
+            saveState();
+        } else {
+            nextEjectAttemptTick = currentTick + 1;
+        }
     }
 
     /**
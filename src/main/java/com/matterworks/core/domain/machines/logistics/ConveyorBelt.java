@@ -4,14 +4,16 @@ import com.google.gson.JsonObject;
 import com.matterworks.core.common.Direction;
 import com.matterworks.core.common.GridPosition;
 import com.matterworks.core.common.Vector3Int;
+import com.matterworks.core.domain.machines.base.ItemAcceptor;
 import com.matterworks.core.domain.machines.base.PlacedMachine;
-import com.matterworks.core.domain.machines.base.ProcessorMachine;
-import com.matterworks.core.domain.machines.production.NexusMachine;
+import com.matterworks.core.domain.matter.MatterIds;
 import com.matterworks.core.domain.matter.MatterPayload;
+import com.matterworks.core.domain.matter.MatterShape;
+import com.matterworks.core.ports.VisualFrame;
 
 import java.util.UUID;
 
-public class ConveyorBelt extends PlacedMachine {
+public class ConveyorBelt extends PlacedMachine implements ItemAcceptor {
 
     // Fallback if DB is missing: 20 ticks => baseline 60/min behavior (your classic MK1)
     private static final long BASE_TRANSPORT_TICKS_FALLBACK = 20L;
@@ -26,10 +28,29 @@ public class ConveyorBelt extends PlacedMachine {
     private Vector3Int cachedDir;
     private GridPosition cachedOutPos;
 
+    // Visual id per MatterIds id, built once: a hop does not build strings
+    private static final String[] ITEM_VISUAL_IDS = new String[MatterIds.COUNT];
+
+    static {
+        for (int id = 0; id < MatterIds.COUNT; id++) {
+            MatterShape shape = MatterIds.shapeOf(id);
+            ITEM_VISUAL_IDS[id] = "matter:" + ((shape != null) ? shape.name() : "LIQUID")
+                    + ":" + MatterIds.colorOf(id).name()
+                    + ((MatterIds.maskOf(id) != 0) ? ":fx" : "");
+        }
+    }
+
+    // Item last reported to the visual buffer (a hop is recorded only when it changes)
+    private transient MatterPayload shownItem;
+
     private transient long neighborCacheValidUntilTick = Long.MIN_VALUE;
     private transient PlacedMachine cachedNeighbor = null;
     private static final long NEIGHBOR_CACHE_TTL_TICKS = 20L;
 
+    // Straight runs are simulated by a TransportSegment: while set, the items live there
+    private transient volatile TransportSegment segment;
+    private transient int segmentIndex;
+
     public ConveyorBelt(Long dbId, UUID ownerId, GridPosition pos, String typeId, JsonObject metadata) {
         super(dbId, ownerId, typeId, pos, metadata);
         this.dimensions = Vector3Int.one();
@@ -87,13 +108,38 @@ public class ConveyorBelt extends PlacedMachine {
         this.cachedNeighbor = null;
     }
 
-    public synchronized boolean insertItem(MatterPayload item, long currentTick) {
+    /** Belts take items from any side; fromPos is not checked. */
+    @Override
+    public boolean accept(MatterPayload item, GridPosition fromPos, long currentTick) {
+        if (item == null) return false;
+
+        TransportSegment s = segment;
+        if (s != null) return s.insert(segmentIndex, item, currentTick);
+
+        synchronized (this) {
+            return insertOwn(item, currentTick);
+        }
+    }
+
+    @Override
+    public boolean canAccept(MatterPayload item, GridPosition fromPos) {
         if (item == null) return false;
 
+        TransportSegment s = segment;
+        if (s != null) return s.hasRoom(segmentIndex);
+
+        synchronized (this) {
+            return queuedItem == null;
+        }
+    }
+
+    private boolean insertOwn(MatterPayload item, long currentTick) {
+
         if (this.currentItem == null) {
             this.currentItem = item;
             this.currentItemJsonCache = null;
             this.arrivalTick = scheduleAfter(currentTick, computeTransportBaseTicks(), "BELT_MOVE");
+            syncItemVisual();
             return true;
         }
 
@@ -108,6 +154,12 @@ public class ConveyorBelt extends PlacedMachine {
 
     @Override
     public void tick(long currentTick) {
+        TransportSegment s = segment;
+        if (s != null) {
+            if (segmentIndex == s.length() - 1) s.tick(currentTick);
+            return;
+        }
+
         if (currentItem == null && queuedItem != null) {
             currentItem = queuedItem;
             currentItemJsonCache = null;
@@ -116,6 +168,7 @@ public class ConveyorBelt extends PlacedMachine {
             queuedItemJsonCache = null;
 
             arrivalTick = scheduleAfter(currentTick, computeTransportBaseTicks(), "BELT_MOVE");
+            syncItemVisual();
         }
 
         if (currentItem == null) return;
@@ -135,7 +188,12 @@ public class ConveyorBelt extends PlacedMachine {
         return Math.max(1L, base);
     }
 
-    private PlacedMachine getNeighborCached(long currentTick) {
+    /** Transport ticks of one belt hop, overclock included (same value scheduleAfter adds). */
+    long transportDelay() {
+        return computeAcceleratedTicks(computeTransportBaseTicks());
+    }
+
+    PlacedMachine getNeighborCached(long currentTick) {
         if (currentTick < neighborCacheValidUntilTick) return cachedNeighbor;
 
         PlacedMachine n = getNeighborAt(cachedOutPos);
@@ -153,15 +211,7 @@ public class ConveyorBelt extends PlacedMachine {
             return;
         }
 
-        boolean moved;
-        if (neighbor instanceof ConveyorBelt nextBelt) moved = nextBelt.insertItem(currentItem, currentTick);
-        else if (neighbor instanceof NexusMachine nexus) moved = nexus.insertItem(currentItem, this.pos);
-        else if (neighbor instanceof ProcessorMachine processor) moved = processor.insertItem(currentItem, this.pos);
-        else if (neighbor instanceof Splitter splitter) moved = splitter.insertItem(currentItem, this.pos);
-        else if (neighbor instanceof Merger merger) moved = merger.insertItem(currentItem, this.pos);
-        else if (neighbor instanceof LiftMachine lift) moved = lift.insertItem(currentItem, this.pos);
-        else if (neighbor instanceof DropperMachine dropper) moved = dropper.insertItem(currentItem, this.pos);
-        else moved = false;
+        boolean moved = deliver(neighbor, currentItem, currentTick, this.pos);
 
         if (moved) {
             this.currentItem = null;
@@ -177,13 +227,73 @@ public class ConveyorBelt extends PlacedMachine {
 
                 this.arrivalTick = scheduleAfter(currentTick, computeTransportBaseTicks(), "BELT_MOVE");
             }
+            syncItemVisual();
         } else {
             arrivalTick = currentTick + 1;
         }
     }
 
+    /** Hands item to whatever is in front of a belt (from = position of that belt). */
+    static boolean deliver(PlacedMachine neighbor, MatterPayload item, long currentTick, GridPosition from) {
+        return neighbor instanceof ItemAcceptor target && target.accept(item, from, currentTick);
+    }
+
+
+    private void syncItemVisual() {
+        showItem(currentItem);
+    }
+
+    /** Belt hop: the item shown on this belt (coalesced per tick by the visual buffer). */
+    void showItem(MatterPayload item) {
+        if (item == shownItem || !visualsEnabled()) return;
+        shownItem = item;
+        emitVisual(VisualFrame.Kind.VISUAL, (item == null) ? "" : ITEM_VISUAL_IDS[MatterIds.of(item)]);
+    }
+
+    // ==========================================================
+    // TRANSPORT SEGMENT (same package: TransportSegment)
+    // ==========================================================
+
+    /** Only the head of a segment ticks (for the whole line). */
+    @Override
+    public boolean isTickDelegated() {
+        TransportSegment s = segment;
+        return s != null && segmentIndex != s.length() - 1;
+    }
+
+    public TransportSegment getSegment() { return segment; }
+
+    void joinSegment(TransportSegment s, int index) {
+        this.segmentIndex = index;
+        this.segment = s;
+    }
+
+    void leaveSegment(TransportSegment s) {
+        if (this.segment == s) this.segment = null;
+    }
+
+    // callers hold the belt monitor (reads) or go through setItems
+    MatterPayload currentItem() { return currentItem; }
+    MatterPayload queuedItem() { return queuedItem; }
+    long arrivalTick() { return arrivalTick; }
+
+    synchronized void setItems(MatterPayload current, long arrival, MatterPayload queued) {
+        if (current != this.currentItem) this.currentItemJsonCache = null;
+        if (queued != this.queuedItem) this.queuedItemJsonCache = null;
+        this.currentItem = current;
+        this.arrivalTick = (current != null) ? arrival : -1L;
+        this.queuedItem = queued;
+    }
+
     @Override
-    public synchronized JsonObject serialize() {
+    public JsonObject serialize() {
+        // expand the segment's view of this cell first (lock order: segment -> belt)
+        TransportSegment s = segment;
+        if (s != null) s.exportCell(segmentIndex);
+        return serializeOwn();
+    }
+
+    private synchronized JsonObject serializeOwn() {
         if (currentItem != null) {
             if (currentItemJsonCache == null) {
                 try { currentItemJsonCache = currentItem.serialize(); } catch (Throwable ignored) { currentItemJsonCache = null; }
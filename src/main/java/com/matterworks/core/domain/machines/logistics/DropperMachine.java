@@ -6,9 +6,8 @@ import com.google.gson.JsonObject;
 import com.matterworks.core.common.Direction;
 import com.matterworks.core.common.GridPosition;
 import com.matterworks.core.common.Vector3Int;
+import com.matterworks.core.domain.machines.base.ItemAcceptor;
 import com.matterworks.core.domain.machines.base.PlacedMachine;
-import com.matterworks.core.domain.machines.base.ProcessorMachine;
-import com.matterworks.core.domain.machines.production.NexusMachine;
 import com.matterworks.core.domain.matter.MatterPayload;
 
 import java.util.UUID;
@@ -26,7 +25,7 @@ import java.util.UUID;
  * - Avoid MachineInventory + JSON churn in tick().
  * - Serialize state only in serialize(), and only when dirty.
  */
-public class DropperMachine extends PlacedMachine {
+public class DropperMachine extends PlacedMachine implements ItemAcceptor {
 
     // Fallback if DB missing
     private static final long TRANSPORT_TICKS_FALLBACK = 5L;
@@ -117,20 +116,8 @@ public class DropperMachine extends PlacedMachine {
 
         boolean moved = false;
 
-        if (neighbor instanceof ConveyorBelt belt) {
-            moved = belt.insertItem(storedItem, currentTick);
-        } else if (neighbor instanceof NexusMachine nexus) {
-            moved = nexus.insertItem(storedItem, this.pos);
-        } else if (neighbor instanceof ProcessorMachine proc) {
-            moved = proc.insertItem(storedItem, this.pos);
-        } else if (neighbor instanceof Splitter split) {
-            moved = split.insertItem(storedItem, this.pos);
-        } else if (neighbor instanceof Merger merger) {
-            moved = merger.insertItem(storedItem, this.pos);
-        } else if (neighbor instanceof LiftMachine lift) {
-            moved = lift.insertItem(storedItem, this.pos);
-        } else if (neighbor instanceof DropperMachine dropper) {
-            moved = dropper.insertItem(storedItem, this.pos);
+        if (neighbor instanceof ItemAcceptor target) {
+            moved = target.accept(storedItem, this.pos, currentTick);
         }
 
         if (moved) {
@@ -145,7 +132,20 @@ public class DropperMachine extends PlacedMachine {
         }
     }
 
-    public boolean insertItem(MatterPayload item, GridPosition fromPos) {
+    @Override
+    public boolean accept(MatterPayload item, GridPosition fromPos, long currentTick) {
+        if (!canAccept(item, fromPos)) return false;
+
+        storedItem = item;
+        storedItemJsonCache = null;
+
+        runtimeStateDirty = true;
+        markDirty();
+        return true;
+    }
+
+    @Override
+    public boolean canAccept(MatterPayload item, GridPosition fromPos) {
         if (item == null || fromPos == null) return false;
         if (storedItem != null) return false;
 
@@ -154,14 +154,7 @@ public class DropperMachine extends PlacedMachine {
 
         // Keep original rule: only accept if sender is a belt
         PlacedMachine sender = getNeighborAt(fromPos);
-        if (!(sender instanceof ConveyorBelt)) return false;
-
-        storedItem = item;
-        storedItemJsonCache = null;
-
-        runtimeStateDirty = true;
-        markDirty();
-        return true;
+        return sender instanceof ConveyorBelt;
     }
 
     private PlacedMachine getNeighborCached(long currentTick) {
@@ -6,9 +6,8 @@ import com.google.gson.JsonObject;
 import com.matterworks.core.common.Direction;
 import com.matterworks.core.common.GridPosition;
 import com.matterworks.core.common.Vector3Int;
+import com.matterworks.core.domain.machines.base.ItemAcceptor;
 import com.matterworks.core.domain.machines.base.PlacedMachine;
-import com.matterworks.core.domain.machines.base.ProcessorMachine;
-import com.matterworks.core.domain.machines.production.NexusMachine;
 import com.matterworks.core.domain.matter.MatterPayload;
 
 import java.util.UUID;
@@ -23,7 +22,7 @@ import java.util.UUID;
  * - Tier-driven base ticks from DB for transport.
  * - Overclock applied via computeAcceleratedTicks.
  */
-public class LiftMachine extends PlacedMachine {
+public class LiftMachine extends PlacedMachine implements ItemAcceptor {
 
     private static final long TRANSPORT_TICKS_FALLBACK = 5L;
 
@@ -113,20 +112,8 @@ public class LiftMachine extends PlacedMachine {
 
         boolean moved = false;
 
-        if (neighbor instanceof ConveyorBelt belt) {
-            moved = belt.insertItem(storedItem, currentTick);
-        } else if (neighbor instanceof NexusMachine nexus) {
-            moved = nexus.insertItem(storedItem, cachedSourceTop);
-        } else if (neighbor instanceof ProcessorMachine proc) {
-            moved = proc.insertItem(storedItem, cachedSourceTop);
-        } else if (neighbor instanceof Splitter split) {
-            moved = split.insertItem(storedItem, cachedSourceTop);
-        } else if (neighbor instanceof Merger merger) {
-            moved = merger.insertItem(storedItem, cachedSourceTop);
-        } else if (neighbor instanceof LiftMachine lift) {
-            moved = lift.insertItem(storedItem, cachedSourceTop);
-        } else if (neighbor instanceof DropperMachine dropper) {
-            moved = dropper.insertItem(storedItem, cachedSourceTop);
+        if (neighbor instanceof ItemAcceptor target) {
+            moved = target.accept(storedItem, cachedSourceTop, currentTick);
         }
 
         if (moved) {
@@ -141,7 +128,20 @@ public class LiftMachine extends PlacedMachine {
         }
     }
 
-    public boolean insertItem(MatterPayload item, GridPosition fromPos) {
+    @Override
+    public boolean accept(MatterPayload item, GridPosition fromPos, long currentTick) {
+        if (!canAccept(item, fromPos)) return false;
+
+        storedItem = item;
+        storedItemJsonCache = null;
+
+        runtimeStateDirty = true;
+        markDirty();
+        return true;
+    }
+
+    @Override
+    public boolean canAccept(MatterPayload item, GridPosition fromPos) {
         if (item == null || fromPos == null) return false;
         if (storedItem != null) return false;
 
@@ -150,14 +150,7 @@ public class LiftMachine extends PlacedMachine {
 
         // Only accept if sender is a belt
         PlacedMachine sender = getNeighborAt(fromPos);
-        if (!(sender instanceof ConveyorBelt)) return false;
-
-        storedItem = item;
-        storedItemJsonCache = null;
-
-        runtimeStateDirty = true;
-        markDirty();
-        return true;
+        return sender instanceof ConveyorBelt;
     }
 
     private PlacedMachine getNeighborCached(long currentTick) {
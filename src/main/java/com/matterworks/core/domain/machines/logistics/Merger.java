@@ -6,9 +6,8 @@ import com.google.gson.JsonObject;
 import com.matterworks.core.common.Direction;
 import com.matterworks.core.common.GridPosition;
 import com.matterworks.core.common.Vector3Int;
+import com.matterworks.core.domain.machines.base.ItemAcceptor;
 import com.matterworks.core.domain.machines.base.PlacedMachine;
-import com.matterworks.core.domain.machines.base.ProcessorMachine;
-import com.matterworks.core.domain.machines.production.NexusMachine;
 import com.matterworks.core.domain.matter.MatterPayload;
 
 import java.util.UUID;
@@ -23,7 +22,7 @@ import java.util.UUID;
  * - Tier-driven base ticks from DB control transport time.
  * - Overclock applied by scheduleAfter().
  */
-public class Merger extends PlacedMachine {
+public class Merger extends PlacedMachine implements ItemAcceptor {
 
     private static final long TRANSPORT_TICKS_FALLBACK = 10L;
 
@@ -125,19 +124,9 @@ public class Merger extends PlacedMachine {
         portsValid = true;
     }
 
-    public boolean insertItem(MatterPayload item, GridPosition fromPos) {
-        if (item == null || fromPos == null) return false;
-        if (storedItem != null) return false;
-
-        ensurePorts();
-
-        PlacedMachine sender = getNeighborAt(fromPos);
-        if (!(sender instanceof ConveyorBelt)) return false;
-
-        int inputIndex = getInputIndexFromPos(fromPos);
-        if (inputIndex == -1) return false;
-
-        if (inputIndex != preferredInputIndex) return false;
+    @Override
+    public boolean accept(MatterPayload item, GridPosition fromPos, long currentTick) {
+        if (!canAccept(item, fromPos)) return false;
 
         storedItem = item;
         storedItemJsonCache = null;
@@ -153,6 +142,22 @@ public class Merger extends PlacedMachine {
         return true;
     }
 
+    @Override
+    public boolean canAccept(MatterPayload item, GridPosition fromPos) {
+        if (item == null || fromPos == null) return false;
+        if (storedItem != null) return false;
+
+        ensurePorts();
+
+        PlacedMachine sender = getNeighborAt(fromPos);
+        if (!(sender instanceof ConveyorBelt)) return false;
+
+        int inputIndex = getInputIndexFromPos(fromPos);
+        if (inputIndex == -1) return false;
+
+        return inputIndex == preferredInputIndex;
+    }
+
     @Override
     public void tick(long currentTick) {
         if (storedItem != null) {
@@ -186,15 +191,7 @@ public class Merger extends PlacedMachine {
             return;
         }
 
-        boolean pushed;
-        if (neighbor instanceof ConveyorBelt belt) pushed = belt.insertItem(storedItem, currentTick);
-        else if (neighbor instanceof NexusMachine nexus) pushed = nexus.insertItem(storedItem, this.pos);
-        else if (neighbor instanceof ProcessorMachine proc) pushed = proc.insertItem(storedItem, this.pos);
-        else if (neighbor instanceof Splitter split) pushed = split.insertItem(storedItem, this.pos);
-        else if (neighbor instanceof Merger merger) pushed = merger.insertItem(storedItem, this.pos);
-        else if (neighbor instanceof LiftMachine lift) pushed = lift.insertItem(storedItem, this.pos);
-        else if (neighbor instanceof DropperMachine dropper) pushed = dropper.insertItem(storedItem, this.pos);
-        else pushed = false;
+        boolean pushed = neighbor instanceof ItemAcceptor target && target.accept(storedItem, this.pos, currentTick);
 
         if (pushed) {
             storedItem = null;
@@ -6,9 +6,8 @@ import com.google.gson.JsonObject;
 import com.matterworks.core.common.Direction;
 import com.matterworks.core.common.GridPosition;
 import com.matterworks.core.common.Vector3Int;
+import com.matterworks.core.domain.machines.base.ItemAcceptor;
 import com.matterworks.core.domain.machines.base.PlacedMachine;
-import com.matterworks.core.domain.machines.base.ProcessorMachine;
-import com.matterworks.core.domain.machines.production.NexusMachine;
 import com.matterworks.core.domain.matter.MatterPayload;
 
 import java.util.UUID;
@@ -23,7 +22,7 @@ import java.util.UUID;
  * - Transport ticks are tier-driven from DB (mk1/mk2/mk3_process_ticks).
  * - Overclock is applied by scheduleAfter() (via computeAcceleratedTicks inside).
  */
-public class Splitter extends PlacedMachine {
+public class Splitter extends PlacedMachine implements ItemAcceptor {
 
     private static final long TRANSPORT_TICKS_FALLBACK = 10L;
 
@@ -149,15 +148,9 @@ public class Splitter extends PlacedMachine {
         attemptSmartPush(currentTick);
     }
 
-    public boolean insertItem(MatterPayload item, GridPosition fromPos) {
-        if (item == null || fromPos == null) return false;
-        if (currentItem != null) return false;
-
-        ensurePorts();
-        if (!fromPos.equals(cachedInputPos)) return false;
-
-        PlacedMachine sender = getNeighborAt(fromPos);
-        if (!(sender instanceof ConveyorBelt)) return false;
+    @Override
+    public boolean accept(MatterPayload item, GridPosition fromPos, long currentTick) {
+        if (!canAccept(item, fromPos)) return false;
 
         currentItem = item;
         currentItemJsonCache = null;
@@ -170,6 +163,18 @@ public class Splitter extends PlacedMachine {
         return true;
     }
 
+    @Override
+    public boolean canAccept(MatterPayload item, GridPosition fromPos) {
+        if (item == null || fromPos == null) return false;
+        if (currentItem != null) return false;
+
+        ensurePorts();
+        if (!fromPos.equals(cachedInputPos)) return false;
+
+        PlacedMachine sender = getNeighborAt(fromPos);
+        return sender instanceof ConveyorBelt;
+    }
+
     private void attemptSmartPush(long currentTick) {
         ensurePorts();
 
@@ -229,24 +234,10 @@ public class Splitter extends PlacedMachine {
     }
 
     private boolean pushInto(PlacedMachine neighbor, GridPosition sourcePos, long currentTick) {
-        if (neighbor instanceof ConveyorBelt belt) {
-            return belt.insertItem(currentItem, currentTick);
-        } else if (neighbor instanceof NexusMachine nexus) {
-            return nexus.insertItem(currentItem, sourcePos);
-        } else if (neighbor instanceof ProcessorMachine proc) {
-            return proc.insertItem(currentItem, sourcePos);
-        } else if (neighbor instanceof Splitter split) {
-            return split.insertItem(currentItem, sourcePos);
-        } else if (neighbor instanceof Merger merger) {
-            return merger.insertItem(currentItem, sourcePos);
-        } else if (neighbor instanceof LiftMachine lift) {
-            return lift.insertItem(currentItem, sourcePos);
-        } else if (neighbor instanceof DropperMachine dropper) {
-            return dropper.insertItem(currentItem, sourcePos);
-        }
-        return false;
+        return neighbor instanceof ItemAcceptor target && target.accept(currentItem, sourcePos, currentTick);
     }
 
+
     private void scheduleBlockedRetry(long currentTick) {
         blockedStreak = Math.min(MAX_BLOCKED_STREAK, blockedStreak + 1);
         long backoff = 1L << blockedStreak;
@@ -0,0 +1,309 @@
+package com.matterworks.core.domain.machines.logistics;
+
+import com.matterworks.core.domain.matter.MatterPayload;
+
+import java.util.List;
+
+/**
+ * A straight run of same-direction belts simulated as one transport line.
+ *
+ * The belts stay in the grid (placement, neighbours, inspection, persistence see the same
+ * objects), but while they belong to a segment their items live here: one ring buffer of
+ * in-flight items, ordered from the output end backwards, each with its cell (belt index,
+ * 0 = tail) and the tick at which it may leave that cell. Only the head belt ticks, and it
+ * ticks the whole line.
+ *
+ * Semantics are the per-belt ones: a cell holds a current item (moving) and at most one
+ * queued item behind it; an item leaves its cell after the transport ticks of the belt type,
+ * a queued item starts its own count once the current one has left; the head hands over to
+ * whatever sits in front of it exactly as a belt would.
+ *
+ * Per-belt state is expanded back on demand (exportCell: serialize, inspection, UI) and in
+ * full when the segment is dissolved (layout change, see TransportLines in managers).
+ *
+ * PERFORMANCE:
+ * - tick() returns at once until the earliest ready tick; otherwise it walks the items, not
+ *   the belts. A 40-belt run with 3 items costs one call and 3 steps instead of 40 ticks
+ *   and 40 accept handoffs per item.
+ * - Inserts at the tail (the usual feed) touch the last two slots of the ring.
+ *
+ * THREADING NOTES:
+ * - Mutated by the tick thread; exportCell() is called from save / UI threads.
+ *   All state is guarded by this; lock order is segment -> belt.
+ */
+public final class TransportSegment {
+
+    private static final long UNSCHEDULED = -1L;
+
+    private final ConveyorBelt[] belts; // tail (0) -> head (n - 1)
+    private final int headCell;
+
+    // ring buffer, logical index 0 = item closest to the output
+    private MatterPayload[] items;
+    private int[] cells;
+    private long[] ready;
+    private boolean[] queued;
+    private int first;
+    private int size;
+    private int mask;
+
+    private long nextEventTick = Long.MIN_VALUE;
+    private boolean dissolved;
+
+    /** Takes the items of the belts over; chain is ordered tail -> head, at least 2 belts. */
+    public TransportSegment(List<ConveyorBelt> chain) {
+        this.belts = chain.toArray(new ConveyorBelt[0]);
+        this.headCell = belts.length - 1;
+
+        int cap = Integer.highestOneBit(Math.max(4, belts.length * 2 - 1)) << 1;
+        this.items = new MatterPayload[cap];
+        this.cells = new int[cap];
+        this.ready = new long[cap];
+        this.queued = new boolean[cap];
+        this.mask = cap - 1;
+
+        synchronized (this) {
+            for (int c = headCell; c >= 0; c--) {
+                ConveyorBelt b = belts[c];
+                synchronized (b) {
+                    MatterPayload cur = b.currentItem();
+                    MatterPayload q = b.queuedItem();
+                    long arrival = b.arrivalTick();
+                    if (cur == null) {
+                        cur = q;
+                        q = null;
+                        arrival = UNSCHEDULED;
+                    }
+                    if (cur != null) append(cur, c, arrival, false);
+                    if (q != null) append(q, c, UNSCHEDULED, true);
+                    b.setItems(null, UNSCHEDULED, null);
+                }
+                b.joinSegment(this, c);
+            }
+        }
+    }
+
+    public int length() { return belts.length; }
+    public ConveyorBelt head() { return belts[headCell]; }
+
+    public synchronized int itemCount() { return size; }
+
+    // ==========================================================
+    // TICK (head belt, tick thread)
+    // ==========================================================
+
+    synchronized void tick(long t) {
+        if (dissolved || size == 0 || t < nextEventTick) return;
+
+        long delay = -1L;
+        long next = Long.MAX_VALUE;
+
+        int i = 0;
+        while (i < size) {
+            int p = phys(i);
+            if (queued[p]) {
+                i++;
+                continue;
+            }
+
+            if (ready[p] == UNSCHEDULED) {
+                if (delay < 0L) delay = head().transportDelay();
+                ready[p] = t + delay;
+            }
+            if (t < ready[p]) {
+                next = Math.min(next, ready[p]);
+                i++;
+                continue;
+            }
+
+            int c = cells[p];
+            if (c == headCell) {
+                // i == 0: the head current is always the first item
+                ConveyorBelt head = head();
+                if (ConveyorBelt.deliver(head.getNeighborCached(t), items[p], t, head.getPos())) {
+                    removeFirst();
+                    if (delay < 0L) delay = head.transportDelay();
+                    promoteAt(0, c, t + delay);
+                    continue;
+                }
+                ready[p] = t + 1;
+                next = Math.min(next, t + 1);
+                i++;
+                continue;
+            }
+
+            // items of cell c + 1 sit right before i
+            int ahead = 0;
+            if (i >= 1 && cells[phys(i - 1)] == c + 1) ahead++;
+            if (i >= 2 && cells[phys(i - 2)] == c + 1) ahead++;
+            if (ahead >= 2) {
+                ready[p] = t + 1;
+                next = Math.min(next, t + 1);
+                i++;
+                continue;
+            }
+
+            if (delay < 0L) delay = head().transportDelay();
+            cells[p] = c + 1;
+            if (ahead == 0) {
+                queued[p] = false;
+                ready[p] = t + delay;
+                next = Math.min(next, ready[p]);
+                belts[c + 1].showItem(items[p]);
+            } else {
+                queued[p] = true;
+                ready[p] = UNSCHEDULED;
+            }
+            promoteAt(i + 1, c, t + delay);
+            i++;
+        }
+
+        nextEventTick = next;
+    }
+
+    /** The current item left cell c: the queued one behind it (at logical index i) starts moving. */
+    private void promoteAt(int i, int c, long readyAt) {
+        if (i < size) {
+            int p = phys(i);
+            if (cells[p] == c && queued[p]) {
+                queued[p] = false;
+                ready[p] = readyAt;
+                nextEventTick = Math.min(nextEventTick, readyAt);
+                belts[c].showItem(items[p]);
+                return;
+            }
+        }
+        belts[c].showItem(null);
+    }
+
+    // ==========================================================
+    // INSERT (ConveyorBelt.accept on any belt of the line)
+    // ==========================================================
+
+    /** @return false when the cell already holds a current and a queued item */
+    synchronized boolean insert(int c, MatterPayload item, long t) {
+        if (dissolved) return false;
+
+        int j = cellEnd(c);
+        int inCell = itemsInCell(j, c);
+        if (inCell >= 2) return false;
+
+        if (inCell == 0) {
+            long r = t + head().transportDelay();
+            insertAt(j, item, c, r, false);
+            nextEventTick = Math.min(nextEventTick, r);
+            belts[c].showItem(item);
+        } else {
+            insertAt(j, item, c, UNSCHEDULED, true);
+        }
+        return true;
+    }
+
+    /** Non-mutating probe behind ConveyorBelt.canAccept. */
+    synchronized boolean hasRoom(int c) {
+        return !dissolved && itemsInCell(cellEnd(c), c) < 2;
+    }
+
+    /** Items are ordered by cell, descending: the slots of cell c end right before the result. */
+    private int cellEnd(int c) {
+        int j = size;
+        while (j > 0 && cells[phys(j - 1)] < c) j--;
+        return j;
+    }
+
+    private int itemsInCell(int j, int c) {
+        int inCell = 0;
+        if (j >= 1 && cells[phys(j - 1)] == c) inCell++;
+        if (j >= 2 && cells[phys(j - 2)] == c) inCell++;
+        return inCell;
+    }
+
+    // ==========================================================
+    // EXPAND (per-belt view)
+    // ==========================================================
+
+    /** Writes the items of one cell into its belt (serialize / inspection / UI read the belt). */
+    synchronized void exportCell(int c) {
+        if (dissolved) return;
+        MatterPayload cur = null;
+        MatterPayload q = null;
+        long arrival = UNSCHEDULED;
+        for (int i = 0; i < size; i++) {
+            int p = phys(i);
+            if (cells[p] > c) continue;
+            if (cells[p] < c) break;
+            if (queued[p]) q = items[p];
+            else {
+                cur = items[p];
+                arrival = ready[p];
+            }
+        }
+        belts[c].setItems(cur, arrival, q);
+    }
+
+    /** Gives every belt its items back and detaches them: they tick on their own again. */
+    public synchronized void dissolve() {
+        if (dissolved) return;
+        for (int c = 0; c <= headCell; c++) exportCell(c);
+        dissolved = true;
+        for (ConveyorBelt b : belts) b.leaveSegment(this);
+        size = 0;
+    }
+
+    // ==========================================================
+    // RING BUFFER
+    // ==========================================================
+
+    private int phys(int i) {
+        return (first + i) & mask;
+    }
+
+    private void append(MatterPayload item, int c, long r, boolean q) {
+        insertAt(size, item, c, r, q);
+    }
+
+    private void insertAt(int i, MatterPayload item, int c, long r, boolean q) {
+        if (size == items.length) grow();
+        for (int k = size; k > i; k--) {
+            int to = phys(k);
+            int from = phys(k - 1);
+            items[to] = items[from];
+            cells[to] = cells[from];
+            ready[to] = ready[from];
+            queued[to] = queued[from];
+        }
+        int p = phys(i);
+        items[p] = item;
+        cells[p] = c;
+        ready[p] = r;
+        queued[p] = q;
+        size++;
+    }
+
+    private void removeFirst() {
+        items[first] = null;
+        first = (first + 1) & mask;
+        size--;
+    }
+
+    private void grow() {
+        int cap = items.length << 1;
+        MatterPayload[] ni = new MatterPayload[cap];
+        int[] nc = new int[cap];
+        long[] nr = new long[cap];
+        boolean[] nq = new boolean[cap];
+        for (int i = 0; i < size; i++) {
+            int p = phys(i);
+            ni[i] = items[p];
+            nc[i] = cells[p];
+            nr[i] = ready[p];
+            nq[i] = queued[p];
+        }
+        items = ni;
+        cells = nc;
+        ready = nr;
+        queued = nq;
+        first = 0;
+        mask = cap - 1;
+    }
+}
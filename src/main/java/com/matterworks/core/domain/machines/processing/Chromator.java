@@ -5,9 +5,7 @@ import com.matterworks.core.common.Direction;
 import com.matterworks.core.common.GridPosition;
 import com.matterworks.core.common.Vector3Int;
 import com.matterworks.core.domain.machines.base.ProcessorMachine;
-import com.matterworks.core.domain.matter.MatterColor;
 import com.matterworks.core.domain.matter.MatterPayload;
-import com.matterworks.core.domain.matter.MatterShape;
 
 import java.util.UUID;
 
@@ -16,26 +14,20 @@ import java.util.UUID;
  * - Slot 0: base matter (NOT a dye -> color == RAW)
  * - Slot 1: dye (color != RAW and shape == null)
  * Output: base shape recolored with dye color (effects not copied).
+ * Recipes come from the "chromator" RecipeTable (built-in rule, DB overrides).
  *
  * PERFORMANCE:
- * - No Recipe/List allocations per job.
+ * - One table lookup per job by (base id, dye id), no allocations.
  * - Cached ports.
- * - Cached output MatterPayload by (shape,color).
  */
 public class Chromator extends ProcessorMachine {
 
-    private static final long PROCESS_TICKS = 20;
-
     // Cached ports (depend on pos + orientation)
     private transient Direction cachedOrientation;
     private transient GridPosition cachedSlot0Pos;
     private transient GridPosition cachedSlot1Pos;
     private transient GridPosition cachedOutputPos;
 
-    // Output cache [shapeOrdinal][colorOrdinal]
-    private static final MatterPayload[][] OUT_CACHE =
-            new MatterPayload[MatterShape.values().length][MatterColor.values().length];
-
     public Chromator(Long dbId, UUID ownerId, GridPosition pos, String typeId, JsonObject metadata) {
         this(dbId, ownerId, pos, typeId, metadata, 64);
     }
@@ -106,26 +98,18 @@ public class Chromator extends ProcessorMachine {
     }
 
     @Override
-    public boolean insertItem(MatterPayload item, GridPosition fromPos) {
-        if (item == null || fromPos == null) return false;
+    protected int inputSlotFor(MatterPayload item, GridPosition fromPos) {
+        if (item == null || fromPos == null) return -1;
 
         ensurePorts();
 
         int targetSlot = -1;
         if (fromPos.equals(cachedSlot0Pos)) targetSlot = 0;
         else if (fromPos.equals(cachedSlot1Pos)) targetSlot = 1;
-        if (targetSlot == -1) return false;
-
-        boolean isDye = (item.color() != null && item.color() != MatterColor.RAW);
-
-        // Slot constraints
-        if (targetSlot == 0 && isDye) return false;
-        if (targetSlot == 1 && !isDye) return false;
+        if (targetSlot == -1) return -1;
 
-        // Extra constraint: dye must be "only color" (no shape)
-        if (targetSlot == 1 && item.shape() != null) return false;
-
-        return insertIntoBuffer(targetSlot, item);
+        // Slot constraints (slot 0: RAW-colored matter, slot 1: dye without shape) are the recipe table's inputs
+        return acceptsInput(targetSlot, item) ? targetSlot : -1;
     }
 
     @Override
@@ -151,37 +135,7 @@ public class Chromator extends ProcessorMachine {
         }
 
         if (outputBuffer.getCount() >= outputBuffer.getMaxStackSize()) return;
-        if (inputBuffer.getCountInSlot(0) <= 0) return;
-        if (inputBuffer.getCountInSlot(1) <= 0) return;
-
-        MatterPayload base = inputBuffer.getItemInSlot(0);
-        MatterPayload dye  = inputBuffer.getItemInSlot(1);
-        if (base == null || dye == null) return;
-
-        // dye must be a color != RAW, base must be RAW-colored
-        if (dye.color() == null || dye.color() == MatterColor.RAW) return;
-        if (base.color() != null && base.color() != MatterColor.RAW) return;
-        if (base.shape() == null) return;
 
-        consumeInput(0, 1, base);
-        consumeInput(1, 1, dye);
-
-        MatterPayload out = cachedOutput(base.shape(), dye.color());
-        startProcessing(out, currentTick, PROCESS_TICKS, "PROCESS_START");
-    }
-
-
-    private static MatterPayload cachedOutput(MatterShape shape, MatterColor color) {
-        if (shape == null || color == null) return new MatterPayload(shape, color);
-
-        int si = shape.ordinal();
-        int ci = color.ordinal();
-
-        MatterPayload p = OUT_CACHE[si][ci];
-        if (p == null) {
-            p = new MatterPayload(shape, color);
-            OUT_CACHE[si][ci] = p;
-        }
-        return p;
+        startNextJob(currentTick);
     }
 }
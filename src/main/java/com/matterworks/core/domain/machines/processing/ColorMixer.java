@@ -6,6 +6,7 @@ import com.matterworks.core.common.GridPosition;
 import com.matterworks.core.common.Vector3Int;
 import com.matterworks.core.domain.machines.base.ProcessorMachine;
 import com.matterworks.core.domain.matter.MatterColor;
+import com.matterworks.core.domain.matter.MatterIds;
 import com.matterworks.core.domain.matter.MatterPayload;
 import com.matterworks.core.domain.player.PlayerProfile;
 
@@ -15,18 +16,17 @@ import java.util.UUID;
  * ColorMixer:
  * - Input: 2x pure colors (shape must be null), color != RAW
  * - Output: pure color (shape null)
+ * The mix itself comes from the "color_mixer" RecipeTable (built from MatterColor.mix()).
  *
  * WHITE gating:
  * - If the resulting mix would be WHITE, player must have the tech unlocked.
  *
  * IMPORTANT:
  * - In the current color system, MatterColor.mix() may return RAW as a sentinel for WHITE.
- *   We normalize RAW -> WHITE BEFORE applying the tech gate to avoid producing WHITE without unlock.
+ *   The recipe table normalizes RAW -> WHITE, so the tech gate sees the real output.
  */
 public class ColorMixer extends ProcessorMachine {
 
-    private static final long PROCESS_TICKS = 30;
-
     // Tech gate for producing WHITE
     private static final String TECH_WHITE_MIXING = "tech_whiteout_protocol";
 
@@ -35,9 +35,6 @@ public class ColorMixer extends ProcessorMachine {
     private transient GridPosition cachedSlot1Pos;
     private transient GridPosition cachedOutputPos;
 
-    // Output cache by color (all outputs are shape=null)
-    private static final MatterPayload[] OUT_CACHE = new MatterPayload[MatterColor.values().length];
-
     public ColorMixer(Long dbId, UUID ownerId, GridPosition pos, String typeId, JsonObject metadata) {
         this(dbId, ownerId, pos, typeId, metadata, 64);
     }
@@ -108,21 +105,17 @@ public class ColorMixer extends ProcessorMachine {
     }
 
     @Override
-    public boolean insertItem(MatterPayload item, GridPosition fromPos) {
-        if (fromPos == null || item == null) return false;
-
-        // Mixer accepts only pure colors (shape must be null) and color != RAW
-        if (item.color() == null || item.color() == MatterColor.RAW) return false;
-        if (item.shape() != null) return false;
+    protected int inputSlotFor(MatterPayload item, GridPosition fromPos) {
+        if (fromPos == null || item == null) return -1;
 
         ensurePorts();
 
         int targetSlot = -1;
         if (fromPos.equals(cachedSlot0Pos)) targetSlot = 0;
         else if (fromPos.equals(cachedSlot1Pos)) targetSlot = 1;
-        if (targetSlot == -1) return false;
 
-        return insertIntoBuffer(targetSlot, item);
+        // Only pure colors (shape null, color != RAW) appear in the mixer's recipe table
+        return (targetSlot >= 0 && acceptsInput(targetSlot, item)) ? targetSlot : -1;
     }
 
     @Override
@@ -142,33 +135,13 @@ public class ColorMixer extends ProcessorMachine {
 
         if (outputBuffer.getCount() >= outputBuffer.getMaxStackSize()) return;
 
-        if (inputBuffer.getCountInSlot(0) <= 0) return;
-        if (inputBuffer.getCountInSlot(1) <= 0) return;
-
-        MatterPayload c1 = inputBuffer.getItemInSlot(0);
-        MatterPayload c2 = inputBuffer.getItemInSlot(1);
-        if (c1 == null || c2 == null) return;
-
-        if (c1.color() == null || c2.color() == null) return;
-        if (c1.color() == c2.color()) return;
-
-        // 1) Compute mix
-        MatterColor mixed = MatterColor.mix(c1.color(), c2.color());
-
-        // 2) Normalize RAW -> WHITE (sentinel behavior in current system)
-        if (mixed == MatterColor.RAW) mixed = MatterColor.WHITE;
-
-        // 3) HARD GATE: do NOT produce, do NOT consume, do NOT start job
-        if (mixed == MatterColor.WHITE && !canCraftWhite()) {
-            return;
-        }
-
-        // 4) Now consume inputs
-        consumeInput(0, 1, c1);
-        consumeInput(1, 1, c2);
+        startNextJob(currentTick);
+    }
 
-        MatterPayload out = cachedOutput(mixed);
-        startProcessing(out, currentTick, PROCESS_TICKS, "PROCESS_START");
+    /** HARD GATE: a WHITE result needs the tech; the job is not started and nothing is consumed. */
+    @Override
+    protected boolean allowsOutput(int outputId) {
+        return MatterIds.colorOf(outputId) != MatterColor.WHITE || canCraftWhite();
     }
 
     private boolean canCraftWhite() {
@@ -185,17 +158,4 @@ public class ColorMixer extends ProcessorMachine {
 
         return p.hasTech(TECH_WHITE_MIXING);
     }
-
-    private static MatterPayload cachedOutput(MatterColor color) {
-        if (color == null) return new MatterPayload(null, MatterColor.WHITE);
-
-        int ci = color.ordinal();
-        MatterPayload p = OUT_CACHE[ci];
-        if (p == null) {
-            // IMPORTANT: output is pure color (shape=null)
-            p = new MatterPayload(null, color);
-            OUT_CACHE[ci] = p;
-        }
-        return p;
-    }
 }
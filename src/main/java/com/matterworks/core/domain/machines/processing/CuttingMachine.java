@@ -7,7 +7,6 @@ import com.matterworks.core.common.Vector3Int;
 import com.matterworks.core.domain.machines.base.PlacedMachine;
 import com.matterworks.core.domain.machines.base.ProcessorMachine;
 import com.matterworks.core.domain.matter.MatterPayload;
-import com.matterworks.core.domain.matter.MatterShape;
 
 import java.util.UUID;
 
@@ -15,15 +14,14 @@ import java.util.UUID;
  * CuttingMachine:
  * - Input: SPHERE
  * - Output: PYRAMID (same color/effects)
+ * Recipes come from the "cutting" RecipeTable (built-in rule, DB overrides).
  *
  * PERFORMANCE:
  * - Cached input/output port positions (no per-tick GridPosition allocations)
- * - No Recipe/List allocations per job
+ * - One table lookup per job (ProcessorMachine.startNextJob()), no allocations
  */
 public class CuttingMachine extends ProcessorMachine {
 
-    private static final long PROCESS_TICKS = 40;
-
     private transient Direction cachedOrientation;
     private transient GridPosition cachedInputPos;
     private transient GridPosition cachedOutputPos;
@@ -86,12 +84,12 @@ public class CuttingMachine extends ProcessorMachine {
     }
 
     @Override
-    public boolean insertItem(MatterPayload item, GridPosition fromPos) {
-        if (item == null || fromPos == null) return false;
-        if (item.shape() != MatterShape.SPHERE) return false;
+    protected int inputSlotFor(MatterPayload item, GridPosition fromPos) {
+        if (item == null || fromPos == null) return -1;
+        if (!acceptsInput(0, item)) return -1;
 
         ensurePorts();
-        return fromPos.equals(cachedInputPos) && insertIntoBuffer(0, item);
+        return fromPos.equals(cachedInputPos) ? 0 : -1;
     }
 
     @Override
@@ -104,14 +102,7 @@ public class CuttingMachine extends ProcessorMachine {
         }
 
         if (outputBuffer.getCount() >= outputBuffer.getMaxStackSize()) return;
-        if (inputBuffer.getCountInSlot(0) <= 0) return;
-
-        MatterPayload in = inputBuffer.getItemInSlot(0);
-        if (in == null || in.shape() != MatterShape.SPHERE) return;
-
-        consumeInput(0, 1, in);
 
-        MatterPayload out = new MatterPayload(MatterShape.PYRAMID, in.color(), in.effects());
-        startProcessing(out, currentTick, PROCESS_TICKS, "PROCESS_START");
+        startNextJob(currentTick);
     }
 }
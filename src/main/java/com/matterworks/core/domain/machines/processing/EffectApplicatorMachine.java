@@ -7,15 +7,18 @@ import com.matterworks.core.domain.machines.base.PlacedMachine;
 import com.matterworks.core.domain.machines.base.ProcessorMachine;
 import com.matterworks.core.domain.matter.MatterEffect;
 import com.matterworks.core.domain.matter.MatterPayload;
-import com.matterworks.core.domain.matter.Recipe;
 
-import java.util.List;
 import java.util.UUID;
 
+/**
+ * Effect applicators (shiny_polisher, blazing_forge, glitch_distorter):
+ * - Input: shaped matter without effects
+ * - Output: same matter with the machine's effect
+ * Recipes come from the RecipeTable of the machine type; jobs use the tier-driven
+ * new flow (startProcessing) like the other processors.
+ */
 public abstract class EffectApplicatorMachine extends ProcessorMachine {
 
-    private static final long PROCESS_TICKS = 40;
-
     private final MatterEffect effectToApply;
 
     public EffectApplicatorMachine(Long dbId,
@@ -39,8 +42,8 @@ public abstract class EffectApplicatorMachine extends ProcessorMachine {
         this.dimensions = new Vector3Int(2, 1, 1);
     }
 
-    private boolean hasAnyEffects(MatterPayload item) {
-        return item.effects() != null && !item.effects().isEmpty();
+    public MatterEffect getEffectToApply() {
+        return effectToApply;
     }
 
     private GridPosition stepOutOfSelf(GridPosition start, Vector3Int step) {
@@ -68,47 +71,27 @@ public abstract class EffectApplicatorMachine extends ProcessorMachine {
     }
 
     @Override
-    public boolean insertItem(MatterPayload item, GridPosition fromPos) {
-        if (item == null || fromPos == null) return false;
+    protected int inputSlotFor(MatterPayload item, GridPosition fromPos) {
+        if (item == null || fromPos == null) return -1;
 
-        if (item.shape() == null) return false;
-        if (hasAnyEffects(item)) return false;
-        if (!fromPos.equals(getInputPortPosition())) return false;
+        // shaped matter without effects: the inputs of the applicator's recipe table
+        if (!acceptsInput(0, item)) return -1;
+        if (!fromPos.equals(getInputPortPosition())) return -1;
 
-        return insertIntoBuffer(0, item);
+        return 0;
     }
 
     @Override
     public void tick(long currentTick) {
         super.tryEjectItem(currentTick);
 
-        if (currentRecipe != null) {
+        if (isProcessing()) {
             if (currentTick >= finishTick) completeProcessing();
             return;
         }
 
         if (outputBuffer.getCount() >= outputBuffer.getMaxStackSize()) return;
-        if (inputBuffer.getCountInSlot(0) <= 0) return;
-
-        MatterPayload in = inputBuffer.getItemInSlot(0);
-        if (in == null) return;
-
-        if (in.shape() == null) return;
-        if (hasAnyEffects(in)) return;
-
-        // ✅ consume + telemetry
-        consumeInput(0, 1, in);
-
-        MatterPayload out = new MatterPayload(in.shape(), in.color(), List.of(effectToApply));
-        this.currentRecipe = new Recipe(
-                "apply_" + effectToApply.name().toLowerCase(),
-                List.of(in),
-                out,
-                2.0f,
-                0
-        );
 
-        this.finishTick = scheduleAfter(currentTick, PROCESS_TICKS, "PROCESS_START");
-        saveState();
+        startNextJob(currentTick);
     }
 }
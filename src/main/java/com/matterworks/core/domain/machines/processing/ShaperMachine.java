@@ -7,7 +7,6 @@ import com.matterworks.core.common.Vector3Int;
 import com.matterworks.core.domain.machines.base.PlacedMachine;
 import com.matterworks.core.domain.machines.base.ProcessorMachine;
 import com.matterworks.core.domain.matter.MatterPayload;
-import com.matterworks.core.domain.matter.MatterShape;
 
 import java.util.UUID;
 
@@ -15,15 +14,14 @@ import java.util.UUID;
  * ShaperMachine:
  * - Input: CUBE
  * - Output: SPHERE (same color/effects)
+ * Recipes come from the "smoothing" RecipeTable (built-in rule, DB overrides).
  *
  * PERFORMANCE:
  * - Cached input/output ports (no stepOutOfSelf() allocations per tick)
- * - No Recipe/List allocations per job (uses ProcessorMachine.startProcessing())
+ * - One table lookup per job (ProcessorMachine.startNextJob()), no allocations
  */
 public class ShaperMachine extends ProcessorMachine {
 
-    private static final long PROCESS_TICKS = 40;
-
     private transient Direction cachedOrientation;
     private transient GridPosition cachedInputPos;
     private transient GridPosition cachedOutputPos;
@@ -86,12 +84,12 @@ public class ShaperMachine extends ProcessorMachine {
     }
 
     @Override
-    public boolean insertItem(MatterPayload item, GridPosition fromPos) {
-        if (item == null || fromPos == null) return false;
-        if (item.shape() != MatterShape.CUBE) return false;
+    protected int inputSlotFor(MatterPayload item, GridPosition fromPos) {
+        if (item == null || fromPos == null) return -1;
+        if (!acceptsInput(0, item)) return -1;
 
         ensurePorts();
-        return fromPos.equals(cachedInputPos) && insertIntoBuffer(0, item);
+        return fromPos.equals(cachedInputPos) ? 0 : -1;
     }
 
     @Override
@@ -104,15 +102,7 @@ public class ShaperMachine extends ProcessorMachine {
         }
 
         if (outputBuffer.getCount() >= outputBuffer.getMaxStackSize()) return;
-        if (inputBuffer.getCountInSlot(0) <= 0) return;
-
-        MatterPayload in = inputBuffer.getItemInSlot(0);
-        if (in == null || in.shape() != MatterShape.CUBE) return;
-
-        consumeInput(0, 1, in);
 
-        // No Recipe/List allocations:
-        MatterPayload out = new MatterPayload(MatterShape.SPHERE, in.color(), in.effects());
-        startProcessing(out, currentTick, PROCESS_TICKS, "PROCESS_START");
+        startNextJob(currentTick);
     }
 }
@@ -187,7 +187,7 @@ public class DrillMachine extends PlacedMachine {
 
         PlacedMachine neighbor = getNeighborCached(currentTick);
         if (neighbor instanceof ConveyorBelt belt) {
-            if (belt.insertItem(cachedOutputPayload, currentTick)) {
+            if (belt.accept(cachedOutputPayload, this.pos, currentTick)) {
                 outputCount--;
                 markDirty();
             }
@@ -5,12 +5,15 @@ import com.google.gson.JsonElement;
 import com.google.gson.JsonNull;
 import com.google.gson.JsonObject;
 import com.matterworks.core.common.GridPosition;
+import com.matterworks.core.domain.machines.base.ItemAcceptor;
 import com.matterworks.core.domain.machines.base.PlacedMachine;
+import com.matterworks.core.domain.matter.MatterIds;
 import com.matterworks.core.domain.matter.MatterPayload;
 import com.matterworks.core.domain.shop.MarketManager;
 import com.matterworks.core.synchronization.SimTime;
 import com.matterworks.core.common.Vector3Int;
 
+import java.util.Arrays;
 import java.util.UUID;
 
 /**
@@ -20,8 +23,12 @@ import java.util.UUID;
  *
  * Inventory is slot-based for performance.
  * Selling is DT-based (seconds), not tick-based.
+ * All sales due in a tick are drained in ONE batch (MarketManager.sellItems),
+ * grouped by matter id: one money delta / transaction / telemetry update per item type.
+ * Input goes through ItemAcceptor; acceptMany stacks a whole batch (one JSON slot update per
+ * touched slot, one markDirty).
  */
-public class NexusMachine extends PlacedMachine {
+public class NexusMachine extends PlacedMachine implements ItemAcceptor {
 
     private static final int CAPACITY_SLOTS = 100;
     private static final int MAX_STACK = 64;
@@ -29,6 +36,12 @@ public class NexusMachine extends PlacedMachine {
     private final MatterPayload[] slotItem = new MatterPayload[CAPACITY_SLOTS];
     private final int[] slotCount = new int[CAPACITY_SLOTS];
 
+    // Sum of slotCount (avoids scanning 100 slots every tick)
+    private volatile int totalItems = 0;
+
+    // Reusable batch buffer: quantities by MatterIds id (always zeroed after a batch)
+    private final int[] saleCounts = new int[MatterIds.COUNT];
+
     // Metadata cache for UI/save (items array of length CAPACITY_SLOTS)
     private final JsonArray itemsJson = new JsonArray();
 
@@ -51,7 +64,7 @@ public class NexusMachine extends PlacedMachine {
 
     @Override
     public void tick(long currentTick) {
-        if (isEmpty()) return;
+        if (totalItems <= 0) return;
 
         double dt = SimTime.deltaSeconds();
         if (dt <= 0) dt = 0.05;
@@ -66,15 +79,57 @@ public class NexusMachine extends PlacedMachine {
         if (saleCooldownSeconds < 0.0) saleCooldownSeconds = intervalSeconds;
 
         saleCooldownSeconds -= dt;
+        if (saleCooldownSeconds > 0.0) return;
 
-        // catch-up (bounded by inventory)
-        while (saleCooldownSeconds <= 0.0 && !isEmpty()) {
-            sellNextItem();
+        // catch-up (bounded by inventory): count the sales due, then sell them in one batch
+        int available = totalItems;
+        int due = 0;
+        while (saleCooldownSeconds <= 0.0 && due < available) {
+            due++;
             saleCooldownSeconds += intervalSeconds;
         }
+
+        if (due > 0) sellDueItems(due);
+    }
+
+    @Override
+    public boolean accept(MatterPayload item, GridPosition fromPos, long currentTick) {
+        return acceptMany(item, 1, fromPos, currentTick) == 1;
     }
 
-    public synchronized boolean insertItem(MatterPayload item, GridPosition fromPos) {
+    @Override
+    public synchronized int acceptMany(MatterPayload item, int count, GridPosition fromPos, long currentTick) {
+        if (count <= 0 || !acceptsFrom(item, fromPos)) return 0;
+
+        int moved = 0;
+        while (moved < count) {
+            int idx = findInsertSlot(item);
+            if (idx < 0) break;
+
+            boolean empty = slotItem[idx] == null || slotCount[idx] <= 0;
+            int n = Math.min(count - moved, empty ? MAX_STACK : MAX_STACK - slotCount[idx]);
+            if (empty) {
+                slotItem[idx] = item;
+                slotCount[idx] = n;
+            } else {
+                slotCount[idx] += n;
+            }
+            moved += n;
+            updateSlotJson(idx);
+        }
+        if (moved == 0) return 0;
+
+        totalItems += moved;
+        markDirty();
+        return moved;
+    }
+
+    @Override
+    public synchronized boolean canAccept(MatterPayload item, GridPosition fromPos) {
+        return acceptsFrom(item, fromPos) && findInsertSlot(item) >= 0;
+    }
+
+    private boolean acceptsFrom(MatterPayload item, GridPosition fromPos) {
         if (item == null) return false;
         if (fromPos == null) return false;
 
@@ -82,21 +137,7 @@ public class NexusMachine extends PlacedMachine {
         if (item.shape() == null) return false;
 
         // Hard rule: ONLY the 4 blue input ports
-        if (!isValidInputPort(fromPos)) return false;
-
-        int idx = findInsertSlot(item);
-        if (idx < 0) return false;
-
-        if (slotItem[idx] == null) {
-            slotItem[idx] = item;
-            slotCount[idx] = 1;
-        } else {
-            slotCount[idx] = Math.min(MAX_STACK, slotCount[idx] + 1);
-        }
-
-        updateSlotJson(idx);
-        markDirty();
-        return true;
+        return isValidInputPort(fromPos);
     }
 
     private int findInsertSlot(MatterPayload item) {
@@ -120,48 +161,40 @@ public class NexusMachine extends PlacedMachine {
         return a.shape() == b.shape() && a.color() == b.color();
     }
 
-    private boolean isEmpty() {
-        for (int i = 0; i < CAPACITY_SLOTS; i++) {
-            if (slotItem[i] != null && slotCount[i] > 0) return false;
-        }
-        return true;
-    }
+    /**
+     * Drains up to {@code due} items (first slots first, like the legacy one-by-one loop)
+     * and sells them with a single MarketManager.sellItems() call.
+     */
+    private synchronized void sellDueItems(int due) {
+        if (gridManager == null) return;
+        MarketManager market = gridManager.getMarketManager();
+        if (market == null) return;
 
-    private int findFirstNonEmptySlot() {
-        for (int i = 0; i < CAPACITY_SLOTS; i++) {
-            if (slotItem[i] != null && slotCount[i] > 0) return i;
-        }
-        return -1;
-    }
+        int remaining = due;
+        for (int i = 0; i < CAPACITY_SLOTS && remaining > 0; i++) {
+            if (slotItem[i] == null || slotCount[i] <= 0) continue;
 
-    private MatterPayload extractOneFromSlot(int idx) {
-        if (idx < 0 || idx >= CAPACITY_SLOTS) return null;
-        if (slotItem[idx] == null || slotCount[idx] <= 0) return null;
+            int take = Math.min(remaining, slotCount[i]);
+            saleCounts[MatterIds.of(slotItem[i])] += take;
 
-        MatterPayload out = slotItem[idx];
-        slotCount[idx]--;
+            slotCount[i] -= take;
+            totalItems -= take;
+            remaining -= take;
 
-        if (slotCount[idx] <= 0) {
-            slotItem[idx] = null;
-            slotCount[idx] = 0;
+            if (slotCount[i] <= 0) {
+                slotItem[i] = null;
+                slotCount[i] = 0;
+            }
+            updateSlotJson(i);
         }
 
-        updateSlotJson(idx);
+        if (remaining == due) return;
         markDirty();
-        return out;
-    }
 
-    private synchronized void sellNextItem() {
-        if (gridManager == null) return;
-        MarketManager market = gridManager.getMarketManager();
-        if (market == null) return;
-
-        int idx = findFirstNonEmptySlot();
-        if (idx < 0) return;
-
-        MatterPayload itemToSell = extractOneFromSlot(idx);
-        if (itemToSell != null) {
-            market.sellItem(itemToSell, this.getOwnerId());
+        try {
+            market.sellItems(this.getOwnerId(), saleCounts);
+        } finally {
+            Arrays.fill(saleCounts, 0);
         }
     }
 
@@ -226,6 +259,10 @@ public class NexusMachine extends PlacedMachine {
             itemsJson.set(i, JsonNull.INSTANCE);
         }
 
+        int total = 0;
+        for (int i = 0; i < CAPACITY_SLOTS; i++) total += slotCount[i];
+        totalItems = total;
+
         metadata.addProperty("capacity", CAPACITY_SLOTS);
         metadata.add("items", itemsJson);
     }
@@ -57,6 +57,16 @@ public class BlockRegistry {
         return MachineStats.fallback(id);
     }
 
+    /** Stats as defined in DB, or null when the id is unknown (no fallback record). */
+    public MachineStats findStats(String blockId) {
+        String id = normalizeId(blockId);
+        return (id == null) ? null : statsCache.get(id);
+    }
+
+    public Set<String> getAllBlockIds() {
+        return Set.copyOf(statsCache.keySet());
+    }
+
     public List<String> getShopMachineIdsFromDb() {
         return statsCache.values().stream()
                 .filter(Objects::nonNull)
@@ -0,0 +1,100 @@
+package com.matterworks.core.domain.matter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compact integer id for a MatterPayload: (shape x color x effectsMask).
+ *
+ * id = (shapeIndex * colorCount + colorOrdinal) * maskCount + mask
+ * - shapeIndex 0 = LIQUID (shape null), otherwise MatterShape.ordinal() + 1
+ * - mask = one bit per MatterEffect ordinal (duplicates/order are irrelevant)
+ *
+ * PERFORMANCE:
+ * - of() is allocation-free: meant for hot paths (sell, telemetry, inventories)
+ *   that want to index flat arrays instead of hashing payloads or strings.
+ * - payloadOf() returns a canonical, shared instance per id (effects in ordinal order).
+ */
+public final class MatterIds {
+
+    private static final MatterShape[] SHAPES = MatterShape.values();
+    private static final MatterColor[] COLORS = MatterColor.values();
+    private static final MatterEffect[] EFFECTS = MatterEffect.values();
+
+    public static final int SHAPE_COUNT = SHAPES.length + 1; // + LIQUID
+    public static final int COLOR_COUNT = COLORS.length;
+    public static final int MASK_COUNT = 1 << EFFECTS.length;
+    public static final int COUNT = SHAPE_COUNT * COLOR_COUNT * MASK_COUNT;
+
+    private static final MatterPayload[] CANONICAL = new MatterPayload[COUNT];
+
+    static {
+        for (int id = 0; id < COUNT; id++) {
+            int mask = maskOf(id);
+            List<MatterEffect> effs = new ArrayList<>(EFFECTS.length);
+            for (MatterEffect e : EFFECTS) {
+                if ((mask & (1 << e.ordinal())) != 0) effs.add(e);
+            }
+            CANONICAL[id] = new MatterPayload(shapeOf(id), colorOf(id), List.copyOf(effs));
+        }
+    }
+
+    private MatterIds() {}
+
+    public static int of(MatterPayload p) {
+        int shapeIndex = 0; // LIQUID by default
+        int colorOrdinal = MatterColor.RAW.ordinal();
+        int mask = 0;
+
+        if (p != null) {
+            MatterShape s = p.shape();
+            if (s != null) shapeIndex = s.ordinal() + 1;
+
+            MatterColor c = p.color();
+            if (c != null) colorOrdinal = c.ordinal();
+
+            List<MatterEffect> effs = p.effects();
+            if (effs != null && !effs.isEmpty()) {
+                // Build mask by ordinal (no allocations)
+                for (int i = 0; i < effs.size(); i++) {
+                    MatterEffect e = effs.get(i);
+                    if (e == null) continue;
+                    mask |= (1 << e.ordinal());
+                }
+            }
+        }
+
+        return of(shapeIndex, colorOrdinal, mask);
+    }
+
+    public static int of(int shapeIndex, int colorOrdinal, int mask) {
+        return (shapeIndex * COLOR_COUNT + colorOrdinal) * MASK_COUNT + mask;
+    }
+
+    /** Shape of the id, null for LIQUID. */
+    public static MatterShape shapeOf(int id) {
+        int shapeIndex = id / (COLOR_COUNT * MASK_COUNT);
+        return (shapeIndex == 0) ? null : SHAPES[shapeIndex - 1];
+    }
+
+    public static MatterColor colorOf(int id) {
+        return COLORS[colorOrdinalOf(id)];
+    }
+
+    public static int colorOrdinalOf(int id) {
+        return (id / MASK_COUNT) % COLOR_COUNT;
+    }
+
+    public static int maskOf(int id) {
+        return id % MASK_COUNT;
+    }
+
+    public static boolean hasEffect(int id, MatterEffect e) {
+        return e != null && (maskOf(id) & (1 << e.ordinal())) != 0;
+    }
+
+    /** Canonical shared payload for the id (immutable effects list). */
+    public static MatterPayload payloadOf(int id) {
+        return CANONICAL[id];
+    }
+}
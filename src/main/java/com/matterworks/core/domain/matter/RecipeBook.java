@@ -0,0 +1,151 @@
+package com.matterworks.core.domain.matter;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * All processor recipes, compiled per machine type into RecipeTables.
+ *
+ * Sources, in order:
+ * 1) Built-in rules (the transformations the processors used to hand-code): smoothing,
+ *    cutting, chromator, color_mixer and the three effect applicators.
+ * 2) Definitions from the DB (recipe_definitions, see RecipeDefinitionDAO): each row adds or
+ *    replaces one input combination of a machine type, or removes it (no output).
+ *
+ * A book is immutable; GridManager swaps in a new one on reload and processors pick it up on
+ * their next job (they compare the book reference, then keep using their cached table).
+ *
+ * Rules that are not transformations stay in the machines: input ports, and the WHITE mixing
+ * tech gate of the color mixer.
+ */
+public final class RecipeBook {
+
+    /**
+     * One DB row, in item ids (MatterIds).
+     * inputB = -1 for one-input machines, output = -1 removes the combination,
+     * processTicks <= 0 keeps the machine type's default.
+     */
+    public record Definition(String machineType, int inputA, int inputB, int output, int processTicks) {}
+
+    private static final RecipeBook DEFAULTS = compile(List.of());
+
+    private final Map<String, RecipeTable> tables;
+    private final int recipeCount;
+
+    private RecipeBook(Map<String, RecipeTable> tables) {
+        this.tables = Map.copyOf(tables);
+        int n = 0;
+        for (RecipeTable t : this.tables.values()) n += t.size();
+        this.recipeCount = n;
+    }
+
+    /** Built-in recipes only (no DB, or before the first load). */
+    public static RecipeBook defaults() {
+        return DEFAULTS;
+    }
+
+    public RecipeTable table(String machineType) {
+        if (machineType == null) return RecipeTable.EMPTY;
+        RecipeTable t = tables.get(machineType);
+        return (t != null) ? t : RecipeTable.EMPTY;
+    }
+
+    public int machineTypeCount() { return tables.size(); }
+    public int recipeCount() { return recipeCount; }
+
+    public static RecipeBook compile(List<Definition> definitions) {
+        Map<String, RecipeTable.Builder> builders = new HashMap<>();
+        builtIns(builders);
+
+        if (definitions != null) {
+            for (Definition d : definitions) {
+                if (d == null || d.machineType() == null || d.machineType().isBlank()) continue;
+
+                int inputs = (d.inputB() >= 0) ? 2 : 1;
+                RecipeTable.Builder b = builders.computeIfAbsent(d.machineType(),
+                        k -> new RecipeTable.Builder(k, inputs, d.processTicks()));
+                if (b.inputCount() != inputs) {
+                    System.err.println("[RECIPES] Skipping " + d + ": " + d.machineType()
+                            + " takes " + b.inputCount() + " input(s)");
+                    continue;
+                }
+
+                if (d.output() < 0) b.remove(d.inputA(), d.inputB());
+                else b.put(d.inputA(), d.inputB(), d.output(), d.processTicks());
+            }
+        }
+
+        Map<String, RecipeTable> out = new HashMap<>(builders.size() * 2);
+        for (var e : builders.entrySet()) out.put(e.getKey(), e.getValue().build());
+        return new RecipeBook(out);
+    }
+
+    // ==========================================================
+    // BUILT-IN RULES
+    // ==========================================================
+
+    private static void builtIns(Map<String, RecipeTable.Builder> builders) {
+        int raw = MatterColor.RAW.ordinal();
+
+        // smoothing: CUBE -> SPHERE, color and effects kept
+        RecipeTable.Builder smoothing = new RecipeTable.Builder("smoothing", 1, 40);
+        // cutting: SPHERE -> PYRAMID, color and effects kept
+        RecipeTable.Builder cutting = new RecipeTable.Builder("cutting", 1, 40);
+        for (int id = 0; id < MatterIds.COUNT; id++) {
+            MatterShape s = MatterIds.shapeOf(id);
+            int c = MatterIds.colorOrdinalOf(id);
+            int m = MatterIds.maskOf(id);
+            if (s == MatterShape.CUBE) smoothing.put(id, -1, MatterIds.of(shapeIndex(MatterShape.SPHERE), c, m), 0);
+            if (s == MatterShape.SPHERE) cutting.put(id, -1, MatterIds.of(shapeIndex(MatterShape.PYRAMID), c, m), 0);
+        }
+        builders.put("smoothing", smoothing);
+        builders.put("cutting", cutting);
+
+        // effect applicators: shaped matter without effects -> same matter with the effect
+        effectApplicator(builders, "shiny_polisher", MatterEffect.SHINY);
+        effectApplicator(builders, "blazing_forge", MatterEffect.BLAZING);
+        effectApplicator(builders, "glitch_distorter", MatterEffect.GLITCH);
+
+        // chromator: A = shaped RAW matter, B = dye (no shape, color != RAW) -> shape A, color B, no effects
+        RecipeTable.Builder chromator = new RecipeTable.Builder("chromator", 2, 20);
+        // color_mixer: two different dyes -> mixed dye (RAW normalized to WHITE), no effects
+        RecipeTable.Builder mixer = new RecipeTable.Builder("color_mixer", 2, 30);
+        for (int a = 0; a < MatterIds.COUNT; a++) {
+            MatterShape sa = MatterIds.shapeOf(a);
+            int ca = MatterIds.colorOrdinalOf(a);
+            boolean dyeA = sa == null && ca != raw;
+            boolean baseA = sa != null && ca == raw;
+            if (!dyeA && !baseA) continue;
+
+            for (int b = 0; b < MatterIds.COUNT; b++) {
+                int cb = MatterIds.colorOrdinalOf(b);
+                if (MatterIds.shapeOf(b) != null || cb == raw) continue;
+
+                if (baseA) {
+                    chromator.put(a, b, MatterIds.of(shapeIndex(sa), cb, 0), 0);
+                } else if (ca != cb) {
+                    MatterColor mixed = MatterColor.mix(MatterIds.colorOf(a), MatterIds.colorOf(b));
+                    if (mixed == MatterColor.RAW) mixed = MatterColor.WHITE;
+                    mixer.put(a, b, MatterIds.of(0, mixed.ordinal(), 0), 0);
+                }
+            }
+        }
+        builders.put("chromator", chromator);
+        builders.put("color_mixer", mixer);
+    }
+
+    private static void effectApplicator(Map<String, RecipeTable.Builder> builders, String type, MatterEffect effect) {
+        RecipeTable.Builder b = new RecipeTable.Builder(type, 1, 40);
+        int bit = 1 << effect.ordinal();
+        for (int id = 0; id < MatterIds.COUNT; id++) {
+            if (MatterIds.shapeOf(id) == null || MatterIds.maskOf(id) != 0) continue;
+            b.put(id, -1, id | bit, 0);
+        }
+        builders.put(type, b);
+    }
+
+    private static int shapeIndex(MatterShape s) {
+        return (s == null) ? 0 : s.ordinal() + 1;
+    }
+}
@@ -0,0 +1,136 @@
+package com.matterworks.core.domain.matter;
+
+import java.util.Arrays;
+
+/**
+ * Compiled recipes of one machine type: a flat lookup from input item ids (MatterIds) to
+ * output item id and base ticks.
+ *
+ * One-input tables are indexed by the input id, two-input tables by idA * COUNT + idB.
+ * Built by RecipeBook, immutable afterwards (shared by every machine of the type).
+ *
+ * PERFORMANCE:
+ * - match() is an array read: no hashing, no allocation, no per-machine validation branches.
+ * - accepts() answers "can this item feed slot N" with one more array read (input ports).
+ * - Size: COUNT (256) entries for one input, COUNT^2 (64K) for two; two int arrays each.
+ */
+public final class RecipeTable {
+
+    static final int NO_OUTPUT = -1;
+
+    public static final RecipeTable EMPTY = new Builder("", 1, 1).build();
+
+    private final String machineType;
+    private final int inputCount;
+    private final int defaultTicks;
+
+    private final int[] outputs; // NO_OUTPUT = no recipe
+    private final int[] ticks;
+    private final boolean[] acceptsA;
+    private final boolean[] acceptsB;
+    private final int size;
+
+    private RecipeTable(Builder b) {
+        this.machineType = b.machineType;
+        this.inputCount = b.inputCount;
+        this.defaultTicks = b.defaultTicks;
+        this.outputs = b.outputs;
+        this.ticks = b.ticks;
+
+        this.acceptsA = new boolean[MatterIds.COUNT];
+        this.acceptsB = new boolean[MatterIds.COUNT];
+        int n = 0;
+        for (int key = 0; key < outputs.length; key++) {
+            if (outputs[key] == NO_OUTPUT) continue;
+            n++;
+            if (inputCount == 1) {
+                acceptsA[key] = true;
+            } else {
+                acceptsA[key / MatterIds.COUNT] = true;
+                acceptsB[key % MatterIds.COUNT] = true;
+            }
+        }
+        this.size = n;
+    }
+
+    public String machineType() { return machineType; }
+    public int inputCount() { return inputCount; }
+    public int defaultTicks() { return defaultTicks; }
+
+    /** Number of input combinations with a recipe. */
+    public int size() { return size; }
+
+    /** @return the recipe key for a one-input job, or -1 */
+    public int match(int idA) {
+        if (inputCount != 1 || idA < 0 || idA >= MatterIds.COUNT) return -1;
+        return (outputs[idA] != NO_OUTPUT) ? idA : -1;
+    }
+
+    /** @return the recipe key for a two-input job, or -1 */
+    public int match(int idA, int idB) {
+        if (inputCount != 2 || idA < 0 || idB < 0 || idA >= MatterIds.COUNT || idB >= MatterIds.COUNT) return -1;
+        int key = idA * MatterIds.COUNT + idB;
+        return (outputs[key] != NO_OUTPUT) ? key : -1;
+    }
+
+    public int outputId(int key) { return outputs[key]; }
+    public int ticks(int key) { return ticks[key]; }
+
+    /** True if some recipe takes this item in the given input slot (0 = A, 1 = B). */
+    public boolean accepts(int slot, int id) {
+        if (id < 0 || id >= MatterIds.COUNT) return false;
+        if (slot == 0) return acceptsA[id];
+        return slot == 1 && inputCount == 2 && acceptsB[id];
+    }
+
+    // ==========================================================
+    // BUILDER
+    // ==========================================================
+
+    static final class Builder {
+        private final String machineType;
+        private final int inputCount;
+        private final int defaultTicks;
+        private final int[] outputs;
+        private final int[] ticks;
+
+        Builder(String machineType, int inputCount, int defaultTicks) {
+            this.machineType = machineType;
+            this.inputCount = (inputCount == 2) ? 2 : 1;
+            this.defaultTicks = Math.max(1, defaultTicks);
+
+            int len = (this.inputCount == 2) ? MatterIds.COUNT * MatterIds.COUNT : MatterIds.COUNT;
+            this.outputs = new int[len];
+            this.ticks = new int[len];
+            Arrays.fill(outputs, NO_OUTPUT);
+        }
+
+        int inputCount() { return inputCount; }
+
+        /** idB is ignored by one-input tables; processTicks <= 0 means the type's default. */
+        Builder put(int idA, int idB, int outputId, int processTicks) {
+            int key = key(idA, idB);
+            if (key < 0 || outputId < 0 || outputId >= MatterIds.COUNT) return this;
+            outputs[key] = outputId;
+            ticks[key] = (processTicks > 0) ? processTicks : defaultTicks;
+            return this;
+        }
+
+        Builder remove(int idA, int idB) {
+            int key = key(idA, idB);
+            if (key >= 0) outputs[key] = NO_OUTPUT;
+            return this;
+        }
+
+        private int key(int idA, int idB) {
+            if (idA < 0 || idA >= MatterIds.COUNT) return -1;
+            if (inputCount == 1) return idA;
+            if (idB < 0 || idB >= MatterIds.COUNT) return -1;
+            return idA * MatterIds.COUNT + idB;
+        }
+
+        RecipeTable build() {
+            return new RecipeTable(this);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.matterworks.core.domain.player;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-player money balance in fixed-point cents.
+ *
+ * balance = base + credits
+ * - credits: LongAdder, only ever grows (sales from any tick worker: contention-free)
+ * - base:    AtomicLong, holds the initial/set value minus every debit
+ *
+ * Debits (purchases) are exact: tryDebit() CASes the base only if base + credits
+ * covers the amount. Since credits never shrink, a concurrent credit can only make
+ * the check more conservative, never allow an overdraft.
+ *
+ * THREADING NOTES:
+ * - credit()/tryDebit() are lock-free and safe from any thread.
+ * - balanceCents() returns a consistent value: base is re-read after summing the
+ *   credits and the read is retried if a debit/set happened in between.
+ */
+public final class MoneyLedger {
+
+    public static final long SCALE = 100L; // cents
+
+    private final AtomicLong base = new AtomicLong();
+    private final LongAdder credits = new LongAdder();
+
+    public static long toCents(double amount) {
+        if (Double.isNaN(amount) || Double.isInfinite(amount)) return 0L;
+        return Math.round(amount * SCALE);
+    }
+
+    public static double fromCents(long cents) {
+        return cents / (double) SCALE;
+    }
+
+    public long balanceCents() {
+        while (true) {
+            long b = base.get();
+            long c = credits.sum();
+            if (base.get() == b) return b + c;
+        }
+    }
+
+    public double balance() {
+        return fromCents(balanceCents());
+    }
+
+    /** Hot path (sales): never contends with other credits. */
+    public void credit(long cents) {
+        if (cents > 0L) credits.add(cents);
+        else if (cents < 0L) base.addAndGet(cents);
+    }
+
+    /**
+     * Exact debit: succeeds only if the balance covers the amount.
+     * @return false (and no change) when funds are insufficient
+     */
+    public boolean tryDebit(long cents) {
+        if (cents <= 0L) return true;
+        while (true) {
+            long b = base.get();
+            if (b + credits.sum() < cents) return false;
+            if (base.compareAndSet(b, b - cents)) return true;
+        }
+    }
+
+    /**
+     * Overwrites the balance (DB load / reset / prestige).
+     * A credit racing with this call is treated as happening after it.
+     */
+    public void set(long cents) {
+        while (true) {
+            long b = base.get();
+            long target = cents - credits.sum();
+            if (base.compareAndSet(b, target)) return;
+        }
+    }
+}
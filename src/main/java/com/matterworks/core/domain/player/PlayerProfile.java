@@ -3,6 +3,7 @@ package com.matterworks.core.domain.player;
 import java.util.HashSet;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class PlayerProfile {
 
@@ -10,7 +11,8 @@ public class PlayerProfile {
 
     private final UUID playerId;
     private String username;
-    private double money;
+    // Fixed-point, lock-free: safe for tick workers, UI and the async writer at the same time
+    private final MoneyLedger money = new MoneyLedger();
     private int voidCoins;
     private int prestigeLevel;
     private PlayerRank rank;
@@ -20,6 +22,10 @@ public class PlayerProfile {
 
     private Set<String> unlockedTechs = new HashSet<>();
 
+    // Persistence versioning: bumped on every change marked dirty, compared with the last persisted one
+    private final AtomicLong version = new AtomicLong();
+    private volatile long persistedVersion = 0L;
+
     // ==========================================================
     // OVERCLOCK (persisted in DB; based on PLAYTIME seconds)
     // ==========================================================
@@ -29,7 +35,6 @@ public class PlayerProfile {
 
     public PlayerProfile(UUID playerId) {
         this.playerId = playerId;
-        this.money = 0.0;
         this.voidCoins = 0;
         this.prestigeLevel = 0;
         this.rank = PlayerRank.PLAYER;
@@ -45,9 +50,15 @@ public class PlayerProfile {
     public String getUsername() { return username; }
     public void setUsername(String username) { this.username = username; }
 
-    public double getMoney() { return money; }
-    public void setMoney(double money) { this.money = money; }
-    public void modifyMoney(double amount) { this.money += amount; }
+    public double getMoney() { return money.balance(); }
+    public long getMoneyCents() { return money.balanceCents(); }
+    public void setMoney(double money) { this.money.set(MoneyLedger.toCents(money)); }
+
+    /** Credits (amount > 0) are contention-free; negative amounts are applied unconditionally. */
+    public void modifyMoney(double amount) { money.credit(MoneyLedger.toCents(amount)); }
+
+    /** Exact, atomic purchase: returns false (no change) if the balance does not cover it. */
+    public boolean tryDebitMoney(double amount) { return money.tryDebit(MoneyLedger.toCents(amount)); }
 
     public int getVoidCoins() { return voidCoins; }
     public void setVoidCoins(int voidCoins) { this.voidCoins = voidCoins; }
@@ -56,6 +67,21 @@ public class PlayerProfile {
     public int getPrestigeLevel() { return prestigeLevel; }
     public void setPrestigeLevel(int prestigeLevel) { this.prestigeLevel = prestigeLevel; }
 
+    // ==========================================================
+    // PERSISTENCE VERSION
+    // ==========================================================
+    public long getVersion() { return version.get(); }
+    public long bumpVersion() { return version.incrementAndGet(); }
+
+    public long getPersistedVersion() { return persistedVersion; }
+
+    /** Called after a successful save of the state read at {@code savedVersion}. */
+    public void markPersisted(long savedVersion) {
+        if (savedVersion > persistedVersion) persistedVersion = savedVersion;
+    }
+
+    public boolean isPersistedCurrent() { return persistedVersion >= version.get(); }
+
     // ==========================================================
     // CHOSEN FACTION (profile-only, nullable)
     // ==========================================================
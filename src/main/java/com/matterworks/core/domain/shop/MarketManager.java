@@ -1,14 +1,17 @@
 package com.matterworks.core.domain.shop;
 
+import com.matterworks.core.database.DbScheduler;
 import com.matterworks.core.domain.factions.FactionDefinition;
 import com.matterworks.core.domain.factions.FactionPricingRule;
 import com.matterworks.core.domain.matter.MatterColor;
 import com.matterworks.core.domain.matter.MatterEffect;
+import com.matterworks.core.domain.matter.MatterIds;
 import com.matterworks.core.domain.matter.MatterPayload;
 import com.matterworks.core.domain.matter.MatterShape;
 import com.matterworks.core.domain.player.PlayerProfile;
 import com.matterworks.core.domain.telemetry.production.ProductionTelemetry;
 import com.matterworks.core.managers.GridManager;
+import com.matterworks.core.synchronization.SimTime;
 import com.matterworks.core.ui.MariaDBAdapter;
 import com.matterworks.core.ui.ServerConfig;
 
@@ -17,7 +20,7 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.UUID;
-import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
 
@@ -35,21 +38,31 @@ public class MarketManager {
     private static final double MIN_SELL_MULT = 0.10;
     private static final double MAX_SELL_MULT = 10.0;
 
+    private static final long PRESTIGE_FACTOR_TTL_MS = 1_000L;
+
+    // Transaction item key per matter id (same text as legacy item.toString(), built once)
+    private static final String[] ITEM_KEYS = new String[MatterIds.COUNT];
+    static {
+        for (int id = 0; id < MatterIds.COUNT; id++) ITEM_KEYS[id] = MatterIds.payloadOf(id).toString().intern();
+    }
+
     private final GridManager gridManager;
     private final MariaDBAdapter repository;
-    private final ExecutorService ioExecutor;
+    private final DbScheduler dbScheduler;
 
     private final AtomicReference<Cache> cacheRef = new AtomicReference<>(Cache.empty());
+    private final AtomicReference<PriceTable> priceTableRef = new AtomicReference<>(PriceTable.EMPTY);
+    private final ConcurrentHashMap<UUID, PrestigeFactor> prestigeFactors = new ConcurrentHashMap<>();
     private final AtomicBoolean refreshInFlight = new AtomicBoolean(false);
     private volatile long nextRefreshAttemptAtMs = 0L;
 
-    public MarketManager(GridManager gridManager, MariaDBAdapter repository, ExecutorService ioExecutor) {
+    public MarketManager(GridManager gridManager, MariaDBAdapter repository, DbScheduler dbScheduler) {
         this.gridManager = gridManager;
         this.repository = repository;
-        this.ioExecutor = ioExecutor;
+        this.dbScheduler = dbScheduler;
 
         // Kick an initial async refresh (non-blocking)
-        maybeTriggerCacheRefreshAsync(System.currentTimeMillis(), true);
+        maybeTriggerCacheRefreshAsync(SimTime.nowMs(), true);
     }
 
     // ==========================================================
@@ -66,7 +79,9 @@ public class MarketManager {
 
         if (!refreshInFlight.compareAndSet(false, true)) return;
 
-        ioExecutor.submit(() -> {
+        // Analytics read: if it waits too long for a connection it is shed, the next call retries.
+        // Under the replay tick clock it runs inline, so new prices apply on the same tick every run.
+        Runnable refresh = () -> {
             try {
                 // ---------- Faction ----------
                 int activeFactionId = 1;
@@ -107,14 +122,22 @@ public class MarketManager {
                 );
 
                 cacheRef.set(updated);
+                priceTableRef.set(compilePriceTable(updated, serverConfigOrNull()));
                 nextRefreshAttemptAtMs = nowMs + CACHE_TTL_MS;
 
             } catch (Throwable t) {
-                nextRefreshAttemptAtMs = System.currentTimeMillis() + CACHE_FAIL_BACKOFF_MS;
+                nextRefreshAttemptAtMs = SimTime.nowMs() + CACHE_FAIL_BACKOFF_MS;
             } finally {
                 refreshInFlight.set(false);
             }
-        });
+        };
+
+        if (SimTime.isTickClock()) {
+            refresh.run();
+        } else {
+            dbScheduler.executeRead(DbScheduler.Lane.ANALYTICS, DbScheduler.DEFAULT_STALE_READ_MS, refresh,
+                    () -> refreshInFlight.set(false));
+        }
     }
 
     private static <E extends Enum<E>> Map<E, Double> mergeEnumMap(
@@ -141,44 +164,30 @@ public class MarketManager {
     // SELL
     // ==========================================================
 
+    /**
+     * Hot path (Nexus tick): one matter-id computation, one table load, one prestige factor.
+     * No DB, no rule scan, no String building.
+     */
     public double sellItem(MatterPayload item, UUID sellerId) {
         if (item == null || sellerId == null) return 0.0;
 
-        long nowMs = System.currentTimeMillis();
+        long nowMs = SimTime.nowMs();
         maybeTriggerCacheRefreshAsync(nowMs, false);
 
-        Cache cache = cacheRef.get();
-
-        double baseValue = calculateBaseValue(item, cache);
-        double value = baseValue;
+        PriceTable table = currentPriceTable();
+        int id = MatterIds.of(item);
 
-        // Read config flags (cached in GridRuntimeState, DB-backed)
-        ServerConfig cfg = null;
-        try { cfg = gridManager.getServerConfig(); } catch (Throwable ignored) {}
-        boolean enableFaction = (cfg == null) || cfg.enableFactionPriceMultiplier();
-        boolean enablePrestige = (cfg == null) || cfg.enablePrestigeSellMultiplier();
-
-        // 1) faction multiplier (optional)
-        FactionPricingRule appliedRule = null;
-        double factionMult = 1.0;
-
-        if (enableFaction) {
-            try {
-                appliedRule = findBestMatchingRule(item, cache.rulesForActiveFaction);
-                factionMult = (appliedRule != null ? appliedRule.multiplier() : 1.0);
-            } catch (Throwable ignored) {}
-            factionMult = sanitizeMultiplier(factionMult);
-            value = value * factionMult;
-        }
+        // base + faction multiplier (optional) are baked into the table
+        double value = table.sellPrice[id];
 
-        // 2) prestige multiplier (optional)
-        if (enablePrestige) {
-            value = applyPrestigeSellMultiplier(value, sellerId);
+        // prestige multiplier (optional), cached per player
+        if (table.prestigeEnabled) {
+            value *= prestigeFactor(sellerId, table.prestigeSellK, nowMs);
         }
 
         // NO NEXUS tier boost (explicitly excluded)
 
-        gridManager.addMoney(sellerId, value, "MATTER_SELL", item.toString());
+        gridManager.addMoney(sellerId, value, "MATTER_SELL", ITEM_KEYS[id]);
 
         try {
             ProductionTelemetry telemetry = gridManager.getProductionTelemetry();
@@ -188,8 +197,115 @@ public class MarketManager {
         return value;
     }
 
+    /**
+     * Batch sell (Nexus drains everything due this tick in one call).
+     *
+     * @param counts quantities indexed by MatterIds id (not modified)
+     * @return total money credited
+     *
+     * One money delta for the whole batch, one aggregated transaction and one
+     * telemetry update per item type.
+     */
+    public double sellItems(UUID sellerId, int[] counts) {
+        if (sellerId == null || counts == null) return 0.0;
+
+        int types = 0;
+        int lim = Math.min(counts.length, MatterIds.COUNT);
+        for (int id = 0; id < lim; id++) if (counts[id] > 0) types++;
+        if (types == 0) return 0.0;
+
+        long nowMs = SimTime.nowMs();
+        maybeTriggerCacheRefreshAsync(nowMs, false);
+
+        PriceTable table = currentPriceTable();
+        double prestige = table.prestigeEnabled ? prestigeFactor(sellerId, table.prestigeSellK, nowMs) : 1.0;
+
+        int[] ids = new int[types];
+        String[] keys = new String[types];
+        double[] values = new double[types];
+
+        int n = 0;
+        double total = 0.0;
+        for (int id = 0; id < lim; id++) {
+            int c = counts[id];
+            if (c <= 0) continue;
+
+            double v = table.sellPrice[id] * prestige * c;
+            ids[n] = id;
+            keys[n] = ITEM_KEYS[id];
+            values[n] = v;
+            total += v;
+            n++;
+        }
+
+        gridManager.addMoneyBatch(sellerId, "MATTER_SELL", keys, values, n);
+
+        try {
+            ProductionTelemetry telemetry = gridManager.getProductionTelemetry();
+            if (telemetry != null) {
+                for (int i = 0; i < n; i++) {
+                    telemetry.recordSold(sellerId, MatterIds.payloadOf(ids[i]), counts[ids[i]], values[i]);
+                }
+            }
+        } catch (Throwable ignored) {}
+
+        return total;
+    }
+
+    /** Drops cached per-player sell factors (call after prestige changes). */
+    public void invalidateSellerFactors(UUID playerId) {
+        if (playerId != null) prestigeFactors.remove(playerId);
+    }
+
+    // ==========================================================
+    // PRICE TABLE (compiled per cache refresh / config change)
+    // ==========================================================
+
+    private ServerConfig serverConfigOrNull() {
+        try { return gridManager.getServerConfig(); } catch (Throwable ignored) { return null; }
+    }
+
+    /**
+     * The table is rebuilt (no DB, in-memory only) when either the market cache or the
+     * cached ServerConfig instance changes; otherwise it is just a volatile read.
+     */
+    private PriceTable currentPriceTable() {
+        PriceTable t = priceTableRef.get();
+        Cache cache = cacheRef.get();
+        ServerConfig cfg = serverConfigOrNull();
+
+        if (t.source != cache || t.cfg != cfg) {
+            t = compilePriceTable(cache, cfg);
+            priceTableRef.set(t);
+        }
+        return t;
+    }
+
+    private PriceTable compilePriceTable(Cache cache, ServerConfig cfg) {
+        boolean enableFaction = (cfg == null) || cfg.enableFactionPriceMultiplier();
+        boolean enablePrestige = (cfg == null) || cfg.enablePrestigeSellMultiplier();
+        double k = (cfg != null ? Math.max(0.0, cfg.prestigeSellK()) : 0.0);
+        if (Double.isNaN(k) || Double.isInfinite(k)) k = 0.0;
+
+        double[] prices = new double[MatterIds.COUNT];
+        for (int id = 0; id < MatterIds.COUNT; id++) {
+            MatterPayload canonical = MatterIds.payloadOf(id);
+            double value = calculateBaseValue(canonical, cache);
+
+            if (enableFaction) {
+                double factionMult = 1.0;
+                try {
+                    FactionPricingRule rule = findBestMatchingRule(canonical, cache.rulesForActiveFaction);
+                    factionMult = (rule != null ? rule.multiplier() : 1.0);
+                } catch (Throwable ignored) {}
+                value = value * sanitizeMultiplier(factionMult);
+            }
 
+            prices[id] = value;
+        }
 
+        return new PriceTable(cache, cfg, prices, enablePrestige && k > 0.0, k);
+    }
 
     // ==========================================================
     // PRICING RULES (FACTIONS)
@@ -299,26 +415,21 @@ public class MarketManager {
     }
 
     // ==========================================================
-    // PRESTIGE SELL MULT (DB config)
+    // PRESTIGE SELL MULT (cached ServerConfig, per-player factor with short TTL)
     // ==========================================================
 
-    private double applyPrestigeSellMultiplier(double value, UUID sellerId) {
-        if (sellerId == null) return value;
+    private double prestigeFactor(UUID sellerId, double k, long nowMs) {
+        PrestigeFactor f = prestigeFactors.get(sellerId);
+        if (f != null && f.validUntilMs > nowMs && f.k == k) return f.mult;
 
         PlayerProfile p = gridManager.getCachedProfile(sellerId);
         int prestige = (p != null ? Math.max(0, p.getPrestigeLevel()) : 0);
-        if (prestige <= 0) return value;
-
-        ServerConfig cfg = null;
-        try { cfg = repository.loadServerConfig(); } catch (Throwable ignored) {}
-
-        double k = (cfg != null ? Math.max(0.0, cfg.prestigeSellK()) : 0.0);
-        if (k <= 0.0) return value;
 
         double mult = 1.0 + prestige * k;
-        if (Double.isNaN(mult) || Double.isInfinite(mult) || mult <= 0.0) return value;
+        if (Double.isNaN(mult) || Double.isInfinite(mult) || mult <= 0.0) mult = 1.0;
 
-        return value * mult;
+        prestigeFactors.put(sellerId, new PrestigeFactor(k, mult, nowMs + PRESTIGE_FACTOR_TTL_MS));
+        return mult;
     }
 
     // ==========================================================
@@ -328,12 +439,10 @@ public class MarketManager {
     private double applyNexusTechSellMultiplier(double value, UUID sellerId) {
         if (sellerId == null) return value;
 
-        PlayerProfile p = gridManager.getCachedProfile(sellerId);
-        if (p == null) return value;
-
+        // Compiled per-player stats: no tech-tree scan per sale
         double techMult = 1.0;
         try {
-            techMult = gridManager.getTechManager().getTechNexusSellMultiplier(p);
+            techMult = gridManager.getTechNexusSellMultiplier(sellerId);
         } catch (Throwable ignored) {}
 
         if (Double.isNaN(techMult) || Double.isInfinite(techMult) || techMult <= 0.0) return value;
@@ -386,6 +495,30 @@ public class MarketManager {
     // CACHE STRUCT
     // ==========================================================
 
+    private record PrestigeFactor(double k, double mult, long validUntilMs) {}
+
+    /**
+     * Flat sell prices indexed by MatterIds (base value x faction multiplier).
+     * Immutable: replaced as a whole, never mutated.
+     */
+    private static final class PriceTable {
+        static final PriceTable EMPTY = new PriceTable(null, null, new double[MatterIds.COUNT], false, 0.0);
+
+        final Cache source;
+        final ServerConfig cfg;
+        final double[] sellPrice;
+        final boolean prestigeEnabled;
+        final double prestigeSellK;
+
+        PriceTable(Cache source, ServerConfig cfg, double[] sellPrice, boolean prestigeEnabled, double prestigeSellK) {
+            this.source = source;
+            this.cfg = cfg;
+            this.sellPrice = sellPrice;
+            this.prestigeEnabled = prestigeEnabled;
+            this.prestigeSellK = prestigeSellK;
+        }
+    }
+
     private static final class Cache {
         final long loadedAtMs;
 
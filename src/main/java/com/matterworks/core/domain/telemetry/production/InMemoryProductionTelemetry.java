@@ -2,25 +2,50 @@ package com.matterworks.core.domain.telemetry.production;
 
 import com.matterworks.core.domain.matter.MatterPayload;
 
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
 import java.time.Clock;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 /**
- * Bucket-based ring buffer.
- * - bucketSizeSeconds: 5 seconds
- * - retention: 10 minutes (covers 1m/5m/10m)
+ * Multi-resolution bucket ring buffers.
+ * - RAW tier:    5s buckets,  10 minutes (answers 1m/5m/10m, written by record*())
+ * - MINUTE tier: 1m buckets,  ~1 hour   (answers 1h)
+ * - HOUR tier:   1h buckets,  ~1 day    (answers 24h)
+ * - DAY tier:    1d buckets,  ~1 week   (answers 7d)
+ *
+ * Coarse tiers are filled by rollup(): closed buckets are folded into the next tier
+ * and flagged "rolledUp". A long window reads its own tier plus the not-yet-rolled
+ * buckets of the finer tiers, so it never scans raw data.
  *
  * PERFORMANCE NOTES:
- * - record*() is in the simulation hot path -> must be allocation-light.
+ * - record*() is in the simulation hot path -> must be allocation-free and lock-free.
+ *   It only touches the RAW tier: rollups never add cost to recording.
  * - Avoid Instant allocations: use clock.millis() / 1000
- * - Avoid Long boxing: use MutableLong counters in buckets
+ * - Counters are dense primitive arrays indexed by the compact matter id
+ *   (see MatterTelemetryKeys.matterIndex): no String keys, no map lookups, no boxing.
+ * - Color stats are NOT stored: color is encoded in the matter id and folded at snapshot time.
+ * - String keys are resolved only in snapshot().
+ * - Memory per player is bounded: at most (120 + 62 + 26 + 8) slots, allocated lazily.
  *
  * THREADING NOTES:
- * - UI may call getSnapshot() concurrently with simulation record*().
- * - We synchronize per-player buffer to avoid ConcurrentModificationException.
+ * - record*() can be called by any tick worker: counters are updated with atomic
+ *   VarHandle ops (getAndAdd for long[], CAS loop for double[]).
+ * - Bucket rotation swaps in a fresh Slot with a CAS: no writer ever clears data under
+ *   another writer's feet. Allocation happens at most once per bucket per player.
+ * - rollup()/writeHistory()/readHistory() are expected from a single background thread
+ *   (see ProductionHistoryStore).
+ * - UI may call getSnapshot() concurrently: it reads with volatile loads, values are
+ *   consistent per counter (not across counters, which is fine for telemetry).
  */
 public final class InMemoryProductionTelemetry implements ProductionTelemetry {
 
@@ -28,6 +53,27 @@ public final class InMemoryProductionTelemetry implements ProductionTelemetry {
     private static final int RETENTION_SECONDS = 10 * 60;
     private static final int BUCKET_COUNT = RETENTION_SECONDS / BUCKET_SIZE_SECONDS; // 120
 
+    // Rollup tiers: +1/+2 slots so that a full window with partial edges always fits.
+    private static final int[] TIER_BUCKET_SECONDS = {BUCKET_SIZE_SECONDS, 60, 60 * 60, 24 * 60 * 60};
+    private static final int[] TIER_BUCKET_COUNT = {BUCKET_COUNT, 62, 26, 8};
+
+    private static final int TIER_RAW = 0;
+    private static final int TIER_MINUTE = 1;
+    private static final int TIER_HOUR = 2;
+    private static final int TIER_DAY = 3;
+
+    /** A closed bucket is rolled up only after this grace (late writers near the boundary). */
+    private static final int ROLLUP_GRACE_SECONDS = 2;
+
+    private static final int HISTORY_MAGIC = 0x4D575448; // "MWTH"
+    private static final int HISTORY_VERSION = 1;
+
+    private static final int MATTER_COUNT = MatterTelemetryKeys.matterCount();
+    private static final int COLOR_COUNT = MatterTelemetryKeys.colorCount();
+
+    private static final VarHandle LONGS = MethodHandles.arrayElementVarHandle(long[].class);
+    private static final VarHandle DOUBLES = MethodHandles.arrayElementVarHandle(double[].class);
+
     private final Clock clock;
     private final ConcurrentHashMap<UUID, PlayerBuffer> buffers = new ConcurrentHashMap<>();
 
@@ -42,20 +88,27 @@ public final class InMemoryProductionTelemetry implements ProductionTelemetry {
     @Override
     public void recordProduced(UUID playerId, MatterPayload payload, long quantity) {
         if (playerId == null || payload == null || quantity <= 0) return;
-        getOrCreate(playerId).recordProduced(nowEpochSeconds(), payload, quantity);
+        Slot s = getOrCreate(playerId).raw().slotFor(nowEpochSeconds());
+        LONGS.getAndAdd(s.produced, MatterTelemetryKeys.matterIndex(payload), quantity);
     }
 
     @Override
     public void recordConsumed(UUID playerId, MatterPayload payload, long quantity) {
         if (playerId == null || payload == null || quantity <= 0) return;
-        getOrCreate(playerId).recordConsumed(nowEpochSeconds(), payload, quantity);
+        Slot s = getOrCreate(playerId).raw().slotFor(nowEpochSeconds());
+        LONGS.getAndAdd(s.consumed, MatterTelemetryKeys.matterIndex(payload), quantity);
     }
 
     @Override
     public void recordSold(UUID playerId, MatterPayload payload, long quantity, double moneyEarned) {
         if (playerId == null || payload == null || quantity <= 0) return;
         double money = Math.max(0.0, moneyEarned);
-        getOrCreate(playerId).recordSold(nowEpochSeconds(), payload, quantity, money);
+
+        Slot s = getOrCreate(playerId).raw().slotFor(nowEpochSeconds());
+        int idx = MatterTelemetryKeys.matterIndex(payload);
+
+        LONGS.getAndAdd(s.soldQty, idx, quantity);
+        if (money > 0.0) addDouble(s.soldMoney, idx, money);
     }
 
     @Override
@@ -70,6 +123,149 @@ public final class InMemoryProductionTelemetry implements ProductionTelemetry {
         return buffer.snapshot(nowEpochSeconds(), w);
     }
 
+    // ==========================================================
+    // ROLLUP / HISTORY (background thread only)
+    // ==========================================================
+
+    /**
+     * Folds closed buckets into the coarser tiers for every player.
+     * @return players whose long-horizon history changed (candidates for persistence)
+     */
+    public List<UUID> rollupAll() {
+        long nowSec = nowEpochSeconds();
+        List<UUID> changed = new ArrayList<>();
+        for (Map.Entry<UUID, PlayerBuffer> e : buffers.entrySet()) {
+            if (e.getValue().rollup(nowSec)) changed.add(e.getKey());
+        }
+        return changed;
+    }
+
+    public List<UUID> activePlayers() {
+        return new ArrayList<>(buffers.keySet());
+    }
+
+    public boolean hasHistory(UUID playerId) {
+        return playerId != null && buffers.containsKey(playerId);
+    }
+
+    /** Drops the in-memory history of a player (after it has been persisted). */
+    public void evict(UUID playerId) {
+        if (playerId != null) buffers.remove(playerId);
+    }
+
+    /**
+     * Compact binary dump: only allocated slots, counters written sparse (idx,value).
+     * @return false if there is nothing to write for this player
+     */
+    public boolean writeHistory(UUID playerId, DataOutputStream out) throws IOException {
+        PlayerBuffer b = (playerId != null) ? buffers.get(playerId) : null;
+        if (b == null) return false;
+
+        out.writeInt(HISTORY_MAGIC);
+        out.writeInt(HISTORY_VERSION);
+        out.writeInt(MATTER_COUNT);
+        out.writeInt(b.tiers.length);
+
+        for (Tier t : b.tiers) {
+            out.writeInt(t.bucketSeconds);
+
+            int n = 0;
+            for (int i = 0; i < t.slots.length(); i++) if (t.slots.get(i) != null) n++;
+            out.writeInt(n);
+
+            for (int i = 0; i < t.slots.length(); i++) {
+                Slot s = t.slots.get(i);
+                if (s == null) continue;
+                out.writeLong(s.startSeconds);
+                out.writeBoolean(s.rolledUp);
+                writeSparse(out, s.produced);
+                writeSparse(out, s.consumed);
+                writeSparse(out, s.soldQty);
+                writeSparse(out, s.soldMoney);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Restores a dump produced by writeHistory(). No-op if the player already has
+     * in-memory history (it is newer than anything on disk) or the format changed.
+     */
+    public boolean readHistory(UUID playerId, DataInputStream in) throws IOException {
+        if (playerId == null || buffers.containsKey(playerId)) return false;
+
+        if (in.readInt() != HISTORY_MAGIC) return false;
+        if (in.readInt() != HISTORY_VERSION) return false;
+        if (in.readInt() != MATTER_COUNT) return false; // enums changed: ids are not stable
+
+        PlayerBuffer b = new PlayerBuffer();
+        int tierCount = in.readInt();
+
+        for (int ti = 0; ti < tierCount; ti++) {
+            int bucketSeconds = in.readInt();
+            Tier t = (ti < b.tiers.length && b.tiers[ti].bucketSeconds == bucketSeconds) ? b.tiers[ti] : null;
+
+            int n = in.readInt();
+            for (int k = 0; k < n; k++) {
+                Slot s = new Slot(in.readLong());
+                s.rolledUp = in.readBoolean();
+                readSparse(in, s.produced);
+                readSparse(in, s.consumed);
+                readSparse(in, s.soldQty);
+                readSparse(in, s.soldMoney);
+                if (t != null) t.install(s);
+            }
+        }
+
+        return buffers.putIfAbsent(playerId, b) == null;
+    }
+
+    private static void writeSparse(DataOutputStream out, long[] arr) throws IOException {
+        int n = 0;
+        for (long v : arr) if (v != 0L) n++;
+        out.writeShort(n);
+        for (int i = 0; i < arr.length; i++) {
+            long v = (long) LONGS.getVolatile(arr, i);
+            if (v == 0L) continue;
+            if (n-- <= 0) break; // concurrent writer turned a zero into non-zero: keep count consistent
+            out.writeShort(i);
+            out.writeLong(v);
+        }
+        while (n-- > 0) { out.writeShort(0); out.writeLong(0L); }
+    }
+
+    private static void writeSparse(DataOutputStream out, double[] arr) throws IOException {
+        int n = 0;
+        for (double v : arr) if (v != 0.0) n++;
+        out.writeShort(n);
+        for (int i = 0; i < arr.length; i++) {
+            double v = (double) DOUBLES.getVolatile(arr, i);
+            if (v == 0.0) continue;
+            if (n-- <= 0) break;
+            out.writeShort(i);
+            out.writeDouble(v);
+        }
+        while (n-- > 0) { out.writeShort(0); out.writeDouble(0.0); }
+    }
+
+    private static void readSparse(DataInputStream in, long[] arr) throws IOException {
+        int n = in.readUnsignedShort();
+        for (int k = 0; k < n; k++) {
+            int i = in.readUnsignedShort();
+            long v = in.readLong();
+            if (i < arr.length) arr[i] += v;
+        }
+    }
+
+    private static void readSparse(DataInputStream in, double[] arr) throws IOException {
+        int n = in.readUnsignedShort();
+        for (int k = 0; k < n; k++) {
+            int i = in.readUnsignedShort();
+            double v = in.readDouble();
+            if (i < arr.length) arr[i] += v;
+        }
+    }
+
     private ProductionStatsSnapshot emptySnapshot(ProductionTimeWindow window) {
         return new ProductionStatsSnapshot(
                 window,
@@ -81,7 +277,9 @@ public final class InMemoryProductionTelemetry implements ProductionTelemetry {
     }
 
     private PlayerBuffer getOrCreate(UUID playerId) {
-        // lambda here is not in the hot path (only first time per player)
+        // fast path: plain get, lambda only the first time per player
+        PlayerBuffer b = buffers.get(playerId);
+        if (b != null) return b;
         return buffers.computeIfAbsent(playerId, _ignored -> new PlayerBuffer());
     }
 
@@ -93,17 +291,16 @@ public final class InMemoryProductionTelemetry implements ProductionTelemetry {
         return clock.millis() / 1000L;
     }
 
-    private static int bucketIndex(long bucketStartSeconds) {
-        long bucket = (bucketStartSeconds / BUCKET_SIZE_SECONDS);
-        return (int) (bucket % BUCKET_COUNT);
+    private static int tierFor(ProductionTimeWindow window) {
+        int sec = window.getSeconds();
+        if (sec <= RETENTION_SECONDS) return TIER_RAW;
+        if (sec <= 60 * 60) return TIER_MINUTE;
+        if (sec <= 24 * 60 * 60) return TIER_HOUR;
+        return TIER_DAY;
     }
 
-    private static long bucketStartSeconds(long epochSeconds) {
-        return (epochSeconds / BUCKET_SIZE_SECONDS) * BUCKET_SIZE_SECONDS;
-    }
-
-    private static double overlapFraction(long bucketStart, long windowStart, long windowEndExclusive) {
-        long bucketEnd = bucketStart + BUCKET_SIZE_SECONDS;
+    private static double overlapFraction(long bucketStart, int bucketSeconds, long windowStart, long windowEndExclusive) {
+        long bucketEnd = bucketStart + bucketSeconds;
 
         long a = Math.max(bucketStart, windowStart);
         long b = Math.min(bucketEnd, windowEndExclusive);
@@ -111,163 +308,243 @@ public final class InMemoryProductionTelemetry implements ProductionTelemetry {
         long overlap = b - a;
         if (overlap <= 0) return 0.0;
 
-        if (overlap >= BUCKET_SIZE_SECONDS) return 1.0;
-        return overlap / (double) BUCKET_SIZE_SECONDS;
+        if (overlap >= bucketSeconds) return 1.0;
+        return overlap / (double) bucketSeconds;
     }
 
-    private static void addScaledLongMap(Map<String, MutableLong> src, Map<String, Double> dst, double factor) {
-        if (factor <= 0.0) return;
-        for (Map.Entry<String, MutableLong> e : src.entrySet()) {
-            long v = e.getValue().get();
-            if (v <= 0) continue;
-            dst.put(e.getKey(), dst.getOrDefault(e.getKey(), 0.0) + (v * factor));
+    /**
+     * Lock-free double accumulation (VarHandle has no getAndAdd for double arrays).
+     */
+    private static void addDouble(double[] arr, int idx, double delta) {
+        while (true) {
+            double prev = (double) DOUBLES.getVolatile(arr, idx);
+            if (DOUBLES.weakCompareAndSet(arr, idx, prev, prev + delta)) return;
         }
     }
 
-    private static void addScaledSoldMap(Map<String, SoldStats> src, Map<String, SoldAcc> dst, double factor) {
-        if (factor <= 0.0) return;
-        for (Map.Entry<String, SoldStats> e : src.entrySet()) {
-            SoldStats s = e.getValue();
-            if (s == null) continue;
+    private static void addScaled(long[] src, double[] dst, double factor) {
+        for (int i = 0; i < src.length; i++) {
+            long v = (long) LONGS.getVolatile(src, i);
+            if (v > 0) dst[i] += v * factor;
+        }
+    }
 
-            long q = s.getQuantity();
-            double m = s.getMoneyEarned();
-            if (q <= 0 && m <= 0.0) continue;
+    private static void addScaled(double[] src, double[] dst, double factor) {
+        for (int i = 0; i < src.length; i++) {
+            double v = (double) DOUBLES.getVolatile(src, i);
+            if (v > 0.0) dst[i] += v * factor;
+        }
+    }
 
-            SoldAcc acc = dst.get(e.getKey());
-            if (acc == null) {
-                acc = new SoldAcc();
-                dst.put(e.getKey(), acc);
-            }
-            acc.qty += q * factor;
-            acc.money += m * factor;
+    private static void mergeInto(Slot dst, Slot src) {
+        for (int i = 0; i < MATTER_COUNT; i++) {
+            long p = (long) LONGS.getVolatile(src.produced, i);
+            if (p != 0L) LONGS.getAndAdd(dst.produced, i, p);
+
+            long c = (long) LONGS.getVolatile(src.consumed, i);
+            if (c != 0L) LONGS.getAndAdd(dst.consumed, i, c);
+
+            long q = (long) LONGS.getVolatile(src.soldQty, i);
+            if (q != 0L) LONGS.getAndAdd(dst.soldQty, i, q);
+
+            double m = (double) DOUBLES.getVolatile(src.soldMoney, i);
+            if (m != 0.0) addDouble(dst.soldMoney, i, m);
+        }
+    }
+
+    private static double[] foldByColor(double[] byMatter) {
+        double[] out = new double[COLOR_COUNT];
+        for (int i = 0; i < byMatter.length; i++) {
+            double v = byMatter[i];
+            if (v > 0.0) out[MatterTelemetryKeys.colorIndexOfMatter(i)] += v;
         }
+        return out;
     }
 
-    private static Map<String, Long> toRoundedLongMap(Map<String, Double> src) {
+    private static Map<String, Long> toRoundedMatterMap(double[] src) {
         Map<String, Long> out = new HashMap<>();
-        for (Map.Entry<String, Double> e : src.entrySet()) {
-            double d = e.getValue();
-            if (d <= 0.0) continue;
-            long v = Math.round(d);
-            if (v > 0) out.put(e.getKey(), v);
+        for (int i = 0; i < src.length; i++) {
+            long v = Math.round(src[i]);
+            if (v > 0) out.put(MatterTelemetryKeys.matterKeyAt(i), v);
         }
         return out;
     }
 
-    private static Map<String, SoldStats> toRoundedSoldMap(Map<String, SoldAcc> src) {
-        Map<String, SoldStats> out = new HashMap<>();
-        for (Map.Entry<String, SoldAcc> e : src.entrySet()) {
-            SoldAcc a = e.getValue();
-            if (a == null) continue;
+    private static Map<String, Long> toRoundedColorMap(double[] src) {
+        Map<String, Long> out = new HashMap<>();
+        for (int i = 0; i < src.length; i++) {
+            long v = Math.round(src[i]);
+            if (v > 0) out.put(MatterTelemetryKeys.colorKeyAt(i), v);
+        }
+        return out;
+    }
 
-            long q = Math.round(a.qty);
-            double m = a.money;
+    private static Map<String, SoldStats> toRoundedSoldMap(double[] qty, double[] money, boolean byColor) {
+        Map<String, SoldStats> out = new HashMap<>();
+        for (int i = 0; i < qty.length; i++) {
+            long q = Math.round(qty[i]);
+            double m = money[i];
 
             if (q <= 0 && m <= 0.0) continue;
-            out.put(e.getKey(), new SoldStats(Math.max(0L, q), Math.max(0.0, m)));
+
+            String key = byColor ? MatterTelemetryKeys.colorKeyAt(i) : MatterTelemetryKeys.matterKeyAt(i);
+            out.put(key, new SoldStats(Math.max(0L, q), Math.max(0.0, m)));
         }
         return out;
     }
 
     /**
-     * Minimal mutable long to avoid boxing.
+     * One bucket. Immutable start, dense counters indexed by matter id.
+     * ~4 * matterCount * 8 bytes (8 KB with current enums).
      */
-    private static final class MutableLong {
-        long v;
-        MutableLong(long v) { this.v = v; }
-        void add(long x) { this.v += x; }
-        long get() { return v; }
-    }
+    private static final class Slot {
+        final long startSeconds;
+
+        final long[] produced = new long[MATTER_COUNT];
+        final long[] consumed = new long[MATTER_COUNT];
+        final long[] soldQty = new long[MATTER_COUNT];
+        final double[] soldMoney = new double[MATTER_COUNT];
+
+        // true once folded into the next tier (set only by the rollup thread)
+        volatile boolean rolledUp;
 
-    private static final class SoldAcc {
-        double qty;
-        double money;
+        Slot(long startSeconds) {
+            this.startSeconds = startSeconds;
+        }
     }
 
-    private static final class PlayerBuffer {
-        private final Bucket[] buckets = new Bucket[BUCKET_COUNT];
+    /**
+     * Fixed-size ring of lazily allocated slots for one resolution.
+     */
+    private static final class Tier {
+        final int bucketSeconds;
+        // Slots are allocated lazily: idle buckets cost nothing.
+        final AtomicReferenceArray<Slot> slots;
+
+        Tier(int bucketSeconds, int bucketCount) {
+            this.bucketSeconds = bucketSeconds;
+            this.slots = new AtomicReferenceArray<>(bucketCount);
+        }
 
-        PlayerBuffer() {
-            for (int i = 0; i < buckets.length; i++) buckets[i] = new Bucket();
+        long bucketStart(long epochSeconds) {
+            return Math.floorDiv(epochSeconds, bucketSeconds) * bucketSeconds;
+        }
+
+        int indexOf(long bucketStart) {
+            return (int) Math.floorMod(bucketStart / bucketSeconds, (long) slots.length());
         }
 
         /**
-         * Hot path: synchronized per-player to avoid snapshot() iterating while we mutate maps.
+         * Returns the slot for the bucket containing "sec", swapping in a fresh one when the ring wrapped.
+         * The CAS loser simply re-reads the winner's slot.
+         * If the ring already holds a newer bucket at that index, that one is returned (caller must check).
          */
-        synchronized void recordProduced(long nowSec, MatterPayload payload, long qty) {
-            Bucket b = rotateAndGetLocked(nowSec);
-            inc(b.producedByColor, MatterTelemetryKeys.colorKey(payload), qty);
-            inc(b.producedByMatter, MatterTelemetryKeys.matterKey(payload), qty);
+        Slot slotFor(long sec) {
+            long start = bucketStart(sec);
+            int idx = indexOf(start);
+
+            Slot s = slots.get(idx);
+            while (s == null || s.startSeconds != start) {
+                if (s != null && s.startSeconds > start) return s; // clock went backwards: keep newest
+                Slot fresh = new Slot(start);
+                if (slots.compareAndSet(idx, s, fresh)) return fresh;
+                s = slots.get(idx);
+            }
+            return s;
         }
 
-        synchronized void recordConsumed(long nowSec, MatterPayload payload, long qty) {
-            Bucket b = rotateAndGetLocked(nowSec);
-            inc(b.consumedByColor, MatterTelemetryKeys.colorKey(payload), qty);
-            inc(b.consumedByMatter, MatterTelemetryKeys.matterKey(payload), qty);
+        void install(Slot s) {
+            int idx = indexOf(s.startSeconds);
+            Slot cur = slots.get(idx);
+            if (cur == null || cur.startSeconds < s.startSeconds) slots.set(idx, s);
         }
+    }
 
-        synchronized void recordSold(long nowSec, MatterPayload payload, long qty, double money) {
-            Bucket b = rotateAndGetLocked(nowSec);
+    private static final class PlayerBuffer {
+        final Tier[] tiers = new Tier[TIER_BUCKET_SECONDS.length];
 
-            String ck = MatterTelemetryKeys.colorKey(payload);
-            String mk = MatterTelemetryKeys.matterKey(payload);
+        PlayerBuffer() {
+            for (int i = 0; i < tiers.length; i++) tiers[i] = new Tier(TIER_BUCKET_SECONDS[i], TIER_BUCKET_COUNT[i]);
+        }
 
-            addSold(b.soldByColor, ck, qty, money);
-            addSold(b.soldByMatter, mk, qty, money);
+        Tier raw() {
+            return tiers[TIER_RAW];
         }
 
         /**
-         * Snapshot is called by UI. Keep it synchronized per-player to avoid CME and keep data consistent.
+         * Folds every closed, not yet rolled bucket into the next tier (fine -> coarse, one pass).
+         * @return true if anything moved
+         */
+        boolean rollup(long nowSec) {
+            boolean changed = false;
+            for (int t = 0; t < tiers.length - 1; t++) {
+                Tier fine = tiers[t];
+                Tier coarse = tiers[t + 1];
+
+                for (int i = 0; i < fine.slots.length(); i++) {
+                    Slot s = fine.slots.get(i);
+                    if (s == null || s.rolledUp) continue;
+                    if (s.startSeconds + fine.bucketSeconds + ROLLUP_GRACE_SECONDS > nowSec) continue;
+
+                    Slot target = coarse.slotFor(s.startSeconds);
+                    if (target.startSeconds == coarse.bucketStart(s.startSeconds)) {
+                        mergeInto(target, s);
+                    }
+                    s.rolledUp = true;
+                    changed = true;
+                }
+            }
+            return changed;
+        }
+
+        /**
+         * Snapshot is called by UI (off the hot path): this is the only place where
+         * String keys are produced.
+         *
+         * Reads the tier matching the window, plus the buckets of finer tiers that
+         * were not rolled up yet (so the current minute/hour/day is always included).
          *
          * IMPORTANT:
          * We compute "per window" using partial overlap on the first/last bucket,
          * otherwise a 60s window with 5s buckets may systematically under/over report
          * depending on alignment.
          */
-        synchronized ProductionStatsSnapshot snapshot(long nowSec, ProductionTimeWindow window) {
+        ProductionStatsSnapshot snapshot(long nowSec, ProductionTimeWindow window) {
             long windowEnd = nowSec; // exclusive-ish at second precision
             long windowStart = nowSec - Math.max(0, window.getSeconds());
             if (windowStart > windowEnd) windowStart = windowEnd;
 
-            Map<String, Double> producedColorD = new HashMap<>();
-            Map<String, Double> producedMatterD = new HashMap<>();
-
-            Map<String, Double> consumedColorD = new HashMap<>();
-            Map<String, Double> consumedMatterD = new HashMap<>();
-
-            Map<String, SoldAcc> soldColorD = new HashMap<>();
-            Map<String, SoldAcc> soldMatterD = new HashMap<>();
+            double[] producedD = new double[MATTER_COUNT];
+            double[] consumedD = new double[MATTER_COUNT];
+            double[] soldQtyD = new double[MATTER_COUNT];
+            double[] soldMoneyD = new double[MATTER_COUNT];
 
-            long cursor = bucketStartSeconds(windowEnd);
-            long minCursor = bucketStartSeconds(windowStart);
+            int top = tierFor(window);
+            for (int t = top; t >= 0; t--) {
+                Tier tier = tiers[t];
+                for (int i = 0; i < tier.slots.length(); i++) {
+                    Slot s = tier.slots.get(i);
+                    if (s == null) continue;
+                    if (t < top && s.rolledUp) continue; // already counted by the coarser tier
 
-            while (cursor >= minCursor) {
-                Bucket b = buckets[bucketIndex(cursor)];
-                if (b.bucketStartSeconds == cursor) {
-                    double frac = overlapFraction(cursor, windowStart, windowEnd);
+                    double frac = overlapFraction(s.startSeconds, tier.bucketSeconds, windowStart, windowEnd);
                     if (frac > 0.0) {
-                        addScaledLongMap(b.producedByColor, producedColorD, frac);
-                        addScaledLongMap(b.producedByMatter, producedMatterD, frac);
-
-                        addScaledLongMap(b.consumedByColor, consumedColorD, frac);
-                        addScaledLongMap(b.consumedByMatter, consumedMatterD, frac);
-
-                        addScaledSoldMap(b.soldByColor, soldColorD, frac);
-                        addScaledSoldMap(b.soldByMatter, soldMatterD, frac);
+                        addScaled(s.produced, producedD, frac);
+                        addScaled(s.consumed, consumedD, frac);
+                        addScaled(s.soldQty, soldQtyD, frac);
+                        addScaled(s.soldMoney, soldMoneyD, frac);
                     }
                 }
-                cursor -= BUCKET_SIZE_SECONDS;
             }
 
-            Map<String, Long> producedColor = toRoundedLongMap(producedColorD);
-            Map<String, Long> producedMatter = toRoundedLongMap(producedMatterD);
+            Map<String, Long> producedColor = toRoundedColorMap(foldByColor(producedD));
+            Map<String, Long> producedMatter = toRoundedMatterMap(producedD);
 
-            Map<String, Long> consumedColor = toRoundedLongMap(consumedColorD);
-            Map<String, Long> consumedMatter = toRoundedLongMap(consumedMatterD);
+            Map<String, Long> consumedColor = toRoundedColorMap(foldByColor(consumedD));
+            Map<String, Long> consumedMatter = toRoundedMatterMap(consumedD);
 
-            Map<String, SoldStats> soldColor = toRoundedSoldMap(soldColorD);
-            Map<String, SoldStats> soldMatter = toRoundedSoldMap(soldMatterD);
+            Map<String, SoldStats> soldColor = toRoundedSoldMap(foldByColor(soldQtyD), foldByColor(soldMoneyD), true);
+            Map<String, SoldStats> soldMatter = toRoundedSoldMap(soldQtyD, soldMoneyD, false);
 
             long totalProduced = 0L;
             for (long v : producedColor.values()) totalProduced += v;
@@ -294,60 +571,5 @@ public final class InMemoryProductionTelemetry implements ProductionTelemetry {
                     totalMoney
             );
         }
-
-        /**
-         * Must be called under "synchronized(this)".
-         */
-        private Bucket rotateAndGetLocked(long nowSec) {
-            long start = bucketStartSeconds(nowSec);
-            int idx = bucketIndex(start);
-            Bucket b = buckets[idx];
-
-            if (b.bucketStartSeconds != start) {
-                b.bucketStartSeconds = start;
-
-                b.producedByColor.clear();
-                b.producedByMatter.clear();
-
-                b.consumedByColor.clear();
-                b.consumedByMatter.clear();
-
-                b.soldByColor.clear();
-                b.soldByMatter.clear();
-            }
-            return b;
-        }
-
-        private static void inc(Map<String, MutableLong> map, String key, long qty) {
-            if (qty <= 0) return;
-            MutableLong c = map.get(key);
-            if (c == null) {
-                map.put(key, new MutableLong(qty));
-            } else {
-                c.add(qty);
-            }
-        }
-
-        private static void addSold(Map<String, SoldStats> map, String key, long qty, double money) {
-            SoldStats s = map.get(key);
-            if (s == null) {
-                s = new SoldStats();
-                map.put(key, s);
-            }
-            s.add(qty, money);
-        }
-    }
-
-    private static final class Bucket {
-        long bucketStartSeconds = Long.MIN_VALUE;
-
-        final Map<String, MutableLong> producedByColor = new HashMap<>();
-        final Map<String, MutableLong> producedByMatter = new HashMap<>();
-
-        final Map<String, MutableLong> consumedByColor = new HashMap<>();
-        final Map<String, MutableLong> consumedByMatter = new HashMap<>();
-
-        final Map<String, SoldStats> soldByColor = new HashMap<>();
-        final Map<String, SoldStats> soldByMatter = new HashMap<>();
     }
 }
@@ -2,11 +2,10 @@ package com.matterworks.core.domain.telemetry.production;
 
 import com.matterworks.core.domain.matter.MatterColor;
 import com.matterworks.core.domain.matter.MatterEffect;
+import com.matterworks.core.domain.matter.MatterIds;
 import com.matterworks.core.domain.matter.MatterPayload;
 import com.matterworks.core.domain.matter.MatterShape;
 
-import java.util.List;
-
 /**
  * Stable string keys for telemetry.
  *
@@ -18,7 +17,8 @@ import java.util.List;
  *   M:LIQUID:RAW:NO_EFFECT
  *
  * PERFORMANCE:
- * - Called in record*() hot path.
+ * - record*() only needs matterIndex() (compact int id); strings are resolved
+ *   via colorKeyAt()/matterKeyAt() when a snapshot is built.
  * - This implementation is allocation-light:
  *   - No list copy
  *   - No sorting
@@ -44,6 +44,8 @@ public final class MatterTelemetryKeys {
     // Flattened: key = MATTER_KEYS[(shapeIndex * colorCount + colorOrdinal) * maskCount + mask]
     private static final String[] MATTER_KEYS;
 
+    private static final int COLOR_COUNT = MatterColor.values().length;
+
     static {
         // Precompute color keys
         MatterColor[] colors = MatterColor.values();
@@ -84,36 +86,52 @@ public final class MatterTelemetryKeys {
     private MatterTelemetryKeys() {}
 
     public static String colorKey(MatterPayload p) {
-        MatterColor c = (p != null && p.color() != null) ? p.color() : MatterColor.RAW;
-        return COLOR_KEYS[c.ordinal()];
+        return COLOR_KEYS[colorIndex(p)];
     }
 
     public static String matterKey(MatterPayload p) {
-        int shapeIndex = 0; // LIQUID by default
-        int colorOrdinal = MatterColor.RAW.ordinal();
-        int mask = 0;
-
-        if (p != null) {
-            MatterShape s = p.shape();
-            if (s != null) shapeIndex = s.ordinal() + 1;
-
-            MatterColor c = p.color();
-            if (c != null) colorOrdinal = c.ordinal();
-
-            List<MatterEffect> effs = p.effects();
-            if (effs != null && !effs.isEmpty()) {
-                // Build mask by ordinal (no allocations)
-                for (int i = 0; i < effs.size(); i++) {
-                    MatterEffect e = effs.get(i);
-                    if (e == null) continue;
-                    mask |= (1 << e.ordinal());
-                }
-            }
-        }
+        return MATTER_KEYS[matterIndex(p)];
+    }
+
+    // ==========================================================
+    // COMPACT IDS (dense counters: resolve strings only at snapshot time)
+    // ==========================================================
+
+    /** Number of distinct color ids: valid range is [0, colorCount()). */
+    public static int colorCount() {
+        return COLOR_COUNT;
+    }
+
+    /** Number of distinct matter ids (shape x color x effectsMask): valid range is [0, matterCount()). */
+    public static int matterCount() {
+        return MATTER_KEYS.length;
+    }
+
+    /** Color ordinal of the payload (RAW when missing). */
+    public static int colorIndex(MatterPayload p) {
+        MatterColor c = (p != null && p.color() != null) ? p.color() : MatterColor.RAW;
+        return c.ordinal();
+    }
+
+    /**
+     * Compact matter id (shape x color x effectsMask), see MatterIds.
+     * Allocation-free: effects are folded into a bitmask by ordinal.
+     */
+    public static int matterIndex(MatterPayload p) {
+        return MatterIds.of(p);
+    }
+
+    /** Color ordinal encoded in a compact matter id. */
+    public static int colorIndexOfMatter(int matterIndex) {
+        return MatterIds.colorOrdinalOf(matterIndex);
+    }
+
+    public static String colorKeyAt(int colorIndex) {
+        return COLOR_KEYS[colorIndex];
+    }
 
-        int maskCount = 1 << MatterEffect.values().length;
-        int idx = flattenIndex(shapeIndex, colorOrdinal, mask, MatterColor.values().length, maskCount);
-        return MATTER_KEYS[idx];
+    public static String matterKeyAt(int matterIndex) {
+        return MATTER_KEYS[matterIndex];
     }
 
     private static int flattenIndex(int shapeIndex, int colorOrdinal, int mask, int colorCount, int maskCount) {
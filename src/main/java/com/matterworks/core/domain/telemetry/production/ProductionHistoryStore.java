@@ -0,0 +1,153 @@
+package com.matterworks.core.domain.telemetry.production;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Background rollup + local-file persistence for long-horizon production history.
+ *
+ * - Every ROLLUP_EVERY_SECONDS: closed 5s buckets are folded into 1m/1h/1d tiers.
+ * - Players whose history changed are written to {dir}/{uuid}.bin (write tmp + atomic move).
+ * - restore() on plot load, persistAndEvict() on plot unload.
+ *
+ * All file IO and rollups run on the single "mw-telemetry-writer" thread, so a restore
+ * can never read a half-written file of the same player.
+ *
+ * Directory can be changed via:
+ * -Dmw.telemetry.dir=telemetry
+ */
+public final class ProductionHistoryStore implements AutoCloseable {
+
+    private static final long ROLLUP_EVERY_SECONDS = 10L;
+    private static final long RESTORE_TIMEOUT_MS = 2000L;
+
+    private final InMemoryProductionTelemetry telemetry;
+    private final Path dir;
+    private final ScheduledExecutorService writer;
+
+    public ProductionHistoryStore(InMemoryProductionTelemetry telemetry) {
+        this(telemetry, Paths.get(System.getProperty("mw.telemetry.dir", "telemetry")));
+    }
+
+    public ProductionHistoryStore(InMemoryProductionTelemetry telemetry, Path dir) {
+        this.telemetry = telemetry;
+        this.dir = dir;
+
+        this.writer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "mw-telemetry-writer");
+            t.setDaemon(true);
+            try {
+                t.setPriority(Thread.MIN_PRIORITY);
+            } catch (Throwable ignored) {}
+            return t;
+        });
+
+        writer.scheduleWithFixedDelay(this::rollupSafely, ROLLUP_EVERY_SECONDS, ROLLUP_EVERY_SECONDS, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Called on plot load (already off the tick thread): waits briefly so the history is
+     * in memory before machines start recording.
+     *
+     * The hasHistory check runs on the writer thread too: a persistAndEvict queued by an
+     * earlier unload of the same plot runs first (single thread, FIFO), so a quick reload
+     * reads the file that evict just wrote instead of keeping a buffer that is about to go.
+     */
+    public void restore(UUID playerId) {
+        if (playerId == null) return;
+        try {
+            Future<?> f = writer.submit(() -> {
+                if (!telemetry.hasHistory(playerId)) load(playerId);
+            });
+            f.get(RESTORE_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        } catch (Throwable t) {
+            System.err.println("[TELEMETRY] Restore failed for " + playerId + ": " + t);
+        }
+    }
+
+    /** Called on plot unload: async write, then the in-memory buffer is dropped. */
+    public void persistAndEvict(UUID playerId) {
+        if (playerId == null) return;
+        try {
+            writer.execute(() -> {
+                telemetry.rollupAll();
+                save(playerId);
+                telemetry.evict(playerId);
+            });
+        } catch (Throwable ignored) {
+            // executor closed: nothing else to do
+        }
+    }
+
+    private void rollupSafely() {
+        try {
+            List<UUID> changed = telemetry.rollupAll();
+            for (UUID id : changed) save(id);
+        } catch (Throwable t) {
+            System.err.println("[TELEMETRY] Rollup failed:");
+            t.printStackTrace();
+        }
+    }
+
+    private Path fileFor(UUID playerId) {
+        return dir.resolve(playerId + ".bin");
+    }
+
+    private void save(UUID playerId) {
+        Path target = fileFor(playerId);
+        Path tmp = dir.resolve(playerId + ".bin.tmp");
+        try {
+            Files.createDirectories(dir);
+
+            boolean written;
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+                written = telemetry.writeHistory(playerId, out);
+            }
+
+            if (written) {
+                Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } else {
+                Files.deleteIfExists(tmp);
+            }
+        } catch (IOException e) {
+            System.err.println("[TELEMETRY] Save failed for " + playerId + ": " + e.getMessage());
+            try { Files.deleteIfExists(tmp); } catch (Throwable ignored) {}
+        }
+    }
+
+    private void load(UUID playerId) {
+        Path f = fileFor(playerId);
+        if (!Files.isRegularFile(f)) return;
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(f)))) {
+            telemetry.readHistory(playerId, in);
+        } catch (IOException e) {
+            System.err.println("[TELEMETRY] Corrupted history for " + playerId + " (ignored): " + e.getMessage());
+        }
+    }
+
+    /** Final rollup + write of every player still in memory. */
+    @Override
+    public void close() {
+        try {
+            writer.submit(() -> {
+                telemetry.rollupAll();
+                for (UUID id : telemetry.activePlayers()) save(id);
+            }).get(5, TimeUnit.SECONDS);
+        } catch (Throwable ignored) {}
+        writer.shutdown();
+    }
+}
@@ -2,12 +2,16 @@ package com.matterworks.core.domain.telemetry.production;
 
 /**
  * Supported time windows for production telemetry.
- * Bucket size is fixed (see InMemoryProductionTelemetry).
+ * Short windows are answered from the 5s buckets, long windows from the
+ * rolled-up 1m/1h/1d tiers (see InMemoryProductionTelemetry).
  */
 public enum ProductionTimeWindow {
     ONE_MINUTE(60),
     FIVE_MINUTES(5 * 60),
-    TEN_MINUTES(10 * 60);
+    TEN_MINUTES(10 * 60),
+    ONE_HOUR(60 * 60),
+    ONE_DAY(24 * 60 * 60),
+    SEVEN_DAYS(7 * 24 * 60 * 60);
 
     private final int seconds;
 
@@ -1,8 +1,12 @@
 package com.matterworks.core.managers;
 
+import com.matterworks.core.database.DbScheduler;
 import com.matterworks.core.domain.player.PlayerProfile;
+import com.matterworks.core.monitoring.EconomyFlushEvent;
 import com.matterworks.core.ui.MariaDBAdapter;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.UUID;
@@ -16,16 +20,44 @@ import java.util.concurrent.atomic.AtomicReference;
  * - transactions (aggregated)
  *
  * Critical rule: NEVER touch DB inside the 20 TPS simulation tick.
+ *
+ * PROFILES:
+ * - Every markProfileDirty() bumps the profile version; a flush skips profiles whose
+ *   persisted version is already current (e.g. saved by another path).
+ * - All dirty profiles are written as ONE JDBC batch per flush.
+ *
+ * CADENCE:
+ * - Base period FLUSH_EVERY_MS; when the DB gets slow the next flush is pushed back
+ *   (EWMA of flush latency x LATENCY_BACKOFF_FACTOR, capped at MAX_FLUSH_EVERY_MS),
+ *   so we batch more rows instead of queueing more round-trips.
+ *
+ * METRICS ([ECONOMY_WRITER] log every METRICS_LOG_EVERY_MS when there was activity):
+ * - rows written per flush, skipped (already current), flush latency, persistence lag
+ *   (first dirty mark -> row written).
  */
 final class AsyncEconomyWriter implements AutoCloseable {
 
     private static final long FLUSH_EVERY_MS = 250L;
+    private static final long MAX_FLUSH_EVERY_MS = 5_000L;
+    private static final double LATENCY_BACKOFF_FACTOR = 4.0;
+    private static final long METRICS_LOG_EVERY_MS = 60_000L;
 
     private final MariaDBAdapter repository;
 
     private final ScheduledExecutorService writer;
 
-    private final ConcurrentHashMap<UUID, PlayerProfile> dirtyProfiles = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<UUID, DirtyProfile> dirtyProfiles = new ConcurrentHashMap<>();
+
+    // Metrics (written only by the writer thread, read by anyone)
+    private volatile long nextDelayMs = FLUSH_EVERY_MS;
+    private volatile double flushLatencyEwmaMs = 0.0;
+    private volatile int lastRowsWritten = 0;
+    private volatile long lastLagMs = 0L;
+    private long flushes = 0L;
+    private long rowsWritten = 0L;
+    private long rowsSkipped = 0L;
+    private long maxLagMs = 0L;
+    private long lastMetricsLogMs = System.currentTimeMillis();
 
     private final AtomicReference<ConcurrentHashMap<TxKey, TxAgg>> txAggRef =
             new AtomicReference<>(new ConcurrentHashMap<>());
@@ -42,12 +74,30 @@ final class AsyncEconomyWriter implements AutoCloseable {
             return t;
         });
 
-        writer.scheduleWithFixedDelay(this::flushSafely, FLUSH_EVERY_MS, FLUSH_EVERY_MS, TimeUnit.MILLISECONDS);
+        writer.schedule(this::flushLoop, FLUSH_EVERY_MS, TimeUnit.MILLISECONDS);
     }
 
     void markProfileDirty(UUID playerId, PlayerProfile profile) {
         if (playerId == null || profile == null) return;
-        dirtyProfiles.put(playerId, profile);
+        profile.bumpVersion();
+
+        // allocation only on the first mark since the last flush
+        DirtyProfile cur = dirtyProfiles.get(playerId);
+        if (cur != null && cur.profile == profile) return;
+        dirtyProfiles.put(playerId, new DirtyProfile(profile, System.nanoTime()));
+    }
+
+    /** Current adaptive flush period (ms). */
+    long currentFlushDelayMs() {
+        return nextDelayMs;
+    }
+
+    int lastRowsWritten() {
+        return lastRowsWritten;
+    }
+
+    long lastPersistenceLagMs() {
+        return lastLagMs;
     }
 
     void recordTransaction(PlayerProfile player,
@@ -72,32 +122,114 @@ final class AsyncEconomyWriter implements AutoCloseable {
         }
     }
 
-    private void flushSafely() {
+    private void flushLoop() {
+        long t0 = System.nanoTime();
         try {
             flushOnce();
         } catch (Throwable t) {
             System.err.println("[ECONOMY_WRITER] Flush failed:");
             t.printStackTrace();
+        } finally {
+            adaptCadence((System.nanoTime() - t0) / 1_000_000.0);
+            try {
+                writer.schedule(this::flushLoop, nextDelayMs, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException ignored) {
+                // closed
+            }
+        }
+    }
+
+    private void adaptCadence(double flushMs) {
+        double ewma = flushLatencyEwmaMs;
+        ewma = (ewma <= 0.0) ? flushMs : (ewma * 0.8 + flushMs * 0.2);
+        flushLatencyEwmaMs = ewma;
+
+        long delay = (long) Math.max(FLUSH_EVERY_MS, ewma * LATENCY_BACKOFF_FACTOR);
+        nextDelayMs = Math.min(MAX_FLUSH_EVERY_MS, delay);
+
+        long now = System.currentTimeMillis();
+        if (now - lastMetricsLogMs >= METRICS_LOG_EVERY_MS) {
+            if (rowsWritten > 0 || rowsSkipped > 0) {
+                System.out.println("[ECONOMY_WRITER] flushes=" + flushes
+                        + " rows=" + rowsWritten
+                        + " skipped=" + rowsSkipped
+                        + " lastRows=" + lastRowsWritten
+                        + " flushEwmaMs=" + String.format("%.1f", ewma)
+                        + " delayMs=" + nextDelayMs
+                        + " lagMs(last/max)=" + lastLagMs + "/" + maxLagMs);
+            }
+            lastMetricsLogMs = now;
+            flushes = 0L;
+            rowsWritten = 0L;
+            rowsSkipped = 0L;
+            maxLagMs = 0L;
         }
     }
 
     private void flushOnce() {
-        // 1) Save dirty profiles
+        EconomyFlushEvent ev = new EconomyFlushEvent();
+        ev.begin();
+        try {
+            flushOnce(ev);
+        } finally {
+            ev.end();
+            if (ev.shouldCommit()) ev.commit();
+        }
+    }
+
+    private void flushOnce(EconomyFlushEvent ev) {
+        // 1) Save dirty profiles (one JDBC batch)
+        flushes++;
         if (!dirtyProfiles.isEmpty()) {
-            for (Map.Entry<UUID, PlayerProfile> e : dirtyProfiles.entrySet()) {
+            List<DirtyProfile> taken = new ArrayList<>(dirtyProfiles.size());
+            List<PlayerProfile> batch = new ArrayList<>(dirtyProfiles.size());
+
+            for (Map.Entry<UUID, DirtyProfile> e : dirtyProfiles.entrySet()) {
                 UUID id = e.getKey();
-                PlayerProfile p = e.getValue();
-                if (id == null || p == null) continue;
+                DirtyProfile d = e.getValue();
+                if (id == null || d == null) continue;
 
                 // remove first: if it changes again, it will be re-added
-                dirtyProfiles.remove(id, p);
+                dirtyProfiles.remove(id, d);
+
+                if (d.profile.isPersistedCurrent()) {
+                    rowsSkipped++;
+                    ev.profilesSkipped++;
+                    continue;
+                }
+                taken.add(d);
+                batch.add(d.profile);
+            }
 
+            if (!batch.isEmpty()) {
+                boolean ok = false;
                 try {
-                    repository.savePlayerProfile(p);
-                } catch (Throwable t) {
-                    // retry later
-                    dirtyProfiles.put(id, p);
+                    ok = repository.getDbScheduler()
+                            .call(DbScheduler.Lane.ECONOMY, () -> repository.savePlayerProfiles(batch));
+                } catch (Throwable ignored) {}
+
+                if (ok) {
+                    long nowNs = System.nanoTime();
+                    long lag = 0L;
+                    for (DirtyProfile d : taken) lag = Math.max(lag, (nowNs - d.firstDirtyNanos) / 1_000_000L);
+
+                    lastRowsWritten = batch.size();
+                    rowsWritten += batch.size();
+                    lastLagMs = lag;
+                    if (lag > maxLagMs) maxLagMs = lag;
+
+                    ev.profileRows = batch.size();
+                    ev.lag = lag;
+                } else {
+                    // retry later (keep the oldest dirty timestamp for lag metrics)
+                    lastRowsWritten = 0;
+                    for (DirtyProfile d : taken) {
+                        dirtyProfiles.merge(d.profile.getPlayerId(), d,
+                                (cur, old) -> cur.profile == old.profile ? old : cur);
+                    }
                 }
+            } else {
+                lastRowsWritten = 0;
             }
         }
 
@@ -123,6 +255,7 @@ final class AsyncEconomyWriter implements AutoCloseable {
                         agg.factionId,
                         value
                 );
+                ev.transactionRows++;
             } catch (Throwable ignored) {
                 // Transactions must never stall the server.
                 // We drop on failure (safe default).
@@ -143,6 +276,8 @@ final class AsyncEconomyWriter implements AutoCloseable {
         }
     }
 
+    private record DirtyProfile(PlayerProfile profile, long firstDirtyNanos) {}
+
     private record TxKey(UUID playerId, String actionType, String currency, String itemId, Integer factionId) {
         @Override
         public boolean equals(Object o) {
@@ -1,5 +1,6 @@
 package com.matterworks.core.managers;
 
+import com.matterworks.core.database.PlayerInventoryStore;
 import com.matterworks.core.domain.machines.base.PlacedMachine;
 import com.matterworks.core.domain.machines.registry.BlockRegistry;
 import com.matterworks.core.domain.player.PlayerProfile;
@@ -7,6 +8,7 @@ import com.matterworks.core.domain.shop.VoidShopItem;
 import com.matterworks.core.model.PlotUnlockState;
 import com.matterworks.core.ui.MariaDBAdapter;
 import com.matterworks.core.ui.ServerConfig;
+import com.matterworks.core.synchronization.SimTime;
 
 import java.util.UUID;
 import java.util.List;
@@ -25,6 +27,9 @@ final class GridEconomyService {
     // NEW: async write-behind for money + transactions
     private final AsyncEconomyWriter economyWriter;
 
+    // Global overclock activations: read -> extend -> write is one step (uses stack, none is lost)
+    private final Object globalOverclockLock = new Object();
+
     private static final String ITEM_OVERCLOCK_2H = "overclock_2h";
     private static final String ITEM_OVERCLOCK_12H = "overclock_12h";
     private static final String ITEM_OVERCLOCK_24H = "overclock_24h";
@@ -87,6 +92,7 @@ final class GridEconomyService {
         // IMPORTANT:
         // Must be ALWAYS fresh. A short TTL cache can temporarily overcount during rapid place/remove,
         // causing penalty steps to be applied too early.
+        // The repository count is the in-memory inventory authority: fresh and DB-free.
         if (playerId == null || itemId == null) return 0;
 
         int fresh = 0;
@@ -186,16 +192,26 @@ final class GridEconomyService {
 
         boolean admin = cached.isAdmin();
 
+        // Reserve the item: two concurrent uses cannot both pass; committed once the effect is saved
+        PlayerInventoryStore.Reservation item = null;
         if (!admin) {
-            int have = repository.getInventoryItemCount(ownerId, itemId);
-            if (have <= 0) return false;
+            item = repository.reserveInventoryItem(ownerId, itemId, 1);
+            if (item == null) return false;
         }
 
-        // Route GLOBAL overclocks here (so UI can keep calling useOverclock)
-        if (isGlobalOverclockItem(itemId)) {
-            return applyGlobalOverclock(ownerId, itemId, admin);
+        boolean ok = false;
+        try {
+            // Route GLOBAL overclocks here (so UI can keep calling useOverclock)
+            ok = isGlobalOverclockItem(itemId)
+                    ? applyGlobalOverclock(ownerId, itemId, item)
+                    : applyPlayerOverclock(ownerId, itemId, item);
+        } finally {
+            if (item != null && !ok) item.release();
         }
+        return ok;
+    }
 
+    private boolean applyPlayerOverclock(UUID ownerId, String itemId, PlayerInventoryStore.Reservation item) {
         long durationSeconds = switch (itemId) {
             case ITEM_OVERCLOCK_2H -> 2L * 3600L;
             case ITEM_OVERCLOCK_12H -> 12L * 3600L;
@@ -220,9 +236,10 @@ final class GridEconomyService {
 
         // refresh caches
         state.activeProfileCache.put(ownerId, p);
+        gridManager.invalidatePlayerStats(ownerId);
 
-        if (!admin) {
-            repository.modifyInventoryItem(ownerId, itemId, -1);
+        if (item != null) {
+            item.commit();
             repository.logTransaction(p, "VOID_SHOP_USE", "OVERCLOCK", 1.0, itemId);
         } else {
             repository.logTransaction(p, "VOID_SHOP_USE_ADMIN", "OVERCLOCK", 0.0, itemId);
@@ -238,7 +255,7 @@ final class GridEconomyService {
                 || itemId.equals(ITEM_GLOBAL_OVERCLOCK_24H);
     }
 
-    private boolean applyGlobalOverclock(UUID activatorId, String itemId, boolean admin) {
+    private boolean applyGlobalOverclock(UUID activatorId, String itemId, PlayerInventoryStore.Reservation item) {
         long durationSeconds = switch (itemId) {
             case ITEM_GLOBAL_OVERCLOCK_2H -> 2L * 3600L;
             case ITEM_GLOBAL_OVERCLOCK_12H -> 12L * 3600L;
@@ -248,35 +265,43 @@ final class GridEconomyService {
 
         if (durationSeconds <= 0L) return false;
 
-        long nowMs = System.currentTimeMillis();
+        long nowMs = SimTime.nowMs();
 
-        // Read fresh from DB to be safe (so multiple uses stack correctly)
-        long currentEndMs = 0L;
-        double currentMult = 1.0;
-        try {
-            currentEndMs = Math.max(0L, repository.getGlobalOverclockEndEpochMs());
-            currentMult = repository.getGlobalOverclockMultiplier();
-        } catch (Throwable ignored) {}
+        long currentEndMs;
+        long newEndMs;
+        double newMult = 2.0;
 
-        if (Double.isNaN(currentMult) || Double.isInfinite(currentMult) || currentMult <= 0.0) currentMult = 1.0;
+        synchronized (globalOverclockLock) {
+            // Current state from the in-memory ServerGameStateCache snapshot (no DB round-trip).
+            // Uses still stack: activations are serialized here, and setGlobalOverclockState
+            // swaps the new end into the snapshot before the lock is released, so the next use
+            // extends it. A background refresh swaps in by compare-and-set against the snapshot
+            // it started from, so it cannot bring back an older end.
+            currentEndMs = 0L;
+            double currentMult = 1.0;
+            try {
+                currentEndMs = Math.max(0L, repository.getGlobalOverclockEndEpochMs());
+                currentMult = repository.getGlobalOverclockMultiplier();
+            } catch (Throwable ignored) {}
 
-        // Extend if already active, otherwise start now
-        long baseMs = Math.max(nowMs, currentEndMs);
-        long newEndMs = baseMs + durationSeconds * 1000L;
+            if (Double.isNaN(currentMult) || Double.isInfinite(currentMult) || currentMult <= 0.0) currentMult = 1.0;
 
-        double newMult = 2.0;
+            // Extend if already active, otherwise start now
+            long baseMs = Math.max(nowMs, currentEndMs);
+            newEndMs = baseMs + durationSeconds * 1000L;
 
-        // Persist
-        repository.setGlobalOverclockState(newEndMs, newMult, durationSeconds);
+            // Persist
+            repository.setGlobalOverclockState(newEndMs, newMult, durationSeconds);
 
-        // Update GridManager cache
-        gridManager._setGlobalOverclockStateCached(newEndMs, newMult, durationSeconds);
+            // Update GridManager cache
+            gridManager._setGlobalOverclockStateCached(newEndMs, newMult, durationSeconds);
+        }
 
         PlayerProfile p = repository.loadPlayerProfile(activatorId);
         if (p == null) p = state.getCachedProfile(activatorId);
 
-        if (!admin) {
-            repository.modifyInventoryItem(activatorId, itemId, -1);
+        if (item != null) {
+            item.commit();
             if (p != null) repository.logTransaction(p, "VOID_SHOP_USE", "GLOBAL_OVERCLOCK", 1.0, itemId);
         } else {
             if (p != null) repository.logTransaction(p, "VOID_SHOP_USE_ADMIN", "GLOBAL_OVERCLOCK", 0.0, itemId);
@@ -337,6 +362,14 @@ final class GridEconomyService {
 
         // FAST: in-memory only
         p.modifyMoney(amount);
+        publishMoneyChange(playerId, p, amount, actionType, itemId, factionId, value);
+    }
+
+    /**
+     * Cache + async persistence + aggregated transaction for a money change
+     * already applied to the profile ledger.
+     */
+    private void publishMoneyChange(UUID playerId, PlayerProfile p, double amount, String actionType, String itemId, Integer factionId, Double value) {
         state.activeProfileCache.put(playerId, p);
 
         // async persist profile
@@ -369,9 +402,11 @@ final class GridEconomyService {
         double unit = getEffectiveShopUnitPrice(p, itemId);
         double cost = unit * amount;
 
-        if (!p.isAdmin() && p.getMoney() < cost) return false;
-
-        if (!p.isAdmin()) addMoney(playerId, -cost, "ITEM_BUY", itemId);
+        // exact + atomic: no check-then-act race with concurrent sales/purchases
+        if (!p.isAdmin()) {
+            if (!p.tryDebitMoney(cost)) return false;
+            publishMoneyChange(playerId, p, -cost, "ITEM_BUY", itemId, null, null);
+        }
 
         repository.modifyInventoryItem(playerId, itemId, amount);
 
@@ -448,68 +483,75 @@ final class GridEconomyService {
         PlayerProfile cached = state.getCachedProfile(ownerId);
         if (cached == null) return;
 
+        // Reserved now, committed once the prestige is saved, released if it is not applied
+        PlayerInventoryStore.Reservation item = null;
         if (!cached.isAdmin()) {
-            int have = repository.getInventoryItemCount(ownerId, GridManager.ITEM_INSTANT_PRESTIGE);
-            if (have <= 0) return;
+            item = repository.reserveInventoryItem(ownerId, GridManager.ITEM_INSTANT_PRESTIGE, 1);
+            if (item == null) return;
         }
 
         state.reloadServerConfig();
         final ServerConfig serverConfig = state.getServerConfig();
         final int addVoidCoins = Math.max(0, serverConfig.prestigeVoidCoinsAdd());
         final int plotBonus = Math.max(0, serverConfig.prestigePlotBonus());
+        final PlayerInventoryStore.Reservation reserved = item;
 
-        ioExecutor.submit(() -> {
-            world.saveAndUnloadSpecific(ownerId);
-
-            try {
-                PlayerProfile p = repository.loadPlayerProfile(ownerId);
-                if (p == null) return;
+        try {
+            ioExecutor.submit(() -> {
+                boolean applied = false;
+                try {
+                    world.saveAndUnloadSpecific(ownerId);
+                    applied = applyInstantPrestige(ownerId, plotBonus, addVoidCoins, reserved);
+                } catch (Throwable t) {
+                    t.printStackTrace();
+                } finally {
+                    if (reserved != null && !applied) reserved.release();
+                }
 
-                if (!p.isAdmin()) {
-                    int have = repository.getInventoryItemCount(ownerId, GridManager.ITEM_INSTANT_PRESTIGE);
-                    if (have <= 0) return;
+                world.loadPlotSynchronously(ownerId);
+            });
+        } catch (Throwable t) {
+            if (reserved != null) reserved.release();
+        }
+    }
 
-                    repository.modifyInventoryItem(ownerId, GridManager.ITEM_INSTANT_PRESTIGE, -1);
-                    repository.logTransaction(p, "INSTANT_PRESTIGE_USE", "ITEM", 1, GridManager.ITEM_INSTANT_PRESTIGE);
-                }
-            } catch (Throwable t) {
-                t.printStackTrace();
-                return;
-            }
+    /** @return true once the new prestige level is saved (the reserved item is then consumed) */
+    private boolean applyInstantPrestige(UUID ownerId, int plotBonus, int addVoidCoins,
+                                         PlayerInventoryStore.Reservation item) {
+        PlayerProfile p = repository.loadPlayerProfile(ownerId);
+        if (p == null) return false;
 
-            try {
-                PlotUnlockState cur = repository.loadPlotUnlockState(ownerId);
-                if (cur == null) cur = PlotUnlockState.zero();
+        try {
+            PlotUnlockState cur = repository.loadPlotUnlockState(ownerId);
+            if (cur == null) cur = PlotUnlockState.zero();
+
+            PlotUnlockState upd = new PlotUnlockState(
+                    cur.extraX() + plotBonus,
+                    cur.extraY() + plotBonus
+            );
+            repository.updatePlotUnlockState(ownerId, upd);
+        } catch (Throwable t) {
+            t.printStackTrace();
+        }
 
-                PlotUnlockState upd = new PlotUnlockState(
-                        cur.extraX() + plotBonus,
-                        cur.extraY() + plotBonus
-                );
-                repository.updatePlotUnlockState(ownerId, upd);
-            } catch (Throwable t) {
-                t.printStackTrace();
-            }
+        p.setPrestigeLevel(p.getPrestigeLevel() + 1);
+        if (addVoidCoins > 0) p.modifyVoidCoins(addVoidCoins);
 
-            try {
-                PlayerProfile p = repository.loadPlayerProfile(ownerId);
-                if (p != null) {
-                    p.setPrestigeLevel(p.getPrestigeLevel() + 1);
-                    if (addVoidCoins > 0) p.modifyVoidCoins(addVoidCoins);
+        repository.savePlayerProfile(p);
 
-                    repository.savePlayerProfile(p);
-                    state.activeProfileCache.put(ownerId, p);
+        if (item != null) {
+            item.commit();
+            repository.logTransaction(p, "INSTANT_PRESTIGE_USE", "ITEM", 1, GridManager.ITEM_INSTANT_PRESTIGE);
+        }
 
-                    repository.logTransaction(p, "INSTANT_PRESTIGE", "NONE", 0, "prestige+1");
-                    if (addVoidCoins > 0) {
-                        repository.logTransaction(p, "INSTANT_PRESTIGE_REWARD", "VOID_COINS", addVoidCoins, "prestige_reward");
-                    }
-                }
-            } catch (Throwable t) {
-                t.printStackTrace();
-            }
+        state.activeProfileCache.put(ownerId, p);
+        gridManager.getMarketManager().invalidateSellerFactors(ownerId);
 
-            world.loadPlotSynchronously(ownerId);
-        });
+        repository.logTransaction(p, "INSTANT_PRESTIGE", "NONE", 0, "prestige+1");
+        if (addVoidCoins > 0) {
+            repository.logTransaction(p, "INSTANT_PRESTIGE_REWARD", "VOID_COINS", addVoidCoins, "prestige_reward");
+        }
+        return true;
     }
 
     boolean unlockTechNode(UUID playerId, String nodeId) {
@@ -525,6 +567,7 @@ final class GridEconomyService {
 
         // techManager.unlockNode already saves the profile and logs transaction
         state.activeProfileCache.put(playerId, p);
+        gridManager.invalidatePlayerStats(playerId);
         return true;
     }
 
@@ -547,6 +590,7 @@ final class GridEconomyService {
                     p.resetTechTreeToDefaults();
                     repository.savePlayerProfile(p);
                     state.activeProfileCache.put(ownerId, p);
+                    gridManager.getMarketManager().invalidateSellerFactors(ownerId);
                 }
             } catch (Throwable t) {
                 t.printStackTrace();
@@ -570,12 +614,10 @@ final class GridEconomyService {
             PlayerProfile p = repository.loadPlayerProfile(ownerId);
             if (p != null && !p.isAdmin()) {
                 double cost = getPrestigeActionCost(p);
-                if (p.getMoney() < cost) {
+                if (!p.tryDebitMoney(cost)) {
                     System.out.println("[PRESTIGE] Denied (race): money changed owner=" + ownerId);
                     return;
                 }
-
-                p.modifyMoney(-cost);
                 repository.savePlayerProfile(p);
                 repository.logTransaction(p, "PRESTIGE_PAY", "MONEY", -cost, "prestige_action_fee");
                 state.activeProfileCache.put(ownerId, p);
@@ -3,19 +3,24 @@ package com.matterworks.core.managers;
 import com.matterworks.core.common.Direction;
 import com.matterworks.core.common.GridPosition;
 import com.matterworks.core.common.Vector3Int;
+import com.matterworks.core.database.DbScheduler;
+import com.matterworks.core.database.PlayerInventoryStore;
 import com.matterworks.core.domain.factions.FactionRotationInfo;
 import com.matterworks.core.domain.factions.FactionRotationSlot;
 import com.matterworks.core.domain.machines.base.PlacedMachine;
 import com.matterworks.core.domain.machines.registry.BlockRegistry;
 import com.matterworks.core.domain.matter.MatterColor;
+import com.matterworks.core.domain.matter.RecipeBook;
 import com.matterworks.core.domain.player.BoosterStatus;
 import com.matterworks.core.domain.player.PlayerProfile;
 import com.matterworks.core.domain.shop.MarketManager;
 import com.matterworks.core.domain.shop.VoidShopItem;
 import com.matterworks.core.model.PlotUnlockState;
 import com.matterworks.core.ports.IWorldAccess;
+import com.matterworks.core.ports.VisualFrame;
 import com.matterworks.core.ui.MariaDBAdapter;
 import com.matterworks.core.domain.telemetry.production.InMemoryProductionTelemetry;
+import com.matterworks.core.domain.telemetry.production.ProductionHistoryStore;
 import com.matterworks.core.domain.telemetry.production.ProductionTelemetry;
 import com.matterworks.core.domain.telemetry.production.ProductionStatsSnapshot;
 import com.matterworks.core.domain.telemetry.production.ProductionTimeWindow;
@@ -28,8 +33,15 @@ import com.matterworks.core.domain.factions.FactionDefinition;
 import com.matterworks.core.domain.factions.FactionRotationInfo;
 
 import com.matterworks.core.synchronization.GridSaverService;
+import com.matterworks.core.synchronization.PlotLeaseManager;
+import com.matterworks.core.synchronization.PlotLeaseStore;
+import com.matterworks.core.synchronization.SimRandom;
+import com.matterworks.core.synchronization.SimTime;
 import com.matterworks.core.ui.ServerConfig;
+import com.matterworks.core.ui.ServerGameState;
 
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
@@ -38,8 +50,7 @@ import java.util.List;
 
 
 import java.util.*;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.CompletableFuture;
 
 public class GridManager {
 
@@ -54,7 +65,7 @@ public class GridManager {
     private final IWorldAccess worldAdapter;
     private final BlockRegistry blockRegistry;
 
-    private final ExecutorService ioExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private final DbScheduler dbScheduler;
 
     private final TechManager techManager;
     private final MarketManager marketManager;
@@ -64,10 +75,15 @@ public class GridManager {
     private final GridEconomyService economy;
 
     private volatile GridSaverService saverService;
+    private volatile PlotLeaseManager leaseManager; // clustered mode only
 
 
     private final AsyncEconomyWriter economyWriter;
 
+    // Session recording (-Dmw.record): armed by startRecording, begins at the next tick boundary
+    private volatile SessionRecorder recorder;
+    private volatile SessionRecorder pendingRecorder;
+
     // ==========================================================
     // GLOBAL OVERCLOCK CACHE (server-wide, real-time)
     // ==========================================================
@@ -76,24 +92,15 @@ public class GridManager {
     private volatile long globalOverclockLastDurationSeconds = 0L;
     private volatile long globalOverclockLastFetchMs = 0L;
 
-    // Speed multiplier cache (shared across machines)
-    private final java.util.concurrent.ConcurrentHashMap<UUID, PlayerSpeedCache> speedCache = new java.util.concurrent.ConcurrentHashMap<>();
-
-    private static final class PlayerSpeedCache {
-        final java.util.concurrent.ConcurrentHashMap<String, SpeedEntry> byType = new java.util.concurrent.ConcurrentHashMap<>();
-    }
+    // Compiled per-player stats (tier / ticks / speed / nexus sell), rebuilt on events
+    private final PlayerStatsService playerStats;
 
-    private static final class SpeedEntry {
-        final double value;
-        final long validUntilMs;
-        SpeedEntry(double value, long validUntilMs) {
-            this.value = value;
-            this.validUntilMs = validUntilMs;
-        }
-    }
+    // Processor recipes compiled per machine type (built-ins + recipe_definitions), swapped on reload
+    private volatile RecipeBook recipeBook = RecipeBook.defaults();
 
 
-    private final ProductionTelemetry productionTelemetry = new InMemoryProductionTelemetry();
+    private final InMemoryProductionTelemetry productionTelemetry = new InMemoryProductionTelemetry();
+    private final ProductionHistoryStore productionHistory = new ProductionHistoryStore(productionTelemetry);
 
 
 
@@ -102,31 +109,66 @@ public class GridManager {
         this.worldAdapter = worldAdapter;
         this.blockRegistry = registry;
 
+        this.dbScheduler = repository.getDbScheduler();
+
         this.techManager = new TechManager(repository, repository.getTechDefinitionDAO());
 
         this.state = new GridRuntimeState(repository);
-        this.world = new GridWorldService(this, repository, worldAdapter, blockRegistry, techManager, ioExecutor, state);
-        this.economy = new GridEconomyService(this, repository, blockRegistry, techManager, ioExecutor, state, world);
+        this.world = new GridWorldService(this, repository, worldAdapter, blockRegistry, techManager, dbScheduler, state);
+        this.economy = new GridEconomyService(this, repository, blockRegistry, techManager, dbScheduler.lane(DbScheduler.Lane.INTERACTIVE), state, world);
 
-        this.marketManager = new MarketManager(this, repository, ioExecutor);
+        this.marketManager = new MarketManager(this, repository, dbScheduler);
         this.economyWriter = new AsyncEconomyWriter(repository);
+        this.playerStats = new PlayerStatsService(this, state, techManager, blockRegistry, dbScheduler);
 
+        reloadRecipes();
         refreshGlobalOverclockCache(true);
     }
 
+    /** Recompiles the recipe tables from DB; processors switch over at their next job. */
+    public void reloadRecipes() {
+        List<RecipeBook.Definition> defs;
+        try { defs = repository.loadRecipeDefinitions(); }
+        catch (Throwable t) { defs = List.of(); }
+
+        RecipeBook book = RecipeBook.compile(defs);
+        this.recipeBook = book;
+        System.out.println("[RECIPES] " + book.recipeCount() + " recipes for " + book.machineTypeCount()
+                + " machine types (" + defs.size() + " DB rows)");
+    }
+
+    public RecipeBook getRecipeBook() { return recipeBook; }
+
     public TechManager getTechManager() { return techManager; }
     public MarketManager getMarketManager() { return marketManager; }
     public BlockRegistry getBlockRegistry() { return blockRegistry; }
 
     public List<VoidShopItem> getVoidShopCatalog() { return economy.getVoidShopCatalog(); }
-    public boolean buyVoidShopItem(UUID playerId, String premiumItemId, int amount) { return economy.buyVoidShopItem(playerId, premiumItemId, amount); }
+    public boolean buyVoidShopItem(UUID playerId, String premiumItemId, int amount) {
+        boolean ok = economy.buyVoidShopItem(playerId, premiumItemId, amount);
+        record("buy_void", playerId, null, premiumItemId, null, amount, ok);
+        return ok;
+    }
+
     public boolean canInstantPrestige(UUID ownerId) { return economy.canInstantPrestige(ownerId); }
-    public void instantPrestigeUser(UUID ownerId) { economy.instantPrestigeUser(ownerId); }
 
+    public void instantPrestigeUser(UUID ownerId) {
+        economy.instantPrestigeUser(ownerId);
+        record("instant_prestige", ownerId, null, null, null, 0, true);
+    }
+
+    /** Immutable, shared cells of the plot layout: do not copy, it is replaced (not mutated) on change. */
     public Map<GridPosition, PlacedMachine> getSnapshot(UUID ownerId) { return world.getSnapshot(ownerId); }
+    public PlotSnapshot getPlotSnapshot(UUID ownerId) { return world.getPlotSnapshot(ownerId); }
+    /** @return null when the layout is still at sinceVersion (pollers skip all work) */
+    public PlotSnapshot getSnapshotIfChanged(UUID ownerId, long sinceVersion) { return world.getSnapshotIfChanged(ownerId, sinceVersion); }
     public Map<GridPosition, PlacedMachine> getAllMachinesSnapshot() { return world.getAllMachinesSnapshot(); }
     public Map<GridPosition, MatterColor> getTerrainResources(UUID playerId) { return world.getTerrainResources(playerId); }
 
+    /** Visual sync to the game client, only for adapters that opt in (IWorldAccess.wantsVisualSync, -Dmw.visuals=batch|direct|off). */
+    public boolean isVisualSyncEnabled() { return world.isVisualSyncEnabled(); }
+    public void recordVisual(UUID ownerId, GridPosition pos, VisualFrame.Kind kind, String value) { world.recordVisual(ownerId, pos, kind, value); }
+
     public record PlotAreaInfo(
             int startingX, int startingY,
             int maxX, int maxY,
@@ -145,7 +187,18 @@ public class GridManager {
 
     public PlotAreaInfo getPlotAreaInfo(UUID ownerId) { return world.getPlotAreaInfo(ownerId); }
 
+    /** Region queries on the per-plot occupancy bitmap (UI previews, blueprints). */
+    public boolean isRegionFree(UUID ownerId, GridPosition origin, Vector3Int size) { return world.isRegionFree(ownerId, origin, size); }
+    public int countOccupiedCells(UUID ownerId, GridPosition origin, Vector3Int size) { return world.countOccupiedCells(ownerId, origin, size); }
+    public boolean canPlaceFootprint(UUID ownerId, GridPosition origin, Vector3Int size) { return world.canPlaceFootprint(ownerId, origin, size); }
+
     public boolean increasePlotUnlockedArea(UUID ownerId) {
+        boolean ok = increasePlotUnlockedAreaChecked(ownerId);
+        record("area_inc", ownerId, null, null, null, 0, ok);
+        return ok;
+    }
+
+    private boolean increasePlotUnlockedAreaChecked(UUID ownerId) {
         if (ownerId == null) return false;
 
         state.touchPlayer(ownerId);
@@ -155,30 +208,35 @@ public class GridManager {
 
         final boolean isAdmin = p.isAdmin();
 
-        // Player rule: allow only if they own at least 1 breaker item.
+        // Player rule: allow only if they own at least 1 breaker item (reserved, not yet consumed).
+        PlayerInventoryStore.Reservation breaker = null;
         if (!isAdmin) {
-            int owned = 0;
             try {
-                owned = repository.getInventoryItemCount(ownerId, ITEM_PLOT_SIZE_BREAKER);
+                breaker = repository.reserveInventoryItem(ownerId, ITEM_PLOT_SIZE_BREAKER, 1);
             } catch (Throwable ignored) {}
 
-            if (owned <= 0) {
+            if (breaker == null) {
                 System.out.println("⚠️ PLOT SIZE INCREASE denied (missing " + ITEM_PLOT_SIZE_BREAKER + "): " + ownerId);
                 return false;
             }
         }
 
         // Apply expansion
-        final boolean ok = isAdmin
-                ? world.increasePlotUnlockedArea(ownerId)           // admin-only path
-                : world.increasePlotUnlockedAreaUnchecked(ownerId); // player path
+        boolean ok = false;
+        try {
+            ok = isAdmin
+                    ? world.increasePlotUnlockedArea(ownerId)           // admin-only path
+                    : world.increasePlotUnlockedAreaUnchecked(ownerId); // player path
+        } finally {
+            if (breaker != null && !ok) breaker.release();
+        }
 
         if (!ok) return false;
 
         // Consume item only for non-admins and only if expansion succeeded.
-        if (!isAdmin) {
+        if (breaker != null) {
             try {
-                repository.modifyInventoryItem(ownerId, ITEM_PLOT_SIZE_BREAKER, -1);
+                breaker.commit();
 
                 PlayerProfile fresh = null;
                 try { fresh = repository.loadPlayerProfile(ownerId); } catch (Throwable ignored) {}
@@ -199,26 +257,89 @@ public class GridManager {
 
     public boolean unlockTechNode(UUID playerId, String nodeId) {
         if (playerId == null || nodeId == null || nodeId.isBlank()) return false;
-        return economy.unlockTechNode(playerId, nodeId);
+        boolean ok = economy.unlockTechNode(playerId, nodeId);
+        record("tech", playerId, null, nodeId, null, 0, ok);
+        return ok;
     }
 
     public int getUnlockedMachineTier(UUID ownerId, String machineTypeId) {
         if (ownerId == null || machineTypeId == null || machineTypeId.isBlank()) return 1;
 
-        var p = state.getCachedProfile(ownerId);
-        if (p == null) return 1;
-
         try {
-            return techManager.getUnlockedTierForMachine(p, machineTypeId);
+            return playerStats.table(ownerId).forType(machineTypeId).tier();
         } catch (Throwable ignored) {
             return 1;
         }
     }
 
+    // ==========================================================
+    // COMPILED PLAYER STATS
+    // ==========================================================
+
+    /** Shared holder of the player's compiled stats: machines keep it and read holder.table(). */
+    public PlayerStatsTable.Holder getPlayerStats(UUID ownerId) {
+        return playerStats.holder(ownerId);
+    }
+
+    void invalidatePlayerStats(UUID ownerId) {
+        try { playerStats.invalidate(ownerId); } catch (Throwable ignored) {}
+    }
+
+    void invalidateAllPlayerStats() {
+        try { playerStats.invalidateAll(); } catch (Throwable ignored) {}
+    }
+
+    void evictPlayerStats(UUID ownerId) {
+        playerStats.evict(ownerId);
+    }
+
     public void setSaverService(GridSaverService saverService) {
         this.saverService = saverService;
     }
 
+    // ==========================================================
+    // CLUSTER OWNERSHIP (-Dmw.cluster=true)
+    // ==========================================================
+    public void setLeaseManager(PlotLeaseManager leaseManager) {
+        this.leaseManager = leaseManager;
+    }
+
+    /** Single node: every plot. Clustered: only plots leased by this node. */
+    public boolean isPlotOwnedHere(UUID ownerId) {
+        PlotLeaseManager m = this.leaseManager;
+        return m == null || m.holds(ownerId);
+    }
+
+    public boolean isClustered() {
+        return this.leaseManager != null;
+    }
+
+    /**
+     * Plot write: single node -> runs with guard = null; clustered -> fenced by this node's lease
+     * (the guard is checked inside the write's transaction).
+     * @return false when the plot is not leased here: nothing was written
+     */
+    public boolean persistPlot(UUID ownerId, PlotLeaseStore.FencedWrite write) throws Exception {
+        PlotLeaseManager m = this.leaseManager;
+        return (m == null) ? write.write(null) : m.writeFenced(ownerId, write);
+    }
+
+    /** Inactivity sweep: clustered mode hands the sleeping plot back (see PlotLeaseManager.releaseInactive). */
+    void onPlotInactive(UUID ownerId) {
+        PlotLeaseManager m = this.leaseManager;
+        if (m != null) m.releaseInactive(ownerId);
+    }
+
+    public boolean isPlotSleeping(UUID ownerId) {
+        return ownerId != null && state.sleepingPlayers.contains(ownerId);
+    }
+
+    /** Lease lost: forget the plot without writing anything (another node owns it now). */
+    public void dropPlot(UUID ownerId) {
+        world.dropPlot(ownerId);
+        record("plot_drop", ownerId, null, null, null, 0, true);
+    }
+
 
 
 
@@ -248,26 +369,84 @@ public class GridManager {
         return true;
     }
 
-    public boolean decreasePlotUnlockedArea(UUID ownerId) { return world.decreasePlotUnlockedArea(ownerId); }
+    public boolean decreasePlotUnlockedArea(UUID ownerId) {
+        boolean ok = world.decreasePlotUnlockedArea(ownerId);
+        record("area_dec", ownerId, null, null, null, 0, ok);
+        return ok;
+    }
 
     public void reloadMinutesToInactive() { state.reloadMinutesToInactive(); }
-    public void touchPlayer(UUID ownerId) { state.touchPlayer(ownerId); }
+
+    public void touchPlayer(UUID ownerId) {
+        SessionRecorder r = recorder;
+        boolean wasSleeping = r != null && ownerId != null && state.sleepingPlayers.contains(ownerId);
+        state.touchPlayer(ownerId);
+        if (r != null) r.touch(ownerId, wasSleeping);
+    }
 
     public PlayerProfile getCachedProfile(UUID uuid) { return state.getCachedProfile(uuid); }
-    public boolean buyItem(UUID playerId, String itemId, int amount) { return economy.buyItem(playerId, itemId, amount); }
+    public boolean buyItem(UUID playerId, String itemId, int amount) {
+        boolean ok = economy.buyItem(playerId, itemId, amount);
+        record("buy", playerId, null, itemId, null, amount, ok);
+        return ok;
+    }
     public double getEffectiveShopUnitPrice(UUID playerId, String itemId) { return economy.getEffectiveShopUnitPrice(playerId, itemId); }
     public double getEffectiveShopUnitPrice(PlayerProfile p, String itemId) { return economy.getEffectiveShopUnitPrice(p, itemId); }
-    public boolean attemptBailout(UUID ownerId) { return economy.attemptBailout(ownerId); }
+    public boolean attemptBailout(UUID ownerId) {
+        boolean ok = economy.attemptBailout(ownerId);
+        record("bailout", ownerId, null, null, null, 0, ok);
+        return ok;
+    }
+
+    public void resetUserPlot(UUID ownerId) {
+        economy.resetUserPlot(ownerId);
+        record("reset", ownerId, null, null, null, 0, true);
+    }
+
+    public void prestigeUser(UUID ownerId) {
+        economy.prestigeUser(ownerId);
+        record("prestige", ownerId, null, null, null, 0, true);
+    }
+
+    public PlayerProfile createNewPlayer(String username) {
+        PlayerProfile p = economy.createNewPlayer(username);
+        // random UUID: a replay cannot recreate this player (reported as unsupported)
+        record("create_player", (p != null) ? p.getPlayerId() : null, null, username, null, 0, p != null);
+        return p;
+    }
 
-    public void resetUserPlot(UUID ownerId) { economy.resetUserPlot(ownerId); }
-    public void prestigeUser(UUID ownerId) { economy.prestigeUser(ownerId); }
-    public PlayerProfile createNewPlayer(String username) { return economy.createNewPlayer(username); }
-    public void deletePlayer(UUID uuid) { economy.deletePlayer(uuid); }
+    public void deletePlayer(UUID uuid) {
+        economy.deletePlayer(uuid);
+        record("delete_player", uuid, null, null, null, 0, true);
+    }
+
+    /** Async plot load (join, lease claim); a recording logs it when the plot is in. */
+    public CompletableFuture<Void> preloadPlotFromDB(UUID ownerId) {
+        CompletableFuture<Void> f = world.preloadPlotFromDB(ownerId);
+        if (recorder == null) return f;
+        return f.whenComplete((v, err) -> {
+            if (err == null) recordPlotLoaded(ownerId);
+        });
+    }
 
-    public void preloadPlotFromDB(UUID ownerId) { world.preloadPlotFromDB(ownerId); }
+    // ==========================================================
+    // WORLD CHECKPOINT (-Dmw.checkpoint.file=checkpoint/world.mwcp)
+    // ==========================================================
+    public static Path checkpointFile() {
+        return Paths.get(System.getProperty("mw.checkpoint.file", "checkpoint/world.mwcp"));
+    }
+
+    /** Boot, before the plots load: plots whose DB stamp is unchanged are restored from the file. */
+    public int openCheckpoint() { return world.openCheckpoint(checkpointFile()); }
+    public void closeCheckpoint() { world.closeCheckpoint(); }
+
+    /** Clean shutdown or on demand: every resident plot to the checkpoint file. */
+    public int writeCheckpoint() { return world.writeCheckpoint(checkpointFile()); }
     public void loadPlotFromDB(UUID ownerId) { world.loadPlotFromDB(ownerId); }
 
     public void tick(long t) {
+        SimTime.update(t, SimTime.deltaSeconds());
+        if (pendingRecorder != null) beginRecording(t - 1);
 
         // Safety refresh for global overclock cache:
         // - NEVER do DB work in getEffectiveMachineSpeedMultiplier (hot path).
@@ -279,6 +458,13 @@ public class GridManager {
             } catch (Throwable ignored) {}
         }
 
+        // Expiry / stale-input check of compiled player stats (1 Hz, rebuilds run off-thread)
+        if (t % 20 == 0) {
+            try {
+                playerStats.sweep(SimTime.nowMs());
+            } catch (Throwable ignored) {}
+        }
+
         // Rotation check throttled to reduce DB spikes.
         // 20 TPS -> 2400 ticks ~= 2 minutes.
         if (t % 2400 == 0) {
@@ -297,7 +483,7 @@ public class GridManager {
                         long periodMs = (long) hours * 3600_000L;
                         if (periodMs <= 0L) periodMs = 3600_000L;
 
-                        long nowMs = System.currentTimeMillis();
+                        long nowMs = SimTime.nowMs();
                         long slot = Math.floorDiv(nowMs, periodMs);
 
                         int idx = (int) Math.floorMod(slot, factions.size());
@@ -319,6 +505,95 @@ public class GridManager {
         }
 
         world.tick(t);
+
+        SessionRecorder r = recorder;
+        if (r != null) r.tickCompleted(t);
+    }
+
+    // ==========================================================
+    // SESSION RECORDING (replayed by SessionReplayer / ReplayMain)
+    // ==========================================================
+
+    /** Arms a recording into dir; it starts at the next tick boundary (see SessionRecorder). */
+    public void startRecording(Path dir) {
+        if (recorder != null || dir == null) return;
+        pendingRecorder = new SessionRecorder(dir, state, repository);
+    }
+
+    /** Call with the tick loop stopped: writes the end line with the final state hash. */
+    public void stopRecording() {
+        SessionRecorder r = recorder;
+        recorder = null;
+        pendingRecorder = null;
+        if (r != null) r.finish(stateHash());
+    }
+
+    public boolean isRecording() { return recorder != null; }
+
+    // tick thread, between two ticks
+    private void beginRecording(long lastTick) {
+        SessionRecorder r = pendingRecorder;
+        pendingRecorder = null;
+        if (r == null) return;
+        try {
+            long seed = SimRandom.ensureSeed();
+            world.reseedRandom();
+
+            List<WorldCheckpoint.PlotImage> plots = new ArrayList<>();
+            for (UUID ownerId : world.residentOwners()) {
+                Long plotId = repository.getPlotId(ownerId);
+                WorldCheckpoint.PlotImage image = world.plotImage(ownerId, (plotId != null) ? plotId : 0L, 0L, false);
+                if (image != null) plots.add(image);
+            }
+
+            r.begin(lastTick, seed, plots, blockRegistry, techManager);
+            recorder = r;
+        } catch (Throwable t) {
+            System.err.println("[RECORD] Cannot start the recording in " + r.dir() + ": " + t);
+        }
+    }
+
+    private void record(String kind, UUID owner, GridPosition pos, String id, Direction dir, int amount, boolean ok) {
+        SessionRecorder r = recorder;
+        if (r != null) r.input(kind, owner, pos, id, dir, amount, ok);
+    }
+
+    private void recordPlotLoaded(UUID ownerId) {
+        SessionRecorder r = recorder;
+        if (r == null || ownerId == null) return;
+        Long plotId = repository.getPlotId(ownerId);
+        r.plotLoaded(ownerId, world.plotImage(ownerId, (plotId != null) ? plotId : 0L, 0L, false));
+    }
+
+    /**
+     * Digest of the simulation state: every resident plot (see GridWorldService.digestInto)
+     * plus the profile and inventory of its owner. Equal hashes = same world after a replay.
+     */
+    public String stateHash() {
+        StateDigest d = new StateDigest();
+        world.digestInto(d);
+        for (UUID ownerId : world.residentOwners()) {
+            PlayerProfile p = state.getCachedProfile(ownerId);
+            d.add(ownerId.toString());
+            if (p != null) {
+                d.add(p.getMoneyCents()).add(p.getVoidCoins()).add(p.getPrestigeLevel());
+                List<String> techs = new ArrayList<>(p.getUnlockedTechs() != null ? p.getUnlockedTechs() : Set.of());
+                Collections.sort(techs);
+                for (String tech : techs) d.add(tech);
+                d.add(p.getOverclockStartPlaytimeSeconds()).add(p.getOverclockDurationSeconds()).add(p.getOverclockMultiplier());
+            }
+            Map<String, Integer> inv = new TreeMap<>(repository.getInventorySnapshot(ownerId));
+            for (var e : inv.entrySet()) d.add(e.getKey()).add(e.getValue());
+        }
+        return d.hex();
+    }
+
+    /** Replay: config / server_gamestate were replaced in the backend, pick them up like a reload. */
+    void reloadConfigForReplay() {
+        state.reloadServerConfig();
+        state.reloadMinutesToInactive();
+        refreshGlobalOverclockCache(true);
+        invalidateAllPlayerStats();
     }
 
     // Returns a direct view of the player's grid map (ConcurrentHashMap).
@@ -334,11 +609,27 @@ public class GridManager {
 
 
 
-    public boolean placeStructure(UUID ownerId, GridPosition pos, String nativeBlockId) { return world.placeStructure(ownerId, pos, nativeBlockId); }
-    public boolean placeMachine(UUID ownerId, GridPosition pos, String typeId, Direction orientation) { return world.placeMachine(ownerId, pos, typeId, orientation); }
-    public void removeComponent(UUID ownerId, GridPosition pos) { world.removeComponent(ownerId, pos); }
+    public boolean placeStructure(UUID ownerId, GridPosition pos, String nativeBlockId) {
+        boolean ok = world.placeStructure(ownerId, pos, nativeBlockId);
+        record("place_structure", ownerId, pos, nativeBlockId, null, 0, ok);
+        return ok;
+    }
 
-    public void saveAndUnloadSpecific(UUID ownerId) { world.saveAndUnloadSpecific(ownerId); }
+    public boolean placeMachine(UUID ownerId, GridPosition pos, String typeId, Direction orientation) {
+        boolean ok = world.placeMachine(ownerId, pos, typeId, orientation);
+        record("place", ownerId, pos, typeId, orientation, 0, ok);
+        return ok;
+    }
+
+    public void removeComponent(UUID ownerId, GridPosition pos) {
+        world.removeComponent(ownerId, pos);
+        record("remove", ownerId, pos, null, null, 0, true);
+    }
+
+    public void saveAndUnloadSpecific(UUID ownerId) {
+        world.saveAndUnloadSpecific(ownerId);
+        record("plot_unload", ownerId, null, null, null, 0, true);
+    }
 
     public PlacedMachine getMachineAt(UUID ownerId, GridPosition pos) { return world.getMachineAt(ownerId, pos); }
 
@@ -349,6 +640,12 @@ public class GridManager {
     // plots.void_itemcap_extra += server_gamestate.itemcap_void_increase_step
     // ==========================================================
     public boolean increaseMaxItemPlacedOnPlotCap(UUID requesterId) {
+        boolean ok = increaseMaxItemPlacedOnPlotCapChecked(requesterId);
+        record("itemcap_inc", requesterId, null, null, null, 0, ok);
+        return ok;
+    }
+
+    private boolean increaseMaxItemPlacedOnPlotCapChecked(UUID requesterId) {
         if (requesterId == null) return false;
 
         state.touchPlayer(requesterId);
@@ -359,41 +656,42 @@ public class GridManager {
         final String BREAKER_ITEM_ID = "block_cap_breaker";
         final boolean isAdmin = p.isAdmin();
 
-        // Player rule: allow only if they own at least 1 breaker item.
+        // Player rule: allow only if they own at least 1 breaker item (reserved, not yet consumed).
+        PlayerInventoryStore.Reservation breaker = null;
         if (!isAdmin) {
-            int owned = 0;
             try {
-                owned = repository.getInventoryItemCount(requesterId, BREAKER_ITEM_ID);
+                breaker = repository.reserveInventoryItem(requesterId, BREAKER_ITEM_ID, 1);
             } catch (Throwable ignored) {}
 
-            if (owned <= 0) {
+            if (breaker == null) {
                 System.out.println("⚠️ VOID ITEM CAP INCREASE denied (missing " + BREAKER_ITEM_ID + "): " + requesterId);
                 return false;
             }
         }
 
-        int step;
-        try {
-            step = repository.getVoidItemCapIncreaseStep();
-        } catch (Throwable t) {
+        int step = Math.max(0, repository.getVoidItemCapIncreaseStep());
+        if (step <= 0) {
+            if (breaker != null) breaker.release();
             return false;
         }
 
-        step = Math.max(0, step);
-        if (step <= 0) return false;
-
         int before = state.getEffectiveItemPlacedOnPlotCap(requesterId);
 
-        int newStored = repository.addPlotVoidItemCapExtra(requesterId, step);
-        state.setPersistedVoidItemCapExtra(requesterId, newStored);
+        boolean increased = false;
+        try {
+            int newStored = repository.addPlotVoidItemCapExtra(requesterId, step);
+            state.setPersistedVoidItemCapExtra(requesterId, newStored);
 
-        int after = state.getEffectiveItemPlacedOnPlotCap(requesterId);
-        boolean increased = after > before;
+            int after = state.getEffectiveItemPlacedOnPlotCap(requesterId);
+            increased = after > before;
+        } finally {
+            if (breaker != null && !increased) breaker.release();
+        }
 
         // Consume item only for non-admins and only if we actually increased.
-        if (increased && !isAdmin) {
+        if (increased && breaker != null) {
             try {
-                repository.modifyInventoryItem(requesterId, BREAKER_ITEM_ID, -1);
+                breaker.commit();
 
                 PlayerProfile fresh = null;
                 try { fresh = repository.loadPlayerProfile(requesterId); } catch (Throwable ignored) {}
@@ -416,7 +714,9 @@ public class GridManager {
     }
 
     public boolean useOverclock(UUID playerId, String itemId) {
-        return economy.useOverclock(playerId, itemId);
+        boolean ok = economy.useOverclock(playerId, itemId);
+        record("overclock", playerId, null, itemId, null, 0, ok);
+        return ok;
     }
 
     // ==========================================================
@@ -502,51 +802,14 @@ public class GridManager {
 // - Machine "speed" column has been removed from DB
 // ==========================================================
     public double getEffectiveMachineSpeedMultiplier(UUID ownerId, String machineTypeId) {
-
         if (ownerId == null || machineTypeId == null) return 1.0;
 
-        // Shared cache across all machines of same player+type
-        long nowMs = System.currentTimeMillis();
-        PlayerSpeedCache psc = speedCache.computeIfAbsent(ownerId, _id -> new PlayerSpeedCache());
-        SpeedEntry cached = psc.byType.get(machineTypeId);
-        if (cached != null && nowMs < cached.validUntilMs) {
-            return cached.value;
-        }
-
-        var p = state.getCachedProfile(ownerId);
-        if (p == null) return 1.0;
-
-        // NEW: server toggle to disable VoidShop boosters (personal + global)
-        boolean enableBoosters = true;
+        // Compiled on events (overclock start/expiry, global overclock, config): no clock, no DB
         try {
-            ServerConfig cfg = state.getServerConfig();
-            if (cfg != null) enableBoosters = cfg.enableVoidShopBoosters();
+            return playerStats.table(ownerId).forType(machineTypeId).speedMultiplier();
         } catch (Throwable ignored) {
-            enableBoosters = true;
-        }
-
-        long playtime = state.getPlaytimeSecondsCached(ownerId);
-
-        double ocPlayer = 1.0;
-        double ocGlobal = 1.0;
-
-        if (enableBoosters) {
-            ocPlayer = p.getActiveOverclockMultiplier(playtime);
-            ocGlobal = getGlobalOverclockMultiplierNow();
+            return 1.0;
         }
-
-        double out = ocPlayer * ocGlobal;
-        if (Double.isNaN(out) || Double.isInfinite(out) || out <= 0.0) out = 1.0;
-
-        // DESIGN RULE: upgrades must never slow down machines
-        if (out < 1.0) out = 1.0;
-
-        // 1s TTL + small deterministic jitter to avoid stampede
-        long jitter = (machineTypeId.hashCode() & 0xFFL); // 0..255ms
-        long validUntil = nowMs + 1000L + jitter;
-
-        psc.byType.put(machineTypeId, new SpeedEntry(out, validUntil));
-        return out;
     }
 
     // ==========================================================
@@ -559,18 +822,8 @@ public class GridManager {
 
         if (ownerId == null || machineTypeId == null || machineTypeId.isBlank()) return fb;
 
-        int tier = 1;
-        try {
-            tier = getUnlockedMachineTier(ownerId, machineTypeId);
-        } catch (Throwable ignored) {
-            tier = 1;
-        }
-
-        if (tier < 1) tier = 1;
-        if (tier > 3) tier = 3;
-
         try {
-            return blockRegistry.getProcessTicks(machineTypeId, tier, fb);
+            return playerStats.table(ownerId).forType(machineTypeId).processTicksOr(fb);
         } catch (Throwable ignored) {
             return fb;
         }
@@ -587,12 +840,9 @@ public class GridManager {
     public double getTechNexusSellMultiplier(UUID ownerId) {
         if (ownerId == null) return 1.0;
 
-        var p = state.getCachedProfile(ownerId);
-        if (p == null) return 1.0;
-
         double mult = 1.0;
         try {
-            mult = techManager.getTechNexusSellMultiplier(p);
+            mult = playerStats.table(ownerId).nexusSellMultiplier();
         } catch (Throwable ignored) {}
 
         if (Double.isNaN(mult) || Double.isInfinite(mult) || mult <= 0.0) return 1.0;
@@ -612,34 +862,42 @@ public class GridManager {
         this.globalOverclockEndEpochMs = endMs;
         this.globalOverclockMultiplier = mult;
         this.globalOverclockLastDurationSeconds = Math.max(0L, lastDurationSeconds);
-        this.globalOverclockLastFetchMs = System.currentTimeMillis();
+        this.globalOverclockLastFetchMs = SimTime.nowMs();
+
+        invalidateAllPlayerStats();
     }
 
     private void refreshGlobalOverclockCache(boolean force) {
-        long now = System.currentTimeMillis();
+        long now = SimTime.nowMs();
         if (!force && (now - globalOverclockLastFetchMs) < 2000L) return;
 
         try {
-            long endMs = Math.max(0L, repository.getGlobalOverclockEndEpochMs());
-            double mult = repository.getGlobalOverclockMultiplier();
-            long lastDur = Math.max(0L, repository.getGlobalOverclockLastDurationSeconds());
+            // In-memory snapshot (refreshed in background): one consistent read, no DB access
+            ServerGameState gs = repository.getServerGameState();
+            long endMs = Math.max(0L, gs.globalOverclockEndEpochMs());
+            double mult = gs.globalOverclockMultiplier();
+            long lastDur = Math.max(0L, gs.globalOverclockLastDurationSeconds());
 
             if (Double.isNaN(mult) || Double.isInfinite(mult) || mult <= 0.0) mult = 1.0;
 
+            boolean changed = endMs != globalOverclockEndEpochMs || mult != globalOverclockMultiplier;
+
             globalOverclockEndEpochMs = endMs;
             globalOverclockMultiplier = mult;
             globalOverclockLastDurationSeconds = lastDur;
             globalOverclockLastFetchMs = now;
+
+            if (changed && playerStats != null) playerStats.invalidateAll();
         } catch (Throwable ignored) {
             // keep previous cached values
         }
     }
 
-    private double getGlobalOverclockMultiplierNow() {
+    double getGlobalOverclockMultiplierNow() {
         long endMs = globalOverclockEndEpochMs;
         if (endMs <= 0L) return 1.0;
 
-        long now = System.currentTimeMillis();
+        long now = SimTime.nowMs();
         if (now >= endMs) return 1.0;
 
         double mult = globalOverclockMultiplier;
@@ -648,11 +906,15 @@ public class GridManager {
         return mult;
     }
 
+    long getGlobalOverclockEndEpochMs() {
+        return globalOverclockEndEpochMs;
+    }
+
     private long getGlobalOverclockRemainingSeconds() {
         long endMs = globalOverclockEndEpochMs;
         if (endMs <= 0L) return 0L;
 
-        long now = System.currentTimeMillis();
+        long now = SimTime.nowMs();
         long diffMs = endMs - now;
         if (diffMs <= 0L) return 0L;
 
@@ -660,6 +922,7 @@ public class GridManager {
     }
 
     public ProductionTelemetry getProductionTelemetry() { return productionTelemetry; }
+    public ProductionHistoryStore getProductionHistoryStore() { return productionHistory; }
 
     public ProductionStatsSnapshot getProductionStats(UUID playerId, ProductionTimeWindow window) {
         if (playerId == null) {
@@ -929,6 +1192,34 @@ public class GridManager {
 
     }
 
+    /**
+     * Batch variant of addMoney (Nexus batch sales):
+     * - ONE profile mutation + ONE dirty mark for the whole batch
+     * - ONE aggregated transaction entry per item id (amount = value, like MATTER_SELL)
+     *
+     * itemIds/amounts are parallel arrays, only the first {@code count} entries are used.
+     */
+    public void addMoneyBatch(UUID playerId, String actionType, String[] itemIds, double[] amounts, int count) {
+        if (playerId == null || actionType == null || itemIds == null || amounts == null || count <= 0) return;
+
+        PlayerProfile p = state.getCachedProfile(playerId);
+        if (p == null) return;
+
+        double total = 0.0;
+        for (int i = 0; i < count; i++) total += amounts[i];
+
+        p.modifyMoney(total);
+        state.activeProfileCache.put(playerId, p);
+        economyWriter.markProfileDirty(playerId, p);
+
+        boolean logValue = "MATTER_SELL".equals(actionType);
+        for (int i = 0; i < count; i++) {
+            double a = amounts[i];
+            if (itemIds[i] == null || a == 0.0) continue;
+            economyWriter.recordTransaction(p, actionType, "MONEY", a, itemIds[i], null, logValue ? a : null);
+        }
+    }
+
     public int getPlotHeightCap(UUID ownerId) {
         return world.getPlotHeightCap(ownerId);
     }
@@ -5,15 +5,21 @@ import com.matterworks.core.domain.machines.base.PlacedMachine;
 import com.matterworks.core.domain.matter.MatterColor;
 import com.matterworks.core.domain.player.PlayerProfile;
 import com.matterworks.core.model.PlotUnlockState;
+import com.matterworks.core.synchronization.SimTime;
 import com.matterworks.core.ui.MariaDBAdapter;
 import com.matterworks.core.ui.ServerConfig;
+import com.matterworks.core.ui.ServerGameState;
 
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 
 final class GridRuntimeState {
 
@@ -27,6 +33,12 @@ final class GridRuntimeState {
     final Map<UUID, Map<GridPosition, MatterColor>> playerResources = new ConcurrentHashMap<>();
     final Map<UUID, PlotUnlockState> plotUnlockCache = new ConcurrentHashMap<>();
 
+    // Bit-packed occupied cells per loaded plot (placement / unlock / region checks)
+    final Map<UUID, PlotOccupancy> occupancy = new ConcurrentHashMap<>();
+
+    // Layout versions + immutable per-plot snapshots (UI readers never copy the grid)
+    final PlotSnapshotRegistry snapshots = new PlotSnapshotRegistry(playerGrids);
+
     /**
      * A concurrent "set" of machines to tick. We rely on PlacedMachine default identity hashCode/equals.
      * This removes:
@@ -35,6 +47,24 @@ final class GridRuntimeState {
      */
     final ConcurrentHashMap<PlacedMachine, Boolean> tickingMachines = new ConcurrentHashMap<>();
 
+    /**
+     * Tick order: the ticking set sorted by (owner, y, x, z), rebuilt on the tick thread only
+     * when the set changed. A fixed order makes a tick a pure function of the world state
+     * (belt handoffs no longer depend on identity hashes), which replay runs rely on; iterating
+     * an array is also cheaper than walking the map three times per tick.
+     * Mutate the set only through addTicking / removeTicking / removeTickingOwner.
+     */
+    private final AtomicLong tickingVersion = new AtomicLong();
+    private long tickOrderVersion = -1L;
+    private PlacedMachine[] tickOrder = new PlacedMachine[0];
+
+    private static final Comparator<PlacedMachine> TICK_ORDER =
+            Comparator.comparing(PlacedMachine::getOwnerId, Comparator.nullsFirst(Comparator.naturalOrder()))
+                    .thenComparingInt(m -> m.getPos().y())
+                    .thenComparingInt(m -> m.getPos().x())
+                    .thenComparingInt(m -> m.getPos().z())
+                    .thenComparing(PlacedMachine::getTypeId, Comparator.nullsFirst(Comparator.naturalOrder()));
+
     /**
      * Dedicated pool for ticking machines in parallel.
      * Keep it bounded to avoid killing EDT when running the Swing mock app.
@@ -84,6 +114,42 @@ final class GridRuntimeState {
         });
     }
 
+    void addTicking(PlacedMachine m) {
+        if (m != null && tickingMachines.put(m, Boolean.TRUE) == null) tickingVersion.incrementAndGet();
+    }
+
+    void removeTicking(PlacedMachine m) {
+        if (m != null && tickingMachines.remove(m) != null) tickingVersion.incrementAndGet();
+    }
+
+    void removeTickingOwner(UUID ownerId) {
+        if (tickingMachines.keySet().removeIf(m -> m != null && ownerId.equals(m.getOwnerId()))) {
+            tickingVersion.incrementAndGet();
+        }
+    }
+
+    /** Delegation changed (belts joined / left a transport segment): rebuild the order. */
+    void invalidateTickOrder() {
+        tickingVersion.incrementAndGet();
+    }
+
+    /**
+     * Tick thread only. A change racing the rebuild bumps the version again: next tick rebuilds.
+     * Machines ticked by another object (isTickDelegated) stay in the set but not in the order.
+     */
+    PlacedMachine[] tickOrder() {
+        long v = tickingVersion.get();
+        if (v != tickOrderVersion) {
+            PlacedMachine[] arr = tickingMachines.keySet().stream()
+                    .filter(m -> !m.isTickDelegated())
+                    .toArray(PlacedMachine[]::new);
+            Arrays.sort(arr, TICK_ORDER);
+            tickOrder = arr;
+            tickOrderVersion = v;
+        }
+        return tickOrder;
+    }
+
     ServerConfig getServerConfig() {
         ServerConfig cfg = serverConfig;
         if (cfg == null) {
@@ -97,7 +163,7 @@ final class GridRuntimeState {
         if (ownerId == null) return 0L;
 
         PlaytimeCacheEntry e = playtimeCache.computeIfAbsent(ownerId, k -> new PlaytimeCacheEntry());
-        long now = System.currentTimeMillis();
+        long now = SimTime.nowMs();
 
         // refresh every 5 seconds
         if (now - e.lastFetchMs > 5000L) {
@@ -120,25 +186,25 @@ final class GridRuntimeState {
     void touchPlayer(UUID ownerId) {
         if (ownerId == null) return;
 
-        lastActivityMs.put(ownerId, System.currentTimeMillis());
+        lastActivityMs.put(ownerId, SimTime.nowMs());
 
         // If player was sleeping, wake them and re-add their machines to ticking set
         if (sleepingPlayers.remove(ownerId)) {
             Map<GridPosition, PlacedMachine> grid = playerGrids.get(ownerId);
             if (grid != null && !grid.isEmpty()) {
                 for (PlacedMachine pm : new HashSet<>(grid.values())) {
-                    if (pm == null) continue;
-                    tickingMachines.put(pm, Boolean.TRUE);
+                    addTicking(pm);
                 }
             }
         }
     }
 
-    void sweepInactivePlayers(long currentTick) {
+    /** @param onInactive called (tick thread) for every plot that just went to sleep */
+    void sweepInactivePlayers(long currentTick, Consumer<UUID> onInactive) {
         if (currentTick - lastSweepTick < 100) return;
         lastSweepTick = currentTick;
 
-        long now = System.currentTimeMillis();
+        long now = SimTime.nowMs();
         long threshold = minutesToInactive * 60_000L;
 
         for (UUID ownerId : playerGrids.keySet()) {
@@ -149,9 +215,10 @@ final class GridRuntimeState {
                 sleepingPlayers.add(ownerId);
 
                 // Remove all machines for that owner from ticking set
-                tickingMachines.keySet().removeIf(m -> m != null && ownerId.equals(m.getOwnerId()));
+                removeTickingOwner(ownerId);
 
                 repository.closePlayerSession(ownerId);
+                onInactive.accept(ownerId);
             }
         }
     }
@@ -162,6 +229,7 @@ final class GridRuntimeState {
     }
 
     boolean checkItemCap(UUID playerId, String itemId, int incomingAmount) {
+        // In-memory inventory authority: no DB round trip on buy/place
         int inInventory = repository.getInventoryItemCount(playerId, itemId);
 
         Map<GridPosition, PlacedMachine> placed = playerGrids.get(playerId);
@@ -238,11 +306,14 @@ final class GridRuntimeState {
     }
 
     int getEffectiveItemPlacedOnPlotCap(UUID ownerId) {
-        int base = repository.getDefaultItemPlacedOnPlotCap();
+        // One snapshot read: placement never hits server_gamestate
+        ServerGameState gs = repository.getServerGameState();
+
+        int base = gs.defaultItemPlacedOnPlotCap();
         if (base <= 0) base = 1;
 
-        int prestigeStep = Math.max(0, repository.getItemCapIncreaseStep());
-        int max = repository.getMaxItemPlacedOnPlotCap();
+        int prestigeStep = Math.max(0, gs.itemCapIncreaseStep());
+        int max = gs.maxItemPlacedOnPlotCap();
         if (max <= 0) max = Integer.MAX_VALUE;
 
         int prestige = 0;
@@ -266,9 +337,10 @@ final class GridRuntimeState {
 
     void reloadGlobalOverclockFromDb() {
         try {
-            long endMs = Math.max(0L, repository.getGlobalOverclockEndEpochMs());
-            double mult = repository.getGlobalOverclockMultiplier();
-            long lastDur = Math.max(0L, repository.getGlobalOverclockLastDurationSeconds());
+            ServerGameState gs = repository.getServerGameState();
+            long endMs = Math.max(0L, gs.globalOverclockEndEpochMs());
+            double mult = gs.globalOverclockMultiplier();
+            long lastDur = Math.max(0L, gs.globalOverclockLastDurationSeconds());
 
             if (Double.isNaN(mult) || Double.isInfinite(mult) || mult <= 0.0) mult = 1.0;
 
@@ -297,7 +369,7 @@ final class GridRuntimeState {
         long endMs = globalOverclockEndEpochMs;
         if (endMs <= 0L) return 1.0;
 
-        long now = System.currentTimeMillis();
+        long now = SimTime.nowMs();
         if (now >= endMs) return 1.0;
 
         double mult = globalOverclockMultiplier;
@@ -309,7 +381,7 @@ final class GridRuntimeState {
         long endMs = globalOverclockEndEpochMs;
         if (endMs <= 0L) return 0L;
 
-        long now = System.currentTimeMillis();
+        long now = SimTime.nowMs();
         long diffMs = endMs - now;
         if (diffMs <= 0L) return 0L;
 
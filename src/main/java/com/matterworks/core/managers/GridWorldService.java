@@ -3,9 +3,13 @@ package com.matterworks.core.managers;
 
 import com.matterworks.core.common.Direction;
 import com.matterworks.core.common.GridPosition;
+import com.matterworks.core.database.DbScheduler;
+import com.matterworks.core.database.PlayerInventoryStore;
 import com.matterworks.core.common.Vector3Int;
+import com.matterworks.core.database.dao.PlotDAO;
 import com.matterworks.core.domain.factory.MachineFactory;
 import com.matterworks.core.domain.machines.base.PlacedMachine;
+import com.matterworks.core.domain.machines.logistics.ConveyorBelt;
 import com.matterworks.core.domain.machines.production.DrillMachine;
 import com.matterworks.core.domain.machines.registry.BlockRegistry;
 import com.matterworks.core.domain.machines.structure.StructuralBlock;
@@ -13,15 +17,22 @@ import com.matterworks.core.domain.matter.MatterColor;
 import com.matterworks.core.domain.player.PlayerProfile;
 import com.matterworks.core.model.PlotObject;
 import com.matterworks.core.model.PlotUnlockState;
+import com.matterworks.core.monitoring.PlotLoadEvent;
+import com.matterworks.core.monitoring.PlotTickSlices;
+import com.matterworks.core.monitoring.WorldTickPhaseEvent;
 import com.matterworks.core.ports.IWorldAccess;
+import com.matterworks.core.ports.VisualFrame;
 import com.matterworks.core.ui.MariaDBAdapter;
 import com.matterworks.core.ui.ServerConfig;
+import com.matterworks.core.synchronization.SimRandom;
 
 
+import java.nio.file.Path;
 import java.util.*;
 import java.util.Random;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 final class GridWorldService {
@@ -31,11 +42,25 @@ final class GridWorldService {
     private final IWorldAccess worldAdapter;
     private final BlockRegistry blockRegistry;
     private final TechManager techManager;
-    private final ExecutorService ioExecutor;
+    private final DbScheduler dbScheduler;
     private final GridRuntimeState state;
 
     private volatile long lastTickPerfLogMs = 0L;
-    private final Random rnd = new Random();
+
+    // JFR per-plot tick slices (tick thread only)
+    private final PlotTickSlices plotSlices = new PlotTickSlices();
+    // Visual changes of the tick, flushed as one frame per plot
+    private final VisualChangeBuffer visuals;
+    private final Random rnd = SimRandom.create("world.resources");
+    // Straight belt runs merged into transport segments (rebuilt at tick start)
+    private final TransportLines lines;
+
+    // Boot-time world checkpoint (open only while the plots stream in, see openCheckpoint)
+    private volatile WorldCheckpoint checkpoint;
+    private volatile Map<UUID, PlotDAO.PlotStamp> checkpointStamps = Map.of();
+    private final Set<UUID> checkpointConsumed = ConcurrentHashMap.newKeySet();
+    private final Object checkpointWriteLock = new Object();
+    private final AtomicInteger checkpointRestored = new AtomicInteger();
 
     GridWorldService(
             GridManager gridManager,
@@ -43,7 +68,7 @@ final class GridWorldService {
             IWorldAccess worldAdapter,
             BlockRegistry blockRegistry,
             TechManager techManager,
-            ExecutorService ioExecutor,
+            DbScheduler dbScheduler,
             GridRuntimeState state
     ) {
         this.gridManager = gridManager;
@@ -51,21 +76,31 @@ final class GridWorldService {
         this.worldAdapter = worldAdapter;
         this.blockRegistry = blockRegistry;
         this.techManager = techManager;
-        this.ioExecutor = ioExecutor;
+        this.dbScheduler = dbScheduler;
         this.state = state;
+        this.lines = new TransportLines(state);
+        this.visuals = new VisualChangeBuffer(worldAdapter);
     }
 
     // ==========================================================
     // SNAPSHOTS (GUI)
     // ==========================================================
+    /** Shared immutable cells of the current layout (no copy). */
     Map<GridPosition, PlacedMachine> getSnapshot(UUID ownerId) {
-        Map<GridPosition, PlacedMachine> g = state.playerGrids.get(ownerId);
-        return g != null ? new HashMap<>(g) : Collections.emptyMap();
+        return state.snapshots.get(ownerId).cells();
+    }
+
+    PlotSnapshot getPlotSnapshot(UUID ownerId) {
+        return state.snapshots.get(ownerId);
+    }
+
+    PlotSnapshot getSnapshotIfChanged(UUID ownerId, long sinceVersion) {
+        return state.snapshots.getIfChanged(ownerId, sinceVersion);
     }
 
     Map<GridPosition, PlacedMachine> getAllMachinesSnapshot() {
         Map<GridPosition, PlacedMachine> all = new HashMap<>();
-        for (var map : state.playerGrids.values()) all.putAll(map);
+        for (UUID ownerId : state.playerGrids.keySet()) all.putAll(state.snapshots.get(ownerId).cells());
         return all;
     }
 
@@ -93,11 +128,6 @@ final class GridWorldService {
         return new GridManager.PlotAreaInfo(startX, startY, maxX, maxY, incX, incY, extraX, extraY);
     }
 
-    private boolean isCellWithinMax(UUID ownerId, int gx, int gz) {
-        GridManager.PlotAreaInfo info = getPlotAreaInfo(ownerId);
-        return gx >= 0 && gx < info.maxX() && gz >= 0 && gz < info.maxY();
-    }
-
     private boolean isCellUnlocked(UUID ownerId, int gx, int gz) {
         GridManager.PlotAreaInfo info = getPlotAreaInfo(ownerId);
         return gx >= info.minX() && gx < info.maxXExclusive()
@@ -137,21 +167,21 @@ final class GridWorldService {
 
 
 
+    /**
+     * Footprint inside the plot bounds and the unlocked rectangle.
+     * The area info is built once per check (not once per cell).
+     */
     private boolean isAreaUnlocked(UUID ownerId, GridPosition origin, Vector3Int size) {
         if (origin == null || size == null) return false;
 
         int sx = Math.max(1, size.x());
         int sz = Math.max(1, size.z());
+        int x0 = origin.x(), z0 = origin.z();
 
-        for (int dx = 0; dx < sx; dx++) {
-            for (int dz = 0; dz < sz; dz++) {
-                int gx = origin.x() + dx;
-                int gz = origin.z() + dz;
-                if (!isCellWithinMax(ownerId, gx, gz)) return false;
-                if (!isCellUnlocked(ownerId, gx, gz)) return false;
-            }
-        }
-        return true;
+        GridManager.PlotAreaInfo info = getPlotAreaInfo(ownerId);
+        if (x0 < 0 || z0 < 0 || x0 + sx > info.maxX() || z0 + sz > info.maxY()) return false;
+        return x0 >= info.minX() && x0 + sx <= info.maxXExclusive()
+                && z0 >= info.minZ() && z0 + sz <= info.maxZExclusive();
     }
 
     boolean decreasePlotUnlockedArea(UUID ownerId) {
@@ -175,16 +205,11 @@ final class GridWorldService {
                 next.extraX(), next.extraY()
         );
 
-        Map<GridPosition, PlacedMachine> grid = state.playerGrids.get(ownerId);
-        if (grid != null && !grid.isEmpty()) {
-            for (GridPosition cell : grid.keySet()) {
-                if (cell == null) continue;
-                int gx = cell.x();
-                int gz = cell.z();
-                boolean inside = gx >= nextInfo.minX() && gx < nextInfo.maxXExclusive()
-                        && gz >= nextInfo.minZ() && gz < nextInfo.maxZExclusive();
-                if (!inside) return false;
-            }
+        // Word-wide scan of the occupancy bitmap against the shrunk rectangle
+        PlotOccupancy occ = state.occupancy.get(ownerId);
+        if (occ != null && occ.anyOccupiedOutside(
+                nextInfo.minX(), nextInfo.maxXExclusive(), nextInfo.minZ(), nextInfo.maxZExclusive())) {
+            return false;
         }
 
         if (!repository.updatePlotUnlockState(ownerId, next)) return false;
@@ -195,25 +220,28 @@ final class GridWorldService {
     // ==========================================================
     // LOADING PLOTS
     // ==========================================================
-    void preloadPlotFromDB(UUID ownerId) {
-        if (ownerId == null) return;
+    /** @return completes when the plot is in memory (boot waits on it to time the plot phase) */
+    CompletableFuture<Void> preloadPlotFromDB(UUID ownerId) {
+        if (ownerId == null) return CompletableFuture.completedFuture(null);
+        if (!gridManager.isPlotOwnedHere(ownerId)) return CompletableFuture.completedFuture(null);
 
         if (state.playerGrids.containsKey(ownerId)) {
             state.touchPlayer(ownerId);
-            return;
+            return CompletableFuture.completedFuture(null);
         }
 
         state.touchPlayer(ownerId);
 
-        ioExecutor.submit(() -> {
+        return CompletableFuture.runAsync(() -> {
             loadPlotSynchronously(ownerId);
             PlayerProfile p = repository.loadPlayerProfile(ownerId);
             if (p != null) state.activeProfileCache.put(ownerId, p);
-        });
+        }, dbScheduler.lane(DbScheduler.Lane.AUTOSAVE)); // bulk load: below interactive and economy work
     }
 
     void loadPlotFromDB(UUID ownerId) {
         if (ownerId == null) return;
+        if (!gridManager.isPlotOwnedHere(ownerId)) return; // clustered: leased by another node
 
         if (state.playerGrids.containsKey(ownerId)) {
             state.touchPlayer(ownerId);
@@ -222,7 +250,7 @@ final class GridWorldService {
 
         state.touchPlayer(ownerId);
 
-        ioExecutor.submit(() -> {
+        dbScheduler.execute(DbScheduler.Lane.INTERACTIVE, () -> {
             loadPlotSynchronously(ownerId);
             PlayerProfile p = repository.loadPlayerProfile(ownerId);
             if (p != null) state.activeProfileCache.put(ownerId, p);
@@ -231,42 +259,74 @@ final class GridWorldService {
 
     // package-private: viene chiamato anche da EconomyService (reset/prestige/instant)
     void loadPlotSynchronously(UUID ownerId) {
+        PlotLoadEvent ev = new PlotLoadEvent();
+        ev.begin();
+
         state.playerGrids.remove(ownerId);
+        state.occupancy.remove(ownerId);
+        state.snapshots.layoutChanged(ownerId);
+        visuals.dropPlot(ownerId);
         state.playerResources.remove(ownerId);
         state.plotUnlockCache.remove(ownerId);
         state.sleepingPlayers.remove(ownerId);
 
-        // tickingMachines is ConcurrentHashMap<PlacedMachine, Boolean>
-        state.tickingMachines.keySet().removeIf(m -> m != null && ownerId.equals(m.getOwnerId()));
+        state.removeTickingOwner(ownerId);
+        lines.forget(ownerId);
 
+        // long-horizon production history (local file), before machines start recording
         try {
-            try {
-                PlotUnlockState st = repository.loadPlotUnlockState(ownerId);
-                state.plotUnlockCache.put(ownerId, (st != null ? st : PlotUnlockState.zero()));
-            } catch (Throwable t) {
-                state.plotUnlockCache.put(ownerId, PlotUnlockState.zero());
-            }
+            gridManager.getProductionHistoryStore().restore(ownerId);
+        } catch (Throwable ignored) {}
 
-            Long pid = repository.getPlotId(ownerId);
-            if (pid != null) {
-                Map<GridPosition, MatterColor> res = repository.loadResources(pid);
-                if (res.isEmpty()) generateDefaultResources(ownerId, repository, pid, res);
-                state.playerResources.put(ownerId, res);
+        try {
+            // Boot: a plot whose DB stamp did not change since the checkpoint skips every SQL read
+            WorldCheckpoint.PlotImage image = takeCheckpointImage(ownerId);
+            List<PlotObject> dtos;
+
+            if (image != null) {
+                state.plotUnlockCache.put(ownerId, image.unlock());
+                state.playerResources.put(ownerId, image.resources());
+                ev.resources = image.resources().size();
+                dtos = image.machines();
+            } else {
+                try {
+                    PlotUnlockState st = repository.loadPlotUnlockState(ownerId);
+                    state.plotUnlockCache.put(ownerId, (st != null ? st : PlotUnlockState.zero()));
+                } catch (Throwable t) {
+                    state.plotUnlockCache.put(ownerId, PlotUnlockState.zero());
+                }
+
+                Long pid = repository.getPlotId(ownerId);
+                if (pid != null) {
+                    Map<GridPosition, MatterColor> res = repository.loadResources(pid);
+                    if (res.isEmpty()) generateDefaultResources(ownerId, repository, pid, res);
+                    state.playerResources.put(ownerId, res);
+                    ev.resources = res.size();
+                }
+
+                dtos = repository.loadPlotMachines(ownerId);
             }
 
-            List<PlotObject> dtos = repository.loadPlotMachines(ownerId);
             for (PlotObject d : dtos) {
                 PlacedMachine m = MachineFactory.createFromModel(d, ownerId);
                 if (m == null) continue;
 
                 m.setGridContext(gridManager);
                 internalAddMachine(ownerId, m);
+                ev.machines++;
             }
 
             state.touchPlayer(ownerId);
+            ev.success = true;
 
         } catch (Exception e) {
             e.printStackTrace();
+        } finally {
+            ev.end();
+            if (ev.shouldCommit()) {
+                ev.plotOwner = String.valueOf(ownerId);
+                ev.commit();
+            }
         }
     }
 
@@ -274,98 +334,77 @@ final class GridWorldService {
 // SIMULATION LOOP
 // ==========================================================
     void tick(long t) {
-        state.sweepInactivePlayers(t);
+        WorldTickPhaseEvent phase = WorldTickPhaseEvent.start();
+        state.sweepInactivePlayers(t, gridManager::onPlotInactive);
+        lines.rebuildDirty();
+        phase.finish(t, "sweep", 0);
 
         boolean sample = WorldTickProfiler.shouldSample(t);
         WorldTickProfiler.Sample prof = sample ? WorldTickProfiler.beginSample(t) : null;
 
+        // JFR per-plot slices: machines are timed only while a recording enables PlotTickEvent
+        boolean slices = plotSlices.begin();
+        boolean timed = sample || slices;
+
         long startNs = System.nanoTime();
 
-        int machineCountApprox = state.tickingMachines.size();
+        PlacedMachine[] order = state.tickOrder();
+        int machineCountApprox = order.length;
 
         // PASS 1: Logistics movers
-        for (PlacedMachine m : state.tickingMachines.keySet()) {
+        phase = WorldTickPhaseEvent.start();
+        for (PlacedMachine m : order) {
             if (m == null) continue;
+            if (!isLogistics(m)) continue;
 
-            boolean isLogistics =
-                    (m instanceof com.matterworks.core.domain.machines.logistics.ConveyorBelt) ||
-                            (m instanceof com.matterworks.core.domain.machines.logistics.Splitter) ||
-                            (m instanceof com.matterworks.core.domain.machines.logistics.Merger) ||
-                            (m instanceof com.matterworks.core.domain.machines.logistics.LiftMachine) ||
-                            (m instanceof com.matterworks.core.domain.machines.logistics.DropperMachine);
-
-            if (!isLogistics) continue;
-
-            if (sample) {
-                long ms = System.nanoTime();
-                try {
-                    m.tick(t);
-                    if (m.getDbId() != null && m.isDirty()) {
-                        gridManager.markPlotDirty(m.getOwnerId());
-                    }
-                } catch (Throwable ignored) {
-                } finally {
-                    prof.record(m.getClass(), System.nanoTime() - ms);
-                }
+            if (timed) {
+                tickTimed(m, t, prof, slices, true);
             } else {
-                try {
-                    m.tick(t);
-                    if (m.getDbId() != null && m.isDirty()) {
-                        gridManager.markPlotDirty(m.getOwnerId());
-                    }
-                } catch (Throwable ignored) {
-                }
+                tickMachine(m, t);
             }
         }
+        phase.finish(t, "logistics", machineCountApprox);
 
         // PASS 1b: BELT RETRY PASS (order-independent handoff)
-        // This is critical because tickingMachines is a ConcurrentHashMap -> iteration order is not deterministic.
-        // Retry pass gives belts another chance to push after downstream belts have moved in PASS 1.
-        for (PlacedMachine m : state.tickingMachines.keySet()) {
+        // The tick order is fixed but not flow-aware: the retry pass gives belts another chance
+        // to push after downstream belts have moved in PASS 1. Straight runs are TransportSegments
+        // (ticked through their head belt) and already move head-first inside the run.
+        phase = WorldTickPhaseEvent.start();
+        for (PlacedMachine m : order) {
             if (!(m instanceof com.matterworks.core.domain.machines.logistics.ConveyorBelt)) continue;
 
-            try {
-                m.tick(t); // safe: ConveyorBelt advances progress only once per tick, retry-only otherwise
-                if (m.getDbId() != null && m.isDirty()) {
-                    gridManager.markPlotDirty(m.getOwnerId());
-                }
-            } catch (Throwable ignored) {}
+            // safe: ConveyorBelt advances progress only once per tick, retry-only otherwise
+            if (slices) {
+                tickTimed(m, t, null, true, false);
+            } else {
+                tickMachine(m, t);
+            }
         }
+        phase.finish(t, "belt-retry", machineCountApprox);
 
         // PASS 2: Everything else
-        for (PlacedMachine m : state.tickingMachines.keySet()) {
+        phase = WorldTickPhaseEvent.start();
+        for (PlacedMachine m : order) {
             if (m == null) continue;
+            if (isLogistics(m)) continue;
 
-            boolean isLogistics =
-                    (m instanceof com.matterworks.core.domain.machines.logistics.ConveyorBelt) ||
-                            (m instanceof com.matterworks.core.domain.machines.logistics.Splitter) ||
-                            (m instanceof com.matterworks.core.domain.machines.logistics.Merger) ||
-                            (m instanceof com.matterworks.core.domain.machines.logistics.LiftMachine) ||
-                            (m instanceof com.matterworks.core.domain.machines.logistics.DropperMachine);
-
-            if (isLogistics) continue;
-
-            if (sample) {
-                long ms = System.nanoTime();
-                try {
-                    m.tick(t);
-                    if (m.getDbId() != null && m.isDirty()) {
-                        gridManager.markPlotDirty(m.getOwnerId());
-                    }
-                } catch (Throwable ignored) {
-                } finally {
-                    prof.record(m.getClass(), System.nanoTime() - ms);
-                }
+            if (timed) {
+                tickTimed(m, t, prof, slices, true);
             } else {
-                try {
-                    m.tick(t);
-                    if (m.getDbId() != null && m.isDirty()) {
-                        gridManager.markPlotDirty(m.getOwnerId());
-                    }
-                } catch (Throwable ignored) {
-                }
+                tickMachine(m, t);
             }
         }
+        phase.finish(t, "machines", machineCountApprox);
+
+        plotSlices.commit(t);
+
+        // Layouts changed during this tick (placement, removal, loads) are republished once
+        state.snapshots.publishDirty();
+
+        // Visual changes of the tick: one coalesced frame per plot
+        phase = WorldTickPhaseEvent.start();
+        visuals.flush(t);
+        phase.finish(t, "visuals", 0);
 
         long elapsedNs = System.nanoTime() - startNs;
         long elapsedMs = elapsedNs / 1_000_000L;
@@ -382,15 +421,51 @@ final class GridWorldService {
             long now = System.currentTimeMillis();
             if (now - lastTickPerfLogMs > 1000L) {
                 lastTickPerfLogMs = now;
-                System.out.println("[PERF] world.tick=" + elapsedMs + "ms | machines=" + machineCountApprox);
+                System.out.println("[PERF] world.tick=" + elapsedMs + "ms | machines=" + machineCountApprox
+                        + " beltSegments=" + lines.segmentCount());
             }
         }
     }
 
+    private static boolean isLogistics(PlacedMachine m) {
+        return (m instanceof com.matterworks.core.domain.machines.logistics.ConveyorBelt) ||
+                (m instanceof com.matterworks.core.domain.machines.logistics.Splitter) ||
+                (m instanceof com.matterworks.core.domain.machines.logistics.Merger) ||
+                (m instanceof com.matterworks.core.domain.machines.logistics.LiftMachine) ||
+                (m instanceof com.matterworks.core.domain.machines.logistics.DropperMachine);
+    }
 
+    private void tickMachine(PlacedMachine m, long t) {
+        try {
+            m.tick(t);
+            if (m.getDbId() != null && m.isDirty()) {
+                gridManager.markPlotDirty(m.getOwnerId());
+            }
+        } catch (Throwable ignored) {
+        }
+    }
 
+    private void tickTimed(PlacedMachine m, long t, WorldTickProfiler.Sample prof, boolean slices, boolean countMachine) {
+        long ms = System.nanoTime();
+        try {
+            tickMachine(m, t);
+        } finally {
+            long dt = System.nanoTime() - ms;
+            if (prof != null) prof.record(m.getClass(), dt);
+            if (slices) plotSlices.add(m.getOwnerId(), dt, countMachine);
+        }
+    }
 
+    // ==========================================================
+    // VISUALS
+    // ==========================================================
+    boolean isVisualSyncEnabled() {
+        return visuals.isEnabled();
+    }
 
+    void recordVisual(UUID ownerId, GridPosition pos, VisualFrame.Kind kind, String value) {
+        visuals.record(ownerId, pos, kind, value);
+    }
 
     // ==========================================================
     // PLACEMENT / REMOVAL
@@ -407,7 +482,7 @@ final class GridWorldService {
 
         StructuralBlock block = new StructuralBlock(ownerId, pos, nativeBlockId);
         internalAddMachine(ownerId, block);
-        block.onPlace(worldAdapter);
+        block.onPlace(visuals.worldFor(ownerId));
 
         Long id = repository.createMachine(ownerId, block);
         if (id != null) block.setDbId(id);
@@ -467,20 +542,21 @@ final class GridWorldService {
         if (!isAreaUnlocked(ownerId, pos, effDim)) return false;
         if (!isAreaClear(ownerId, pos, effDim)) return false;
 
+        // Reserve (in memory, atomic): committed only once the machine is really placed
+        PlayerInventoryStore.Reservation reserved = null;
         if (!p.isAdmin()) {
-            int inv = repository.getInventoryItemCount(ownerId, typeId);
-            if (inv <= 0) {
+            reserved = repository.reserveInventoryItem(ownerId, typeId, 1);
+            if (reserved == null) {
                 System.out.println("⚠️ PLACE_MACHINE FAILED: inventory empty for type=" + typeId
                         + " owner=" + ownerId + " (cap is OK now)");
                 return false;
             }
-            repository.modifyInventoryItem(ownerId, typeId, -1);
         }
 
         PlotObject dto = new PlotObject(null, null, pos.x(), pos.y(), pos.z(), typeId, null);
         PlacedMachine m = MachineFactory.createFromModel(dto, ownerId);
         if (m == null) {
-            if (!p.isAdmin()) repository.modifyInventoryItem(ownerId, typeId, +1);
+            if (reserved != null) reserved.release();
             return false;
         }
 
@@ -492,15 +568,17 @@ final class GridWorldService {
             MatterColor resAt = (resMap != null) ? resMap.get(pos) : null;
 
             if (resAt == null) {
-                if (!p.isAdmin()) repository.modifyInventoryItem(ownerId, typeId, +1);
+                if (reserved != null) reserved.release();
                 return false;
             }
 
             drill.setResourceToMine(resAt);
         }
 
+        if (reserved != null) reserved.commit();
+
         internalAddMachine(ownerId, m);
-        m.onPlace(worldAdapter);
+        m.onPlace(visuals.worldFor(ownerId));
 
         Long id = repository.createMachine(ownerId, m);
         if (id != null) m.setDbId(id);
@@ -531,7 +609,7 @@ final class GridWorldService {
         internalRemoveMachine(ownerId, target);
 
         // Correct lifecycle hook in your codebase
-        target.onRemove(worldAdapter);
+        target.onRemove(visuals.worldFor(ownerId));
 
         if (target.getDbId() != null) {
             repository.deleteMachine(target.getDbId());
@@ -554,21 +632,249 @@ final class GridWorldService {
                     .filter(PlacedMachine::isDirty)
                     .collect(Collectors.toList());
 
-            if (!dirty.isEmpty()) {
-                repository.updateMachinesMetadata(dirty);
-                dirty.forEach(PlacedMachine::cleanDirty);
+            try {
+                if (!dirty.isEmpty() && gridManager.persistPlot(ownerId, guard -> repository.updateMachinesMetadata(ownerId, dirty, guard))) {
+                    dirty.forEach(PlacedMachine::cleanDirty);
+                }
+            } catch (Throwable t) {
+                System.err.println("[SAVE] Final flush failed for plot " + ownerId + ": " + t);
             }
         }
 
+        unloadPlotState(ownerId);
+
+        try {
+            gridManager.getProductionHistoryStore().persistAndEvict(ownerId);
+        } catch (Throwable ignored) {}
+
+        try {
+            if (!gridManager.isClustered()) {
+                repository.flushAndEvictInventory(ownerId);
+            } else if (!gridManager.persistPlot(ownerId, guard -> repository.flushAndEvictInventory(ownerId, guard))) {
+                repository.discardInventory(ownerId); // lease already gone: the new holder owns the rows
+            }
+        } catch (Throwable ignored) {}
+
+        gridManager.evictPlayerStats(ownerId);
+    }
+
+    /**
+     * Clustered mode, lease lost: the plot (and the player's pending inventory rows) are
+     * forgotten without any DB write, the new holder reloads them from the DB.
+     */
+    void dropPlot(UUID ownerId) {
+        if (ownerId == null) return;
+
+        unloadPlotState(ownerId);
+
+        try {
+            gridManager.getProductionHistoryStore().persistAndEvict(ownerId); // local file only
+        } catch (Throwable ignored) {}
+
+        try {
+            repository.discardInventory(ownerId);
+        } catch (Throwable ignored) {}
+
+        gridManager.evictPlayerStats(ownerId);
+    }
+
+    private void unloadPlotState(UUID ownerId) {
         state.playerGrids.remove(ownerId);
+        state.occupancy.remove(ownerId);
+        state.snapshots.layoutChanged(ownerId);
+        visuals.dropPlot(ownerId);
         state.playerResources.remove(ownerId);
         state.plotUnlockCache.remove(ownerId);
         state.activeProfileCache.remove(ownerId);
         state.lastActivityMs.remove(ownerId);
         state.sleepingPlayers.remove(ownerId);
 
-        // tickingMachines is ConcurrentHashMap<PlacedMachine, Boolean>
-        state.tickingMachines.keySet().removeIf(m -> m != null && ownerId.equals(m.getOwnerId()));
+        state.removeTickingOwner(ownerId);
+        lines.forget(ownerId);
+    }
+
+    // ==========================================================
+    // WORLD CHECKPOINT
+    // ==========================================================
+
+    /**
+     * Boot: maps the checkpoint and reads the DB stamps of every plot (one query).
+     * Must run after the integrity heal (it may change rows) and before the plots load.
+     * @return plots that can be restored from the file
+     */
+    int openCheckpoint(Path file) {
+        WorldCheckpoint cp = WorldCheckpoint.open(file);
+        if (cp == null) return 0;
+
+        Map<UUID, PlotDAO.PlotStamp> stamps = repository.loadPlotStamps();
+        int valid = 0;
+        for (var e : stamps.entrySet()) {
+            if (cp.contains(e.getKey()) && cp.stampOf(e.getKey()) == e.getValue().stamp()) valid++;
+        }
+
+        checkpointStamps = stamps;
+        checkpointConsumed.clear();
+        checkpointRestored.set(0);
+        checkpoint = cp;
+
+        System.out.println("[CHECKPOINT] " + file + " (" + ((System.currentTimeMillis() - cp.createdAtMs()) / 1000L) + "s old):"
+                + " plots=" + cp.plotCount() + " valid=" + valid + " stale=" + (cp.plotCount() - valid));
+        return valid;
+    }
+
+    /** End of the boot load: later (re)loads, e.g. reset/prestige, always read the DB. */
+    void closeCheckpoint() {
+        WorldCheckpoint cp = checkpoint;
+        if (cp == null) return;
+        checkpoint = null;
+        checkpointStamps = Map.of();
+        System.out.println("[CHECKPOINT] restored " + checkpointRestored.get() + "/" + cp.plotCount() + " plots from the checkpoint");
+    }
+
+    private WorldCheckpoint.PlotImage takeCheckpointImage(UUID ownerId) {
+        WorldCheckpoint cp = checkpoint;
+        if (cp == null || !checkpointConsumed.add(ownerId)) return null;
+
+        PlotDAO.PlotStamp db = checkpointStamps.get(ownerId);
+        if (db == null || !cp.contains(ownerId) || cp.stampOf(ownerId) != db.stamp()) return null;
+
+        WorldCheckpoint.PlotImage image = cp.read(ownerId);
+        if (image == null || image.resources().isEmpty()) return null;
+
+        checkpointRestored.incrementAndGet();
+        return image;
+    }
+
+    /**
+     * Writes every resident plot to the checkpoint file.
+     * Dirty machines are flushed first, so the stamps read afterwards describe the same rows;
+     * call it with the tick loop stopped (shutdown) or between two ticks
+     * (FactoryLoop.runBetweenTicks) for an exact image. Writers are serialized.
+     * @return plots written
+     */
+    int writeCheckpoint(Path file) {
+        synchronized (checkpointWriteLock) {
+            return writeCheckpointLocked(file);
+        }
+    }
+
+    private int writeCheckpointLocked(Path file) {
+        long startNs = System.nanoTime();
+        List<UUID> owners = new ArrayList<>(state.playerGrids.keySet());
+
+        for (UUID ownerId : owners) {
+            List<PlacedMachine> dirty = getSnapshot(ownerId).values().stream()
+                    .filter(Objects::nonNull)
+                    .distinct()
+                    .filter(PlacedMachine::isDirty)
+                    .collect(Collectors.toList());
+            if (dirty.isEmpty()) continue;
+            try {
+                if (gridManager.persistPlot(ownerId, guard -> repository.updateMachinesMetadata(ownerId, dirty, guard))) {
+                    dirty.forEach(PlacedMachine::cleanDirty);
+                }
+            } catch (Throwable t) {
+                System.err.println("[CHECKPOINT] Flush failed for plot " + ownerId + ": " + t);
+            }
+        }
+
+        Map<UUID, PlotDAO.PlotStamp> stamps = repository.loadPlotStamps();
+
+        List<WorldCheckpoint.PlotImage> images = new ArrayList<>(owners.size());
+        for (UUID ownerId : owners) {
+            PlotDAO.PlotStamp st = stamps.get(ownerId);
+            if (st == null) continue;
+            WorldCheckpoint.PlotImage image = plotImage(ownerId, st.plotId(), st.stamp(), true);
+            if (image != null) images.add(image);
+        }
+
+        try {
+            long bytes = WorldCheckpoint.write(file, images);
+            System.out.println("[CHECKPOINT] wrote " + images.size() + "/" + owners.size() + " plots, "
+                    + (bytes / 1024) + " KB in " + (System.nanoTime() - startNs) / 1_000_000L + "ms -> " + file);
+            return images.size();
+        } catch (Throwable t) {
+            System.err.println("[CHECKPOINT] Write failed: " + t);
+            return 0;
+        }
+    }
+
+    /**
+     * Current image of a resident plot (machine metadata deep-copied).
+     * @param requireDbIds null when a machine insert is still in flight; otherwise such machines get id 0
+     * @return null when the plot is not loaded or has no resources yet
+     */
+    WorldCheckpoint.PlotImage plotImage(UUID ownerId, long plotId, long stamp, boolean requireDbIds) {
+        Map<GridPosition, PlacedMachine> grid = state.playerGrids.getOrDefault(ownerId, Map.of());
+        Map<GridPosition, MatterColor> res = state.playerResources.get(ownerId);
+        if (res == null || res.isEmpty()) return null;
+
+        List<PlotObject> machines = new ArrayList<>();
+        for (PlacedMachine m : new LinkedHashSet<>(grid.values())) {
+            if (m == null) continue;
+            Long id = m.getDbId();
+            if (id == null) {
+                if (requireDbIds) return null;
+                id = 0L;
+            }
+            machines.add(new PlotObject(id, plotId, m.getPos().x(), m.getPos().y(), m.getPos().z(),
+                    m.getTypeId(), m.serialize().deepCopy()));
+        }
+
+        return new WorldCheckpoint.PlotImage(ownerId, plotId, stamp,
+                state.plotUnlockCache.getOrDefault(ownerId, PlotUnlockState.zero()),
+                new HashMap<>(res), machines);
+    }
+
+    // ==========================================================
+    // RECORD / REPLAY SUPPORT
+    // ==========================================================
+
+    /** Loaded plots, sorted; a plot without machines has no grid yet, only its resources. */
+    List<UUID> residentOwners() {
+        Set<UUID> loaded = new HashSet<>(state.playerGrids.keySet());
+        loaded.addAll(state.playerResources.keySet());
+        List<UUID> owners = new ArrayList<>(loaded);
+        Collections.sort(owners);
+        return owners;
+    }
+
+    /** Recording start: vein placement draws from the session seed from now on. */
+    void reseedRandom() {
+        rnd.setSeed(SimRandom.streamSeed("world.resources"));
+    }
+
+    /**
+     * Adds every resident plot to the digest, in owner order: unlock state, resources and
+     * machines (by position: type, position, metadata). DB ids are left out, so a plot restored
+     * from a recording hashes like the live one.
+     */
+    void digestInto(StateDigest d) {
+        for (UUID ownerId : residentOwners()) {
+            Map<GridPosition, PlacedMachine> grid = state.playerGrids.getOrDefault(ownerId, Map.of());
+
+            d.add(ownerId.toString());
+            PlotUnlockState u = state.plotUnlockCache.getOrDefault(ownerId, PlotUnlockState.zero());
+            d.add(u.extraX()).add(u.extraY());
+
+            Map<GridPosition, MatterColor> res = state.playerResources.getOrDefault(ownerId, Map.of());
+            List<Map.Entry<GridPosition, MatterColor>> cells = new ArrayList<>(res.entrySet());
+            cells.sort(Comparator.comparingInt((Map.Entry<GridPosition, MatterColor> e) -> e.getKey().x())
+                    .thenComparingInt(e -> e.getKey().z()));
+            d.add(cells.size());
+            for (var e : cells) d.add(e.getKey().x()).add(e.getKey().z()).add(e.getValue().ordinal());
+
+            List<PlacedMachine> machines = new ArrayList<>(new HashSet<>(grid.values()));
+            machines.removeIf(Objects::isNull);
+            machines.sort(Comparator.comparingInt((PlacedMachine m) -> m.getPos().y())
+                    .thenComparingInt(m -> m.getPos().x())
+                    .thenComparingInt(m -> m.getPos().z()));
+            d.add(machines.size());
+            for (PlacedMachine m : machines) {
+                d.add(m.getTypeId()).add(m.getPos().x()).add(m.getPos().y()).add(m.getPos().z());
+                d.addJson(m.serialize());
+            }
+        }
     }
 
     // ==========================================================
@@ -601,6 +907,7 @@ final class GridWorldService {
             effDim = new Vector3Int(dim.z(), dim.y(), dim.x());
         }
 
+        PlotOccupancy occ = occupancyFor(ownerId);
         for (int x = 0; x < effDim.x(); x++) {
             for (int y = 0; y < effDim.y(); y++) {
                 for (int z = 0; z < effDim.z(); z++) {
@@ -608,33 +915,70 @@ final class GridWorldService {
                 }
             }
         }
+        occ.setBox(m.getPos().x(), m.getPos().y(), m.getPos().z(), effDim.x(), effDim.y(), effDim.z());
+        state.snapshots.layoutChanged(ownerId);
 
         if (!state.sleepingPlayers.contains(ownerId)) {
-            // tickingMachines is ConcurrentHashMap<PlacedMachine, Boolean>
-            state.tickingMachines.put(m, Boolean.TRUE);
+            state.addTicking(m);
         }
+        if (m instanceof ConveyorBelt) lines.layoutChanged(ownerId);
     }
 
     private void internalRemoveMachine(UUID ownerId, PlacedMachine m) {
         if (ownerId == null || m == null) return;
 
         Map<GridPosition, PlacedMachine> grid = state.playerGrids.get(ownerId);
-        if (grid != null) grid.entrySet().removeIf(e -> e.getValue() == m);
+        if (grid != null) {
+            // Clear only the cells still mapped to m (a legacy overlap keeps the other machine's bits)
+            PlotOccupancy occ = state.occupancy.get(ownerId);
+            boolean removed = false;
+            for (var e : grid.entrySet()) {
+                GridPosition cell = e.getKey();
+                if (e.getValue() != m || !grid.remove(cell, m)) continue;
+                if (occ != null) occ.clear(cell.x(), cell.y(), cell.z());
+                removed = true;
+            }
+            if (removed) {
+                state.snapshots.layoutChanged(ownerId);
+                visuals.machineRemoved(ownerId, m.getPos());
+            }
+        }
 
-        // tickingMachines is ConcurrentHashMap<PlacedMachine, Boolean>
-        state.tickingMachines.remove(m);
+        state.removeTicking(m);
+        if (m instanceof ConveyorBelt) lines.layoutChanged(ownerId);
     }
 
     private boolean isAreaClear(UUID ownerId, GridPosition pos, Vector3Int size) {
-        Map<GridPosition, PlacedMachine> grid = state.playerGrids.getOrDefault(ownerId, Collections.emptyMap());
-        for (int x = 0; x < size.x(); x++) {
-            for (int y = 0; y < size.y(); y++) {
-                for (int z = 0; z < size.z(); z++) {
-                    if (grid.containsKey(new GridPosition(pos.x() + x, pos.y() + y, pos.z() + z))) return false;
-                }
-            }
-        }
-        return true;
+        PlotOccupancy occ = state.occupancy.get(ownerId);
+        return occ == null || occ.isClear(pos.x(), pos.y(), pos.z(), size.x(), size.y(), size.z());
+    }
+
+    /** Bitmap sized to the plot max bounds (cells outside land in its overflow set). */
+    private PlotOccupancy occupancyFor(UUID ownerId) {
+        return state.occupancy.computeIfAbsent(ownerId, _k -> {
+            GridManager.PlotAreaInfo info = getPlotAreaInfo(ownerId);
+            return new PlotOccupancy(info.maxX(), info.maxY());
+        });
+    }
+
+    // ==========================================================
+    // REGION QUERIES (UI / blueprints)
+    // ==========================================================
+    boolean isRegionFree(UUID ownerId, GridPosition origin, Vector3Int size) {
+        if (ownerId == null || origin == null || size == null) return false;
+        return isAreaClear(ownerId, origin, size);
+    }
+
+    int countOccupiedCells(UUID ownerId, GridPosition origin, Vector3Int size) {
+        if (ownerId == null || origin == null || size == null) return 0;
+        PlotOccupancy occ = state.occupancy.get(ownerId);
+        return (occ == null) ? 0 : occ.countOccupied(origin.x(), origin.y(), origin.z(), size.x(), size.y(), size.z());
+    }
+
+    /** Placement preview: bounds + unlock + collision, without touching inventory or the DB. */
+    boolean canPlaceFootprint(UUID ownerId, GridPosition origin, Vector3Int size) {
+        if (!isWithinPlotBounds(ownerId, origin, size)) return false;
+        return isAreaUnlocked(ownerId, origin, size) && isAreaClear(ownerId, origin, size);
     }
 
     // ==========================================================
@@ -708,7 +1052,7 @@ final class GridWorldService {
         radius = Math.min(radius, Math.max(2, minSide / 2));
 
 
-        Random r = new Random();
+        Random r = rnd;
 
         // Keep spawning until we reach the desired amount (or we can't add more)
         while (countColorInUnlocked(out, t, y, info) < desiredUnlocked) {
@@ -864,7 +1208,7 @@ final class GridWorldService {
                                        MatterColor t, int y, GridManager.PlotAreaInfo info, int maxX, int maxY) {
         if (out == null) return;
 
-        Random r = new Random();
+        Random r = rnd;
 
         for (int tries = 0; tries < 4000; tries++) {
             int x = r.nextInt(maxX);
@@ -896,7 +1240,7 @@ final class GridWorldService {
                                    MatterColor t, int y, int minX, int maxXEx, int minZ, int maxZEx) {
         if (out == null) return;
 
-        Random r = new Random();
+        Random r = rnd;
 
         for (int tries = 0; tries < 2000; tries++) {
             int x = r.nextInt(maxXEx - minX) + minX;
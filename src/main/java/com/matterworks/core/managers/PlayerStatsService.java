@@ -0,0 +1,197 @@
+package com.matterworks.core.managers;
+
+import com.matterworks.core.database.DbScheduler;
+import com.matterworks.core.domain.machines.registry.BlockRegistry;
+import com.matterworks.core.domain.machines.registry.MachineStats;
+import com.matterworks.core.domain.player.PlayerProfile;
+import com.matterworks.core.ui.ServerConfig;
+import com.matterworks.core.synchronization.SimTime;
+
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Owns the compiled PlayerStatsTable of every loaded player.
+ *
+ * EVENTS:
+ * - invalidate(owner): tech unlock, personal overclock start (rebuild now, on the caller thread)
+ * - invalidateAll(): global overclock change. Only marks every table stale and queues the
+ *   rebuilds off the tick thread (compile may read playtime from the DB); machines keep the
+ *   previous table until the new one is swapped in.
+ * - evict(owner): plot unload (prestige / reset reload the plot and compile a fresh table)
+ *
+ * SWEEP (GridManager.tick, once per second):
+ * - a table is rebuilt off the tick thread when a timed effect expired (validUntilMs),
+ *   when it was marked stale, or when one of its inputs changed (profile instance,
+ *   ServerConfig values, tech index).
+ *   This is the only clock read left: one per player per second instead of one per machine.
+ *   Under the replay tick clock the rebuild runs inline, so it lands on the same tick every run.
+ */
+final class PlayerStatsService {
+
+    private static final long MIN_RECHECK_MS = 1000L;
+
+    private final GridManager gridManager;
+    private final GridRuntimeState state;
+    private final TechManager techManager;
+    private final BlockRegistry blockRegistry;
+    private final DbScheduler dbScheduler;
+
+    private final ConcurrentHashMap<UUID, PlayerStatsTable.Holder> holders = new ConcurrentHashMap<>();
+    private final Set<UUID> rebuildQueued = ConcurrentHashMap.newKeySet();
+
+    PlayerStatsService(GridManager gridManager,
+                       GridRuntimeState state,
+                       TechManager techManager,
+                       BlockRegistry blockRegistry,
+                       DbScheduler dbScheduler) {
+        this.gridManager = gridManager;
+        this.state = state;
+        this.techManager = techManager;
+        this.blockRegistry = blockRegistry;
+        this.dbScheduler = dbScheduler;
+    }
+
+    PlayerStatsTable.Holder holder(UUID owner) {
+        PlayerStatsTable.Holder h = holders.get(owner);
+        if (h != null) return h;
+        return holders.computeIfAbsent(owner, k -> new PlayerStatsTable.Holder(compile(k)));
+    }
+
+    PlayerStatsTable table(UUID owner) {
+        return holder(owner).table;
+    }
+
+    void invalidate(UUID owner) {
+        if (owner == null) return;
+        PlayerStatsTable.Holder h = holders.get(owner);
+        if (h != null) rebuild(owner, h);
+    }
+
+    void invalidateAll() {
+        for (var e : holders.entrySet()) {
+            e.getValue().stale = true;
+            scheduleRebuild(e.getKey());
+        }
+    }
+
+    // Serialized per holder: the last published table is always compiled from the latest inputs.
+    // The stale mark is cleared before compiling, so a mark set meanwhile survives to the next sweep.
+    private void rebuild(UUID owner, PlayerStatsTable.Holder h) {
+        synchronized (h) {
+            h.stale = false;
+            h.table = compile(owner);
+        }
+    }
+
+    // Inline under the replay tick clock (see SWEEP), otherwise on the ANALYTICS read lane
+    private void scheduleRebuild(UUID owner) {
+        if (SimTime.isTickClock()) {
+            invalidate(owner);
+        } else if (rebuildQueued.add(owner)) {
+            dbScheduler.executeRead(DbScheduler.Lane.ANALYTICS, DbScheduler.DEFAULT_STALE_READ_MS, () -> {
+                try {
+                    invalidate(owner);
+                } finally {
+                    rebuildQueued.remove(owner);
+                }
+            }, () -> rebuildQueued.remove(owner));
+        }
+    }
+
+    void evict(UUID owner) {
+        if (owner != null) holders.remove(owner);
+    }
+
+    void sweep(long nowMs) {
+        ServerConfig cfg = state.serverConfig;
+        TechManager.TechIndex idx = techManager.index();
+
+        for (var e : holders.entrySet()) {
+            UUID owner = e.getKey();
+            PlayerStatsTable.Holder h = e.getValue();
+            PlayerStatsTable t = h.table;
+
+            boolean stale = h.stale
+                    || nowMs >= t.validUntilMs
+                    || !Objects.equals(t.config, cfg)
+                    || t.techIndex != idx
+                    || t.source != state.activeProfileCache.get(owner);
+
+            if (stale) scheduleRebuild(owner);
+        }
+    }
+
+    // ==========================================================
+    // COMPILE
+    // ==========================================================
+
+    private PlayerStatsTable compile(UUID owner) {
+        long nowMs = SimTime.nowMs();
+
+        PlayerProfile p = state.getCachedProfile(owner);
+        ServerConfig cfg = state.getServerConfig();
+        TechManager.TechIndex idx = techManager.index();
+        BitSet bits = idx.unlockedBits(p);
+
+        // --- speed: overclock only (tier drives ticks), never below 1.0 ---
+        boolean enableBoosters = (cfg == null) || cfg.enableVoidShopBoosters();
+        long validUntil = Long.MAX_VALUE;
+
+        double ocPlayer = 1.0;
+        double ocGlobal = 1.0;
+
+        if (enableBoosters && p != null) {
+            long playtime = state.getPlaytimeSecondsCached(owner);
+            ocPlayer = p.getActiveOverclockMultiplier(playtime);
+
+            long remaining = p.getOverclockRemainingSeconds(playtime);
+            if (ocPlayer > 1.0 && remaining > 0L) {
+                validUntil = Math.min(validUntil, nowMs + Math.max(MIN_RECHECK_MS, remaining * 1000L));
+            }
+        }
+
+        if (enableBoosters) {
+            ocGlobal = gridManager.getGlobalOverclockMultiplierNow();
+            long globalEnd = gridManager.getGlobalOverclockEndEpochMs();
+            if (ocGlobal > 1.0 && globalEnd > nowMs) {
+                validUntil = Math.min(validUntil, Math.max(nowMs + MIN_RECHECK_MS, globalEnd));
+            }
+        }
+
+        double speed = ocPlayer * ocGlobal;
+        if (Double.isNaN(speed) || Double.isInfinite(speed) || speed < 1.0) speed = 1.0;
+
+        // --- per machine type: tier + DB process ticks for that tier ---
+        Set<String> typeIds = new HashSet<>(blockRegistry.getAllBlockIds());
+        typeIds.addAll(idx.upgradableMachineIds());
+
+        Map<String, PlayerStatsTable.MachineTypeStats> byType = new HashMap<>(typeIds.size() * 2);
+        for (String typeId : typeIds) {
+            int tier = (p == null) ? 1 : idx.tierForMachine(bits, typeId);
+            long ticks = tierTicks(blockRegistry.findStats(typeId), tier);
+            byType.put(typeId, new PlayerStatsTable.MachineTypeStats(tier, ticks, speed));
+        }
+
+        double nexusSell = (p == null) ? 1.0 : idx.nexusSellMultiplier(bits);
+
+        return new PlayerStatsTable(p, cfg, idx, validUntil, bits, byType, speed, nexusSell);
+    }
+
+    /** Same tier lookup as MachineStats.getProcessTicksForTier, but 0 when undefined. */
+    private static long tierTicks(MachineStats s, int tier) {
+        if (s == null) return 0L;
+        long v = switch (Math.max(1, Math.min(3, tier))) {
+            case 2 -> s.mk2ProcessTicks();
+            case 3 -> s.mk3ProcessTicks();
+            default -> s.mk1ProcessTicks();
+        };
+        return Math.max(0L, v);
+    }
+}
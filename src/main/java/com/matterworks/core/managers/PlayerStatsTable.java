@@ -0,0 +1,89 @@
+package com.matterworks.core.managers;
+
+import com.matterworks.core.domain.player.PlayerProfile;
+import com.matterworks.core.ui.ServerConfig;
+
+import java.util.BitSet;
+import java.util.Map;
+
+/**
+ * Compiled, immutable effective stats of one player.
+ *
+ * Built by PlayerStatsService only on events (tech unlock, overclock start/expiry,
+ * global overclock change, prestige/profile swap, config reload).
+ *
+ * PERFORMANCE:
+ * - Machines keep the Holder and read holder.table: ONE volatile load per lookup,
+ *   no clock calls, no map of TTL entries, no tech-tree scan.
+ * - A machine may also keep the MachineTypeStats it resolved and re-resolve only
+ *   when the table reference changes.
+ */
+public final class PlayerStatsTable {
+
+    public record MachineTypeStats(int tier, long processTicks, double speedMultiplier) {
+        /** processTicks == 0 means "not defined in DB": the caller's fallback applies. */
+        public long processTicksOr(long fallbackTicks) {
+            return (processTicks > 0L) ? processTicks : Math.max(1L, fallbackTicks);
+        }
+    }
+
+    /** Mutable cell shared by every machine of the player (swapped on rebuild). */
+    public static final class Holder {
+        volatile PlayerStatsTable table;
+        // Set by PlayerStatsService.invalidateAll: table is still served until the rebuild swaps it
+        volatile boolean stale;
+
+        Holder(PlayerStatsTable table) {
+            this.table = table;
+        }
+
+        public PlayerStatsTable table() {
+            return table;
+        }
+    }
+
+    // Compile inputs: compared by identity in the sweep to detect stale tables
+    final PlayerProfile source;
+    final ServerConfig config;
+    final TechManager.TechIndex techIndex;
+    final long validUntilMs; // Long.MAX_VALUE = no timed effect active
+    final BitSet techBits;   // unlocked nodes, indexed by TechIndex bit (never mutated)
+
+    private final Map<String, MachineTypeStats> byType;
+    private final MachineTypeStats untyped;
+    private final double speedMultiplier;
+    private final double nexusSellMultiplier;
+
+    PlayerStatsTable(PlayerProfile source,
+                     ServerConfig config,
+                     TechManager.TechIndex techIndex,
+                     long validUntilMs,
+                     BitSet techBits,
+                     Map<String, MachineTypeStats> byType,
+                     double speedMultiplier,
+                     double nexusSellMultiplier) {
+        this.source = source;
+        this.config = config;
+        this.techIndex = techIndex;
+        this.validUntilMs = validUntilMs;
+        this.techBits = techBits;
+        this.byType = Map.copyOf(byType);
+        this.untyped = new MachineTypeStats(1, 0L, speedMultiplier);
+        this.speedMultiplier = speedMultiplier;
+        this.nexusSellMultiplier = nexusSellMultiplier;
+    }
+
+    public MachineTypeStats forType(String typeId) {
+        if (typeId == null) return untyped;
+        MachineTypeStats s = byType.get(typeId);
+        return (s != null) ? s : untyped;
+    }
+
+    public double speedMultiplier() {
+        return speedMultiplier;
+    }
+
+    public double nexusSellMultiplier() {
+        return nexusSellMultiplier;
+    }
+}
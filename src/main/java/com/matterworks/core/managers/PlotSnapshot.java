@@ -0,0 +1,71 @@
+package com.matterworks.core.managers;
+
+import com.matterworks.core.common.GridPosition;
+import com.matterworks.core.domain.machines.base.PlacedMachine;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable layout of one plot at a given layout version.
+ *
+ * Built only when the layout changed (place / remove / load / unload) and shared by every
+ * reader: UI pollers get the same instance until the next change, no per-call copy.
+ *
+ * - cells(): cell -> occupant (multi-cell machines appear once per cell)
+ * - machines(): unique machine instances
+ * - version(): monotonic across the whole server (never reused, also across unload/reload)
+ *
+ * Only the layout is frozen: machine runtime state (items, progress) is still live.
+ */
+public final class PlotSnapshot {
+
+    public static final PlotSnapshot EMPTY = new PlotSnapshot(0L, Map.of(), List.of());
+
+    private final long version;
+    private final Map<GridPosition, PlacedMachine> cells;
+    private final List<PlacedMachine> machines;
+
+    private PlotSnapshot(long version, Map<GridPosition, PlacedMachine> cells, List<PlacedMachine> machines) {
+        this.version = version;
+        this.cells = cells;
+        this.machines = machines;
+    }
+
+    static PlotSnapshot of(long version, Map<GridPosition, PlacedMachine> grid) {
+        if (grid == null || grid.isEmpty()) return new PlotSnapshot(version, Map.of(), List.of());
+
+        Map<GridPosition, PlacedMachine> cells = Map.copyOf(grid);
+
+        IdentityHashMap<PlacedMachine, Boolean> seen = new IdentityHashMap<>(cells.size());
+        ArrayList<PlacedMachine> unique = new ArrayList<>();
+        for (PlacedMachine m : cells.values()) {
+            if (seen.put(m, Boolean.TRUE) == null) unique.add(m);
+        }
+
+        return new PlotSnapshot(version, cells, Collections.unmodifiableList(unique));
+    }
+
+    public long version() {
+        return version;
+    }
+
+    public Map<GridPosition, PlacedMachine> cells() {
+        return cells;
+    }
+
+    public List<PlacedMachine> machines() {
+        return machines;
+    }
+
+    public int machineCount() {
+        return machines.size();
+    }
+
+    public boolean isEmpty() {
+        return cells.isEmpty();
+    }
+}
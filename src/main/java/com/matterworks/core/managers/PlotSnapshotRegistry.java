@@ -0,0 +1,87 @@
+package com.matterworks.core.managers;
+
+import com.matterworks.core.common.GridPosition;
+import com.matterworks.core.domain.machines.base.PlacedMachine;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Layout versions + published PlotSnapshots of every plot.
+ *
+ * WRITERS (any thread): mutate the grid first, then layoutChanged(owner).
+ * PUBLISH: GridWorldService.tick calls publishDirty() once per tick, so UI readers normally
+ * find a ready snapshot. A reader that is ahead of the publisher (e.g. the UI right after its
+ * own placement) builds the snapshot itself, so a read is never stale.
+ *
+ * THREADING NOTES:
+ * - The version is read BEFORE the grid is copied: a snapshot labelled v contains at least
+ *   every change up to v; a newer change has a higher version and triggers a rebuild.
+ * - Snapshots are swapped in with a version check, a slower builder never replaces a newer one.
+ */
+final class PlotSnapshotRegistry {
+
+    // Global sequence: versions are unique server-wide and never go back (also across reloads)
+    private static final AtomicLong SEQ = new AtomicLong();
+
+    private final Map<UUID, Map<GridPosition, PlacedMachine>> grids;
+
+    private final ConcurrentHashMap<UUID, Long> versions = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<UUID, PlotSnapshot> published = new ConcurrentHashMap<>();
+    private final Set<UUID> dirty = ConcurrentHashMap.newKeySet();
+
+    PlotSnapshotRegistry(Map<UUID, Map<GridPosition, PlacedMachine>> grids) {
+        this.grids = grids;
+    }
+
+    void layoutChanged(UUID owner) {
+        if (owner == null) return;
+        versions.put(owner, SEQ.incrementAndGet());
+        dirty.add(owner);
+    }
+
+    long version(UUID owner) {
+        if (owner == null) return 0L;
+        return versions.getOrDefault(owner, 0L);
+    }
+
+    PlotSnapshot get(UUID owner) {
+        if (owner == null) return PlotSnapshot.EMPTY;
+
+        long v = version(owner);
+        PlotSnapshot s = published.get(owner);
+        if (s != null && s.version() == v) return s;
+
+        return build(owner, v);
+    }
+
+    /** @return null when the plot layout is still at sinceVersion */
+    PlotSnapshot getIfChanged(UUID owner, long sinceVersion) {
+        if (version(owner) == sinceVersion) return null;
+        return get(owner);
+    }
+
+    /** Tick thread: republish plots whose layout changed during the tick. */
+    void publishDirty() {
+        if (dirty.isEmpty()) return;
+        for (Iterator<UUID> it = dirty.iterator(); it.hasNext(); ) {
+            UUID owner = it.next();
+            it.remove();
+
+            PlotSnapshot s = published.get(owner);
+            long v = version(owner);
+            if (s == null || s.version() != v) build(owner, v);
+        }
+    }
+
+    private PlotSnapshot build(UUID owner, long v) {
+        PlotSnapshot fresh = PlotSnapshot.of(v, grids.get(owner));
+
+        published.merge(owner, fresh, (cur, next) -> (next.version() >= cur.version()) ? next : cur);
+        return fresh;
+    }
+}
@@ -0,0 +1,418 @@
+package com.matterworks.core.managers;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.matterworks.core.common.Direction;
+import com.matterworks.core.common.GridPosition;
+import com.matterworks.core.domain.factions.FactionDefinition;
+import com.matterworks.core.domain.machines.registry.BlockRegistry;
+import com.matterworks.core.domain.machines.registry.MachineStats;
+import com.matterworks.core.domain.matter.MatterColor;
+import com.matterworks.core.domain.player.PlayerProfile;
+import com.matterworks.core.model.PlotObject;
+import com.matterworks.core.model.PlotUnlockState;
+import com.matterworks.core.ui.MariaDBAdapter;
+import com.matterworks.core.ui.ServerConfig;
+import com.matterworks.core.ui.ServerGameState;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Records a live session so it can be replayed headless (SessionReplayer / ReplayMain).
+ *
+ * A recording is a directory:
+ *   world.mwcp     initial image of every resident plot (WorldCheckpoint format)
+ *   session.jsonl  line 1: header (seed, clock epoch, start tick, backend image: definitions,
+ *                  profiles, inventories, config, prices, factions, void shop)
+ *                  then one line per external input, stamped with the last completed tick
+ *                  last line: end tick + state hash
+ *
+ * Inputs are everything that reaches the simulation from outside the tick: placements,
+ * removals, purchases, overclocks, unlocks, prestige / reset, plot loads and unloads, player
+ * activity (coalesced, wake-ups always), and ServerConfig / server_gamestate changes made
+ * outside the game (polled at the end of each tick, values the simulation writes itself are
+ * left out). Each input line also stores its outcome, so a replay can point at the first
+ * input that went another way.
+ *
+ * The recording starts at a tick boundary on the tick thread (GridManager.tick), so the
+ * initial image is consistent; from then on the simulation's random draws use the session seed.
+ *
+ * PERFORMANCE:
+ * - Inputs are human-rate: one short JSON line each, written under a lock to a buffered writer,
+ *   flushed every FLUSH_EVERY_TICKS. The per-tick cost is one config comparison.
+ *
+ * Tunables:
+ * -Dmw.record=<dir>    Main records the session into dir (started once the plots are loaded)
+ */
+final class SessionRecorder {
+
+    static final int FORMAT = 1;
+    static final String CHECKPOINT_FILE = "world.mwcp";
+    static final String LOG_FILE = "session.jsonl";
+
+    private static final long FLUSH_EVERY_TICKS = 100L;
+    // touchPlayer() is called on every UI interaction: keep one per player per second
+    private static final long TOUCH_COALESCE_TICKS = 20L;
+
+    static final Gson GSON = new Gson();
+
+    /** Profile fields the simulation reads (PlayerProfile itself holds atomics: not for gson). */
+    record ProfileImage(UUID id, String username, long moneyCents, int voidCoins, int prestigeLevel,
+                        String rank, Integer factionId, List<String> techs,
+                        long overclockStart, long overclockDuration, double overclockMultiplier,
+                        long playtimeSeconds) {
+
+        static ProfileImage of(PlayerProfile p, long playtimeSeconds) {
+            List<String> techs = new ArrayList<>(p.getUnlockedTechs() != null ? p.getUnlockedTechs() : Set.of());
+            techs.sort(null);
+            return new ProfileImage(p.getPlayerId(), p.getUsername(), p.getMoneyCents(), p.getVoidCoins(),
+                    p.getPrestigeLevel(), String.valueOf(p.getRank()), p.getChosenFactionId(), techs,
+                    p.getOverclockStartPlaytimeSeconds(), p.getOverclockDurationSeconds(), p.getOverclockMultiplier(),
+                    playtimeSeconds);
+        }
+
+        PlayerProfile toProfile() {
+            PlayerProfile p = new PlayerProfile(id);
+            p.setUsername(username);
+            p.setMoney(moneyCents / 100.0);
+            p.setVoidCoins(voidCoins);
+            p.setPrestigeLevel(prestigeLevel);
+            try {
+                p.setRank(PlayerProfile.PlayerRank.valueOf(rank));
+            } catch (Throwable ignored) {}
+            p.setChosenFactionId(factionId);
+            if (techs != null) techs.forEach(p::addTech);
+            p.setOverclockStartPlaytimeSeconds(overclockStart);
+            p.setOverclockDurationSeconds(overclockDuration);
+            p.setOverclockMultiplier(overclockMultiplier);
+            return p;
+        }
+    }
+
+    private final Path dir;
+    private final GridRuntimeState state;
+    private final MariaDBAdapter repository;
+
+    private BufferedWriter out; // guarded by this
+    private volatile long lastCompletedTick;
+    private volatile boolean open;
+    private long inputs;
+
+    // owners whose plot the recording can rebuild (initial image or a recorded plot_load image)
+    private final Set<UUID> knownPlots = ConcurrentHashMap.newKeySet();
+    private final Map<UUID, Long> lastTouchTick = new ConcurrentHashMap<>();
+
+    private ServerConfig lastConfig;
+    private ServerGameState lastExternalState;
+
+    SessionRecorder(Path dir, GridRuntimeState state, MariaDBAdapter repository) {
+        this.dir = dir;
+        this.state = state;
+        this.repository = repository;
+    }
+
+    Path dir() { return dir; }
+    long lastCompletedTick() { return lastCompletedTick; }
+
+    // ==========================================================
+    // START (tick thread, between two ticks)
+    // ==========================================================
+
+    void begin(long lastTick, long seed, List<WorldCheckpoint.PlotImage> plots,
+               BlockRegistry registry, TechManager techManager) throws IOException {
+        Files.createDirectories(dir);
+        long bytes = WorldCheckpoint.write(dir.resolve(CHECKPOINT_FILE), plots);
+
+        JsonObject header = new JsonObject();
+        header.addProperty("type", "header");
+        header.addProperty("format", FORMAT);
+        header.addProperty("recordedAt", Instant.now().toString());
+        header.addProperty("seed", seed);
+        header.addProperty("startTick", lastTick);
+        // tick clock of the replay: nowMs(t) = epochMs + t * 50ms, aligned with the wall clock here
+        header.addProperty("epochMs", System.currentTimeMillis() - lastTick * 50L);
+        header.add("backend", backendImage(plots, registry, techManager));
+
+        lastCompletedTick = lastTick;
+        lastConfig = state.getServerConfig();
+        lastExternalState = externalPart(repository.getServerGameState());
+        for (WorldCheckpoint.PlotImage p : plots) knownPlots.add(p.ownerId());
+
+        synchronized (this) {
+            out = Files.newBufferedWriter(dir.resolve(LOG_FILE), StandardCharsets.UTF_8);
+            out.write(header.toString());
+            out.newLine();
+            out.flush();
+            open = true;
+        }
+
+        System.out.println("[RECORD] Recording into " + dir + " from tick " + lastTick
+                + " | plots=" + plots.size() + " (" + (bytes / 1024) + " KB) seed=" + seed);
+    }
+
+    private JsonObject backendImage(List<WorldCheckpoint.PlotImage> plots, BlockRegistry registry, TechManager techManager) {
+        JsonObject b = new JsonObject();
+
+        Map<String, MachineStats> defs = new TreeMap<>();
+        for (String id : registry.getAllBlockIds()) {
+            MachineStats s = registry.findStats(id);
+            if (s != null) defs.put(id, s);
+        }
+        b.add("machines", GSON.toJsonTree(defs));
+        b.add("techs", GSON.toJsonTree(new ArrayList<>(techManager.getAllNodes())));
+
+        b.add("config", GSON.toJsonTree(state.getServerConfig()));
+        b.add("gameState", GSON.toJsonTree(repository.getServerGameState()));
+
+        JsonObject prices = new JsonObject();
+        prices.add("shape", GSON.toJsonTree(repository.loadMatterShapeBasePrices()));
+        prices.add("color", GSON.toJsonTree(repository.loadMatterColorBasePrices()));
+        prices.add("effect", GSON.toJsonTree(repository.loadMatterEffectBasePrices()));
+        b.add("prices", prices);
+        b.add("recipes", GSON.toJsonTree(repository.loadRecipeDefinitions()));
+
+        List<FactionDefinition> factions = repository.loadFactions();
+        b.add("factions", GSON.toJsonTree(factions));
+        JsonObject rules = new JsonObject();
+        for (FactionDefinition f : factions) {
+            rules.add(String.valueOf(f.id()), GSON.toJsonTree(repository.loadFactionRules(f.id())));
+        }
+        b.add("factionRules", rules);
+        b.add("voidShop", GSON.toJsonTree(repository.loadVoidShopCatalog()));
+
+        JsonArray players = new JsonArray();
+        for (WorldCheckpoint.PlotImage p : plots) players.add(playerImage(p.ownerId()));
+        b.add("players", players);
+        return b;
+    }
+
+    /** Profile, inventory and per-plot DB values of one player. */
+    private JsonObject playerImage(UUID ownerId) {
+        JsonObject o = new JsonObject();
+        PlayerProfile p = state.getCachedProfile(ownerId);
+        if (p != null) {
+            long playtime = Math.max(0L, repository.getTotalPlaytimeSeconds(ownerId));
+            o.add("profile", GSON.toJsonTree(ProfileImage.of(p, playtime)));
+        }
+        o.addProperty("owner", ownerId.toString());
+        o.add("inventory", GSON.toJsonTree(new TreeMap<>(repository.getInventorySnapshot(ownerId))));
+        o.addProperty("voidItemCapExtra", repository.getPlotVoidItemCapExtra(ownerId));
+        return o;
+    }
+
+    // ==========================================================
+    // INPUTS (any thread)
+    // ==========================================================
+
+    void input(String kind, UUID owner, GridPosition pos, String id, Direction dir, int amount, boolean ok) {
+        if (!open) return;
+        JsonObject o = line(kind, owner);
+        if (pos != null) {
+            o.addProperty("x", pos.x());
+            o.addProperty("y", pos.y());
+            o.addProperty("z", pos.z());
+        }
+        if (id != null) o.addProperty("id", id);
+        if (dir != null) o.addProperty("dir", dir.name());
+        if (amount != 0) o.addProperty("n", amount);
+        o.addProperty("ok", ok);
+        write(o);
+    }
+
+    void touch(UUID owner, boolean wasSleeping) {
+        if (!open || owner == null) return;
+        long t = lastCompletedTick;
+        Long last = lastTouchTick.get(owner);
+        if (!wasSleeping && last != null && t - last < TOUCH_COALESCE_TICKS) return;
+        lastTouchTick.put(owner, t);
+        write(line("touch", owner));
+    }
+
+    /**
+     * A plot finished loading on request (join, lease claim). The first time a plot appears
+     * its image, profile and inventory go into the line, later loads read the replay backend.
+     */
+    void plotLoaded(UUID owner, WorldCheckpoint.PlotImage image) {
+        if (!open || owner == null) return;
+        JsonObject o = line("plot_load", owner);
+        if (image != null && knownPlots.add(owner)) {
+            o.add("plot", plotJson(image));
+            o.add("player", playerImage(owner));
+        }
+        write(o);
+    }
+
+    private JsonObject line(String kind, UUID owner) {
+        JsonObject o = new JsonObject();
+        o.addProperty("t", lastCompletedTick);
+        o.addProperty("k", kind);
+        if (owner != null) o.addProperty("o", owner.toString());
+        return o;
+    }
+
+    private void write(JsonObject o) {
+        synchronized (this) {
+            if (!open) return;
+            try {
+                out.write(o.toString());
+                out.newLine();
+                inputs++;
+            } catch (IOException e) {
+                System.err.println("[RECORD] Write failed, recording stopped: " + e);
+                closeQuietly();
+            }
+        }
+    }
+
+    // ==========================================================
+    // TICK END (tick thread)
+    // ==========================================================
+
+    void tickCompleted(long t) {
+        if (!open) return;
+
+        ServerConfig cfg = state.serverConfig;
+        if (cfg != null && !cfg.equals(lastConfig)) {
+            lastConfig = cfg;
+            JsonObject o = line("config", null);
+            o.add("config", GSON.toJsonTree(cfg));
+            write(o);
+        }
+
+        ServerGameState gs = repository.getServerGameState();
+        ServerGameState ext = externalPart(gs);
+        if (!ext.equals(lastExternalState)) {
+            lastExternalState = ext;
+            JsonObject o = line("gamestate", null);
+            o.add("state", GSON.toJsonTree(gs));
+            write(o);
+        }
+
+        lastCompletedTick = t;
+
+        if (t % FLUSH_EVERY_TICKS == 0) {
+            synchronized (this) {
+                if (!open) return;
+                try {
+                    out.flush();
+                } catch (IOException e) {
+                    System.err.println("[RECORD] Flush failed, recording stopped: " + e);
+                    closeQuietly();
+                }
+            }
+        }
+    }
+
+    /** The values only an admin / DB edit changes (the game writes the others itself). */
+    static ServerGameState externalPart(ServerGameState gs) {
+        return gs.withMaxItemPlacedOnPlotCap(0)
+                .withVoidPlotItemBreakerIncreased(0)
+                .withGlobalOverclock(0L, 1.0, 0L)
+                .withActiveFactionId(0);
+    }
+
+    // ==========================================================
+    // STOP
+    // ==========================================================
+
+    /** Call with the tick loop stopped: the hash describes the state after the end tick. */
+    void finish(String stateHash) {
+        synchronized (this) {
+            if (!open) return;
+            JsonObject end = new JsonObject();
+            end.addProperty("type", "end");
+            end.addProperty("t", lastCompletedTick);
+            end.addProperty("inputs", inputs);
+            end.addProperty("hash", stateHash);
+            try {
+                out.write(end.toString());
+                out.newLine();
+            } catch (IOException e) {
+                System.err.println("[RECORD] Cannot write the end line: " + e);
+            }
+            closeQuietly();
+        }
+        System.out.println("[RECORD] Stopped at tick " + lastCompletedTick + " | inputs=" + inputs + " hash=" + stateHash);
+    }
+
+    private void closeQuietly() {
+        open = false;
+        try {
+            out.close();
+        } catch (Throwable ignored) {}
+    }
+
+    // ==========================================================
+    // PLOT IMAGE <-> JSON (plots that appear after the start)
+    // ==========================================================
+
+    static JsonObject plotJson(WorldCheckpoint.PlotImage p) {
+        JsonObject o = new JsonObject();
+        o.addProperty("plotId", p.plotId());
+        PlotUnlockState u = (p.unlock() != null) ? p.unlock() : PlotUnlockState.zero();
+        o.addProperty("extraX", u.extraX());
+        o.addProperty("extraY", u.extraY());
+
+        JsonArray res = new JsonArray();
+        for (var e : p.resources().entrySet()) {
+            JsonArray cell = new JsonArray();
+            cell.add(e.getKey().x());
+            cell.add(e.getKey().z());
+            cell.add(e.getValue().name());
+            res.add(cell);
+        }
+        o.add("resources", res);
+
+        JsonArray machines = new JsonArray();
+        for (PlotObject m : p.machines()) {
+            JsonObject mo = new JsonObject();
+            mo.addProperty("id", m.getId());
+            mo.addProperty("x", m.getX());
+            mo.addProperty("y", m.getY());
+            mo.addProperty("z", m.getZ());
+            mo.addProperty("type", m.getTypeId());
+            mo.add("meta", (m.getMetaData() != null) ? m.getMetaData() : new JsonObject());
+            machines.add(mo);
+        }
+        o.add("machines", machines);
+        return o;
+    }
+
+    static WorldCheckpoint.PlotImage plotFromJson(UUID owner, JsonObject o) {
+        long plotId = o.get("plotId").getAsLong();
+
+        Map<GridPosition, MatterColor> resources = new HashMap<>();
+        for (JsonElement e : o.getAsJsonArray("resources")) {
+            JsonArray cell = e.getAsJsonArray();
+            resources.put(new GridPosition(cell.get(0).getAsInt(), 0, cell.get(1).getAsInt()),
+                    MatterColor.valueOf(cell.get(2).getAsString()));
+        }
+
+        List<PlotObject> machines = new ArrayList<>();
+        for (JsonElement e : o.getAsJsonArray("machines")) {
+            JsonObject mo = e.getAsJsonObject();
+            machines.add(new PlotObject(mo.get("id").getAsLong(), plotId,
+                    mo.get("x").getAsInt(), mo.get("y").getAsInt(), mo.get("z").getAsInt(),
+                    mo.get("type").getAsString(), mo.getAsJsonObject("meta").deepCopy()));
+        }
+
+        return new WorldCheckpoint.PlotImage(owner, plotId, 0L,
+                new PlotUnlockState(o.get("extraX").getAsInt(), o.get("extraY").getAsInt()),
+                resources, machines);
+    }
+}
@@ -0,0 +1,303 @@
+package com.matterworks.core.managers;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.reflect.TypeToken;
+import com.matterworks.core.common.Direction;
+import com.matterworks.core.common.GridPosition;
+import com.matterworks.core.domain.factions.FactionDefinition;
+import com.matterworks.core.domain.factions.FactionPricingRule;
+import com.matterworks.core.domain.machines.registry.BlockRegistry;
+import com.matterworks.core.domain.machines.registry.MachineStats;
+import com.matterworks.core.domain.matter.MatterColor;
+import com.matterworks.core.domain.matter.MatterEffect;
+import com.matterworks.core.domain.matter.MatterShape;
+import com.matterworks.core.domain.matter.RecipeBook;
+import com.matterworks.core.domain.shop.VoidShopItem;
+import com.matterworks.core.ports.IWorldAccess;
+import com.matterworks.core.synchronization.SimRandom;
+import com.matterworks.core.synchronization.SimTime;
+import com.matterworks.core.ui.InMemoryRepository;
+import com.matterworks.core.ui.ServerConfig;
+import com.matterworks.core.ui.ServerGameState;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Replays a SessionRecorder directory headless and times every tick: a regression and
+ * performance harness fed by real sessions instead of synthetic load.
+ *
+ * Setup: the session seed is installed before the GridManager exists (same random streams),
+ * SimTime runs on the tick clock of the recording, and the backend is an InMemoryRepository
+ * filled from the header and world.mwcp. Then, for each recorded tick t, the inputs stamped
+ * t-1 go through the GridManager public API and tick(t) runs.
+ *
+ * Determinism:
+ * - Replay vs replay of one recording gives the same state hash: that is the regression check.
+ * - Replay vs the live run matches when no input raced a tick (live inputs arrive mid-tick,
+ *   the replay applies them at the tick boundary). Each input carries its live outcome: the
+ *   first one that went another way is reported, it is where the runs split.
+ *
+ * Unsupported: create_player (the new player gets a random UUID), reported and skipped.
+ */
+public final class SessionReplayer {
+
+    public record Result(long startTick, long endTick, int ticks, long inputs, long mismatches,
+                         long unsupported, String firstMismatch, double totalMs,
+                         double p50Ms, double p90Ms, double p99Ms, double maxMs,
+                         List<long[]> slowest, String hash, String recordedHash) {
+
+        public boolean hashMatches() {
+            return recordedHash != null && recordedHash.equals(hash);
+        }
+
+        public double ticksPerSecond() {
+            return (totalMs > 0.0) ? ticks * 1000.0 / totalMs : 0.0;
+        }
+    }
+
+    private final Path dir;
+    private final IWorldAccess worldAccess;
+
+    // plots.void_itemcap_extra travels with the player image, the plot rows come after it
+    private final Map<UUID, Integer> pendingCapExtra = new HashMap<>();
+
+    /** @param worldAccess engine adapter of the replay (headless: a no-op world) */
+    public SessionReplayer(Path dir, IWorldAccess worldAccess) {
+        this.dir = dir;
+        this.worldAccess = worldAccess;
+    }
+
+    public Result run() throws IOException {
+        List<String> lines = Files.readAllLines(dir.resolve(SessionRecorder.LOG_FILE), StandardCharsets.UTF_8);
+        if (lines.isEmpty()) throw new IOException("Empty recording: " + dir);
+
+        JsonObject header = JsonParser.parseString(lines.get(0)).getAsJsonObject();
+        if (!"header".equals(header.get("type").getAsString())
+                || header.get("format").getAsInt() != SessionRecorder.FORMAT) {
+            throw new IOException("Not a session recording (format " + SessionRecorder.FORMAT + "): " + dir);
+        }
+
+        long startTick = header.get("startTick").getAsLong();
+        long epochMs = header.get("epochMs").getAsLong();
+
+        SimRandom.setSeed(header.get("seed").getAsLong());
+        SimTime.useTickClock(epochMs);
+        SimTime.update(startTick, SimTime.baseTickSeconds());
+
+        List<JsonObject> inputs = new ArrayList<>();
+        JsonObject end = null;
+        for (int i = 1; i < lines.size(); i++) {
+            String s = lines.get(i);
+            if (s.isBlank()) continue;
+            JsonObject o = JsonParser.parseString(s).getAsJsonObject();
+            if (o.has("type") && "end".equals(o.get("type").getAsString())) end = o;
+            else inputs.add(o);
+        }
+        // a recording cut short (crash) has no end line: replay up to the last stamped input
+        long endTick = (end != null) ? end.get("t").getAsLong()
+                : (inputs.isEmpty() ? startTick : inputs.get(inputs.size() - 1).get("t").getAsLong() + 1L);
+        String recordedHash = (end != null && end.has("hash")) ? end.get("hash").getAsString() : null;
+
+        InMemoryRepository repo = new InMemoryRepository();
+        repo.setPlaytimeEpochMs(epochMs + startTick * 50L);
+        JsonObject backend = header.getAsJsonObject("backend");
+        seedBackend(repo, backend);
+
+        WorldCheckpoint cp = WorldCheckpoint.open(dir.resolve(SessionRecorder.CHECKPOINT_FILE));
+        if (cp == null) throw new IOException("Missing or unreadable " + SessionRecorder.CHECKPOINT_FILE + " in " + dir);
+        List<UUID> owners = new ArrayList<>(cp.owners());
+        owners.sort(null);
+        for (UUID owner : owners) {
+            WorldCheckpoint.PlotImage image = cp.read(owner);
+            if (image != null) installPlot(repo, image);
+        }
+
+        BlockRegistry registry = new BlockRegistry(worldAccess, repo.machineDefinitionDAO());
+        registry.loadFromDatabase();
+        GridManager gm = new GridManager(repo, worldAccess, registry);
+
+        for (UUID owner : owners) gm.preloadPlotFromDB(owner).join();
+
+        System.out.println("[REPLAY] " + dir + " | ticks " + startTick + ".." + endTick
+                + " | plots=" + owners.size() + " inputs=" + inputs.size());
+
+        // ---- run ----
+        int ticks = (int) Math.max(0L, endTick - startTick);
+        long[] tickNs = new long[ticks];
+        long mismatches = 0L;
+        long unsupported = 0L;
+        String firstMismatch = null;
+        int next = 0;
+
+        for (long t = startTick + 1; t <= endTick; t++) {
+            while (next < inputs.size() && inputs.get(next).get("t").getAsLong() < t) {
+                JsonObject in = inputs.get(next++);
+                Boolean ok = apply(gm, repo, in);
+                if (ok == null) {
+                    unsupported++;
+                } else if (in.has("ok") && in.get("ok").getAsBoolean() != ok) {
+                    mismatches++;
+                    if (firstMismatch == null) firstMismatch = in + " -> " + ok;
+                }
+            }
+
+            long t0 = System.nanoTime();
+            gm.tick(t);
+            tickNs[(int) (t - startTick - 1)] = System.nanoTime() - t0;
+        }
+
+        // ---- report ----
+        long totalNs = 0L;
+        for (long ns : tickNs) totalNs += ns;
+
+        Integer[] order = new Integer[ticks];
+        for (int i = 0; i < ticks; i++) order[i] = i;
+        Arrays.sort(order, (a, b) -> Long.compare(tickNs[b], tickNs[a]));
+        List<long[]> slowest = new ArrayList<>();
+        for (int i = 0; i < Math.min(5, ticks); i++) {
+            slowest.add(new long[] { startTick + 1 + order[i], tickNs[order[i]] });
+        }
+
+        long[] sorted = tickNs.clone();
+        Arrays.sort(sorted);
+
+        String hash = gm.stateHash();
+        repo.close();
+
+        return new Result(startTick, endTick, ticks, inputs.size(), mismatches, unsupported, firstMismatch,
+                totalNs / 1e6, pctMs(sorted, 0.50), pctMs(sorted, 0.90), pctMs(sorted, 0.99),
+                (ticks > 0) ? sorted[ticks - 1] / 1e6 : 0.0, slowest, hash, recordedHash);
+    }
+
+    private static double pctMs(long[] sorted, double p) {
+        if (sorted.length == 0) return 0.0;
+        int i = (int) Math.min(sorted.length - 1, Math.round(p * (sorted.length - 1)));
+        return sorted[i] / 1e6;
+    }
+
+    // ==========================================================
+    // INPUTS
+    // ==========================================================
+
+    /** @return outcome of the input, null when it cannot be replayed */
+    private Boolean apply(GridManager gm, InMemoryRepository repo, JsonObject in) {
+        String kind = in.get("k").getAsString();
+        UUID owner = in.has("o") ? UUID.fromString(in.get("o").getAsString()) : null;
+        String id = in.has("id") ? in.get("id").getAsString() : null;
+        int n = in.has("n") ? in.get("n").getAsInt() : 0;
+        GridPosition pos = in.has("x")
+                ? new GridPosition(in.get("x").getAsInt(), in.get("y").getAsInt(), in.get("z").getAsInt())
+                : null;
+
+        switch (kind) {
+            case "touch" -> gm.touchPlayer(owner);
+            case "place" -> { return gm.placeMachine(owner, pos, id, Direction.valueOf(in.get("dir").getAsString())); }
+            case "place_structure" -> { return gm.placeStructure(owner, pos, id); }
+            case "remove" -> gm.removeComponent(owner, pos);
+            case "buy" -> { return gm.buyItem(owner, id, n); }
+            case "buy_void" -> { return gm.buyVoidShopItem(owner, id, n); }
+            case "tech" -> { return gm.unlockTechNode(owner, id); }
+            case "overclock" -> { return gm.useOverclock(owner, id); }
+            case "area_inc" -> { return gm.increasePlotUnlockedArea(owner); }
+            case "area_dec" -> { return gm.decreasePlotUnlockedArea(owner); }
+            case "itemcap_inc" -> { return gm.increaseMaxItemPlacedOnPlotCap(owner); }
+            case "bailout" -> { return gm.attemptBailout(owner); }
+            case "reset" -> gm.resetUserPlot(owner);
+            case "prestige" -> gm.prestigeUser(owner);
+            case "instant_prestige" -> gm.instantPrestigeUser(owner);
+            case "delete_player" -> gm.deletePlayer(owner);
+            case "plot_unload" -> gm.saveAndUnloadSpecific(owner);
+            case "plot_drop" -> gm.dropPlot(owner);
+            case "plot_load" -> {
+                if (in.has("plot")) {
+                    if (in.has("player")) installPlayer(repo, in.getAsJsonObject("player"));
+                    installPlot(repo, SessionRecorder.plotFromJson(owner, in.getAsJsonObject("plot")));
+                }
+                gm.preloadPlotFromDB(owner).join();
+            }
+            case "config" -> {
+                repo.setServerConfig(SessionRecorder.GSON.fromJson(in.get("config"), ServerConfig.class));
+                gm.reloadConfigForReplay();
+            }
+            case "gamestate" -> {
+                ServerGameState rec = SessionRecorder.GSON.fromJson(in.get("state"), ServerGameState.class);
+                ServerGameState cur = repo.getServerGameState();
+                // keep what the simulation wrote itself, take the admin edit
+                repo.setServerGameState(rec
+                        .withMaxItemPlacedOnPlotCap(cur.maxItemPlacedOnPlotCap())
+                        .withVoidPlotItemBreakerIncreased(cur.voidPlotItemBreakerIncreased())
+                        .withGlobalOverclock(cur.globalOverclockEndEpochMs(), cur.globalOverclockMultiplier(),
+                                cur.globalOverclockLastDurationSeconds())
+                        .withActiveFactionId(cur.activeFactionId()));
+                gm.reloadConfigForReplay();
+            }
+            default -> {
+                System.err.println("[REPLAY] Input not replayable: " + in);
+                return null;
+            }
+        }
+        return Boolean.TRUE;
+    }
+
+    // ==========================================================
+    // BACKEND IMAGE -> InMemoryRepository
+    // ==========================================================
+
+    private void seedBackend(InMemoryRepository repo, JsonObject b) {
+        var gson = SessionRecorder.GSON;
+
+        repo.setMachineDefinitions(gson.fromJson(b.get("machines"), new TypeToken<Map<String, MachineStats>>() {}.getType()));
+        repo.setTechNodes(gson.fromJson(b.get("techs"), new TypeToken<List<TechManager.TechNode>>() {}.getType()));
+        repo.setServerConfig(gson.fromJson(b.get("config"), ServerConfig.class));
+        repo.setServerGameState(gson.fromJson(b.get("gameState"), ServerGameState.class));
+
+        JsonObject prices = b.getAsJsonObject("prices");
+        repo.setMatterPrices(
+                gson.fromJson(prices.get("shape"), new TypeToken<Map<MatterShape, Double>>() {}.getType()),
+                gson.fromJson(prices.get("color"), new TypeToken<Map<MatterColor, Double>>() {}.getType()),
+                gson.fromJson(prices.get("effect"), new TypeToken<Map<MatterEffect, Double>>() {}.getType()));
+        if (b.has("recipes")) {
+            repo.setRecipeDefinitions(gson.fromJson(b.get("recipes"), new TypeToken<List<RecipeBook.Definition>>() {}.getType()));
+        }
+
+        List<FactionDefinition> factions = gson.fromJson(b.get("factions"), new TypeToken<List<FactionDefinition>>() {}.getType());
+        Map<Integer, List<FactionPricingRule>> rules = new HashMap<>();
+        JsonObject rulesJson = b.getAsJsonObject("factionRules");
+        for (String k : rulesJson.keySet()) {
+            rules.put(Integer.parseInt(k), gson.fromJson(rulesJson.get(k), new TypeToken<List<FactionPricingRule>>() {}.getType()));
+        }
+        repo.setFactions(factions, rules);
+        repo.setVoidShopCatalog(gson.fromJson(b.get("voidShop"), new TypeToken<List<VoidShopItem>>() {}.getType()));
+
+        JsonArray players = b.getAsJsonArray("players");
+        for (JsonElement e : players) installPlayer(repo, e.getAsJsonObject());
+    }
+
+    private void installPlayer(InMemoryRepository repo, JsonObject o) {
+        UUID owner = UUID.fromString(o.get("owner").getAsString());
+        Map<String, Integer> inv = SessionRecorder.GSON.fromJson(o.get("inventory"), new TypeToken<Map<String, Integer>>() {}.getType());
+        if (o.has("profile")) {
+            SessionRecorder.ProfileImage img = SessionRecorder.GSON.fromJson(o.get("profile"), SessionRecorder.ProfileImage.class);
+            repo.putPlayer(img.toProfile(), img.playtimeSeconds(), inv);
+        }
+        pendingCapExtra.put(owner, o.has("voidItemCapExtra") ? o.get("voidItemCapExtra").getAsInt() : 0);
+    }
+
+    private void installPlot(InMemoryRepository repo, WorldCheckpoint.PlotImage p) {
+        Integer v = pendingCapExtra.remove(p.ownerId());
+        int capExtra = (v != null) ? v : repo.getPlotVoidItemCapExtra(p.ownerId());
+        repo.putPlot(p.ownerId(), p.plotId(), p.unlock(), capExtra, p.resources(), p.machines());
+    }
+}
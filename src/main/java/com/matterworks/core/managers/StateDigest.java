@@ -0,0 +1,83 @@
+package com.matterworks.core.managers;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * SHA-256 over a canonical walk of the simulation state (GridManager.stateHash).
+ * Every value is length/type prefixed, JSON objects are fed with sorted keys: two worlds
+ * hash alike when they hold the same values, whatever order maps or JSON were built in.
+ */
+final class StateDigest {
+
+    private final MessageDigest md;
+
+    StateDigest() {
+        try {
+            this.md = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    StateDigest add(long v) {
+        for (int i = 56; i >= 0; i -= 8) md.update((byte) (v >>> i));
+        return this;
+    }
+
+    StateDigest add(int v) {
+        return add((long) v);
+    }
+
+    StateDigest add(double v) {
+        return add(Double.doubleToLongBits(v));
+    }
+
+    StateDigest add(String s) {
+        if (s == null) return add(-1);
+        byte[] b = s.getBytes(StandardCharsets.UTF_8);
+        add(b.length);
+        md.update(b);
+        return this;
+    }
+
+    StateDigest addJson(JsonElement e) {
+        if (e == null || e.isJsonNull()) {
+            md.update((byte) 'n');
+        } else if (e.isJsonObject()) {
+            JsonObject o = e.getAsJsonObject();
+            List<String> keys = new ArrayList<>(o.keySet());
+            Collections.sort(keys);
+            md.update((byte) '{');
+            add(keys.size());
+            for (String k : keys) {
+                add(k);
+                addJson(o.get(k));
+            }
+        } else if (e.isJsonArray()) {
+            JsonArray a = e.getAsJsonArray();
+            md.update((byte) '[');
+            add(a.size());
+            for (JsonElement x : a) addJson(x);
+        } else {
+            md.update((byte) 'p');
+            add(e.getAsJsonPrimitive().toString());
+        }
+        return this;
+    }
+
+    /** @return first 16 bytes as hex (enough to tell runs apart) */
+    String hex() {
+        byte[] full = md.digest();
+        return HexFormat.of().formatHex(full, 0, 16);
+    }
+}
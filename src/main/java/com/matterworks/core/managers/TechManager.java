@@ -79,6 +79,9 @@ public class TechManager {
 
     private final Map<String, TechNode> nodes = new LinkedHashMap<>();
 
+    // Compiled view of `nodes`, swapped atomically on every reload
+    private volatile TechIndex index = TechIndex.build(List.of());
+
     /**
      * Items always buyable even without tech unlock.
      * NOTE: renamed drill -> drill (global rename will be completed in other classes in Part 2/3).
@@ -100,6 +103,128 @@ public class TechManager {
             if (node == null || node.id() == null || node.id().isBlank()) continue;
             nodes.put(node.id(), node);
         }
+
+        index = TechIndex.build(nodes.values());
+    }
+
+    // ==========================================================
+    // COMPILED INDEX (node id -> bit)
+    // ==========================================================
+
+    /**
+     * Immutable, indexed view of the tech tree.
+     *
+     * PERFORMANCE:
+     * - Every node gets a bit index: a player's unlocks become a BitSet.
+     * - Upgrade nodes are pre-grouped per machine type and sorted by tier (desc), so
+     *   "best unlocked tier" is the first set bit instead of a scan of every node.
+     */
+    static final class TechIndex {
+
+        record Upgrade(int bit, int tier, double nexusSellMultiplier) {}
+
+        private static final Upgrade[] NO_UPGRADES = new Upgrade[0];
+
+        final Map<String, Integer> bitOf;
+        final Map<String, Upgrade[]> upgradesByMachine;
+        final Map<String, String> unlockNodeOfItem;
+        final BitSet prestigeBits;
+
+        private TechIndex(Map<String, Integer> bitOf,
+                          Map<String, Upgrade[]> upgradesByMachine,
+                          Map<String, String> unlockNodeOfItem,
+                          BitSet prestigeBits) {
+            this.bitOf = bitOf;
+            this.upgradesByMachine = upgradesByMachine;
+            this.unlockNodeOfItem = unlockNodeOfItem;
+            this.prestigeBits = prestigeBits;
+        }
+
+        static TechIndex build(Collection<TechNode> all) {
+            Map<String, Integer> bitOf = new HashMap<>();
+            Map<String, List<Upgrade>> upgrades = new HashMap<>();
+            Map<String, String> unlockNode = new HashMap<>();
+            BitSet prestige = new BitSet();
+
+            int bit = 0;
+            for (TechNode node : all) {
+                if (node == null || node.id() == null) continue;
+                int b = bit++;
+                bitOf.put(node.id(), b);
+
+                if (node.enablesPrestige() || PRESTIGE_NODE_ID.equals(node.id())) prestige.set(b);
+
+                // canBuyItem rule: the FIRST node (tree order) that unlocks the item decides
+                if (node.unlockItemIds() != null) {
+                    for (String itemId : node.unlockItemIds()) {
+                        if (itemId != null) unlockNode.putIfAbsent(itemId, node.id());
+                    }
+                }
+
+                if (node.isUpgradeNode()) {
+                    Upgrade u = new Upgrade(b, node.upgradeToTier(), node.safeNexusSellMultiplier());
+                    for (String machineId : node.upgradeMachineIds()) {
+                        if (machineId != null) upgrades.computeIfAbsent(machineId, k -> new ArrayList<>()).add(u);
+                    }
+                }
+            }
+
+            Map<String, Upgrade[]> byMachine = new HashMap<>();
+            for (var e : upgrades.entrySet()) {
+                List<Upgrade> list = e.getValue();
+                list.sort((a, c) -> Integer.compare(c.tier(), a.tier()));
+                byMachine.put(e.getKey(), list.toArray(NO_UPGRADES));
+            }
+
+            return new TechIndex(Map.copyOf(bitOf), Map.copyOf(byMachine), Map.copyOf(unlockNode), prestige);
+        }
+
+        BitSet unlockedBits(PlayerProfile p) {
+            BitSet out = new BitSet(bitOf.size());
+            if (p == null || p.getUnlockedTechs() == null) return out;
+            for (String techId : p.getUnlockedTechs()) {
+                Integer b = bitOf.get(techId);
+                if (b != null) out.set(b);
+            }
+            return out;
+        }
+
+        Upgrade bestUpgrade(BitSet unlocked, String machineTypeId) {
+            Upgrade[] ups = upgradesByMachine.getOrDefault(machineTypeId, NO_UPGRADES);
+            for (Upgrade u : ups) {
+                if (unlocked.get(u.bit())) return u;
+            }
+            return null;
+        }
+
+        int tierForMachine(BitSet unlocked, String machineTypeId) {
+            if (machineTypeId == null || machineTypeId.isBlank()) return 1;
+
+            // Hard rename defensive
+            if ("drill_mk1".equals(machineTypeId)) machineTypeId = "drill";
+
+            Upgrade u = bestUpgrade(unlocked, machineTypeId);
+            return (u == null) ? 1 : Math.min(3, Math.max(1, u.tier()));
+        }
+
+        double nexusSellMultiplier(BitSet unlocked) {
+            Upgrade u = bestUpgrade(unlocked, "nexus_core");
+            if (u == null || u.tier() <= 1) return 1.0;
+            double v = u.nexusSellMultiplier();
+            return (Double.isNaN(v) || Double.isInfinite(v) || v <= 0.0) ? 1.0 : v;
+        }
+
+        boolean prestigeUnlocked(BitSet unlocked) {
+            return unlocked.intersects(prestigeBits);
+        }
+
+        Set<String> upgradableMachineIds() {
+            return upgradesByMachine.keySet();
+        }
+    }
+
+    TechIndex index() {
+        return index;
     }
 
     public Collection<TechNode> getAllNodes() {
@@ -137,14 +262,8 @@ public class TechManager {
         if (itemId == null || itemId.isBlank()) return false;
         if (baseItems.contains(itemId)) return true;
 
-        for (TechNode node : nodes.values()) {
-            if (node == null) continue;
-            List<String> unlocks = node.unlockItemIds();
-            if (unlocks != null && unlocks.contains(itemId)) {
-                return p.hasTech(node.id());
-            }
-        }
-        return false;
+        String nodeId = index.unlockNodeOfItem.get(itemId);
+        return nodeId != null && p.hasTech(nodeId);
     }
 
     public double getEffectiveNodeCost(PlayerProfile p, String nodeId) {
@@ -162,9 +281,7 @@ public class TechManager {
         if (!areParentsSatisfied(p, node)) return false;
 
         double cost = node.effectiveCost(p);
-        if (!p.isAdmin() && p.getMoney() < cost) return false;
-
-        if (!p.isAdmin()) p.modifyMoney(-cost);
+        if (!p.isAdmin() && !p.tryDebitMoney(cost)) return false;
 
         p.addTech(nodeId);
         repository.savePlayerProfile(p);
@@ -216,55 +333,18 @@ public class TechManager {
     /**
      * Extra sell multiplier for Nexus due to tech upgrades (tier system).
      * This is separate from prestige sell multiplier.
+     * Hot paths read it from the compiled PlayerStatsTable instead.
      */
     public double getTechNexusSellMultiplier(PlayerProfile p) {
         if (p == null) return 1.0;
-
-        int bestTier = 1;
-        double bestMult = 1.0;
-
-        for (String techId : p.getUnlockedTechs()) {
-            TechNode node = nodes.get(techId);
-            if (node == null) continue;
-            if (!node.isUpgradeNode()) continue;
-
-            // Only consider nodes that target nexus_core.
-            if (!node.targetsMachine("nexus_core")) continue;
-
-            int tier = node.upgradeToTier();
-            if (tier > bestTier) {
-                bestTier = tier;
-                bestMult = node.safeNexusSellMultiplier();
-            }
-        }
-
-        if (Double.isNaN(bestMult) || Double.isInfinite(bestMult) || bestMult <= 0.0) return 1.0;
-        return bestMult;
+        TechIndex idx = index;
+        return idx.nexusSellMultiplier(idx.unlockedBits(p));
     }
 
     public int getUnlockedTierForMachine(PlayerProfile profile, String machineTypeId) {
         if (profile == null || machineTypeId == null || machineTypeId.isBlank()) return 1;
-
-        // Hard rename defensive
-        if ("drill_mk1".equals(machineTypeId)) machineTypeId = "drill";
-
-        int best = 1;
-
-        for (TechNode node : getAllNodes()) {
-            if (node == null) continue;
-            if (!node.isUpgradeNode()) continue;
-
-            int toTier = node.upgradeToTier();
-            if (toTier <= best) continue;
-
-            if (!profile.hasTech(node.id())) continue;
-            if (!node.targetsMachine(machineTypeId)) continue;
-
-            best = toTier;
-            if (best >= 3) break; // max tier
-        }
-
-        return best;
+        TechIndex idx = index;
+        return idx.tierForMachine(idx.unlockedBits(profile), machineTypeId);
     }
 
 }
@@ -0,0 +1,121 @@
+package com.matterworks.core.managers;
+
+import com.matterworks.core.common.GridPosition;
+import com.matterworks.core.common.Vector3Int;
+import com.matterworks.core.domain.machines.base.PlacedMachine;
+import com.matterworks.core.domain.machines.logistics.ConveyorBelt;
+import com.matterworks.core.domain.machines.logistics.TransportSegment;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps the belts of every plot grouped into TransportSegments: maximal straight runs of
+ * belts facing the same way (a belt whose output cell holds a belt with its orientation).
+ *
+ * A belt placed or removed marks its plot; the plot's segments are dissolved (items go back
+ * to the belts) and rebuilt at the start of the next world tick, on the tick thread, so the
+ * lines never change under a running tick. Rotation has no operation of its own in this
+ * tree (remove + place), it is covered by the same path.
+ *
+ * PERFORMANCE:
+ * - A rebuild is O(belts of the plot) and happens on human-rate layout edits only.
+ * - In steady state the world tick sees one head belt per segment instead of every belt
+ *   (GridRuntimeState.tickOrder leaves delegated belts out).
+ *
+ * Tunables:
+ * -Dmw.belts.segments=true   merge straight runs (false = every belt ticks on its own)
+ * -Dmw.belts.minSegment=2    shortest run worth a segment
+ */
+final class TransportLines {
+
+    static final boolean ENABLED = !"false".equalsIgnoreCase(System.getProperty("mw.belts.segments", "true"));
+    private static final int MIN_SEGMENT = Math.max(2, Integer.getInteger("mw.belts.minSegment", 2));
+
+    private final GridRuntimeState state;
+
+    private final Set<UUID> dirtyOwners = ConcurrentHashMap.newKeySet();
+    private final Map<UUID, List<TransportSegment>> segments = new ConcurrentHashMap<>();
+
+    TransportLines(GridRuntimeState state) {
+        this.state = state;
+    }
+
+    /** Any thread: a belt of the plot was placed / removed. */
+    void layoutChanged(UUID ownerId) {
+        if (ENABLED && ownerId != null) dirtyOwners.add(ownerId);
+    }
+
+    /** Tick thread, before the machines tick. */
+    synchronized void rebuildDirty() {
+        if (dirtyOwners.isEmpty()) return;
+        for (Iterator<UUID> it = dirtyOwners.iterator(); it.hasNext(); ) {
+            UUID ownerId = it.next();
+            it.remove();
+            rebuild(ownerId);
+        }
+        state.invalidateTickOrder();
+    }
+
+    /** Plot unloaded or reloaded: the belts get their items back, the segments are forgotten. */
+    synchronized void forget(UUID ownerId) {
+        if (ownerId == null) return;
+        List<TransportSegment> old = segments.remove(ownerId);
+        if (old == null) return;
+        old.forEach(TransportSegment::dissolve);
+        state.invalidateTickOrder();
+    }
+
+    int segmentCount() {
+        int n = 0;
+        for (List<TransportSegment> l : segments.values()) n += l.size();
+        return n;
+    }
+
+    private void rebuild(UUID ownerId) {
+        List<TransportSegment> old = segments.remove(ownerId);
+        if (old != null) old.forEach(TransportSegment::dissolve);
+
+        Map<GridPosition, PlacedMachine> grid = state.playerGrids.get(ownerId);
+        if (grid == null) return;
+
+        Map<GridPosition, ConveyorBelt> belts = new HashMap<>();
+        for (PlacedMachine m : grid.values()) {
+            if (m instanceof ConveyorBelt b) belts.put(b.getPos(), b);
+        }
+
+        List<TransportSegment> built = new ArrayList<>();
+        for (ConveyorBelt b : belts.values()) {
+            // start from tails only: nothing of the same run feeds this belt
+            if (sameRun(belts.get(offset(b, -1)), b)) continue;
+
+            List<ConveyorBelt> chain = new ArrayList<>();
+            chain.add(b);
+            ConveyorBelt cur = b;
+            ConveyorBelt next;
+            while (sameRun(cur, next = belts.get(offset(cur, 1)))) {
+                chain.add(next);
+                cur = next;
+            }
+            if (chain.size() >= MIN_SEGMENT) built.add(new TransportSegment(chain));
+        }
+
+        if (!built.isEmpty()) segments.put(ownerId, built);
+    }
+
+    private static boolean sameRun(ConveyorBelt from, ConveyorBelt to) {
+        return from != null && to != null && from != to && from.getOrientation() == to.getOrientation();
+    }
+
+    private static GridPosition offset(ConveyorBelt b, int steps) {
+        Vector3Int d = b.getOrientation().toVector();
+        GridPosition p = b.getPos();
+        return new GridPosition(p.x() + d.x() * steps, p.y() + d.y() * steps, p.z() + d.z() * steps);
+    }
+}
@@ -0,0 +1,179 @@
+package com.matterworks.core.managers;
+
+import com.matterworks.core.common.GridPosition;
+import com.matterworks.core.common.Vector3Int;
+import com.matterworks.core.ports.IMachineVisuals;
+import com.matterworks.core.ports.IWorldAccess;
+import com.matterworks.core.ports.VisualFrame;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-tick buffer of visual changes sent to the game client through the ports.
+ *
+ * Off unless the adapter opts in (IWorldAccess.wantsVisualSync): then the tick records nothing
+ * and placement hooks talk to the adapter directly, as before the buffer existed.
+ *
+ * MODES for opted-in adapters (-Dmw.visuals=batch|direct|off, default batch):
+ * - batch: changes are collected during the tick, coalesced per (machine, kind) (last value wins),
+ *   and flushed at the end of the tick as ONE VisualFrame per plot via applyVisualFrame().
+ * - direct: one port call per change, no buffering (comparison point for the recording adapter).
+ * - off: nothing is recorded.
+ *
+ * PERFORMANCE:
+ * - VISUAL changes are state (e.g. the item shown on a belt): a value equal to the one
+ *   already sent for that cell is dropped, so an idle or saturated belt costs nothing.
+ * - ANIMATION / PARTICLE / BLOCK are events and are always sent (once per tick per cell).
+ *
+ * THREADING NOTES:
+ * - record() may be called from any thread (tick thread, UI placement).
+ * - flush() and the "last sent" state are tick-thread only. An entry is drained with
+ *   remove(key, value): a newer value recorded meanwhile stays pending for the next tick.
+ */
+final class VisualChangeBuffer {
+
+    enum Mode { BATCH, DIRECT, OFF }
+
+    private record Slot(GridPosition pos, VisualFrame.Kind kind) {}
+
+    private static final Comparator<VisualFrame.Change> ORDER = Comparator
+            .comparingInt((VisualFrame.Change c) -> c.pos().y())
+            .thenComparingInt(c -> c.pos().z())
+            .thenComparingInt(c -> c.pos().x())
+            .thenComparingInt(c -> c.kind().ordinal());
+
+    private static final class PlotVisuals {
+        final ConcurrentHashMap<Slot, String> pending = new ConcurrentHashMap<>();
+        final Map<GridPosition, String> sentVisuals = new HashMap<>(); // tick thread only
+    }
+
+    private final IWorldAccess world;
+    private final IMachineVisuals machineVisuals;
+    private final Mode mode;
+    private final ConcurrentHashMap<UUID, PlotVisuals> plots = new ConcurrentHashMap<>();
+
+    VisualChangeBuffer(IWorldAccess world) {
+        this.world = world;
+        // Direct mode only: in batch mode the frame carries the animations too (IWorldAccess.applyVisualFrame)
+        this.machineVisuals = (world instanceof IMachineVisuals mv) ? mv : null;
+        this.mode = (world == null || !world.wantsVisualSync())
+                ? Mode.OFF
+                : parseMode(System.getProperty("mw.visuals", "batch"));
+    }
+
+    private static Mode parseMode(String v) {
+        return switch (v.trim().toLowerCase(Locale.ROOT)) {
+            case "direct" -> Mode.DIRECT;
+            case "off", "false" -> Mode.OFF;
+            default -> Mode.BATCH;
+        };
+    }
+
+    boolean isEnabled() {
+        return mode != Mode.OFF;
+    }
+
+    void record(UUID owner, GridPosition pos, VisualFrame.Kind kind, String value) {
+        if (mode == Mode.OFF || owner == null || pos == null || kind == null) return;
+        String v = (value != null) ? value : "";
+
+        if (mode == Mode.DIRECT) {
+            dispatch(kind, pos, v);
+            return;
+        }
+        plots.computeIfAbsent(owner, k -> new PlotVisuals()).pending.put(new Slot(pos, kind), v);
+    }
+
+    /**
+     * World handed to onPlace/onRemove hooks: in batch mode setBlock/createVisuals land in the
+     * buffer, the rest goes straight to the adapter.
+     */
+    IWorldAccess worldFor(UUID owner) {
+        if (mode != Mode.BATCH) return world;
+        return new IWorldAccess() {
+            @Override public void setBlock(GridPosition pos, String blockId) { record(owner, pos, VisualFrame.Kind.BLOCK, blockId); }
+            @Override public boolean isBlockSolid(GridPosition pos) { return world.isBlockSolid(pos); }
+            @Override public void createVisuals(GridPosition pos, String visualId) { record(owner, pos, VisualFrame.Kind.VISUAL, visualId); }
+            @Override public Vector3Int fetchExternalBlockDimensions(String blockId) { return world.fetchExternalBlockDimensions(blockId); }
+        };
+    }
+
+    /** Machine removed: clears the state visual it may have left on the client. */
+    void machineRemoved(UUID owner, GridPosition pos) {
+        record(owner, pos, VisualFrame.Kind.VISUAL, "");
+    }
+
+    /** Plot unloaded: pending changes and the client-side state are forgotten. */
+    void dropPlot(UUID owner) {
+        if (owner != null) plots.remove(owner);
+    }
+
+    // ==========================================================
+    // FLUSH (tick thread)
+    // ==========================================================
+
+    void flush(long tick) {
+        if (mode == Mode.OFF) return;
+
+        if (mode == Mode.BATCH) {
+            for (var e : plots.entrySet()) {
+                PlotVisuals pv = e.getValue();
+                if (pv.pending.isEmpty()) continue;
+                try {
+                    flushPlot(e.getKey(), pv, tick);
+                } catch (Throwable t) {
+                    System.err.println("[VISUALS] Flush failed for " + e.getKey() + ": " + t);
+                }
+            }
+        }
+
+        try {
+            world.endVisualTick(tick);
+        } catch (Throwable ignored) {
+        }
+    }
+
+    private void flushPlot(UUID owner, PlotVisuals pv, long tick) {
+        List<VisualFrame.Change> changes = new ArrayList<>(pv.pending.size());
+
+        for (var e : pv.pending.entrySet()) {
+            Slot slot = e.getKey();
+            String value = e.getValue();
+            if (!pv.pending.remove(slot, value)) continue; // overwritten meanwhile: next tick
+
+            if (slot.kind() == VisualFrame.Kind.VISUAL) {
+                String sent = pv.sentVisuals.getOrDefault(slot.pos(), "");
+                if (Objects.equals(sent, value)) continue;
+                if (value.isEmpty()) pv.sentVisuals.remove(slot.pos());
+                else pv.sentVisuals.put(slot.pos(), value);
+            }
+            changes.add(new VisualFrame.Change(slot.kind(), slot.pos(), value));
+        }
+        if (changes.isEmpty()) return;
+
+        changes.sort(ORDER);
+        VisualFrame frame = VisualFrame.encode(owner, tick, changes);
+
+        world.applyVisualFrame(frame);
+    }
+
+    private void dispatch(VisualFrame.Kind kind, GridPosition pos, String value) {
+        try {
+            switch (kind) {
+                case BLOCK -> world.setBlock(pos, value);
+                case VISUAL -> world.createVisuals(pos, value);
+                case ANIMATION -> { if (machineVisuals != null) machineVisuals.playAnimation(value); }
+                case PARTICLE -> { if (machineVisuals != null) machineVisuals.spawnParticle(value); }
+            }
+        } catch (Throwable ignored) {
+        }
+    }
+}
@@ -0,0 +1,250 @@
+package com.matterworks.core.managers;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.matterworks.core.common.GridPosition;
+import com.matterworks.core.domain.matter.MatterColor;
+import com.matterworks.core.model.PlotObject;
+import com.matterworks.core.model.PlotUnlockState;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.zip.CRC32;
+
+/**
+ * Whole-world checkpoint: every resident plot in one memory-mapped binary file.
+ *
+ * Layout (big endian):
+ *   header  magic "MWCP", version, createdAtMs, plotCount
+ *   index   per plot: owner (2 longs), plotId, DB stamp, section offset, section length, CRC32
+ *   sections per plot: unlock state, resources, machines (db id, position, type, metadata JSON)
+ *
+ * Machine metadata is the machine's own serialize() output, so belt items in flight,
+ * processor buffers and timers come back exactly as they were.
+ *
+ * A plot is restored only when its stamp equals the DB stamp read at boot
+ * (PlotDAO.loadPlotStamps) and its section CRC matches; anything else loads from the DB.
+ *
+ * THREADING NOTES:
+ * - The read-only mapping is shared; every read() decodes from its own slice, so plots
+ *   can be restored in parallel.
+ */
+final class WorldCheckpoint {
+
+    private static final int MAGIC = 0x4D574350; // "MWCP"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 4 + 4 + 8 + 4;
+    private static final int INDEX_ENTRY_BYTES = 8 + 8 + 8 + 8 + 8 + 4 + 4;
+
+    record PlotImage(UUID ownerId, long plotId, long stamp, PlotUnlockState unlock,
+                     Map<GridPosition, MatterColor> resources, List<PlotObject> machines) {}
+
+    private record Entry(long plotId, long stamp, long offset, int length, int crc) {}
+
+    private final MappedByteBuffer map;
+    private final Map<UUID, Entry> index;
+    private final long createdAtMs;
+
+    private WorldCheckpoint(MappedByteBuffer map, Map<UUID, Entry> index, long createdAtMs) {
+        this.map = map;
+        this.index = index;
+        this.createdAtMs = createdAtMs;
+    }
+
+    int plotCount() { return index.size(); }
+    long createdAtMs() { return createdAtMs; }
+    boolean contains(UUID ownerId) { return index.containsKey(ownerId); }
+    Set<UUID> owners() { return Set.copyOf(index.keySet()); }
+    long stampOf(UUID ownerId) { Entry e = index.get(ownerId); return (e != null) ? e.stamp() : 0L; }
+
+    // ==========================================================
+    // WRITE
+    // ==========================================================
+
+    /**
+     * Writes a unique tmp file through a mapping, forces it to disk, then atomically replaces
+     * the old one (concurrent writers never share a tmp file; the last move wins).
+     */
+    static long write(Path file, List<PlotImage> plots) throws IOException {
+        List<byte[]> sections = new ArrayList<>(plots.size());
+        for (PlotImage p : plots) sections.add(encode(p));
+
+        long size = HEADER_BYTES + (long) INDEX_ENTRY_BYTES * plots.size();
+        for (byte[] s : sections) size += s.length;
+
+        Path dir = file.toAbsolutePath().getParent();
+        if (dir != null) Files.createDirectories(dir);
+        Path tmp = Files.createTempFile(dir, file.getFileName() + ".", ".tmp");
+
+        try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer out = ch.map(FileChannel.MapMode.READ_WRITE, 0, size);
+
+            out.putInt(MAGIC).putInt(VERSION).putLong(System.currentTimeMillis()).putInt(plots.size());
+
+            long offset = HEADER_BYTES + (long) INDEX_ENTRY_BYTES * plots.size();
+            CRC32 crc = new CRC32();
+            for (int i = 0; i < plots.size(); i++) {
+                PlotImage p = plots.get(i);
+                byte[] s = sections.get(i);
+                crc.reset();
+                crc.update(s);
+                out.putLong(p.ownerId().getMostSignificantBits()).putLong(p.ownerId().getLeastSignificantBits())
+                        .putLong(p.plotId()).putLong(p.stamp())
+                        .putLong(offset).putInt(s.length).putInt((int) crc.getValue());
+                offset += s.length;
+            }
+            for (byte[] s : sections) out.put(s);
+            out.force();
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(tmp);
+            throw e;
+        }
+
+        try {
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(tmp);
+            throw e;
+        }
+        return size;
+    }
+
+    private static byte[] encode(PlotImage p) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(4096);
+        DataOutputStream out = new DataOutputStream(bytes);
+
+        PlotUnlockState u = (p.unlock() != null) ? p.unlock() : PlotUnlockState.zero();
+        out.writeInt(u.extraX());
+        out.writeInt(u.extraY());
+
+        out.writeInt(p.resources().size());
+        for (var e : p.resources().entrySet()) {
+            out.writeInt(e.getKey().x());
+            out.writeInt(e.getKey().z());
+            out.writeByte(e.getValue().ordinal());
+        }
+
+        out.writeInt(p.machines().size());
+        for (PlotObject m : p.machines()) {
+            out.writeLong(m.getId());
+            out.writeInt(m.getX());
+            out.writeInt(m.getY());
+            out.writeInt(m.getZ());
+            writeString(out, m.getTypeId());
+            writeString(out, m.getRawMetaData());
+        }
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    private static void writeString(DataOutputStream out, String s) throws IOException {
+        byte[] b = (s != null ? s : "").getBytes(StandardCharsets.UTF_8);
+        out.writeInt(b.length);
+        out.write(b);
+    }
+
+    // ==========================================================
+    // READ
+    // ==========================================================
+
+    /** @return the mapped checkpoint, or null when the file is missing / foreign / truncated. */
+    static WorldCheckpoint open(Path file) {
+        if (!Files.isRegularFile(file)) return null;
+
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = ch.size();
+            if (size < HEADER_BYTES) return null;
+
+            // The mapping stays valid after the channel is closed
+            MappedByteBuffer map = ch.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if (map.getInt(0) != MAGIC || map.getInt(4) != VERSION) {
+                System.err.println("[CHECKPOINT] " + file + " has another format, ignored.");
+                return null;
+            }
+            long createdAt = map.getLong(8);
+            int count = map.getInt(16);
+            if (count < 0 || HEADER_BYTES + (long) INDEX_ENTRY_BYTES * count > size) return null;
+
+            Map<UUID, Entry> index = new HashMap<>(count * 2);
+            int pos = HEADER_BYTES;
+            for (int i = 0; i < count; i++, pos += INDEX_ENTRY_BYTES) {
+                UUID owner = new UUID(map.getLong(pos), map.getLong(pos + 8));
+                Entry e = new Entry(map.getLong(pos + 16), map.getLong(pos + 24),
+                        map.getLong(pos + 32), map.getInt(pos + 40), map.getInt(pos + 44));
+                if (e.offset() < 0 || e.length() < 0 || e.offset() + e.length() > size) return null;
+                index.put(owner, e);
+            }
+            return new WorldCheckpoint(map, index, createdAt);
+        } catch (Throwable t) {
+            System.err.println("[CHECKPOINT] Cannot open " + file + ": " + t);
+            return null;
+        }
+    }
+
+    /** @return the plot section, or null when absent or corrupted. */
+    PlotImage read(UUID ownerId) {
+        Entry e = index.get(ownerId);
+        if (e == null) return null;
+
+        ByteBuffer in = map.slice((int) e.offset(), e.length());
+        CRC32 crc = new CRC32();
+        crc.update(in.duplicate());
+        if ((int) crc.getValue() != e.crc()) {
+            System.err.println("[CHECKPOINT] CRC mismatch for plot " + ownerId + ", loading from DB.");
+            return null;
+        }
+
+        try {
+            PlotUnlockState unlock = new PlotUnlockState(in.getInt(), in.getInt());
+
+            MatterColor[] colors = MatterColor.values();
+            int resCount = in.getInt();
+            Map<GridPosition, MatterColor> resources = new HashMap<>(Math.max(16, resCount * 2));
+            for (int i = 0; i < resCount; i++) {
+                int x = in.getInt();
+                int z = in.getInt();
+                resources.put(new GridPosition(x, 0, z), colors[in.get()]);
+            }
+
+            int machineCount = in.getInt();
+            List<PlotObject> machines = new ArrayList<>(machineCount);
+            for (int i = 0; i < machineCount; i++) {
+                long id = in.getLong();
+                int x = in.getInt();
+                int y = in.getInt();
+                int z = in.getInt();
+                String typeId = readString(in);
+                String meta = readString(in);
+                JsonObject json = meta.isEmpty() ? new JsonObject() : JsonParser.parseString(meta).getAsJsonObject();
+                machines.add(new PlotObject(id, e.plotId(), x, y, z, typeId, json));
+            }
+            return new PlotImage(ownerId, e.plotId(), e.stamp(), unlock, resources, machines);
+        } catch (Throwable t) {
+            System.err.println("[CHECKPOINT] Undecodable section for plot " + ownerId + ": " + t);
+            return null;
+        }
+    }
+
+    private static String readString(ByteBuffer in) {
+        int len = in.getInt();
+        byte[] b = new byte[len];
+        in.get(b);
+        return new String(b, StandardCharsets.UTF_8);
+    }
+}
@@ -1,22 +1,42 @@
 package com.matterworks.core.managers;
 
-import com.google.gson.JsonElement;
-import com.google.gson.JsonObject;
-import com.google.gson.JsonParser;
 import com.matterworks.core.common.Direction;
 import com.matterworks.core.common.GridPosition;
 import com.matterworks.core.common.Vector3Int;
 import com.matterworks.core.database.DatabaseManager;
 import com.matterworks.core.domain.machines.registry.BlockRegistry;
-import com.matterworks.core.domain.matter.MatterColor;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.util.*;
-
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Boot-time check of plot layouts (overlaps are self-healed, drills on void are reported).
+ *
+ * INCREMENTAL:
+ * - One aggregate query per table gives a layout checksum per plot, computed by MariaDB
+ *   (count + BIT_XOR(CRC32(id, x, y, z, type, orientation)), resources likewise),
+ *   mixed with a fingerprint of the block dimensions.
+ * - A plot is validated only if its checksum differs from plots.integrity_checksum,
+ *   which is written after the plot validated clean. Unchanged plots cost nothing.
+ * - Without that optional column every plot is validated (nothing is stored).
+ *
+ * PERFORMANCE:
+ * - Plots are streamed: each one loads only its own rows (orientation extracted by the
+ *   DB, no metadata JSON transferred or parsed) and is checked on the "mw-integrity-N"
+ *   pool, one plot per task.
+ *
+ * Full pass on demand: validateWorldIntegrity(true) or -Dmw.integrity.full=true.
+ */
 public class WorldIntegrityValidator {
 
+    private static final String CHECKSUM_COLUMN = "integrity_checksum";
+
     private final DatabaseManager db;
     private final BlockRegistry registry;
 
@@ -25,77 +45,81 @@ public class WorldIntegrityValidator {
         this.registry = registry;
     }
 
-    private static final class MachineRow {
-        final long id;
-        final long plotId;
-        final int x;
-        final int y;
-        final int z;
-        final String typeId;
-        final JsonObject meta;
-
-        private MachineRow(long id, long plotId, int x, int y, int z, String typeId, JsonObject meta) {
-            this.id = id;
-            this.plotId = plotId;
-            this.x = x;
-            this.y = y;
-            this.z = z;
-            this.typeId = typeId;
-            this.meta = (meta != null) ? meta : new JsonObject();
-        }
+    private record MachineRow(long id, int x, int y, int z, String typeId, Direction orientation) {}
+
+    /** DB-side layout checksum parts of one plot (registry fingerprint is mixed in later). */
+    private record PlotSums(long machines, long machineXor, long resources, long resourceXor) {}
+
+    private record ChecksumScan(Map<Long, PlotSums> sums, Map<Long, Long> stored, boolean storable) {}
+
+    private record PlotResult(long plotId, int overlaps, int healed, List<String> errors, boolean clean) {}
+
+    // Aggregate scan run ahead by prefetch(), consumed by the next validation
+    private volatile ChecksumScan prefetched;
+
+    /**
+     * Runs the checksum aggregates now. They do not need the BlockRegistry,
+     * so boot overlaps them with the definitions load.
+     */
+    public void prefetch() {
+        prefetched = scanChecksums();
     }
 
     public boolean validateWorldIntegrity() {
-        System.out.println("[System] Starting World Integrity Validation...");
+        return validateWorldIntegrity(Boolean.getBoolean("mw.integrity.full"));
+    }
 
-        Map<Long, List<MachineRow>> machinesByPlot = loadAllMachines();
-        Map<Long, Map<GridPosition, MatterColor>> resourcesByPlot = loadAllResources();
+    /** @param full validate every plot, ignoring the stored checksums */
+    public boolean validateWorldIntegrity(boolean full) {
+        long t0 = System.nanoTime();
+        System.out.println("[System] Starting World Integrity Validation" + (full ? " (full pass)" : "") + "...");
 
-        Map<Long, Set<Long>> toDeleteByPlot = new HashMap<>();
-        List<String> errorLog = new ArrayList<>();
+        ChecksumScan scan = prefetched;
+        prefetched = null;
+        if (scan == null) scan = scanChecksums();
 
-        for (var entry : machinesByPlot.entrySet()) {
-            Long plotId = entry.getKey();
-            List<MachineRow> machines = entry.getValue();
-            Map<GridPosition, MatterColor> resources = resourcesByPlot.getOrDefault(plotId, Collections.emptyMap());
+        long registryFp = registryFingerprint();
 
-            detectOverlaps(plotId, machines, errorLog, toDeleteByPlot);
+        List<Long> toCheck = new ArrayList<>();
+        Map<Long, Long> checksums = new HashMap<>();
+        for (var e : scan.sums().entrySet()) {
+            long checksum = mix(e.getValue(), registryFp);
+            checksums.put(e.getKey(), checksum);
 
-            // Drill placed over void (legacy + new id)
-            for (MachineRow m : machines) {
-                if (m == null) continue;
-                if (isDrillType(m.typeId)) {
-                    GridPosition pos = new GridPosition(m.x, m.y, m.z);
-                    if (!resources.containsKey(new GridPosition(pos.x(), 0, pos.z()))) {
-                        errorLog.add("ERROR Plot " + plotId + ": Drill (ID " + m.id + ") placed on void at " + pos);
-                    }
-                }
-            }
+            Long stored = scan.stored().get(e.getKey());
+            if (full || stored == null || stored != checksum) toCheck.add(e.getKey());
         }
 
-        boolean hadOverlaps = toDeleteByPlot.values().stream().anyMatch(s -> s != null && !s.isEmpty());
-        if (hadOverlaps) {
-            printErrors(errorLog);
+        List<PlotResult> results = checkPlots(toCheck);
 
-            int deleted = 0;
-            int plotsFixed = 0;
-
-            for (var e : toDeleteByPlot.entrySet()) {
-                Long plotId = e.getKey();
-                Set<Long> ids = e.getValue();
-                if (ids == null || ids.isEmpty()) continue;
+        int overlaps = 0, healed = 0;
+        List<String> errorLog = new ArrayList<>();
+        Map<Long, Long> toStore = new HashMap<>();
+        for (PlotResult r : results) {
+            overlaps += r.overlaps();
+            healed += r.healed();
+            errorLog.addAll(r.errors());
+            if (!r.clean()) continue;
+
+            // A healed plot changed: store the checksum of what is in the DB now
+            Long checksum = (r.healed() > 0) ? plotChecksum(r.plotId(), registryFp) : checksums.get(r.plotId());
+            if (checksum != null) toStore.put(r.plotId(), checksum);
+        }
 
-                int d = healOverlapsInDb(plotId, ids);
-                if (d > 0) {
-                    deleted += d;
-                    plotsFixed++;
-                }
-            }
+        if (scan.storable()) storeChecksums(toStore);
 
-            System.out.println("[System] Self-Heal completed: deleted " + deleted + " corrupted rows across " + plotsFixed + " plots.");
-            System.out.println("[System] Re-validating after heal...");
+        long ms = (System.nanoTime() - t0) / 1_000_000L;
+        System.out.println("[INTEGRITY] plots=" + scan.sums().size()
+                + " checked=" + toCheck.size()
+                + " skipped=" + (scan.sums().size() - toCheck.size())
+                + " overlaps=" + overlaps
+                + " healed=" + healed
+                + " errors=" + errorLog.size()
+                + " in " + ms + "ms"
+                + (scan.storable() ? "" : " (no plots." + CHECKSUM_COLUMN + " column: incremental mode off)"));
 
-            return validateWorldIntegrityNoHeal();
+        if (healed > 0) {
+            System.out.println("[System] Self-Heal completed: deleted " + healed + " corrupted rows.");
         }
 
         if (errorLog.isEmpty()) {
@@ -107,37 +131,69 @@ public class WorldIntegrityValidator {
         return false;
     }
 
-    private boolean validateWorldIntegrityNoHeal() {
-        Map<Long, List<MachineRow>> machinesByPlot = loadAllMachines();
-        Map<Long, Map<GridPosition, MatterColor>> resourcesByPlot = loadAllResources();
+    // ==========================================================
+    // PER-PLOT CHECK (parallel)
+    // ==========================================================
 
-        List<String> errorLog = new ArrayList<>();
+    private List<PlotResult> checkPlots(List<Long> plotIds) {
+        if (plotIds.isEmpty()) return List.of();
 
-        for (var entry : machinesByPlot.entrySet()) {
-            Long plotId = entry.getKey();
-            List<MachineRow> machines = entry.getValue();
-            Map<GridPosition, MatterColor> resources = resourcesByPlot.getOrDefault(plotId, Collections.emptyMap());
+        // Bounded by the DB pool: each task holds one connection while it loads
+        int threads = Math.max(1, Math.min(Math.min(8, plotIds.size()), Runtime.getRuntime().availableProcessors()));
+        AtomicInteger seq = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "mw-integrity-" + seq.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
 
-            detectOverlaps(plotId, machines, errorLog, null);
+        try {
+            List<Future<PlotResult>> futures = new ArrayList<>(plotIds.size());
+            for (Long plotId : plotIds) {
+                futures.add(pool.submit(() -> checkPlot(plotId)));
+            }
 
-            for (MachineRow m : machines) {
-                if (m == null) continue;
-                if (isDrillType(m.typeId)) {
-                    GridPosition pos = new GridPosition(m.x, m.y, m.z);
-                    if (!resources.containsKey(new GridPosition(pos.x(), 0, pos.z()))) {
-                        errorLog.add("ERROR Plot " + plotId + ": Drill (ID " + m.id + ") placed on void at " + pos);
-                    }
+            List<PlotResult> results = new ArrayList<>(futures.size());
+            for (Future<PlotResult> f : futures) {
+                try {
+                    results.add(f.get());
+                } catch (Exception e) {
+                    e.printStackTrace();
                 }
             }
+            return results;
+        } finally {
+            pool.shutdown();
         }
+    }
 
-        if (errorLog.isEmpty()) {
-            System.out.println("[System] Integrity OK: 0 conflicts.");
-            return true;
+    private PlotResult checkPlot(long plotId) {
+        List<MachineRow> machines = loadPlotMachines(plotId);
+        Set<GridPosition> resources = loadPlotResources(plotId);
+
+        List<String> errors = new ArrayList<>();
+        Set<Long> toDelete = new LinkedHashSet<>();
+        detectOverlaps(plotId, machines, errors, toDelete);
+
+        int healed = 0;
+        if (!toDelete.isEmpty()) {
+            healed = healOverlapsInDb(plotId, toDelete);
+
+            // Re-validate after heal (no second heal)
+            errors.clear();
+            machines = loadPlotMachines(plotId);
+            detectOverlaps(plotId, machines, errors, null);
         }
 
-        printErrors(errorLog);
-        return false;
+        // Drill placed over void (legacy + new id)
+        for (MachineRow m : machines) {
+            if (isDrillType(m.typeId()) && !resources.contains(new GridPosition(m.x(), 0, m.z()))) {
+                errors.add("ERROR Plot " + plotId + ": Drill (ID " + m.id() + ") placed on void at "
+                        + new GridPosition(m.x(), m.y(), m.z()));
+            }
+        }
+
+        return new PlotResult(plotId, toDelete.size(), healed, errors, errors.isEmpty());
     }
 
     private boolean isDrillType(String typeId) {
@@ -146,79 +202,82 @@ public class WorldIntegrityValidator {
     }
 
     private void detectOverlaps(
-            Long plotId,
+            long plotId,
             List<MachineRow> machines,
             List<String> errorLog,
-            Map<Long, Set<Long>> toDeleteByPlot
+            Set<Long> toDelete
     ) {
         if (machines == null || machines.isEmpty()) return;
 
         // Policy: highest ID wins
         ArrayList<MachineRow> sorted = new ArrayList<>(machines);
-        sorted.sort(Comparator.comparingLong((MachineRow m) -> m.id).reversed());
+        sorted.sort(Comparator.comparingLong(MachineRow::id).reversed());
 
-        Map<GridPosition, Long> occupiedBy = new HashMap<>();
+        // Same bitmap the runtime uses: a clean footprint is a few word tests, no per-cell keys.
+        // Winners are only looked up (linear) for the rare conflicting row, to name them in the log.
+        int w = 1, d = 1;
+        for (MachineRow m : sorted) {
+            w = Math.max(w, m.x() + 4);
+            d = Math.max(d, m.z() + 4);
+        }
+        PlotOccupancy occ = new PlotOccupancy(w, d);
+        List<MachineRow> winners = new ArrayList<>();
 
         for (MachineRow m : sorted) {
-            if (m == null || m.typeId == null) continue;
+            if (m == null || m.typeId() == null) continue;
 
             Vector3Int dim = getOrientedDimensions(m);
-            boolean conflict = false;
-
-            for (int dx = 0; dx < dim.x(); dx++) {
-                for (int dy = 0; dy < dim.y(); dy++) {
-                    for (int dz = 0; dz < dim.z(); dz++) {
-                        GridPosition p = new GridPosition(m.x + dx, m.y + dy, m.z + dz);
-                        Long winnerId = occupiedBy.get(p);
-                        if (winnerId != null) {
-                            conflict = true;
-                            errorLog.add("WARN Plot " + plotId + ": Overlap at " + p + " between ID " + m.id + " and ID " + winnerId);
-                        }
-                    }
-                }
-            }
-
-            if (conflict) {
-                if (toDeleteByPlot != null) {
-                    toDeleteByPlot.computeIfAbsent(plotId, k -> new LinkedHashSet<>()).add(m.id);
-                }
+            if (occ.isClear(m.x(), m.y(), m.z(), dim.x(), dim.y(), dim.z())) {
+                occ.setBox(m.x(), m.y(), m.z(), dim.x(), dim.y(), dim.z());
+                winners.add(m);
                 continue;
             }
 
             for (int dx = 0; dx < dim.x(); dx++) {
                 for (int dy = 0; dy < dim.y(); dy++) {
                     for (int dz = 0; dz < dim.z(); dz++) {
-                        GridPosition p = new GridPosition(m.x + dx, m.y + dy, m.z + dz);
-                        occupiedBy.put(p, m.id);
+                        int x = m.x() + dx, y = m.y() + dy, z = m.z() + dz;
+                        if (!occ.isOccupied(x, y, z)) continue;
+                        long winnerId = findOwner(winners, x, y, z);
+                        errorLog.add("WARN Plot " + plotId + ": Overlap at " + new GridPosition(x, y, z)
+                                + " between ID " + m.id() + " and ID " + winnerId);
                     }
                 }
             }
+            if (toDelete != null) toDelete.add(m.id());
+        }
+    }
+
+    private long findOwner(List<MachineRow> winners, int x, int y, int z) {
+        for (MachineRow w : winners) {
+            Vector3Int dim = getOrientedDimensions(w);
+            if (x >= w.x() && x < w.x() + dim.x()
+                    && y >= w.y() && y < w.y() + dim.y()
+                    && z >= w.z() && z < w.z() + dim.z()) {
+                return w.id();
+            }
         }
+        return -1L;
     }
 
     private Vector3Int getOrientedDimensions(MachineRow m) {
         Vector3Int base;
         try {
-            base = registry.getDimensions(m.typeId);
+            base = registry.getDimensions(m.typeId());
             if (base == null) base = Vector3Int.one();
         } catch (Throwable t) {
             base = Vector3Int.one();
         }
 
-        Direction ori = readOrientation(m.meta);
-
+        Direction ori = m.orientation();
         if (ori == Direction.EAST || ori == Direction.WEST) {
             return new Vector3Int(base.z(), base.y(), base.x());
         }
         return base;
     }
 
-    private Direction readOrientation(JsonObject meta) {
+    private static Direction parseOrientation(String s) {
         try {
-            if (meta == null) return Direction.NORTH;
-            JsonElement el = meta.get("orientation");
-            if (el == null || el.isJsonNull()) return Direction.NORTH;
-            String s = el.getAsString();
             if (s == null || s.isBlank()) return Direction.NORTH;
             return Direction.valueOf(s.trim().toUpperCase(Locale.ROOT));
         } catch (Exception ignored) {
@@ -275,65 +334,182 @@ public class WorldIntegrityValidator {
         }
     }
 
-    private Map<Long, List<MachineRow>> loadAllMachines() {
-        Map<Long, List<MachineRow>> result = new HashMap<>();
-        String sql = "SELECT id, plot_id, x, y, z, type_id, metadata FROM plot_machines";
+    // ==========================================================
+    // CHECKSUMS
+    // ==========================================================
 
-        try (Connection conn = db.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql);
-             ResultSet rs = ps.executeQuery()) {
+    private static final String MACHINE_SUMS_SQL =
+            "SELECT plot_id, COUNT(*) AS n, " +
+                    "BIT_XOR(CRC32(CONCAT_WS(',', id, x, y, z, type_id, JSON_VALUE(metadata, '$.orientation')))) AS h " +
+                    "FROM plot_machines";
 
-            while (rs.next()) {
-                long id = rs.getLong("id");
-                long plotId = rs.getLong("plot_id");
-                int x = rs.getInt("x");
-                int y = rs.getInt("y");
-                int z = rs.getInt("z");
-                String typeId = rs.getString("type_id");
+    private static final String RESOURCE_SUMS_SQL =
+            "SELECT plot_id, COUNT(*) AS n, " +
+                    "BIT_XOR(CRC32(CONCAT_WS(',', x, z, resource_type))) AS h " +
+                    "FROM plot_resources";
 
-                String metaStr = rs.getString("metadata");
-                JsonObject meta = parseMeta(metaStr);
+    private ChecksumScan scanChecksums() {
+        Map<Long, long[]> machines = new HashMap<>();
+        Map<Long, long[]> resources = new HashMap<>();
+        Map<Long, Long> stored = new HashMap<>();
+        boolean storable = false;
 
-                MachineRow row = new MachineRow(id, plotId, x, y, z, typeId, meta);
-                result.computeIfAbsent(plotId, k -> new ArrayList<>()).add(row);
+        try (Connection conn = db.getConnection()) {
+            readSums(conn, MACHINE_SUMS_SQL + " GROUP BY plot_id", null, machines);
+            readSums(conn, RESOURCE_SUMS_SQL + " GROUP BY plot_id", null, resources);
+
+            storable = db.getSchema().hasColumn("plots", CHECKSUM_COLUMN);
+            if (storable) {
+                try (PreparedStatement ps = conn.prepareStatement("SELECT id, " + CHECKSUM_COLUMN + " FROM plots");
+                     ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        long v = rs.getLong(2);
+                        if (!rs.wasNull()) stored.put(rs.getLong(1), v);
+                    }
+                }
             }
-
         } catch (Exception e) {
-            e.printStackTrace();
+            System.err.println("[INTEGRITY] Checksum scan failed, validating every plot: " + e);
+            machines.clear();
+            for (Long plotId : loadPlotIdsWithMachines()) machines.put(plotId, new long[]{0L, 0L});
+            stored.clear();
+            storable = false;
         }
 
-        return result;
+        Map<Long, PlotSums> sums = new HashMap<>(machines.size() * 2);
+        for (var e : machines.entrySet()) {
+            long[] m = e.getValue();
+            long[] r = resources.getOrDefault(e.getKey(), new long[]{0L, 0L});
+            sums.put(e.getKey(), new PlotSums(m[0], m[1], r[0], r[1]));
+        }
+        return new ChecksumScan(sums, stored, storable);
     }
 
-    private JsonObject parseMeta(String jsonString) {
-        if (jsonString == null || jsonString.isEmpty()) return new JsonObject();
-        try {
-            return JsonParser.parseString(jsonString).getAsJsonObject();
+    /** Checksum of one plot as it is in the DB now (after a heal). */
+    private Long plotChecksum(long plotId, long registryFp) {
+        Map<Long, long[]> m = new HashMap<>();
+        Map<Long, long[]> r = new HashMap<>();
+        try (Connection conn = db.getConnection()) {
+            readSums(conn, MACHINE_SUMS_SQL + " WHERE plot_id = ? GROUP BY plot_id", plotId, m);
+            readSums(conn, RESOURCE_SUMS_SQL + " WHERE plot_id = ? GROUP BY plot_id", plotId, r);
         } catch (Exception e) {
-            System.err.println("[System] ERROR parsing plot_machines.metadata JSON: " + e.getMessage());
-            return new JsonObject();
+            return null;
         }
+        long[] ms = m.getOrDefault(plotId, new long[]{0L, 0L});
+        long[] rs = r.getOrDefault(plotId, new long[]{0L, 0L});
+        return mix(new PlotSums(ms[0], ms[1], rs[0], rs[1]), registryFp);
     }
 
-    private Map<Long, Map<GridPosition, MatterColor>> loadAllResources() {
-        Map<Long, Map<GridPosition, MatterColor>> result = new HashMap<>();
-        String sql = "SELECT plot_id, x, z, resource_type FROM plot_resources";
+    private static void readSums(Connection conn, String sql, Long plotId, Map<Long, long[]> out) throws Exception {
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            if (plotId != null) ps.setLong(1, plotId);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    out.put(rs.getLong("plot_id"), new long[]{rs.getLong("n"), rs.getLong("h")});
+                }
+            }
+        }
+    }
 
+    private void storeChecksums(Map<Long, Long> checksums) {
+        if (checksums.isEmpty()) return;
+
+        String sql = "UPDATE plots SET " + CHECKSUM_COLUMN + " = ? WHERE id = ?";
         try (Connection conn = db.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql);
-             ResultSet rs = ps.executeQuery()) {
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            for (var e : checksums.entrySet()) {
+                ps.setLong(1, e.getValue());
+                ps.setLong(2, e.getKey());
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        } catch (Exception e) {
+            System.err.println("[INTEGRITY] Storing plot checksums failed (next boot re-validates): " + e);
+        }
+    }
 
-            while (rs.next()) {
-                long pid = rs.getLong("plot_id");
-                GridPosition pos = new GridPosition(rs.getInt("x"), 0, rs.getInt("z"));
-                MatterColor color = MatterColor.valueOf(rs.getString("resource_type"));
-                result.computeIfAbsent(pid, k -> new HashMap<>()).put(pos, color);
+    /** Footprints depend on the block dimensions: a definition change re-validates every plot. */
+    private long registryFingerprint() {
+        List<String> ids = new ArrayList<>(registry.getAllBlockIds());
+        Collections.sort(ids);
+
+        long h = 1125899906842597L;
+        for (String id : ids) {
+            Vector3Int d = registry.getDimensions(id);
+            h = 31 * h + id.hashCode();
+            h = 31 * h + (d == null ? 0 : (d.x() * 961 + d.y() * 31 + d.z()));
+        }
+        return h;
+    }
+
+    private static long mix(PlotSums s, long registryFp) {
+        long h = registryFp;
+        h = h * 0x9E3779B97F4A7C15L + s.machines();
+        h = h * 0x9E3779B97F4A7C15L + s.machineXor();
+        h = h * 0x9E3779B97F4A7C15L + s.resources();
+        h = h * 0x9E3779B97F4A7C15L + s.resourceXor();
+        return h ^ (h >>> 31);
+    }
+
+    // ==========================================================
+    // PER-PLOT LOADS
+    // ==========================================================
+
+    private List<MachineRow> loadPlotMachines(long plotId) {
+        List<MachineRow> result = new ArrayList<>();
+        String sql = "SELECT id, x, y, z, type_id, JSON_VALUE(metadata, '$.orientation') AS orientation " +
+                "FROM plot_machines WHERE plot_id = ?";
+
+        try (Connection conn = db.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setLong(1, plotId);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    result.add(new MachineRow(
+                            rs.getLong("id"),
+                            rs.getInt("x"),
+                            rs.getInt("y"),
+                            rs.getInt("z"),
+                            rs.getString("type_id"),
+                            parseOrientation(rs.getString("orientation"))
+                    ));
+                }
             }
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+
+        return result;
+    }
+
+    private Set<GridPosition> loadPlotResources(long plotId) {
+        Set<GridPosition> result = new HashSet<>();
+        String sql = "SELECT x, z FROM plot_resources WHERE plot_id = ?";
 
+        try (Connection conn = db.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setLong(1, plotId);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    result.add(new GridPosition(rs.getInt("x"), 0, rs.getInt("z")));
+                }
+            }
         } catch (Exception e) {
             e.printStackTrace();
         }
 
         return result;
     }
+
+    private List<Long> loadPlotIdsWithMachines() {
+        List<Long> ids = new ArrayList<>();
+        try (Connection conn = db.getConnection();
+             PreparedStatement ps = conn.prepareStatement("SELECT DISTINCT plot_id FROM plot_machines");
+             ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) ids.add(rs.getLong(1));
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+        return ids;
+    }
 }
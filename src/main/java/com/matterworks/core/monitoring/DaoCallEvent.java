@@ -0,0 +1,46 @@
+package com.matterworks.core.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * One DAO call = one pooled connection lease (getConnection() .. close()).
+ * Recorded by InstrumentedConnection (DatabaseManager); pool wait precedes the event window.
+ */
+@Name("matterworks.DaoCall")
+@Label("DAO Call")
+@Category({"MatterWorks", "Persistence"})
+@Description("Connection lease of one DAO method")
+@StackTrace(false)
+public final class DaoCallEvent extends jdk.jfr.Event {
+
+    @Label("DAO")
+    public String dao;
+
+    @Label("Operation")
+    public String operation;
+
+    @Label("Pool Wait")
+    @Timespan(Timespan.NANOSECONDS)
+    public long poolWait;
+
+    @Label("Statements")
+    public int statements;
+
+    @Label("Rows")
+    @Description("Update counts + rows read")
+    public long rows;
+
+    @Label("Bytes Bound")
+    @Description("String / byte[] parameter payload")
+    @DataAmount
+    public long bytes;
+
+    @Label("Failed")
+    public boolean failed;
+}
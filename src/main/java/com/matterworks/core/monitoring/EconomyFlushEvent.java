@@ -0,0 +1,28 @@
+package com.matterworks.core.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/** One AsyncEconomyWriter flush on "mw-economy-writer". */
+@Name("matterworks.EconomyFlush")
+@Label("Economy Flush")
+@Category({"MatterWorks", "Persistence"})
+@StackTrace(false)
+public final class EconomyFlushEvent extends jdk.jfr.Event {
+
+    @Label("Profile Rows")
+    public int profileRows;
+
+    @Label("Profiles Skipped")
+    public int profilesSkipped;
+
+    @Label("Transaction Rows")
+    public int transactionRows;
+
+    @Label("Persistence Lag")
+    @Timespan(Timespan.MILLISECONDS)
+    public long lag;
+}
@@ -0,0 +1,164 @@
+package com.matterworks.core.monitoring;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.SimpleDateFormat;
+import java.time.Duration;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Continuous, low-overhead JFR recording of the server.
+ *
+ * - Settings = JDK "default" profile + the shipped matterworks.jfc (MatterWorks events,
+ *   tighter lock/park thresholds, safepoints). Same thing from the command line:
+ *   -XX:StartFlightRecording:settings=default,settings=src/main/resources/matterworks.jfc
+ * - The recording is a disk ring buffer (maxAge / maxSize): nothing is written to jfr/
+ *   until FactoryLoop reports a slow tick, then the last minutes are dumped once
+ *   (rate-limited by a cooldown) on a background thread.
+ *
+ * Tunables:
+ * -Dmw.jfr=false                  disable the continuous recording
+ * -Dmw.jfr.settings=path.jfc      use another .jfc instead of the shipped one
+ * -Dmw.jfr.maxAgeMinutes=10
+ * -Dmw.jfr.maxSizeMb=128
+ * -Dmw.jfr.dumpDir=jfr
+ * -Dmw.jfr.dumpCooldownMs=60000
+ */
+public final class FlightRecorderSupport {
+
+    private FlightRecorderSupport() {}
+
+    private static final String SHIPPED_SETTINGS = "/matterworks.jfc";
+
+    private static final boolean ENABLED =
+            !"false".equalsIgnoreCase(System.getProperty("mw.jfr", "true"));
+
+    private static final long DUMP_COOLDOWN_MS =
+            Math.max(1_000L, Long.getLong("mw.jfr.dumpCooldownMs", 60_000L));
+
+    private static volatile Recording recording;
+    private static volatile ExecutorService dumper;
+    private static volatile long lastDumpMs = 0L;
+
+    public static synchronized void start() {
+        if (!ENABLED || recording != null) return;
+
+        try {
+            if (!FlightRecorder.isAvailable()) {
+                System.out.println("[JFR] Flight Recorder not available on this JVM");
+                return;
+            }
+
+            Map<String, String> settings = new HashMap<>(Configuration.getConfiguration("default").getSettings());
+            settings.putAll(loadSettings().getSettings());
+
+            Recording r = new Recording(settings);
+            r.setName("matterworks-continuous");
+            r.setToDisk(true);
+            r.setMaxAge(Duration.ofMinutes(Math.max(1L, Long.getLong("mw.jfr.maxAgeMinutes", 10L))));
+            r.setMaxSize(Math.max(8L, Long.getLong("mw.jfr.maxSizeMb", 128L)) * 1024L * 1024L);
+            r.start();
+            recording = r;
+
+            dumper = Executors.newSingleThreadExecutor(t -> {
+                Thread th = new Thread(t, "mw-jfr-dump");
+                th.setDaemon(true);
+                return th;
+            });
+
+            System.out.println("[JFR] Continuous recording started (slow ticks dump to "
+                    + dumpDir().toAbsolutePath() + ")");
+        } catch (Throwable t) {
+            System.err.println("[JFR] Could not start continuous recording: " + t);
+        }
+    }
+
+    private static Configuration loadSettings() throws Exception {
+        String custom = System.getProperty("mw.jfr.settings");
+        if (custom != null && !custom.isBlank()) {
+            return Configuration.create(Path.of(custom));
+        }
+
+        InputStream in = FlightRecorderSupport.class.getResourceAsStream(SHIPPED_SETTINGS);
+        if (in == null) throw new IllegalStateException("missing resource " + SHIPPED_SETTINGS);
+        try (Reader reader = new InputStreamReader(in, StandardCharsets.UTF_8)) {
+            return Configuration.create(reader);
+        }
+    }
+
+    private static Path dumpDir() {
+        return Path.of(System.getProperty("mw.jfr.dumpDir", "jfr"));
+    }
+
+    /**
+     * Called by FactoryLoop when a tick exceeded its threshold.
+     * Cheap on the loop thread: the dump itself runs on "mw-jfr-dump".
+     */
+    public static void onSlowTick(long tick, long tickMs, long thresholdMs) {
+        Recording r = recording;
+        boolean dump = false;
+
+        long now = System.currentTimeMillis();
+        if (r != null && now - lastDumpMs >= DUMP_COOLDOWN_MS) {
+            lastDumpMs = now;
+            dump = true;
+        }
+
+        SlowTickEvent e = new SlowTickEvent();
+        e.tick = tick;
+        e.tickTime = tickMs;
+        e.threshold = thresholdMs;
+        e.dumped = dump;
+        e.commit();
+
+        if (!dump) return;
+
+        try {
+            dumper.execute(() -> dump(r, tick, tickMs));
+        } catch (Throwable ignored) {
+            // stopped
+        }
+    }
+
+    private static void dump(Recording r, long tick, long tickMs) {
+        try {
+            Path dir = dumpDir();
+            Files.createDirectories(dir);
+
+            String stamp = new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date());
+            Path file = dir.resolve("slow-tick-" + stamp + "-t" + tick + ".jfr");
+            r.dump(file);
+
+            System.out.println("[JFR] Slow tick " + tick + " (" + tickMs + "ms) -> " + file);
+        } catch (Throwable t) {
+            System.err.println("[JFR] Dump failed: " + t);
+        }
+    }
+
+    public static synchronized void stop() {
+        Recording r = recording;
+        recording = null;
+
+        ExecutorService d = dumper;
+        dumper = null;
+        if (d != null) d.shutdown();
+
+        if (r != null) {
+            try {
+                r.close();
+            } catch (Throwable ignored) {}
+        }
+    }
+}
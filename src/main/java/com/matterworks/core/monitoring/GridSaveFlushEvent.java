@@ -0,0 +1,23 @@
+package com.matterworks.core.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/** One GridSaverService flush run on "mw-grid-saver". */
+@Name("matterworks.GridSaveFlush")
+@Label("Grid Save Flush")
+@Category({"MatterWorks", "Persistence"})
+@StackTrace(false)
+public final class GridSaveFlushEvent extends jdk.jfr.Event {
+
+    @Label("Plots Saved")
+    public int saved;
+
+    @Label("Plots Failed")
+    public int failed;
+
+    @Label("Queued After")
+    public int queued;
+}
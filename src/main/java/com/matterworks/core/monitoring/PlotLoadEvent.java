@@ -0,0 +1,26 @@
+package com.matterworks.core.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/** GridWorldService.loadPlotSynchronously: DB reads + machine construction of one plot. */
+@Name("matterworks.PlotLoad")
+@Label("Plot Load")
+@Category({"MatterWorks", "Persistence"})
+@StackTrace(false)
+public final class PlotLoadEvent extends jdk.jfr.Event {
+
+    @Label("Plot Owner")
+    public String plotOwner;
+
+    @Label("Machines")
+    public int machines;
+
+    @Label("Resource Cells")
+    public int resources;
+
+    @Label("Success")
+    public boolean success;
+}
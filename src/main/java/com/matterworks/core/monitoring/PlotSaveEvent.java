@@ -0,0 +1,23 @@
+package com.matterworks.core.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/** GridSaverService: metadata write of the dirty machines of one plot. */
+@Name("matterworks.PlotSave")
+@Label("Plot Save")
+@Category({"MatterWorks", "Persistence"})
+@StackTrace(false)
+public final class PlotSaveEvent extends jdk.jfr.Event {
+
+    @Label("Plot Owner")
+    public String plotOwner;
+
+    @Label("Rows")
+    public int rows;
+
+    @Label("Result")
+    public String result;
+}
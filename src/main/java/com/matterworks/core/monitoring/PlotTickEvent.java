@@ -0,0 +1,34 @@
+package com.matterworks.core.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Time one plot took inside a world tick.
+ * Machines of different plots are interleaved in the tick passes, so the slice is the
+ * sum of the per-machine times (see PlotTickSlices) instead of a begin()/end() window.
+ */
+@Name("matterworks.PlotTick")
+@Label("Plot Tick Slice")
+@Category({"MatterWorks", "Simulation"})
+@Description("Accumulated tick time of one plot in one world tick")
+@StackTrace(false)
+public final class PlotTickEvent extends jdk.jfr.Event {
+
+    @Label("Tick")
+    public long tick;
+
+    @Label("Plot Owner")
+    public String plotOwner;
+
+    @Label("Machines")
+    public int machines;
+
+    @Label("Tick Time")
+    @Timespan(Timespan.NANOSECONDS)
+    public long tickTime;
+}
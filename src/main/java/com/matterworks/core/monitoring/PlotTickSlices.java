@@ -0,0 +1,78 @@
+package com.matterworks.core.monitoring;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.UUID;
+
+/**
+ * Per-plot accumulator of machine tick time, emitted as PlotTickEvent once per world tick.
+ *
+ * PERFORMANCE:
+ * - begin() checks whether PlotTickEvent is enabled; when it is not, the tick loop does not
+ *   time machines at all (zero overhead without a recording).
+ * - Slices are reused across ticks: no allocation per machine or per tick once warmed up.
+ * - Slices shorter than -Dmw.jfr.plotSliceMinMicros (default 50) are not committed.
+ *
+ * THREADING NOTES:
+ * - Tick thread only.
+ */
+public final class PlotTickSlices {
+
+    private static final long MIN_SLICE_NS =
+            Math.max(0L, Long.getLong("mw.jfr.plotSliceMinMicros", 50L)) * 1_000L;
+
+    private static final class Slice {
+        final String owner;
+        long nanos;
+        int machines;
+
+        Slice(UUID owner) {
+            this.owner = owner.toString();
+        }
+    }
+
+    private final HashMap<UUID, Slice> slices = new HashMap<>();
+    private boolean active;
+
+    /** @return true if machines should be timed during this tick */
+    public boolean begin() {
+        active = new PlotTickEvent().isEnabled();
+        if (!active) slices.clear();
+        return active;
+    }
+
+    public void add(UUID owner, long nanos, boolean countMachine) {
+        if (!active || owner == null) return;
+        Slice s = slices.get(owner);
+        if (s == null) {
+            s = new Slice(owner);
+            slices.put(owner, s);
+        }
+        s.nanos += nanos;
+        if (countMachine) s.machines++;
+    }
+
+    public void commit(long tick) {
+        if (!active) return;
+        active = false;
+
+        for (Iterator<Slice> it = slices.values().iterator(); it.hasNext(); ) {
+            Slice s = it.next();
+            if (s.machines == 0 && s.nanos == 0L) {
+                it.remove(); // plot not ticking anymore (unloaded / sleeping)
+                continue;
+            }
+
+            if (s.nanos >= MIN_SLICE_NS) {
+                PlotTickEvent e = new PlotTickEvent();
+                e.tick = tick;
+                e.plotOwner = s.owner;
+                e.machines = s.machines;
+                e.tickTime = s.nanos;
+                e.commit();
+            }
+            s.nanos = 0L;
+            s.machines = 0;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.matterworks.core.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/** A FactoryLoop tick over the slow-tick threshold (marker to jump to in JMC). */
+@Name("matterworks.SlowTick")
+@Label("Slow Tick")
+@Category({"MatterWorks", "Simulation"})
+@StackTrace(false)
+public final class SlowTickEvent extends jdk.jfr.Event {
+
+    @Label("Tick")
+    public long tick;
+
+    @Label("Tick Time")
+    @Timespan(Timespan.MILLISECONDS)
+    public long tickTime;
+
+    @Label("Threshold")
+    @Timespan(Timespan.MILLISECONDS)
+    public long threshold;
+
+    @Label("Recording Dumped")
+    public boolean dumped;
+}
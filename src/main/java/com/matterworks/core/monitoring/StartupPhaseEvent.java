@@ -0,0 +1,25 @@
+package com.matterworks.core.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/** StartupGraph: one boot phase (duration = run time, offset = start since boot). */
+@Name("matterworks.StartupPhase")
+@Label("Startup Phase")
+@Category({"MatterWorks", "Startup"})
+@StackTrace(false)
+public final class StartupPhaseEvent extends jdk.jfr.Event {
+
+    @Label("Phase")
+    public String phase;
+
+    @Label("Start Offset")
+    @Timespan(Timespan.NANOSECONDS)
+    public long startOffset;
+
+    @Label("Success")
+    public boolean success;
+}
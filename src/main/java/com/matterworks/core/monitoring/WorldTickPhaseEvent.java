@@ -0,0 +1,45 @@
+package com.matterworks.core.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One pass of GridWorldService.tick (sweep, logistics, belt retry, machines).
+ * Duration = begin()/end() of the pass, so JFR thresholds apply.
+ */
+@Name("matterworks.WorldTickPhase")
+@Label("World Tick Phase")
+@Category({"MatterWorks", "Simulation"})
+@Description("One pass of the world tick")
+@StackTrace(false)
+public final class WorldTickPhaseEvent extends jdk.jfr.Event {
+
+    @Label("Tick")
+    public long tick;
+
+    @Label("Phase")
+    public String phase;
+
+    @Label("Machines")
+    @Description("Ticking machines when the pass started")
+    public int machines;
+
+    /** Begins a phase event (cheap no-op when the event is disabled). */
+    public static WorldTickPhaseEvent start() {
+        WorldTickPhaseEvent e = new WorldTickPhaseEvent();
+        e.begin();
+        return e;
+    }
+
+    public void finish(long tick, String phase, int machines) {
+        end();
+        if (!shouldCommit()) return;
+        this.tick = tick;
+        this.phase = phase;
+        this.machines = machines;
+        commit();
+    }
+}
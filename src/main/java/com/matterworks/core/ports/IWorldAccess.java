@@ -12,4 +12,32 @@ public interface IWorldAccess {
     boolean isBlockSolid(GridPosition pos);
     void createVisuals(GridPosition pos, String visualId);
     Vector3Int fetchExternalBlockDimensions(String blockId);
-}
\ No newline at end of file
+
+    /**
+     * Opt-in for the per-tick visual sync (items on belts, processor animations).
+     * Off by default: adapters that render nothing (MockWorld, headless runs) cost no
+     * visual work on the tick thread.
+     */
+    default boolean wantsVisualSync() { return false; }
+
+    /**
+     * Visual changes of one plot for one tick (coalesced, delta-encoded), every kind included.
+     * A real adapter should ship the frame as ONE packet; the default replays the changes one
+     * call at a time: BLOCK / VISUAL here, ANIMATION / PARTICLE through IMachineVisuals when
+     * the adapter implements it (dropped otherwise, as in direct mode).
+     */
+    default void applyVisualFrame(VisualFrame frame) {
+        IMachineVisuals mv = (this instanceof IMachineVisuals v) ? v : null;
+        frame.forEach((kind, pos, value) -> {
+            switch (kind) {
+                case BLOCK -> setBlock(pos, value);
+                case VISUAL -> createVisuals(pos, value);
+                case ANIMATION -> { if (mv != null) mv.playAnimation(value); }
+                case PARTICLE -> { if (mv != null) mv.spawnParticle(value); }
+            }
+        });
+    }
+
+    /** Called once per tick after every frame of that tick was delivered (also in direct mode). */
+    default void endVisualTick(long tick) { }
+}
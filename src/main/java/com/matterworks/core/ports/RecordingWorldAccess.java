@@ -0,0 +1,127 @@
+package com.matterworks.core.ports;
+
+import com.matterworks.core.common.GridPosition;
+import com.matterworks.core.common.Vector3Int;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-process adapter that measures the visual traffic crossing the ports.
+ *
+ * Wraps the real IWorldAccess (every call is forwarded) and counts, per tick:
+ * - calls: port invocations (one per change in direct mode, one per plot frame in batch mode)
+ * - bytes: frame size in batch mode; in direct mode a per-call packet estimate
+ *   (opcode + 3 int coordinates + length-prefixed UTF-8 id)
+ * - changes: visual changes delivered
+ *
+ * Compare -Dmw.visuals=direct and -Dmw.visuals=batch with -Dmw.visuals.record=true.
+ * Report period (ticks) can be changed via:
+ * -Dmw.visuals.reportTicks=200
+ */
+public final class RecordingWorldAccess implements IWorldAccess, IMachineVisuals {
+
+    private static final int CALL_HEADER_BYTES = 1 + 3 * 4 + 2;
+
+    public record Stats(long ticks, long calls, long bytes, long changes) {
+        public double callsPerTick() { return ticks == 0 ? 0.0 : (double) calls / ticks; }
+        public double bytesPerTick() { return ticks == 0 ? 0.0 : (double) bytes / ticks; }
+        public double changesPerTick() { return ticks == 0 ? 0.0 : (double) changes / ticks; }
+    }
+
+    private final IWorldAccess delegate;
+    private final long reportTicks;
+
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder bytes = new LongAdder();
+    private final LongAdder changes = new LongAdder();
+    private final AtomicLong ticks = new AtomicLong();
+
+    public RecordingWorldAccess(IWorldAccess delegate) {
+        this.delegate = delegate;
+        this.reportTicks = Math.max(1L, Long.getLong("mw.visuals.reportTicks", 200L));
+    }
+
+    private void countCall(String id) {
+        calls.increment();
+        changes.increment();
+        bytes.add(CALL_HEADER_BYTES + (id == null ? 0 : id.getBytes(StandardCharsets.UTF_8).length));
+    }
+
+    // ==========================================================
+    // PER-CALL PORTS (direct mode)
+    // ==========================================================
+
+    @Override
+    public void setBlock(GridPosition pos, String blockId) {
+        countCall(blockId);
+        if (delegate != null) delegate.setBlock(pos, blockId);
+    }
+
+    @Override
+    public void createVisuals(GridPosition pos, String visualId) {
+        countCall(visualId);
+        if (delegate != null) delegate.createVisuals(pos, visualId);
+    }
+
+    @Override
+    public void playAnimation(String animationName) {
+        countCall(animationName);
+        if (delegate instanceof IMachineVisuals mv) mv.playAnimation(animationName);
+    }
+
+    @Override
+    public void spawnParticle(String particleId) {
+        countCall(particleId);
+        if (delegate instanceof IMachineVisuals mv) mv.spawnParticle(particleId);
+    }
+
+    /** Measuring is the point of this adapter: it always takes the visual sync. */
+    @Override
+    public boolean wantsVisualSync() {
+        return true;
+    }
+
+    @Override
+    public boolean isBlockSolid(GridPosition pos) {
+        return delegate == null || delegate.isBlockSolid(pos);
+    }
+
+    @Override
+    public Vector3Int fetchExternalBlockDimensions(String blockId) {
+        return (delegate != null) ? delegate.fetchExternalBlockDimensions(blockId) : Vector3Int.one();
+    }
+
+    // ==========================================================
+    // BATCH PORTS
+    // ==========================================================
+
+    /** One frame carries every kind (animations included) and is counted once. */
+    @Override
+    public void applyVisualFrame(VisualFrame frame) {
+        calls.increment();
+        bytes.add(frame.sizeBytes());
+        changes.add(frame.changeCount());
+        if (delegate != null) delegate.applyVisualFrame(frame);
+    }
+
+    @Override
+    public void endVisualTick(long tick) {
+        if (delegate != null) delegate.endVisualTick(tick);
+
+        if (ticks.incrementAndGet() % reportTicks == 0) {
+            Stats s = snapshotAndReset();
+            System.out.println("[VISUALS] ticks=" + s.ticks()
+                    + " calls/tick=" + String.format("%.1f", s.callsPerTick())
+                    + " bytes/tick=" + String.format("%.1f", s.bytesPerTick())
+                    + " changes/tick=" + String.format("%.1f", s.changesPerTick()));
+        }
+    }
+
+    /** Counters since the previous snapshot. */
+    public Stats snapshotAndReset() {
+        long t = ticks.getAndSet(0L);
+        return new Stats(t, calls.sumThenReset(), bytes.sumThenReset(), changes.sumThenReset());
+    }
+}
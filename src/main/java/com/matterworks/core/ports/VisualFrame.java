@@ -0,0 +1,204 @@
+package com.matterworks.core.ports;
+
+import com.matterworks.core.common.GridPosition;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Visual changes of ONE plot collected during ONE tick, encoded as a compact binary frame.
+ *
+ * Layout (all integers are unsigned LEB128 varints, coordinates zig-zag encoded):
+ * - format byte, tick
+ * - string table: count, then (length, UTF-8 bytes) per distinct id
+ * - changes: count, then (kind, dx, dy, dz, string index) per change
+ *
+ * Changes are sorted by (y, z, x) and every position is a delta from the previous one,
+ * so a row of belts costs ~5 bytes per change instead of a full packet.
+ *
+ * The frame is immutable: adapters may keep it or hand the bytes to another thread.
+ */
+public final class VisualFrame {
+
+    public static final int FORMAT = 1;
+
+    public enum Kind {
+        /** IWorldAccess.setBlock */
+        BLOCK,
+        /** IWorldAccess.createVisuals (state visual: "" clears it) */
+        VISUAL,
+        /** IMachineVisuals.playAnimation */
+        ANIMATION,
+        /** IMachineVisuals.spawnParticle */
+        PARTICLE;
+
+        private static final Kind[] VALUES = values();
+    }
+
+    public record Change(Kind kind, GridPosition pos, String value) {}
+
+    @FunctionalInterface
+    public interface Visitor {
+        void change(Kind kind, GridPosition pos, String value);
+    }
+
+    private final UUID owner;
+    private final long tick;
+    private final int changeCount;
+    private final byte[] data;
+
+    private VisualFrame(UUID owner, long tick, int changeCount, byte[] data) {
+        this.owner = owner;
+        this.tick = tick;
+        this.changeCount = changeCount;
+        this.data = data;
+    }
+
+    public UUID owner() { return owner; }
+    public long tick() { return tick; }
+    public int changeCount() { return changeCount; }
+    public int sizeBytes() { return data.length; }
+
+    /** Read-only view of the encoded frame. */
+    public ByteBuffer bytes() {
+        return ByteBuffer.wrap(data).asReadOnlyBuffer();
+    }
+
+    // ==========================================================
+    // ENCODE
+    // ==========================================================
+
+    /** Encodes changes already sorted by (y, z, x) (any order is valid, sorted is smaller). */
+    public static VisualFrame encode(UUID owner, long tick, List<Change> changes) {
+        Map<String, Integer> index = new HashMap<>();
+        String[] table = new String[Math.max(4, changes.size())];
+        int[] refs = new int[changes.size()];
+
+        for (int i = 0; i < changes.size(); i++) {
+            String v = changes.get(i).value();
+            if (v == null) v = "";
+            Integer idx = index.get(v);
+            if (idx == null) {
+                idx = index.size();
+                index.put(v, idx);
+                table[idx] = v;
+            }
+            refs[i] = idx;
+        }
+
+        Writer w = new Writer(16 + changes.size() * 6);
+        w.put(FORMAT);
+        w.varLong(tick);
+
+        w.varLong(index.size());
+        for (int i = 0; i < index.size(); i++) {
+            byte[] utf8 = table[i].getBytes(StandardCharsets.UTF_8);
+            w.varLong(utf8.length);
+            w.bytes(utf8);
+        }
+
+        w.varLong(changes.size());
+        int px = 0, py = 0, pz = 0;
+        for (int i = 0; i < changes.size(); i++) {
+            Change c = changes.get(i);
+            GridPosition p = c.pos();
+            w.put(c.kind().ordinal());
+            w.zigZag(p.x() - px);
+            w.zigZag(p.y() - py);
+            w.zigZag(p.z() - pz);
+            w.varLong(refs[i]);
+            px = p.x();
+            py = p.y();
+            pz = p.z();
+        }
+
+        return new VisualFrame(owner, tick, changes.size(), w.toArray());
+    }
+
+    // ==========================================================
+    // DECODE
+    // ==========================================================
+
+    public void forEach(Visitor visitor) {
+        ByteBuffer in = ByteBuffer.wrap(data);
+
+        int format = in.get() & 0xFF;
+        if (format != FORMAT) throw new IllegalStateException("Unknown visual frame format " + format);
+        readVarLong(in); // tick (also kept in the header fields)
+
+        String[] table = new String[(int) readVarLong(in)];
+        for (int i = 0; i < table.length; i++) {
+            byte[] utf8 = new byte[(int) readVarLong(in)];
+            in.get(utf8);
+            table[i] = new String(utf8, StandardCharsets.UTF_8);
+        }
+
+        long count = readVarLong(in);
+        int x = 0, y = 0, z = 0;
+        for (long i = 0; i < count; i++) {
+            Kind kind = Kind.VALUES[in.get() & 0xFF];
+            x += readZigZag(in);
+            y += readZigZag(in);
+            z += readZigZag(in);
+            String value = table[(int) readVarLong(in)];
+            visitor.change(kind, new GridPosition(x, y, z), value);
+        }
+    }
+
+    private static long readVarLong(ByteBuffer in) {
+        long v = 0;
+        int shift = 0;
+        while (true) {
+            byte b = in.get();
+            v |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return v;
+            shift += 7;
+        }
+    }
+
+    private static int readZigZag(ByteBuffer in) {
+        long v = readVarLong(in);
+        return (int) ((v >>> 1) ^ -(v & 1));
+    }
+
+    private static final class Writer {
+        private byte[] buf;
+        private int size;
+
+        Writer(int capacity) {
+            this.buf = new byte[Math.max(16, capacity)];
+        }
+
+        void put(int b) {
+            if (size == buf.length) buf = Arrays.copyOf(buf, buf.length * 2);
+            buf[size++] = (byte) b;
+        }
+
+        void bytes(byte[] b) {
+            if (size + b.length > buf.length) buf = Arrays.copyOf(buf, Math.max(buf.length * 2, size + b.length));
+            System.arraycopy(b, 0, buf, size, b.length);
+            size += b.length;
+        }
+
+        void varLong(long v) {
+            while ((v & ~0x7FL) != 0) {
+                put((int) ((v & 0x7F) | 0x80));
+                v >>>= 7;
+            }
+            put((int) v);
+        }
+
+        void zigZag(int v) {
+            varLong(((v << 1) ^ (v >> 31)) & 0xFFFFFFFFL);
+        }
+
+        byte[] toArray() {
+            return Arrays.copyOf(buf, size);
+        }
+    }
+}
@@ -1,17 +1,27 @@
 package com.matterworks.core.synchronization;
 
 import com.matterworks.core.managers.GridManager;
+import com.matterworks.core.monitoring.FlightRecorderSupport;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
 
 public class FactoryLoop {
 
+    /** Name of the simulation thread (JdbcGuard keys on it). */
+    public static final String THREAD_NAME = "mw-factory-loop";
+
     private final GridManager gridManager;
     private final AtomicLong currentTick = new AtomicLong(0);
 
     private volatile boolean running = false;
-    private Thread loopThread;
+    private Thread loopThread; // guarded by betweenTicks for start / stop / runBetweenTicks
+
+    // Tasks that need the world quiet (e.g. checkpoint), run by the loop thread between two ticks
+    private final ConcurrentLinkedQueue<Runnable> betweenTicks = new ConcurrentLinkedQueue<>();
 
     // Target simulation rate
     private static final int TARGET_TPS = 20;
@@ -20,6 +30,13 @@ public class FactoryLoop {
     // Avoid spiral-of-death if the server is heavily overloaded
     private static final int MAX_CATCHUP_TICKS_PER_FRAME = 5;
 
+    // Ticks slower than this commit a SlowTickEvent and dump the continuous JFR recording
+    // (-Dmw.jfr.slowTickMs=100)
+    private static final long SLOW_TICK_MS = Math.max(1L, Long.getLong("mw.jfr.slowTickMs", 100L));
+
+    // Smoothed tick duration (EWMA, ~1s window), read by the cluster lease balancer
+    private volatile double avgTickMs = 0.0;
+
     // Lightweight stats (optional)
     private long statsLastPrintNs = 0L;
     private long statsTickCounter = 0L;
@@ -30,12 +47,14 @@ public class FactoryLoop {
     }
 
     public void start() {
-        if (running) return;
-        running = true;
+        synchronized (betweenTicks) {
+            if (running) return;
+            running = true;
 
-        loopThread = new Thread(this::runLoop, "mw-factory-loop");
-        loopThread.setDaemon(true);
-        loopThread.start();
+            loopThread = new Thread(this::runLoop, THREAD_NAME);
+            loopThread.setDaemon(true);
+            loopThread.start();
+        }
 
         System.out.println("🏭 Factory Loop Started. targetTPS=" + TARGET_TPS);
     }
@@ -48,6 +67,8 @@ public class FactoryLoop {
         statsTickCounter = 0;
 
         while (running) {
+            runBetweenTicksTasks();
+
             long now = System.nanoTime();
 
             // Sleep/park until the next tick if we're ahead of schedule
@@ -60,6 +81,8 @@ public class FactoryLoop {
             int catchUp = 0;
             while (running && now >= nextTickTime && catchUp < MAX_CATCHUP_TICKS_PER_FRAME) {
                 long tick = currentTick.incrementAndGet();
+                // Measured per tick: "now" is the schedule check, not the start of this tick
+                long tickStartNs = System.nanoTime();
                 try {
                     gridManager.tick(tick);
                 } catch (Throwable t) {
@@ -67,11 +90,19 @@ public class FactoryLoop {
                     t.printStackTrace();
                 }
 
+                long tickEndNs = System.nanoTime();
+                long tickNs = tickEndNs - tickStartNs;
+                long tickMs = tickNs / 1_000_000L;
+                avgTickMs += (tickNs / 1_000_000.0 - avgTickMs) * 0.05;
+                if (tickMs >= SLOW_TICK_MS) {
+                    FlightRecorderSupport.onSlowTick(tick, tickMs, SLOW_TICK_MS);
+                }
+
                 statsTickCounter++;
                 nextTickTime += TICK_NS;
                 catchUp++;
 
-                now = System.nanoTime();
+                now = tickEndNs;
             }
 
             // If still behind after max catch-up, resync to avoid infinite backlog.
@@ -97,10 +128,12 @@ public class FactoryLoop {
     }
 
     public void stop() {
-        running = false;
-
-        Thread t = loopThread;
-        loopThread = null;
+        Thread t;
+        synchronized (betweenTicks) {
+            running = false;
+            t = loopThread;
+            loopThread = null;
+        }
 
         if (t != null) {
             try {
@@ -109,12 +142,49 @@ public class FactoryLoop {
                 Thread.currentThread().interrupt();
             }
         }
+
+        // Queued while the loop was stopping: the world is quiet now, run them here
+        runBetweenTicksTasks();
+    }
+
+    /**
+     * Runs task on the loop thread between two ticks, so the world does not change while it
+     * runs (the loop falls behind and catches up / resyncs afterwards).
+     * Loop not running: runs on the caller thread.
+     */
+    public <T> CompletableFuture<T> runBetweenTicks(Supplier<T> task) {
+        CompletableFuture<T> f = new CompletableFuture<>();
+        Runnable r = () -> {
+            try {
+                f.complete(task.get());
+            } catch (Throwable t) {
+                f.completeExceptionally(t);
+            }
+        };
+        synchronized (betweenTicks) {
+            if (loopThread != null) {
+                betweenTicks.add(r);
+                return f;
+            }
+        }
+        r.run();
+        return f;
+    }
+
+    private void runBetweenTicksTasks() {
+        Runnable r;
+        while ((r = betweenTicks.poll()) != null) r.run();
     }
 
     public boolean isRunning() {
         return running;
     }
 
+    /** Average duration of a tick in ms (budget is 1000 / TARGET_TPS). */
+    public double getAverageTickMs() {
+        return avgTickMs;
+    }
+
     public long getCurrentTick() {
         return currentTick.get();
     }
@@ -1,8 +1,11 @@
 package com.matterworks.core.synchronization;
 
 import com.matterworks.core.common.GridPosition;
+import com.matterworks.core.database.DbScheduler;
 import com.matterworks.core.domain.machines.base.PlacedMachine;
 import com.matterworks.core.managers.GridManager;
+import com.matterworks.core.monitoring.GridSaveFlushEvent;
+import com.matterworks.core.monitoring.PlotSaveEvent;
 import com.matterworks.core.ui.MariaDBAdapter;
 
 import java.util.ArrayList;
@@ -101,6 +104,9 @@ public class GridSaverService implements AutoCloseable {
             int saved = 0;
             int failed = 0;
 
+            GridSaveFlushEvent ev = new GridSaveFlushEvent();
+            ev.begin();
+
             try {
                 long nowMs = System.currentTimeMillis();
 
@@ -131,6 +137,14 @@ public class GridSaverService implements AutoCloseable {
                     }
                 }
             } finally {
+                ev.end();
+                if (ev.shouldCommit()) {
+                    ev.saved = saved;
+                    ev.failed = failed;
+                    ev.queued = dirtyQueue.size();
+                    ev.commit();
+                }
+
                 flushRunning.set(false);
 
                 // If more work remains, schedule a next flush shortly.
@@ -175,6 +189,22 @@ public class GridSaverService implements AutoCloseable {
     }
 
     private SaveResult saveOwnerPlot(UUID ownerId) {
+        PlotSaveEvent ev = new PlotSaveEvent();
+        ev.begin();
+
+        SaveResult r = saveOwnerPlotRows(ownerId);
+
+        ev.end();
+        if (ev.shouldCommit()) {
+            ev.plotOwner = String.valueOf(ownerId);
+            ev.rows = (r == SaveResult.SAVED || r == SaveResult.FAILED) ? dirty.size() : 0;
+            ev.result = r.name();
+            ev.commit();
+        }
+        return r;
+    }
+
+    private SaveResult saveOwnerPlotRows(UUID ownerId) {
         // PERFORMANCE FIX:
         // Do NOT allocate HashMap snapshots (new HashMap<>(g)).
         // Iterate directly on the concurrent map view.
@@ -204,7 +234,13 @@ public class GridSaverService implements AutoCloseable {
         }
 
         try {
-            repository.updateMachinesMetadata(dirty);
+            // Clustered mode: the lease token is checked inside the write transaction
+            boolean written = repository.getDbScheduler().call(DbScheduler.Lane.AUTOSAVE,
+                    () -> gridManager.persistPlot(ownerId, guard -> repository.updateMachinesMetadata(ownerId, dirty, guard)));
+            if (!written) {
+                System.err.println("[CLUSTER] Save skipped for plot " + ownerId + ": lease not held by this node.");
+                return SaveResult.SKIPPED_EMPTY_OR_NOT_LOADED;
+            }
             for (PlacedMachine m : dirty) m.cleanDirty();
             return SaveResult.SAVED;
         } catch (Exception ex) {
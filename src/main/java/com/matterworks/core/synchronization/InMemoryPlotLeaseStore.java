@@ -0,0 +1,126 @@
+package com.matterworks.core.synchronization;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * In-process stand-in for the lease tables: several nodes (GridManagers) inside one JVM
+ * share one instance. Same semantics as PlotLeaseDAO, clock = System.currentTimeMillis().
+ *
+ * Plots must be registered (registerPlot) since there is no plots table to scan.
+ */
+public final class InMemoryPlotLeaseStore implements PlotLeaseStore {
+
+    private static final class Row {
+        String nodeId;
+        long token;
+        long expiresAtMs;
+    }
+
+    private record NodeRow(int plots, double avgTickMs, long expiresAtMs) {}
+
+    private final Set<UUID> plots = new LinkedHashSet<>();
+    private final Map<UUID, Row> leases = new LinkedHashMap<>();
+    private final Map<String, NodeRow> nodes = new LinkedHashMap<>();
+    private boolean healDone = true; // local runs have no heal node
+
+    public synchronized void registerPlot(UUID ownerId) {
+        if (ownerId != null) plots.add(ownerId);
+    }
+
+    private static boolean live(Row r, long now) {
+        return r != null && r.nodeId != null && r.expiresAtMs >= now;
+    }
+
+    @Override
+    public synchronized Lease tryAcquire(UUID ownerId, String nodeId, long ttlMs) {
+        long now = System.currentTimeMillis();
+        Row r = leases.computeIfAbsent(ownerId, k -> new Row());
+
+        if (live(r, now) && !nodeId.equals(r.nodeId)) return null;
+        if (!nodeId.equals(r.nodeId)) r.token++; // new holder: old token fenced out
+        r.nodeId = nodeId;
+        r.expiresAtMs = now + ttlMs;
+        return new Lease(ownerId, nodeId, r.token);
+    }
+
+    @Override
+    public synchronized Map<UUID, Long> renewAll(String nodeId, long ttlMs) {
+        long now = System.currentTimeMillis();
+        Map<UUID, Long> held = new LinkedHashMap<>();
+        for (var e : leases.entrySet()) {
+            Row r = e.getValue();
+            if (!live(r, now) || !nodeId.equals(r.nodeId)) continue;
+            r.expiresAtMs = now + ttlMs;
+            held.put(e.getKey(), r.token);
+        }
+        return held;
+    }
+
+    // Takeovers (tryAcquire) wait for the write: it runs under the store's lock
+    @Override
+    public synchronized boolean writeFenced(UUID ownerId, String nodeId, long token, FencedWrite write) throws Exception {
+        Row r = leases.get(ownerId);
+        if (!live(r, System.currentTimeMillis()) || !nodeId.equals(r.nodeId) || r.token != token) return false;
+        return write.write(null);
+    }
+
+    @Override
+    public synchronized void release(UUID ownerId, String nodeId, long token) {
+        Row r = leases.get(ownerId);
+        if (r == null || !nodeId.equals(r.nodeId) || r.token != token) return;
+        r.nodeId = null;
+        r.expiresAtMs = 0L;
+    }
+
+    @Override
+    public synchronized void park(UUID ownerId, String nodeId, long token, long parkMs) {
+        Row r = leases.get(ownerId);
+        if (r == null || !nodeId.equals(r.nodeId) || r.token != token) return;
+        r.nodeId = null;
+        r.expiresAtMs = System.currentTimeMillis() + Math.max(0L, parkMs);
+    }
+
+    @Override
+    public synchronized List<UUID> findClaimable(int limit) {
+        long now = System.currentTimeMillis();
+        List<UUID> out = new ArrayList<>();
+        for (UUID id : plots) {
+            if (out.size() >= limit) break;
+            Row r = leases.get(id);
+            if (r == null || r.expiresAtMs < now) out.add(id); // free rows expire on release, parked ones later
+        }
+        return out;
+    }
+
+    @Override
+    public synchronized void setHealDone(boolean done) {
+        healDone = done;
+    }
+
+    @Override
+    public synchronized boolean isHealDone() {
+        return healDone;
+    }
+
+    @Override
+    public synchronized void heartbeatNode(String nodeId, int plots, double avgTickMs, long ttlMs) {
+        nodes.put(nodeId, new NodeRow(plots, avgTickMs, System.currentTimeMillis() + ttlMs));
+    }
+
+    @Override
+    public synchronized List<NodeLoad> liveNodes() {
+        long now = System.currentTimeMillis();
+        List<NodeLoad> out = new ArrayList<>();
+        for (var e : nodes.entrySet()) {
+            NodeRow n = e.getValue();
+            if (n.expiresAtMs() >= now) out.add(new NodeLoad(e.getKey(), n.plots(), n.avgTickMs()));
+        }
+        return out;
+    }
+}
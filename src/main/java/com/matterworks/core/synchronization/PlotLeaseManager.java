@@ -0,0 +1,351 @@
+package com.matterworks.core.synchronization;
+
+import com.matterworks.core.managers.GridManager;
+
+import java.lang.management.ManagementFactory;
+import java.net.InetAddress;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Clustered mode: this node ticks and persists only the plots it holds a lease for.
+ *
+ * Every cycle (lease / 4) on the "mw-lease" thread:
+ * 1) renew: one statement extends all our leases; plots missing from the answer (or with a
+ *    new token) were taken over -> dropped locally WITHOUT writing anything.
+ *    If the store cannot be reached, plots are dropped once their local deadline (lease / 2
+ *    after the last successful renew) passes, i.e. before the store lets another node claim them.
+ * 2) heartbeat: plots held + average tick time, read by the other nodes.
+ * 3) balance: claim free / expired plots up to the fair share (plots / live nodes); above the
+ *    fair share, or with ticks over budget, shed plots: final flush, then release.
+ *    Claims are asynchronous: the lease is taken here, the plot loads on the DB pool and the
+ *    claim completes in the load callback (back on this thread), so renewals never wait on a load.
+ *    No plot is claimed before the boot integrity heal is done (PlotLeaseStore.isHealDone):
+ *    only the node started with -Dmw.cluster.integrity=true runs it.
+ *
+ * Inactive plots (GridRuntimeState inactivity sweep) are flushed, unloaded and parked: the
+ * lease is given back and the plot is not claimable again for -Dmw.cluster.parkMs.
+ *
+ * Writes are fenced: every plot flush goes through writeFenced() (local lease + store check with
+ * our token, inside the write's transaction), so a node that lost a plot during a pause cannot
+ * overwrite it.
+ *
+ * Tunables:
+ * -Dmw.cluster.node=<id> (default host-pid)
+ * -Dmw.cluster.leaseMs=15000
+ * -Dmw.cluster.maxPlots=0 (0 = no cap)
+ * -Dmw.cluster.overloadTickMs=40 (average tick above this sheds plots)
+ * -Dmw.cluster.parkMs=1800000 (inactive plots stay unclaimed this long)
+ */
+public final class PlotLeaseManager implements AutoCloseable {
+
+    private static final int CLAIM_BATCH = 8;
+    private static final int SHED_BATCH = 2;
+
+    private record Held(long token, long deadlineNs) {}
+
+    private final String nodeId;
+    private final PlotLeaseStore store;
+    private final GridManager gridManager;
+    private final FactoryLoop loop;
+
+    private final long leaseMs;
+    private final int maxPlots;
+    private final double overloadTickMs;
+
+    private final ConcurrentHashMap<UUID, Held> held = new ConcurrentHashMap<>();
+    // Plots we gave away are not re-claimed for two lease periods (no ping-pong while overloaded)
+    private final ConcurrentHashMap<UUID, Long> releasedAtNs = new ConcurrentHashMap<>();
+    // Claimed, plot still loading (lease thread only): not shed / parked / re-claimed until the load completes
+    private final Set<UUID> loading = new HashSet<>();
+    private final ScheduledExecutorService scheduler;
+
+    private final long parkMs;
+
+    private volatile boolean closed = false;
+    private boolean healDone = false; // lease thread only; sticky once seen
+    private boolean healWaitLogged = false;
+
+    public PlotLeaseManager(String nodeId, PlotLeaseStore store, GridManager gridManager, FactoryLoop loop) {
+        this.nodeId = (nodeId != null && !nodeId.isBlank()) ? nodeId : defaultNodeId();
+        this.store = store;
+        this.gridManager = gridManager;
+        this.loop = loop;
+
+        this.leaseMs = Math.max(2_000L, Long.getLong("mw.cluster.leaseMs", 15_000L));
+        this.maxPlots = Math.max(0, Integer.getInteger("mw.cluster.maxPlots", 0));
+        this.overloadTickMs = Math.max(1L, Long.getLong("mw.cluster.overloadTickMs", 40L));
+        this.parkMs = Math.max(0L, Long.getLong("mw.cluster.parkMs", 30 * 60_000L));
+
+        String threadName = "mw-lease-" + this.nodeId;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, threadName);
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    public static String defaultNodeId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (Throwable t) {
+            host = "node";
+        }
+        String pid = ManagementFactory.getRuntimeMXBean().getName().split("@")[0];
+        return host + "-" + pid;
+    }
+
+    public String getNodeId() { return nodeId; }
+    public int getHeldPlotCount() { return held.size(); }
+
+    public void start() {
+        long period = Math.max(500L, leaseMs / 4);
+        scheduler.scheduleWithFixedDelay(this::cycleSafely, 0L, period, TimeUnit.MILLISECONDS);
+        System.out.println("[CLUSTER] node=" + nodeId + " lease=" + leaseMs + "ms cycle=" + period + "ms"
+                + " maxPlots=" + (maxPlots == 0 ? "-" : maxPlots));
+    }
+
+    // ==========================================================
+    // OWNERSHIP (any thread)
+    // ==========================================================
+
+    /** Lease held and not past its local deadline: the plot may be loaded and ticked here. */
+    public boolean holds(UUID ownerId) {
+        Held h = (ownerId != null) ? held.get(ownerId) : null;
+        return h != null && System.nanoTime() < h.deadlineNs();
+    }
+
+    /** Plot write fenced by our lease token (see PlotLeaseStore.writeFenced). @return false if not written */
+    public boolean writeFenced(UUID ownerId, PlotLeaseStore.FencedWrite write) throws Exception {
+        Held h = (ownerId != null) ? held.get(ownerId) : null;
+        if (h == null || System.nanoTime() >= h.deadlineNs()) return false;
+        return store.writeFenced(ownerId, nodeId, h.token(), write);
+    }
+
+    // ==========================================================
+    // CYCLE (lease thread)
+    // ==========================================================
+
+    private void cycleSafely() {
+        if (closed) return;
+        try {
+            cycle();
+        } catch (Throwable t) {
+            System.err.println("[CLUSTER] cycle failed on " + nodeId + ": " + t);
+        }
+    }
+
+    private void cycle() {
+        renew();
+
+        double avgTickMs = (loop != null) ? loop.getAverageTickMs() : 0.0;
+        store.heartbeatNode(nodeId, held.size(), avgTickMs, leaseMs);
+
+        balance(avgTickMs);
+    }
+
+    private void renew() {
+        long renewStartNs = System.nanoTime();
+        Map<UUID, Long> live = store.renewAll(nodeId, leaseMs);
+
+        if (live == null) {
+            // Store unreachable: keep ticking until the local deadline, then let go
+            for (var e : held.entrySet()) {
+                if (renewStartNs >= e.getValue().deadlineNs()) lose(e.getKey(), "lease deadline passed (store unreachable)");
+            }
+            return;
+        }
+
+        long deadline = renewStartNs + TimeUnit.MILLISECONDS.toNanos(leaseMs / 2);
+        for (var e : held.entrySet()) {
+            Long token = live.get(e.getKey());
+            if (token == null || token != e.getValue().token()) {
+                lose(e.getKey(), "lease taken over");
+            } else {
+                held.put(e.getKey(), new Held(token, deadline));
+            }
+        }
+    }
+
+    private void balance(double avgTickMs) {
+        List<PlotLeaseStore.NodeLoad> nodes = store.liveNodes();
+        int nodeCount = Math.max(1, nodes.size());
+        int clusterPlots = 0;
+        for (PlotLeaseStore.NodeLoad n : nodes) clusterPlots += Math.max(0, n.plots());
+
+        List<UUID> claimable = store.findClaimable(CLAIM_BATCH * 4);
+        int fair = (int) Math.ceil((clusterPlots + claimable.size()) / (double) nodeCount);
+        if (maxPlots > 0) fair = Math.min(fair, maxPlots);
+
+        boolean overloaded = avgTickMs > overloadTickMs;
+        boolean othersAvailable = nodes.stream().anyMatch(n -> !nodeId.equals(n.nodeId()) && n.avgTickMs() <= overloadTickMs);
+
+        if (overloaded && othersAvailable) {
+            shed(Math.max(1, Math.min(SHED_BATCH, held.size() / 10)), "overloaded avgTick=" + String.format("%.1f", avgTickMs) + "ms");
+            return;
+        }
+        if (held.size() > fair + 1 && othersAvailable) {
+            shed(Math.min(SHED_BATCH, held.size() - fair), "above fair share " + fair);
+            return;
+        }
+        if (overloaded) return;
+
+        if (!healDone) {
+            healDone = store.isHealDone();
+            if (!healDone) {
+                if (!healWaitLogged) System.out.println("[CLUSTER] " + nodeId + " waiting for the integrity heal before claiming plots");
+                healWaitLogged = true;
+                return;
+            }
+        }
+
+        long cooldownNs = TimeUnit.MILLISECONDS.toNanos(leaseMs * 2);
+        releasedAtNs.values().removeIf(t -> System.nanoTime() - t > cooldownNs);
+
+        int room = Math.min(CLAIM_BATCH, (fair + 1) - held.size());
+        if (maxPlots > 0) room = Math.min(room, maxPlots - held.size());
+        for (UUID ownerId : claimable) {
+            if (room <= 0) break;
+            if (held.containsKey(ownerId) || loading.contains(ownerId) || releasedAtNs.containsKey(ownerId)) continue;
+
+            PlotLeaseStore.Lease lease = store.tryAcquire(ownerId, nodeId, leaseMs);
+            if (lease == null) continue;
+
+            held.put(ownerId, new Held(lease.token(), System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(leaseMs / 2)));
+            loading.add(ownerId);
+            room--;
+
+            CompletableFuture<Void> load;
+            try {
+                load = gridManager.preloadPlotFromDB(ownerId);
+            } catch (Throwable t) {
+                load = CompletableFuture.failedFuture(t);
+            }
+            load.whenComplete((v, err) -> onLease(() -> completeClaim(ownerId, lease, err)));
+        }
+    }
+
+    /** Load callback of a claim, on the lease thread. */
+    private void completeClaim(UUID ownerId, PlotLeaseStore.Lease lease, Throwable err) {
+        loading.remove(ownerId);
+        Held h = held.get(ownerId);
+
+        if (h == null || h.token() != lease.token()) {
+            // Lost while loading (lose() ran before the plot was resident): forget it again
+            try {
+                gridManager.dropPlot(ownerId);
+            } catch (Throwable ignored) {}
+            return;
+        }
+        if (err != null) {
+            System.err.println("[CLUSTER] load failed for " + ownerId + ", releasing: " + err);
+            held.remove(ownerId);
+            gridManager.dropPlot(ownerId);
+            store.release(ownerId, nodeId, lease.token());
+            return;
+        }
+        System.out.println("[CLUSTER] " + nodeId + " claimed plot " + ownerId + " token=" + lease.token());
+    }
+
+    /** Runs on the lease thread; dropped after close() (close releases whatever is held). */
+    private void onLease(Runnable task) {
+        if (closed) return;
+        try {
+            scheduler.execute(() -> {
+                if (closed) return;
+                try {
+                    task.run();
+                } catch (Throwable t) {
+                    System.err.println("[CLUSTER] task failed on " + nodeId + ": " + t);
+                }
+            });
+        } catch (RejectedExecutionException ignored) {
+        }
+    }
+
+    /**
+     * Inactivity sweep (tick thread): the plot went to sleep. Flush, unload and park it on the
+     * lease thread, so a sleeping plot does not keep a lease (and a share of this node) busy.
+     */
+    public void releaseInactive(UUID ownerId) {
+        if (ownerId == null || !held.containsKey(ownerId)) return;
+        onLease(() -> {
+            // Woken up meanwhile (player back): keep it
+            if (!loading.contains(ownerId) && gridManager.isPlotSleeping(ownerId)) release(ownerId, "inactive", parkMs);
+        });
+    }
+
+    /** Gives away the plots with the fewest machines (cheapest to move). */
+    private void shed(int count, String reason) {
+        List<UUID> candidates = new ArrayList<>(held.keySet());
+        candidates.removeAll(loading);
+        candidates.sort(Comparator.comparingInt(gridManager::getPlacedItemCount));
+        for (int i = 0; i < count && i < candidates.size(); i++) {
+            release(candidates.get(i), reason, 0L);
+        }
+    }
+
+    /**
+     * Final flush while still holder (fenced), then the lease goes back to the pool.
+     * @param parkMs > 0: the plot is not claimable again before that (inactive plots)
+     */
+    private void release(UUID ownerId, String reason, long parkMs) {
+        Held h = held.get(ownerId);
+        if (h == null) return;
+        try {
+            gridManager.saveAndUnloadSpecific(ownerId);
+        } catch (Throwable t) {
+            System.err.println("[CLUSTER] final flush failed for " + ownerId + ": " + t);
+        }
+        held.remove(ownerId);
+        if (parkMs > 0L) store.park(ownerId, nodeId, h.token(), parkMs);
+        else store.release(ownerId, nodeId, h.token());
+        releasedAtNs.put(ownerId, System.nanoTime());
+        System.out.println("[CLUSTER] " + nodeId + " released plot " + ownerId + " (" + reason + ")");
+    }
+
+    /** Another node may already own the plot: nothing is written. */
+    private void lose(UUID ownerId, String reason) {
+        if (held.remove(ownerId) == null) return;
+        try {
+            gridManager.dropPlot(ownerId);
+        } catch (Throwable ignored) {}
+        System.err.println("[CLUSTER] " + nodeId + " lost plot " + ownerId + " (" + reason + ")");
+    }
+
+    // ==========================================================
+    // SHUTDOWN
+    // ==========================================================
+
+    /** Crash simulation (local cluster runs): stops renewing, leases are left to expire. */
+    public void abandon() {
+        closed = true;
+        scheduler.shutdownNow();
+    }
+
+    /** Flushes and releases every plot, so the other nodes take them over without waiting for expiry. */
+    @Override
+    public void close() {
+        if (closed) return;
+        closed = true;
+        scheduler.shutdown();
+        try {
+            scheduler.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        for (UUID ownerId : new ArrayList<>(held.keySet())) release(ownerId, "shutdown", 0L);
+    }
+}
@@ -0,0 +1,75 @@
+package com.matterworks.core.synchronization;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Shared ownership table of the clustered mode: which node may tick and persist a plot.
+ *
+ * - A lease has an expiry (store clock) and a fencing token that grows on every change of
+ *   holder: a node that was partitioned away and still believes it owns the plot carries an
+ *   old token and its writes are refused by writeFenced().
+ * - Implementations: PlotLeaseDAO (MariaDB, one row per plot) and InMemoryPlotLeaseStore
+ *   (several nodes inside one JVM, for local runs without the lease tables).
+ */
+public interface PlotLeaseStore {
+
+    record Lease(UUID ownerId, String nodeId, long token) {}
+
+    record NodeLoad(String nodeId, int plots, double avgTickMs) {}
+
+    /** Lease a write must still hold, checked inside the write's own transaction. */
+    record LeaseGuard(UUID ownerId, String nodeId, long token) {}
+
+    /** A plot write. guard == null: no DB check needed (single node, or the store serializes it). */
+    @FunctionalInterface
+    interface FencedWrite {
+        /** @return false when the write was refused (guard no longer holds): nothing was written */
+        boolean write(LeaseGuard guard) throws Exception;
+    }
+
+    /** Claims a free or expired plot. @return the lease, or null when another node holds it. */
+    Lease tryAcquire(UUID ownerId, String nodeId, long ttlMs);
+
+    /**
+     * Extends every live lease of the node.
+     * @return plots still held (owner -> token), or null when the store could not be reached
+     *         (the caller keeps its plots until its local lease deadline).
+     */
+    Map<UUID, Long> renewAll(String nodeId, long ttlMs);
+
+    /**
+     * Fenced write: runs only while the lease is live, held by the node, with that token, and
+     * no takeover can commit while it is in flight.
+     * - PlotLeaseDAO passes a LeaseGuard: the write locks the lease row in its transaction
+     *   (PlotLeaseDAO.lockHeld) and rolls back when the token does not match.
+     * - InMemoryPlotLeaseStore checks the lease and runs the write under its lock (guard = null).
+     * @return false when the lease is not held: nothing was written
+     */
+    boolean writeFenced(UUID ownerId, String nodeId, long token, FencedWrite write) throws Exception;
+
+    /** Gives the plot back (after the final flush). Ignored when the token is stale. */
+    void release(UUID ownerId, String nodeId, long token);
+
+    /** Gives the plot back but keeps it unclaimable for parkMs (inactive plot). Ignored when the token is stale. */
+    void park(UUID ownerId, String nodeId, long token, long parkMs);
+
+    /** Active plots without a live lease (never claimed, released, expired or past their park time). */
+    List<UUID> findClaimable(int limit);
+
+    /**
+     * Boot integrity heal (WorldIntegrityValidator) runs on one designated node and may delete
+     * rows: the other nodes claim plots only once it is done. The heal node clears the flag
+     * before healing and sets it afterwards (start it first, or together with the others).
+     */
+    void setHealDone(boolean done);
+
+    boolean isHealDone();
+
+    /** Node liveness + load, read by the other nodes to balance plots. */
+    void heartbeatNode(String nodeId, int plots, double avgTickMs, long ttlMs);
+
+    /** Nodes with a live heartbeat (including the caller). */
+    List<NodeLoad> liveNodes();
+}
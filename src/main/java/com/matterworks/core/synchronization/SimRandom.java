@@ -0,0 +1,59 @@
+package com.matterworks.core.synchronization;
+
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Source of the Random instances used by the simulation (resource veins and similar).
+ *
+ * Unseeded (default) every stream is independently random, as before. With a seed
+ * (-Dmw.sim.seed=<long>, or setSeed() from the session recorder / replayer before the
+ * GridManager is built) each named stream starts from seed mixed with its name, so a replay
+ * draws the same numbers in the same order as the recorded run.
+ */
+public final class SimRandom {
+
+    private static volatile Long seed = Long.getLong("mw.sim.seed");
+
+    private SimRandom() {}
+
+    public static void setSeed(long value) {
+        seed = value;
+    }
+
+    /** @return the seed, choosing one first if the run is unseeded */
+    public static synchronized long ensureSeed() {
+        Long s = seed;
+        if (s == null) {
+            s = ThreadLocalRandom.current().nextLong();
+            seed = s;
+        }
+        return s;
+    }
+
+    public static Long getSeed() {
+        return seed;
+    }
+
+    public static Random create(String stream) {
+        Long s = seed;
+        if (s == null) return new Random();
+        return new Random(streamSeed(s, stream));
+    }
+
+    /** Seed of a named stream (choosing the run seed if needed): Random.setSeed() on a live instance. */
+    public static long streamSeed(String stream) {
+        return streamSeed(ensureSeed(), stream);
+    }
+
+    private static long streamSeed(long seed, String stream) {
+        return mix(seed ^ mix(stream.hashCode()));
+    }
+
+    // SplittableRandom / murmur3 finalizer
+    private static long mix(long z) {
+        z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+        z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return z ^ (z >>> 33);
+    }
+}
@@ -5,6 +5,10 @@ package com.matterworks.core.synchronization;
  *
  * We keep it static/volatile so it's visible to tick worker threads too.
  * This enables dt-based simulation without changing tick(long) signatures everywhere.
+ *
+ * Clock: simulation code reads time through nowMs(). Live runs get the wall clock; replay runs
+ * pin it to the tick (epoch + tick * 50ms), so timers, expiries and sleep checks fire on the same
+ * tick however fast the replay goes.
  */
 public final class SimTime {
 
@@ -16,8 +20,26 @@ public final class SimTime {
     // Reference tick duration (seconds) for converting legacy "ticks" to seconds.
     private static final double BASE_TICK_SECONDS = 0.05; // 50ms => 20 TPS
 
+    // < 0 = wall clock
+    private static volatile long tickClockEpochMs = -1L;
+
     private SimTime() {}
 
+    /** Replay: from now on nowMs() = epochMs + currentTick * 50ms. */
+    public static void useTickClock(long epochMs) {
+        tickClockEpochMs = Math.max(0L, epochMs);
+    }
+
+    public static boolean isTickClock() {
+        return tickClockEpochMs >= 0L;
+    }
+
+    public static long nowMs() {
+        long epoch = tickClockEpochMs;
+        if (epoch < 0L) return System.currentTimeMillis();
+        return epoch + Math.round(currentTick * BASE_TICK_SECONDS * 1000.0);
+    }
+
     public static void update(long tick, double dtSeconds) {
         currentTick = tick;
         deltaSeconds = dtSeconds;
@@ -0,0 +1,189 @@
+package com.matterworks.core.synchronization;
+
+import com.matterworks.core.monitoring.StartupPhaseEvent;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Server boot as a dependency graph of timed phases.
+ *
+ * - A task starts on the "mw-boot-N" pool as soon as all its dependencies completed,
+ *   so independent phases (definitions, integrity scan, tech/config, players) overlap.
+ * - A failed task fails its dependents (reported as "skipped"); await() rethrows for the
+ *   phases the caller cannot run without.
+ * - Every phase is logged with its start offset and duration ([BOOT] lines + JFR
+ *   StartupPhaseEvent); finish() prints the total and the critical path once all tasks end.
+ *
+ * Milestones (e.g. "tick-loop") mark points reached on the caller thread.
+ */
+public final class StartupGraph {
+
+    public static final class Task<T> {
+        private final String name;
+        private final List<Task<?>> deps;
+        private final CompletableFuture<T> future;
+
+        private volatile long startNs;
+        private volatile long endNs;
+        private volatile boolean failed;
+        private volatile boolean skipped;
+
+        private Task(String name, List<Task<?>> deps, CompletableFuture<T> future) {
+            this.name = name;
+            this.deps = deps;
+            this.future = future;
+        }
+
+        public String name() { return name; }
+        public CompletableFuture<T> future() { return future; }
+
+        /** Result of a completed dependency (call from inside a dependent task). */
+        public T get() { return future.join(); }
+
+        long durationNs() { return Math.max(0L, endNs - startNs); }
+    }
+
+    private final long bootNs = System.nanoTime();
+    private final List<Task<?>> tasks = new ArrayList<>();
+    private final List<String> milestones = new ArrayList<>();
+    private final ExecutorService pool;
+
+    public StartupGraph() {
+        int threads = Math.max(4, Runtime.getRuntime().availableProcessors());
+        AtomicInteger seq = new AtomicInteger();
+        this.pool = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "mw-boot-" + seq.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /** Pool the phases run on (for fan-out inside a phase, e.g. per-plot work). */
+    public ExecutorService executor() {
+        return pool;
+    }
+
+    public synchronized <T> Task<T> task(String name, Callable<T> body, Task<?>... deps) {
+        CompletableFuture<?>[] depFutures = new CompletableFuture<?>[deps.length];
+        for (int i = 0; i < deps.length; i++) depFutures[i] = deps[i].future;
+
+        CompletableFuture<T> f = new CompletableFuture<>();
+        Task<T> task = new Task<>(name, List.of(deps), f);
+        tasks.add(task);
+
+        CompletableFuture.allOf(depFutures).whenCompleteAsync((v, depError) -> {
+            task.startNs = System.nanoTime();
+            if (depError != null) {
+                task.skipped = true;
+                task.endNs = task.startNs;
+                log(task, "skipped (dependency failed)");
+                f.completeExceptionally(depError);
+                return;
+            }
+            StartupPhaseEvent ev = new StartupPhaseEvent();
+            ev.begin();
+            try {
+                T result = body.call();
+                task.endNs = System.nanoTime();
+                log(task, null);
+                f.complete(result);
+            } catch (Throwable t) {
+                task.endNs = System.nanoTime();
+                task.failed = true;
+                log(task, "FAILED: " + t);
+                f.completeExceptionally(t);
+            } finally {
+                ev.end();
+                if (ev.shouldCommit()) {
+                    ev.phase = task.name;
+                    ev.startOffset = task.startNs - bootNs;
+                    ev.success = !task.failed;
+                    ev.commit();
+                }
+            }
+        }, pool);
+
+        return task;
+    }
+
+    public Task<Void> step(String name, ThrowingRunnable body, Task<?>... deps) {
+        return task(name, () -> {
+            body.run();
+            return null;
+        }, deps);
+    }
+
+    @FunctionalInterface
+    public interface ThrowingRunnable {
+        void run() throws Exception;
+    }
+
+    /** Blocks until the phase completed; its failure is rethrown (unchecked). */
+    public <T> T await(Task<T> task) {
+        try {
+            return task.future.join();
+        } catch (CompletionException e) {
+            Throwable cause = (e.getCause() != null) ? e.getCause() : e;
+            if (cause instanceof RuntimeException re) throw re;
+            throw new IllegalStateException("Startup phase '" + task.name + "' failed", cause);
+        }
+    }
+
+    public synchronized void milestone(String name) {
+        long ms = (System.nanoTime() - bootNs) / 1_000_000L;
+        milestones.add(name + "=+" + ms + "ms");
+        System.out.println("[BOOT] milestone " + name + " at +" + ms + "ms");
+    }
+
+    /** Prints the summary once every task ended, then releases the pool. */
+    public void finish() {
+        CompletableFuture<?>[] all;
+        synchronized (this) {
+            all = tasks.stream().map(t -> t.future).toArray(CompletableFuture[]::new);
+        }
+        CompletableFuture.allOf(all).whenComplete((v, err) -> {
+            try {
+                printSummary();
+            } finally {
+                pool.shutdown();
+            }
+        });
+    }
+
+    // ==========================================================
+    // REPORT
+    // ==========================================================
+
+    private void log(Task<?> task, String note) {
+        long startMs = (task.startNs - bootNs) / 1_000_000L;
+        long durMs = task.durationNs() / 1_000_000L;
+        System.out.println("[BOOT] " + task.name + " " + durMs + "ms (start +" + startMs + "ms)"
+                + (note != null ? " " + note : ""));
+    }
+
+    private synchronized void printSummary() {
+        Task<?> last = tasks.stream().max(Comparator.comparingLong(t -> t.endNs)).orElse(null);
+        if (last == null) return;
+
+        // Critical path: walk back through the dependency that finished last
+        List<String> path = new ArrayList<>();
+        for (Task<?> t = last; t != null; ) {
+            path.add(0, t.name + "(" + t.durationNs() / 1_000_000L + "ms)");
+            t = t.deps.stream().max(Comparator.comparingLong(d -> d.endNs)).orElse(null);
+        }
+
+        long failed = tasks.stream().filter(t -> t.failed || t.skipped).count();
+        System.out.println("[BOOT] all phases done in " + (last.endNs - bootNs) / 1_000_000L + "ms"
+                + " | tasks=" + tasks.size() + " failed/skipped=" + failed
+                + " | critical path: " + String.join(" > ", path)
+                + (milestones.isEmpty() ? "" : " | " + String.join(" ", milestones)));
+    }
+}
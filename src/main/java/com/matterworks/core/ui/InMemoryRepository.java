@@ -0,0 +1,483 @@
+package com.matterworks.core.ui;
+
+import com.matterworks.core.common.GridPosition;
+import com.matterworks.core.database.DbScheduler;
+import com.matterworks.core.database.dao.InventoryDAO;
+import com.matterworks.core.database.dao.MachineDefinitionDAO;
+import com.matterworks.core.database.dao.PlotDAO;
+import com.matterworks.core.database.dao.TechDefinitionDAO;
+import com.matterworks.core.domain.factions.FactionDefinition;
+import com.matterworks.core.domain.factions.FactionPricingRule;
+import com.matterworks.core.domain.machines.base.PlacedMachine;
+import com.matterworks.core.domain.machines.registry.MachineStats;
+import com.matterworks.core.domain.matter.MatterColor;
+import com.matterworks.core.domain.matter.MatterEffect;
+import com.matterworks.core.domain.matter.MatterShape;
+import com.matterworks.core.domain.matter.RecipeBook;
+import com.matterworks.core.domain.player.PlayerProfile;
+import com.matterworks.core.domain.shop.VoidShopItem;
+import com.matterworks.core.managers.TechManager;
+import com.matterworks.core.model.PlotObject;
+import com.matterworks.core.model.PlotUnlockState;
+import com.matterworks.core.synchronization.SimTime;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Repository without a database, for headless replays (SessionReplayer / ReplayMain):
+ * every table the simulation reads or writes lives in maps, seeded from a session recording.
+ *
+ * Semantics that differ from MariaDB, on purpose:
+ * - Profiles are held as the live instances: load returns the same object the game saves,
+ *   so results never depend on when the async economy writer ran.
+ * - Transactions and player sessions are dropped; playtime advances with the simulation
+ *   clock (SimTime.nowMs) from the recorded value.
+ * - Plot stamps are empty: the boot checkpoint path is not used, plots load from the maps.
+ *
+ * THREADING NOTES:
+ * - Plot rows are touched by the tick thread, the lane workers (inserts, preloads) and the
+ *   replay driver: per-plot maps are concurrent, the rest is immutable or volatile.
+ */
+public final class InMemoryRepository extends MariaDBAdapter {
+
+    private static final class PlotRows {
+        final long plotId;
+        volatile PlotUnlockState unlock = PlotUnlockState.zero();
+        volatile int voidItemCapExtra;
+        final Map<GridPosition, MatterColor> resources = new ConcurrentHashMap<>();
+        final Map<Long, PlotObject> machines = new ConcurrentHashMap<>();
+
+        PlotRows(long plotId) {
+            this.plotId = plotId;
+        }
+    }
+
+    private final MemoryInventoryDAO inventory;
+    private final DbScheduler scheduler = new DbScheduler(4);
+
+    private final Map<UUID, PlayerProfile> profiles = new ConcurrentHashMap<>();
+    private final Map<UUID, Long> playtimeBase = new ConcurrentHashMap<>();
+    private final Map<UUID, PlotRows> plots = new ConcurrentHashMap<>();
+    private final Map<Long, UUID> plotOwners = new ConcurrentHashMap<>();
+    private final Map<Long, UUID> machineOwners = new ConcurrentHashMap<>();
+
+    private final AtomicLong nextPlotId = new AtomicLong(1_000_000L);
+    private final AtomicLong nextMachineId = new AtomicLong(1_000_000_000L);
+    private final AtomicLong transactions = new AtomicLong();
+
+    private volatile long playtimeEpochMs = 0L;
+
+    private volatile ServerConfig serverConfig;
+    private volatile ServerGameState gameState = ServerGameState.defaults();
+
+    private volatile Map<String, MachineStats> machineDefinitions = Map.of();
+    private volatile List<TechManager.TechNode> techNodes = List.of();
+    private volatile Map<MatterShape, Double> shapePrices = Map.of();
+    private volatile Map<MatterColor, Double> colorPrices = Map.of();
+    private volatile Map<MatterEffect, Double> effectPrices = Map.of();
+    private volatile List<FactionDefinition> factions = List.of();
+    private volatile Map<Integer, List<FactionPricingRule>> factionRules = Map.of();
+    private volatile List<VoidShopItem> voidShop = List.of();
+    private volatile List<RecipeBook.Definition> recipes = List.of();
+
+    public InMemoryRepository() {
+        this(new MemoryInventoryDAO());
+    }
+
+    private InMemoryRepository(MemoryInventoryDAO inventory) {
+        super(inventory);
+        this.inventory = inventory;
+    }
+
+    // ==========================================================
+    // SEEDING (replay driver, before the GridManager is built)
+    // ==========================================================
+
+    public void setMachineDefinitions(Map<String, MachineStats> defs) { this.machineDefinitions = Map.copyOf(defs); }
+    public void setTechNodes(List<TechManager.TechNode> nodes) { this.techNodes = List.copyOf(nodes); }
+    public void setServerConfig(ServerConfig cfg) { this.serverConfig = cfg; }
+    public void setServerGameState(ServerGameState gs) { if (gs != null) this.gameState = gs; }
+
+    public void setMatterPrices(Map<MatterShape, Double> shape, Map<MatterColor, Double> color, Map<MatterEffect, Double> effect) {
+        this.shapePrices = Map.copyOf(shape);
+        this.colorPrices = Map.copyOf(color);
+        this.effectPrices = Map.copyOf(effect);
+    }
+
+    public void setFactions(List<FactionDefinition> defs, Map<Integer, List<FactionPricingRule>> rules) {
+        this.factions = List.copyOf(defs);
+        this.factionRules = Map.copyOf(rules);
+    }
+
+    public void setVoidShopCatalog(List<VoidShopItem> items) { this.voidShop = List.copyOf(items); }
+    public void setRecipeDefinitions(List<RecipeBook.Definition> defs) { if (defs != null) this.recipes = List.copyOf(defs); }
+
+    /** Playtime of a player = recorded value + simulated time since it was put (epochMs = clock origin). */
+    public void setPlaytimeEpochMs(long epochMs) { this.playtimeEpochMs = epochMs; }
+
+    public void putPlayer(PlayerProfile profile, long playtimeSeconds, Map<String, Integer> items) {
+        if (profile == null || profile.getPlayerId() == null) return;
+        profiles.put(profile.getPlayerId(), profile);
+        // stored relative to playtimeEpochMs: the value is exact at the simulated time of the call
+        playtimeBase.put(profile.getPlayerId(), Math.max(0L, playtimeSeconds) - simulatedSeconds());
+        inventory.put(profile.getPlayerId(), items);
+    }
+
+    /** Machine rows with an id <= 0 (insert still in flight when recorded) get a fresh id. */
+    public void putPlot(UUID ownerId, long plotId, PlotUnlockState unlock, int voidItemCapExtra,
+                       Map<GridPosition, MatterColor> resources, List<PlotObject> machines) {
+        PlotRows old = plots.remove(ownerId);
+        if (old != null) dropRows(old);
+
+        long id = (plotId > 0L) ? plotId : nextPlotId.incrementAndGet();
+        PlotRows rows = new PlotRows(id);
+        rows.unlock = (unlock != null) ? unlock : PlotUnlockState.zero();
+        rows.voidItemCapExtra = voidItemCapExtra;
+        rows.resources.putAll(resources);
+        for (PlotObject m : machines) {
+            long mid = (m.getId() != null && m.getId() > 0L) ? m.getId() : nextMachineId.incrementAndGet();
+            rows.machines.put(mid, new PlotObject(mid, id, m.getX(), m.getY(), m.getZ(), m.getTypeId(), m.getMetaData().deepCopy()));
+            machineOwners.put(mid, ownerId);
+        }
+        plots.put(ownerId, rows);
+        plotOwners.put(id, ownerId);
+    }
+
+    private void dropRows(PlotRows rows) {
+        plotOwners.remove(rows.plotId);
+        for (Long mid : rows.machines.keySet()) machineOwners.remove(mid);
+    }
+
+    public long getTransactionCount() { return transactions.get(); }
+
+    /** BlockRegistry source for the recorded definitions. */
+    public MachineDefinitionDAO machineDefinitionDAO() {
+        return new MachineDefinitionDAO(null) {
+            @Override
+            public Map<String, MachineStats> loadAllDefinitions() {
+                return new HashMap<>(machineDefinitions);
+            }
+        };
+    }
+
+    @Override
+    public TechDefinitionDAO getTechDefinitionDAO() {
+        return new TechDefinitionDAO(null) {
+            @Override
+            public List<TechManager.TechNode> loadAllNodes() {
+                return new ArrayList<>(techNodes);
+            }
+        };
+    }
+
+    @Override
+    public DbScheduler getDbScheduler() { return scheduler; }
+
+    // ==========================================================
+    // PRICING / RECIPES / FACTIONS / VOID SHOP
+    // ==========================================================
+    @Override public Map<MatterShape, Double> loadMatterShapeBasePrices() { return shapePrices; }
+    @Override public Map<MatterColor, Double> loadMatterColorBasePrices() { return colorPrices; }
+    @Override public Map<MatterEffect, Double> loadMatterEffectBasePrices() { return effectPrices; }
+
+    @Override public List<RecipeBook.Definition> loadRecipeDefinitions() { return recipes; }
+
+    @Override public List<FactionDefinition> loadFactions() { return factions; }
+    @Override public List<FactionPricingRule> loadFactionRules(int factionId) { return factionRules.getOrDefault(factionId, List.of()); }
+
+    @Override public int getActiveFactionId() { return gameState.activeFactionId(); }
+    @Override public void setActiveFactionId(int factionId) { gameState = gameState.withActiveFactionId(factionId); }
+
+    @Override public List<VoidShopItem> loadVoidShopCatalog() { return voidShop; }
+
+    @Override
+    public VoidShopItem loadVoidShopItem(String itemId) {
+        if (itemId == null) return null;
+        String v = itemId.trim();
+        for (VoidShopItem item : voidShop) {
+            if (v.equals(item.itemId())) return item;
+        }
+        return null;
+    }
+
+    @Override
+    public boolean purchaseVoidShopItemAtomic(UUID playerId, String itemId, int unitPrice, int amount, boolean isAdmin) {
+        if (playerId == null || itemId == null || amount <= 0) return false;
+        PlayerProfile p = profiles.get(playerId);
+        if (p == null) return false;
+        synchronized (p) {
+            int cost = isAdmin ? 0 : Math.max(0, unitPrice) * amount;
+            if (p.getVoidCoins() < cost) return false;
+            p.setVoidCoins(p.getVoidCoins() - cost);
+        }
+        modifyInventoryItem(playerId, itemId, amount);
+        return true;
+    }
+
+    // ==========================================================
+    // SERVER GAMESTATE / CONFIG
+    // ==========================================================
+    @Override public int getDefaultItemPlacedOnPlotCap() { return gameState.defaultItemPlacedOnPlotCap(); }
+    @Override public int getItemCapIncreaseStep() { return gameState.itemCapIncreaseStep(); }
+    @Override public int getMaxItemPlacedOnPlotCap() { return gameState.maxItemPlacedOnPlotCap(); }
+    @Override public void updateMaxItemPlacedOnPlotCap(int newCap) { gameState = gameState.withMaxItemPlacedOnPlotCap(newCap); }
+    @Override public int getVoidItemCapIncreaseStep() { return gameState.voidItemCapIncreaseStep(); }
+
+    @Override public long getGlobalOverclockEndEpochMs() { return gameState.globalOverclockEndEpochMs(); }
+    @Override public double getGlobalOverclockMultiplier() { return gameState.globalOverclockMultiplier(); }
+    @Override public long getGlobalOverclockLastDurationSeconds() { return gameState.globalOverclockLastDurationSeconds(); }
+
+    @Override
+    public void setGlobalOverclockState(long endEpochMs, double multiplier, long lastDurationSeconds) {
+        gameState = gameState.withGlobalOverclock(endEpochMs, multiplier, lastDurationSeconds);
+    }
+
+    @Override
+    public ServerConfig loadServerConfig() {
+        ServerConfig cfg = serverConfig;
+        if (cfg == null) throw new IllegalStateException("InMemoryRepository: no ServerConfig seeded");
+        return cfg;
+    }
+
+    @Override public ServerGameState getServerGameState() { return gameState; }
+    @Override public ServerGameState reloadServerGameState() { return gameState; }
+    @Override public int loadMinutesToInactive() { return gameState.minutesToInactive(); }
+
+    @Override public int getVoidPlotItemBreakerIncreased() { return gameState.voidPlotItemBreakerIncreased(); }
+
+    @Override
+    public synchronized int addVoidPlotItemBreakerIncreased(int delta) {
+        int v = Math.max(0, gameState.voidPlotItemBreakerIncreased() + delta);
+        gameState = gameState.withVoidPlotItemBreakerIncreased(v);
+        return v;
+    }
+
+    @Override public int getFactionRotationHours() { return gameState.factionRotationHours(); }
+
+    // ==========================================================
+    // PLAYERS
+    // ==========================================================
+    @Override public void openPlayerSession(UUID playerUuid) {}
+    @Override public void closePlayerSession(UUID playerUuid) {}
+
+    @Override public PlayerProfile loadPlayerProfile(UUID uuid) { return (uuid != null) ? profiles.get(uuid) : null; }
+
+    @Override
+    public void savePlayerProfile(PlayerProfile profile) {
+        if (profile != null && profile.getPlayerId() != null) profiles.put(profile.getPlayerId(), profile);
+    }
+
+    @Override
+    public boolean savePlayerProfiles(Collection<PlayerProfile> list) {
+        if (list != null) list.forEach(this::savePlayerProfile);
+        return true;
+    }
+
+    @Override public List<PlayerProfile> getAllPlayers() { return new ArrayList<>(profiles.values()); }
+
+    @Override
+    public void deletePlayerFull(UUID uuid) {
+        if (uuid == null) return;
+        discardInventory(uuid);
+        inventory.remove(uuid);
+        profiles.remove(uuid);
+        PlotRows rows = plots.remove(uuid);
+        if (rows != null) dropRows(rows);
+    }
+
+    @Override
+    public long getTotalPlaytimeSeconds(UUID playerUuid) {
+        Long base = playtimeBase.get(playerUuid);
+        return (base != null) ? Math.max(0L, base + simulatedSeconds()) : 0L;
+    }
+
+    private long simulatedSeconds() {
+        return Math.max(0L, (SimTime.nowMs() - playtimeEpochMs) / 1000L);
+    }
+
+    // ==========================================================
+    // PLOTS / MACHINES / RESOURCES
+    // ==========================================================
+    @Override
+    public Long createPlot(UUID ownerId, int x, int z, int worldId) {
+        PlotRows rows = plots.computeIfAbsent(ownerId, k -> new PlotRows(nextPlotId.incrementAndGet()));
+        plotOwners.put(rows.plotId, ownerId);
+        return rows.plotId;
+    }
+
+    @Override
+    public Long getPlotId(UUID ownerId) {
+        PlotRows rows = (ownerId != null) ? plots.get(ownerId) : null;
+        return (rows != null) ? rows.plotId : null;
+    }
+
+    @Override public Map<UUID, PlotDAO.PlotStamp> loadPlotStamps() { return Map.of(); }
+
+    @Override
+    public int getPlotItemsPlaced(UUID ownerId) {
+        PlotRows rows = (ownerId != null) ? plots.get(ownerId) : null;
+        return (rows != null) ? rows.machines.size() : 0;
+    }
+
+    @Override
+    public int getPlotVoidItemCapExtra(UUID ownerId) {
+        PlotRows rows = (ownerId != null) ? plots.get(ownerId) : null;
+        return (rows != null) ? rows.voidItemCapExtra : 0;
+    }
+
+    @Override
+    public int addPlotVoidItemCapExtra(UUID ownerId, int delta) {
+        PlotRows rows = (ownerId != null) ? plots.get(ownerId) : null;
+        if (rows == null) return 0;
+        synchronized (rows) {
+            rows.voidItemCapExtra = Math.max(0, rows.voidItemCapExtra + delta);
+            return rows.voidItemCapExtra;
+        }
+    }
+
+    @Override
+    public List<PlotObject> loadPlotMachines(UUID ownerId) {
+        PlotRows rows = (ownerId != null) ? plots.get(ownerId) : null;
+        if (rows == null) return List.of();
+        List<PlotObject> out = new ArrayList<>(rows.machines.size());
+        for (PlotObject m : rows.machines.values()) {
+            out.add(new PlotObject(m.getId(), rows.plotId, m.getX(), m.getY(), m.getZ(), m.getTypeId(), m.getMetaData().deepCopy()));
+        }
+        return out;
+    }
+
+    @Override
+    public Long createMachine(UUID ownerId, PlacedMachine machine) {
+        PlotRows rows = (ownerId != null) ? plots.get(ownerId) : null;
+        if (rows == null) return null;
+        long id = nextMachineId.incrementAndGet();
+        rows.machines.put(id, new PlotObject(id, rows.plotId, machine.getPos().x(), machine.getPos().y(), machine.getPos().z(),
+                machine.getTypeId(), machine.serialize().deepCopy()));
+        machineOwners.put(id, ownerId);
+        return id;
+    }
+
+    @Override
+    public void deleteMachine(Long dbId) {
+        if (dbId == null) return;
+        UUID owner = machineOwners.remove(dbId);
+        PlotRows rows = (owner != null) ? plots.get(owner) : null;
+        if (rows != null) rows.machines.remove(dbId);
+    }
+
+    @Override
+    public void updateMachinesMetadata(List<PlacedMachine> machines) {
+        for (PlacedMachine m : machines) {
+            Long id = m.getDbId();
+            UUID owner = (id != null) ? machineOwners.get(id) : null;
+            PlotRows rows = (owner != null) ? plots.get(owner) : null;
+            PlotObject row = (rows != null) ? rows.machines.get(id) : null;
+            if (row != null) row.setMetaData(m.serialize().deepCopy());
+        }
+    }
+
+    @Override
+    public void clearPlotData(UUID ownerId) {
+        PlotRows rows = (ownerId != null) ? plots.get(ownerId) : null;
+        if (rows == null) return;
+        for (Long mid : rows.machines.keySet()) machineOwners.remove(mid);
+        rows.machines.clear();
+        rows.resources.clear();
+    }
+
+    @Override
+    public void saveResource(Long plotId, int x, int z, MatterColor type) {
+        UUID owner = (plotId != null) ? plotOwners.get(plotId) : null;
+        PlotRows rows = (owner != null) ? plots.get(owner) : null;
+        if (rows != null && type != null) rows.resources.put(new GridPosition(x, 0, z), type);
+    }
+
+    @Override
+    public Map<GridPosition, MatterColor> loadResources(Long plotId) {
+        UUID owner = (plotId != null) ? plotOwners.get(plotId) : null;
+        PlotRows rows = (owner != null) ? plots.get(owner) : null;
+        return (rows != null) ? new HashMap<>(rows.resources) : new HashMap<>();
+    }
+
+    @Override
+    public PlotUnlockState loadPlotUnlockState(UUID ownerId) {
+        PlotRows rows = (ownerId != null) ? plots.get(ownerId) : null;
+        return (rows != null) ? rows.unlock : PlotUnlockState.zero();
+    }
+
+    @Override
+    public boolean updatePlotUnlockState(UUID ownerId, PlotUnlockState state) {
+        PlotRows rows = (ownerId != null) ? plots.get(ownerId) : null;
+        if (rows == null || state == null) return false;
+        rows.unlock = state;
+        return true;
+    }
+
+    // ==========================================================
+    // TRANSACTIONS (counted, not stored)
+    // ==========================================================
+    @Override
+    public void logTransaction(PlayerProfile player, String actionType, String currency, double amount, String itemId,
+                               Integer factionId, Double value) {
+        transactions.incrementAndGet();
+    }
+
+    @Override
+    public void close() {
+        super.close();
+        scheduler.close();
+    }
+
+    // ==========================================================
+    // INVENTORY ROWS (behind the live PlayerInventoryStore)
+    // ==========================================================
+
+    private static final class MemoryInventoryDAO extends InventoryDAO {
+        private final Map<UUID, Map<String, Integer>> rows = new ConcurrentHashMap<>();
+
+        MemoryInventoryDAO() {
+            super(null);
+        }
+
+        void put(UUID owner, Map<String, Integer> items) {
+            rows.put(owner, new ConcurrentHashMap<>(items != null ? items : Map.of()));
+        }
+
+        void remove(UUID owner) {
+            rows.remove(owner);
+        }
+
+        private Map<String, Integer> of(UUID owner) {
+            return rows.computeIfAbsent(owner, k -> new ConcurrentHashMap<>());
+        }
+
+        @Override
+        public Map<String, Integer> loadAll(UUID playerUuid) {
+            return new LinkedHashMap<>(of(playerUuid));
+        }
+
+        @Override
+        public void saveQuantities(Collection<QuantityRow> list) {
+            if (list == null) return;
+            for (QuantityRow r : list) of(r.playerUuid()).put(r.itemId(), Math.max(0, r.quantity()));
+        }
+
+        @Override
+        public int getItemCount(UUID playerUuid, String itemId) {
+            return of(playerUuid).getOrDefault(itemId, 0);
+        }
+
+        @Override
+        public void modifyItemCount(UUID playerUuid, String itemId, int delta) {
+            of(playerUuid).merge(itemId, delta, (a, b) -> Math.max(0, a + b));
+        }
+    }
+}
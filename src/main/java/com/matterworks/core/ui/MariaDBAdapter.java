@@ -2,6 +2,9 @@ package com.matterworks.core.ui;
 
 import com.matterworks.core.common.GridPosition;
 import com.matterworks.core.database.DatabaseManager;
+import com.matterworks.core.database.DbScheduler;
+import com.matterworks.core.database.PlayerInventoryStore;
+import com.matterworks.core.database.ServerGameStateCache;
 import com.matterworks.core.database.dao.*;
 import com.matterworks.core.domain.factions.FactionDefinition;
 import com.matterworks.core.domain.factions.FactionPricingRule;
@@ -9,11 +12,14 @@ import com.matterworks.core.domain.machines.base.PlacedMachine;
 import com.matterworks.core.domain.matter.MatterColor;
 import com.matterworks.core.domain.matter.MatterEffect;
 import com.matterworks.core.domain.matter.MatterShape;
+import com.matterworks.core.domain.matter.RecipeBook;
 import com.matterworks.core.domain.player.PlayerProfile;
 import com.matterworks.core.domain.shop.VoidShopItem;
 import com.matterworks.core.model.PlotObject;
 import com.matterworks.core.model.PlotUnlockState;
+import com.matterworks.core.synchronization.PlotLeaseStore;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
@@ -26,11 +32,13 @@ public class MariaDBAdapter {
     private final PlotDAO plotDAO;
     private final PlotResourceDAO resourceDAO;
     private final InventoryDAO inventoryDAO;
+    private final PlayerInventoryStore inventoryStore;
     private final TechDefinitionDAO techDefinitionDAO;
     private final TransactionDAO transactionDAO;
     private final VoidShopDAO voidShopDAO;
 
     private final ServerGameStateDAO serverGameStateDAO;
+    private final ServerGameStateCache gameStateCache;
     private final PlayerSessionDAO playerSessionDAO;
     private final PlotMaintenanceDAO plotMaintenanceDAO;
     private final VoidShopPurchaseDAO voidShopPurchaseDAO;
@@ -41,6 +49,37 @@ public class MariaDBAdapter {
     // NEW: matter pricing (shape/color/effect)
     private final MatterPricingDAO matterPricingDAO;
 
+    // processor recipe overrides (optional table)
+    private final RecipeDefinitionDAO recipeDefinitionDAO;
+
+    /**
+     * Backend without a database (replay runs, see InMemoryRepository): every DAO is absent,
+     * so subclasses must override each data method; only the inventory store is live,
+     * running over the given DAO.
+     */
+    protected MariaDBAdapter(InventoryDAO inventoryDAO) {
+        this.dbManager = null;
+
+        this.playerDAO = null;
+        this.plotDAO = null;
+        this.resourceDAO = null;
+        this.inventoryDAO = inventoryDAO;
+        this.inventoryStore = new PlayerInventoryStore(inventoryDAO);
+        this.techDefinitionDAO = null;
+        this.transactionDAO = null;
+        this.voidShopDAO = null;
+
+        this.serverGameStateDAO = null;
+        this.gameStateCache = null;
+        this.playerSessionDAO = null;
+        this.plotMaintenanceDAO = null;
+        this.voidShopPurchaseDAO = null;
+
+        this.factionDAO = null;
+        this.matterPricingDAO = null;
+        this.recipeDefinitionDAO = null;
+    }
+
     public MariaDBAdapter(DatabaseManager dbManager) {
         this.dbManager = dbManager;
 
@@ -48,11 +87,13 @@ public class MariaDBAdapter {
         this.plotDAO = new PlotDAO(dbManager);
         this.resourceDAO = new PlotResourceDAO(dbManager);
         this.inventoryDAO = new InventoryDAO(dbManager);
+        this.inventoryStore = new PlayerInventoryStore(inventoryDAO);
         this.techDefinitionDAO = new TechDefinitionDAO(dbManager);
         this.transactionDAO = new TransactionDAO(dbManager);
         this.voidShopDAO = new VoidShopDAO(dbManager);
 
         this.serverGameStateDAO = new ServerGameStateDAO(dbManager);
+        this.gameStateCache = new ServerGameStateCache(serverGameStateDAO);
         this.playerSessionDAO = new PlayerSessionDAO(dbManager);
         this.plotMaintenanceDAO = new PlotMaintenanceDAO(dbManager);
         this.voidShopPurchaseDAO = new VoidShopPurchaseDAO(dbManager);
@@ -61,6 +102,7 @@ public class MariaDBAdapter {
 
         // NEW
         this.matterPricingDAO = new MatterPricingDAO(dbManager);
+        this.recipeDefinitionDAO = new RecipeDefinitionDAO(dbManager);
     }
 
     // --- Extra ---
@@ -70,6 +112,9 @@ public class MariaDBAdapter {
 
     public DatabaseManager getDbManager() { return dbManager; }
 
+    /** Lanes for background DB work (see DbScheduler). */
+    public DbScheduler getDbScheduler() { return dbManager.getScheduler(); }
+
     public TechDefinitionDAO getTechDefinitionDAO() { return techDefinitionDAO; }
 
     // ==========================================================
@@ -90,6 +135,14 @@ public class MariaDBAdapter {
         catch (Throwable t) { return Map.of(); }
     }
 
+    // ==========================================================
+    // RECIPES (DATA-DRIVEN)
+    // ==========================================================
+    public List<RecipeBook.Definition> loadRecipeDefinitions() {
+        try { return recipeDefinitionDAO.loadAll(); }
+        catch (Throwable t) { return List.of(); }
+    }
+
     // ==========================================================
     // FACTIONS (DATA-DRIVEN)
     // ==========================================================
@@ -104,13 +157,13 @@ public class MariaDBAdapter {
     }
 
     public int getActiveFactionId() {
-        try { return serverGameStateDAO.getActiveFactionId(); }
-        catch (Throwable t) { return 1; }
+        return gameStateCache.get().activeFactionId();
     }
 
     public void setActiveFactionId(int factionId) {
         try { serverGameStateDAO.setActiveFactionId(factionId); }
         catch (Throwable ignored) {}
+        gameStateCache.update(s -> s.withActiveFactionId(factionId));
     }
 
     // ==========================================================
@@ -131,14 +184,17 @@ public class MariaDBAdapter {
     }
 
     public boolean purchaseVoidShopItemAtomic(UUID playerId, String itemId, int unitPrice, int amount, boolean isAdmin) {
-        return voidShopPurchaseDAO.purchaseVoidShopItemAtomic(playerId, itemId, unitPrice, amount, isAdmin);
+        boolean ok = voidShopPurchaseDAO.purchaseVoidShopItemAtomic(playerId, itemId, unitPrice, amount, isAdmin);
+        // the purchase already upserted player_inventory: mirror it in memory
+        if (ok) inventoryStore.applyExternalDelta(playerId, itemId, amount);
+        return ok;
     }
 
     // ==========================================================
     // CAP PLOT ITEMS
     // ==========================================================
     public int getDefaultItemPlacedOnPlotCap() {
-        return serverGameStateDAO.getDefaultItemPlacedOnPlotCap();
+        return gameStateCache.get().defaultItemPlacedOnPlotCap();
     }
 
     public int getPlotItemsPlaced(UUID ownerId) {
@@ -146,20 +202,21 @@ public class MariaDBAdapter {
     }
 
     public int getItemCapIncreaseStep() {
-        return serverGameStateDAO.getItemCapIncreaseStep();
+        return gameStateCache.get().itemCapIncreaseStep();
     }
 
     public int getMaxItemPlacedOnPlotCap() {
-        return serverGameStateDAO.getMaxItemPlacedOnPlotCap();
+        return gameStateCache.get().maxItemPlacedOnPlotCap();
     }
 
     public void updateMaxItemPlacedOnPlotCap(int newCap) {
         serverGameStateDAO.updateMaxItemPlacedOnPlotCap(newCap);
+        gameStateCache.update(s -> s.withMaxItemPlacedOnPlotCap(newCap));
     }
 
-    // reads server_gamestate.itemcap_void_increase_step (compat fallback handled in DAO)
+    // server_gamestate.itemcap_void_increase_step (compat fallback handled in DAO snapshot load)
     public int getVoidItemCapIncreaseStep() {
-        return serverGameStateDAO.getVoidItemCapIncreaseStep();
+        return gameStateCache.get().voidItemCapIncreaseStep();
     }
 
     // persisted per-plot bonus on plots.void_itemcap_extra
@@ -175,19 +232,20 @@ public class MariaDBAdapter {
     // GLOBAL OVERCLOCK (server-wide, real time)
     // ==========================================================
     public long getGlobalOverclockEndEpochMs() {
-        return serverGameStateDAO.getGlobalOverclockEndEpochMs();
+        return gameStateCache.get().globalOverclockEndEpochMs();
     }
 
     public double getGlobalOverclockMultiplier() {
-        return serverGameStateDAO.getGlobalOverclockMultiplier();
+        return gameStateCache.get().globalOverclockMultiplier();
     }
 
     public long getGlobalOverclockLastDurationSeconds() {
-        return serverGameStateDAO.getGlobalOverclockLastDurationSeconds();
+        return gameStateCache.get().globalOverclockLastDurationSeconds();
     }
 
     public void setGlobalOverclockState(long endEpochMs, double multiplier, long lastDurationSeconds) {
         serverGameStateDAO.setGlobalOverclockState(endEpochMs, multiplier, lastDurationSeconds);
+        gameStateCache.update(s -> s.withGlobalOverclock(endEpochMs, multiplier, lastDurationSeconds));
     }
 
     // ==========================================================
@@ -197,8 +255,18 @@ public class MariaDBAdapter {
         return serverGameStateDAO.loadServerConfig();
     }
 
+    /** In-memory snapshot of server_gamestate (no DB access). */
+    public ServerGameState getServerGameState() {
+        return gameStateCache.get();
+    }
+
+    /** Forces a synchronous reload of the snapshot (admin reload actions). */
+    public ServerGameState reloadServerGameState() {
+        return gameStateCache.reload();
+    }
+
     public int loadMinutesToInactive() {
-        return serverGameStateDAO.loadMinutesToInactive();
+        return gameStateCache.get().minutesToInactive();
     }
 
     // ==========================================================
@@ -212,18 +280,58 @@ public class MariaDBAdapter {
     // ==========================================================
     public PlayerProfile loadPlayerProfile(UUID uuid) { return playerDAO.load(uuid); }
     public void savePlayerProfile(PlayerProfile profile) { playerDAO.save(profile); }
+    public boolean savePlayerProfiles(Collection<PlayerProfile> profiles) { return playerDAO.saveAll(profiles); }
     public List<PlayerProfile> getAllPlayers() { return playerDAO.loadAll(); }
-    public void deletePlayerFull(UUID uuid) { plotMaintenanceDAO.deletePlayerFull(uuid); }
+    public void deletePlayerFull(UUID uuid) {
+        inventoryStore.discard(uuid);
+        plotMaintenanceDAO.deletePlayerFull(uuid);
+    }
 
     // ==========================================================
     // INVENTORY
     // ==========================================================
+    // In-memory authority (loaded once per player), persisted write-behind.
     public int getInventoryItemCount(UUID ownerId, String itemId) {
-        return inventoryDAO.getItemCount(ownerId, itemId);
+        return inventoryStore.count(ownerId, itemId);
     }
 
     public void modifyInventoryItem(UUID ownerId, String itemId, int delta) {
-        inventoryDAO.modifyItemCount(ownerId, itemId, delta);
+        inventoryStore.modify(ownerId, itemId, delta);
+    }
+
+    /** Owned quantities of one player (session recordings, admin views). */
+    public Map<String, Integer> getInventorySnapshot(UUID ownerId) {
+        return inventoryStore.snapshot(ownerId);
+    }
+
+    /** Atomic reserve for buy -> place flows: commit() consumes, release() gives back. */
+    public PlayerInventoryStore.Reservation reserveInventoryItem(UUID ownerId, String itemId, int amount) {
+        return inventoryStore.tryReserve(ownerId, itemId, amount);
+    }
+
+    /** Plot unload: pending inventory rows are written, then the player is dropped from memory. */
+    public void flushAndEvictInventory(UUID ownerId) {
+        inventoryStore.flushAndEvict(ownerId);
+    }
+
+    /**
+     * Clustered plot release: pending rows are written only if the lease guard still holds
+     * (same transaction), dropped otherwise. Waits for the write.
+     * @return false when the rows were not written
+     */
+    public boolean flushAndEvictInventory(UUID ownerId, PlotLeaseStore.LeaseGuard guard) {
+        return inventoryStore.flushAndEvictFenced(ownerId, guard);
+    }
+
+    /** Plot taken over by another node: pending inventory rows are dropped, not written. */
+    public void discardInventory(UUID ownerId) {
+        inventoryStore.discard(ownerId);
+    }
+
+    /** Shutdown: drains the inventory write-behind queue and stops background threads. */
+    public void close() {
+        inventoryStore.close();
+        if (gameStateCache != null) gameStateCache.close();
     }
 
     // ==========================================================
@@ -249,9 +357,23 @@ public class MariaDBAdapter {
         plotMaintenanceDAO.updateMachinesMetadata(machines);
     }
 
+    /**
+     * Metadata flush of one plot (GridManager.persistPlot): guard == null writes as
+     * updateMachinesMetadata, otherwise in a transaction fenced by the plot's lease.
+     * @return false when the lease is no longer ours (nothing written)
+     */
+    public boolean updateMachinesMetadata(UUID ownerId, List<PlacedMachine> machines, PlotLeaseStore.LeaseGuard guard) {
+        if (guard == null) {
+            updateMachinesMetadata(machines);
+            return true;
+        }
+        return plotMaintenanceDAO.updateMachinesMetadataFenced(ownerId, machines, guard);
+    }
+
     public void clearPlotData(UUID ownerId) { plotMaintenanceDAO.clearPlotData(ownerId); }
 
     public Long getPlotId(UUID ownerId) { return plotDAO.findPlotIdByOwner(ownerId); }
+    public Map<UUID, PlotDAO.PlotStamp> loadPlotStamps() { return plotDAO.loadPlotStamps(); }
 
     // ==========================================================
     // RESOURCES
@@ -265,11 +387,14 @@ public class MariaDBAdapter {
     }
 
     public int getVoidPlotItemBreakerIncreased() {
-        return serverGameStateDAO.getVoidPlotItemBreakerIncreased();
+        return gameStateCache.get().voidPlotItemBreakerIncreased();
     }
 
     public int addVoidPlotItemBreakerIncreased(int delta) {
-        return serverGameStateDAO.addVoidPlotItemBreakerIncreased(delta);
+        if (delta == 0) return getVoidPlotItemBreakerIncreased();
+        int v = serverGameStateDAO.addVoidPlotItemBreakerIncreased(delta);
+        gameStateCache.update(s -> s.withVoidPlotItemBreakerIncreased(v));
+        return v;
     }
 
     public long getTotalPlaytimeSeconds(UUID playerUuid) {
@@ -277,8 +402,7 @@ public class MariaDBAdapter {
     }
 
     public int getFactionRotationHours() {
-        try { return serverGameStateDAO.getFactionRotationHours(); }
-        catch (Throwable ignored) { return 0; }
+        return gameStateCache.get().factionRotationHours();
     }
 
     // ==========================================================
@@ -0,0 +1,78 @@
+package com.matterworks.core.ui;
+
+/**
+ * Immutable snapshot of the runtime settings stored in the single server_gamestate row.
+ *
+ * Loaded with one query (ServerGameStateDAO.loadGameState) and served from memory by
+ * ServerGameStateCache: hot paths (placement cap, overclock, rotation) never touch the DB.
+ * Values are already normalized (same clamps/defaults the old per-column getters applied).
+ */
+public record ServerGameState(
+        int defaultItemPlacedOnPlotCap,
+        int itemCapIncreaseStep,
+        int voidItemCapIncreaseStep,
+        int maxItemPlacedOnPlotCap, // Integer.MAX_VALUE = unlimited
+
+        int minutesToInactive,
+        int voidPlotItemBreakerIncreased,
+
+        long globalOverclockEndEpochMs,
+        double globalOverclockMultiplier,
+        long globalOverclockLastDurationSeconds,
+
+        int factionRotationHours,
+        int activeFactionId
+) {
+
+    public static ServerGameState defaults() {
+        return new ServerGameState(
+                1000, 0, 0, Integer.MAX_VALUE,
+                5, 0,
+                0L, 1.0, 0L,
+                0, 1
+        );
+    }
+
+    // ==========================================================
+    // Optimistic updates (writers swap in a new snapshot right after the UPDATE)
+    // ==========================================================
+
+    public ServerGameState withMaxItemPlacedOnPlotCap(int cap) {
+        int v = (cap <= 0) ? Integer.MAX_VALUE : cap;
+        return new ServerGameState(
+                defaultItemPlacedOnPlotCap, itemCapIncreaseStep, voidItemCapIncreaseStep, v,
+                minutesToInactive, voidPlotItemBreakerIncreased,
+                globalOverclockEndEpochMs, globalOverclockMultiplier, globalOverclockLastDurationSeconds,
+                factionRotationHours, activeFactionId
+        );
+    }
+
+    public ServerGameState withVoidPlotItemBreakerIncreased(int value) {
+        return new ServerGameState(
+                defaultItemPlacedOnPlotCap, itemCapIncreaseStep, voidItemCapIncreaseStep, maxItemPlacedOnPlotCap,
+                minutesToInactive, Math.max(0, value),
+                globalOverclockEndEpochMs, globalOverclockMultiplier, globalOverclockLastDurationSeconds,
+                factionRotationHours, activeFactionId
+        );
+    }
+
+    public ServerGameState withGlobalOverclock(long endEpochMs, double multiplier, long lastDurationSeconds) {
+        double mult = multiplier;
+        if (Double.isNaN(mult) || Double.isInfinite(mult) || mult <= 0.0) mult = 1.0;
+        return new ServerGameState(
+                defaultItemPlacedOnPlotCap, itemCapIncreaseStep, voidItemCapIncreaseStep, maxItemPlacedOnPlotCap,
+                minutesToInactive, voidPlotItemBreakerIncreased,
+                Math.max(0L, endEpochMs), mult, Math.max(0L, lastDurationSeconds),
+                factionRotationHours, activeFactionId
+        );
+    }
+
+    public ServerGameState withActiveFactionId(int factionId) {
+        return new ServerGameState(
+                defaultItemPlacedOnPlotCap, itemCapIncreaseStep, voidItemCapIncreaseStep, maxItemPlacedOnPlotCap,
+                minutesToInactive, voidPlotItemBreakerIncreased,
+                globalOverclockEndEpochMs, globalOverclockMultiplier, globalOverclockLastDurationSeconds,
+                factionRotationHours, Math.max(1, factionId)
+        );
+    }
+}
@@ -1,6 +1,5 @@
 package com.matterworks.core.ui.swing.app;
 
-import com.matterworks.core.domain.machines.base.PlacedMachine;
 import com.matterworks.core.domain.machines.registry.BlockRegistry;
 import com.matterworks.core.domain.player.PlayerProfile;
 import com.matterworks.core.managers.GridManager;
@@ -1497,14 +1496,10 @@ public class MatterWorksGUI extends JFrame {
     private int computePlacedItemsIncludingStructures(UUID ownerId) {
         // Fast path: runtime snapshot (includes structures)
         try {
-            var snap = gridManager.getSnapshot(ownerId);
+            // Unique machines are counted once when the snapshot is published
+            var snap = gridManager.getPlotSnapshot(ownerId);
             if (snap != null && !snap.isEmpty()) {
-                IdentityHashMap<Object, Boolean> seen = new IdentityHashMap<>();
-                for (PlacedMachine m : snap.values()) {
-                    if (m == null) continue;
-                    seen.put(m, Boolean.TRUE);
-                }
-                return seen.size();
+                return snap.machineCount();
             }
         } catch (Throwable ignored) {}
 
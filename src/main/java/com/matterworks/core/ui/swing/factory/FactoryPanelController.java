@@ -10,12 +10,14 @@ import com.matterworks.core.domain.machines.logistics.Merger;
 import com.matterworks.core.domain.machines.logistics.Splitter;
 import com.matterworks.core.domain.matter.MatterColor;
 import com.matterworks.core.managers.GridManager;
+import com.matterworks.core.managers.PlotSnapshot;
 
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.*;
 import java.util.HashMap;
 import java.util.IdentityHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.*;
@@ -46,6 +48,10 @@ final class FactoryPanelController {
 
 
     private volatile Snapshot snapshot = new Snapshot(Map.of(), Map.of());
+
+    // Last layout seen by the refresh thread (versioned, shared with the simulation: never copied)
+    private volatile PlotSnapshot plotSnapshot = null;
+    private volatile UUID plotSnapshotOwner = null;
     private volatile long lastFingerprint = 0L;
 
     // Cache PlotAreaInfo computed in background (never call GridManager from EDT)
@@ -474,19 +480,24 @@ final class FactoryPanelController {
 
         UUID u = state.playerUuid;
 
-        Map<GridPosition, PlacedMachine> machines;
+        PlotSnapshot layout;
         Map<GridPosition, MatterColor> resources;
         GridManager.PlotAreaInfo areaInfo;
         int heightCap = 4;
 
         try {
             if (u == null) {
-                machines = Map.of();
+                layout = PlotSnapshot.EMPTY;
                 resources = Map.of();
                 areaInfo = null;
             } else {
-                Map<GridPosition, PlacedMachine> snap = gridManager.getSnapshot(u);
-                machines = (snap != null) ? snap : Map.of();
+                // Shared immutable layout: re-fetched only when its version moved
+                PlotSnapshot prev = plotSnapshot;
+                boolean sameOwner = u.equals(plotSnapshotOwner);
+                PlotSnapshot next = (sameOwner && prev != null && !forceRepaint)
+                        ? gridManager.getSnapshotIfChanged(u, prev.version())
+                        : gridManager.getPlotSnapshot(u);
+                layout = (next != null) ? next : prev;
 
                 Map<GridPosition, MatterColor> res = gridManager.getTerrainResources(u);
                 resources = (res != null) ? new HashMap<>(res) : Map.of();
@@ -501,12 +512,15 @@ final class FactoryPanelController {
             }
         } catch (Throwable ex) {
             ex.printStackTrace();
-            machines = Map.of();
+            layout = PlotSnapshot.EMPTY;
             resources = Map.of();
             areaInfo = null;
             heightCap = 4;
         }
 
+        plotSnapshot = layout;
+        plotSnapshotOwner = u;
+
         // Update vertical cap + clamp current layer
         int safeCap = Math.max(1, heightCap);
         state.maxBuildHeight = safeCap;
@@ -517,9 +531,9 @@ final class FactoryPanelController {
         else if (cur > maxLayer) state.currentLayer = maxLayer;
 
         // Always refresh meta-cache in background (EDT reads only)
-        refreshMetaCache(machines);
+        refreshMetaCache(layout.machines());
 
-        long fp = fingerprint(machines, resources);
+        long fp = fingerprint(layout.version(), resources);
 
         // Always update plot area info snapshot
         plotAreaInfoSnapshot = areaInfo;
@@ -530,7 +544,7 @@ final class FactoryPanelController {
         }
 
         lastFingerprint = fp;
-        snapshot = new Snapshot(machines, resources);
+        snapshot = new Snapshot(layout.cells(), resources);
 
         invalidateTooltipCache();
 
@@ -558,21 +572,18 @@ final class FactoryPanelController {
      * Background-only: refresh meta-cache with a tight time budget and without holding the lock
      * while serializing (prevents EDT stalls).
      */
-    private void refreshMetaCache(Map<GridPosition, PlacedMachine> machines) {
+    private void refreshMetaCache(List<PlacedMachine> machines) {
         if (disposed) return;
         if (machines == null || machines.isEmpty()) return;
 
         final long now = System.nanoTime();
         final long deadline = now + META_REFRESH_BUDGET_NANOS;
 
-        // De-duplicate instances
-        IdentityHashMap<PlacedMachine, Boolean> seen = new IdentityHashMap<>();
-
-        for (PlacedMachine m : machines.values()) {
+        // PlotSnapshot.machines() is already de-duplicated
+        for (PlacedMachine m : machines) {
             if (System.nanoTime() > deadline) break;
             if (m == null) continue;
             if (!needsMeta(m)) continue;
-            if (seen.put(m, Boolean.TRUE) != null) continue;
 
             boolean shouldRebuild;
             synchronized (metaCache) {
@@ -599,47 +610,13 @@ final class FactoryPanelController {
         }
     }
 
-    private long fingerprint(Map<GridPosition, PlacedMachine> machines, Map<GridPosition, MatterColor> resources) {
-        // Order-independent fingerprint:
-        // same content => same hash, regardless of Map iteration order (HashMap, etc.)
+    private long fingerprint(long layoutVersion, Map<GridPosition, MatterColor> resources) {
+        // Machines: the layout version changes on every place/remove/load (no per-cell hashing).
+        // Resources: order-independent fingerprint (same content => same hash, regardless of Map order)
         long h = 0x9E3779B97F4A7C15L;
 
-        if (machines != null && !machines.isEmpty()) {
-            long acc = 0L;
-            for (var e : machines.entrySet()) {
-                GridPosition p = e.getKey();
-                PlacedMachine m = e.getValue();
-                if (p == null || m == null) continue;
-
-                long x = p.x();
-                long y = p.y();
-                long z = p.z();
-
-                // Base position hash
-                long eh = (x * 0xBF58476D1CE4E5B9L) ^ (y * 0x94D049BB133111EBL) ^ (z * 0x9E3779B97F4A7C15L);
-
-                // Stable machine identity: typeId only (no mutable runtime fields)
-                String id = m.getTypeId();
-                if (id != null) {
-                    eh ^= (long) id.hashCode() * 0xD6E8FEB86659FD93L;
-                }
-
-                // Avalanche/mix (Murmur-like)
-                eh ^= (eh >>> 33);
-                eh *= 0xFF51AFD7ED558CCDL;
-                eh ^= (eh >>> 33);
-                eh *= 0xC4CEB9FE1A85EC53L;
-                eh ^= (eh >>> 33);
-
-                // Commutative combine
-                acc ^= eh;
-                acc += 0x9E3779B97F4A7C15L;
-            }
-
-            // Fold machines accumulator into h
-            h ^= acc;
-            h = Long.rotateLeft(h, 27) * 0x3C79AC492BA7B653L + 0x1C69B3F74AC4AE35L;
-        }
+        h ^= layoutVersion * 0xBF58476D1CE4E5B9L;
+        h = Long.rotateLeft(h, 27) * 0x3C79AC492BA7B653L + 0x1C69B3F74AC4AE35L;
 
         if (resources != null && !resources.isEmpty()) {
             long acc = 0L;
@@ -12,13 +12,26 @@ import com.matterworks.core.domain.machines.logistics.Merger;
 import com.matterworks.core.domain.machines.logistics.Splitter;
 import com.matterworks.core.domain.machines.registry.BlockRegistry;
 import com.matterworks.core.domain.matter.MatterColor;
+import com.matterworks.core.managers.GridManager;
 
 import java.awt.*;
-import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.HashMap;
 import java.util.IdentityHashMap;
+import java.util.List;
 import java.util.Map;
-
+import java.util.Objects;
+
+/**
+ * Paints the factory view from the controller snapshot (EDT only).
+ *
+ * PERFORMANCE:
+ * - Terrain and machine bodies live in offscreen tiles (FactoryTileCache); a tile is redrawn
+ *   only when the cells it covers changed, so paint cost follows the change, not the plot size.
+ * - Per frame: one blit per visible tile, the items of belts/splitters/mergers, the ghost.
+ */
 final class FactoryPanelRenderer {
 
     private static final Font FONT_TINY = new Font("SansSerif", Font.PLAIN, 9);
@@ -38,30 +51,48 @@ final class FactoryPanelRenderer {
     // Special input color for "dye/color" (Chromator slot1 + ColorMixer inputs)
     private static final Color PORT_COLOR_INPUT = new Color(255, 80, 200);
 
+    private static final Color LOCKED_OVERLAY = new Color(255, 0, 0, 35);
+
     private final BlockRegistry registry;
     private final FactoryPanelController controller;
     private final FactoryPanelState state;
 
-    private volatile BufferedImage gridImage;
-    private volatile int gridKeyW = -1;
-    private volatile int gridKeyH = -1;
-    private volatile int gridKeyCell = -1;
-    private volatile int gridKeyOffX = -999999;
-    private volatile int gridKeyOffY = -999999;
-
     // Ghost cache
     private volatile String cachedGhostTool = null;
     private volatile Direction cachedGhostOri = null;
     private volatile Vector3Int cachedGhostDim = null;
 
     // Machine lookup for hit-tests (cell -> occupant machine).
-    // IMPORTANT: this is now cached and rebuilt only when machines change.
-    private volatile long occupancyFingerprint = Long.MIN_VALUE;
+    // IMPORTANT: this is cached and rebuilt only when the snapshot changes.
     private volatile Map<GridPosition, PlacedMachine> occupancyCache = Map.of();
 
     // Current paint frame lookup (points to occupancyCache)
     private Map<GridPosition, PlacedMachine> machineGrid = Map.of();
 
+    // ===== Tile scene (EDT only) =====
+    // Rebuilt only when the snapshot / layer / plot area changes; tiles whose signature
+    // did not change keep their offscreen image.
+    private final FactoryTileCache tiles = new FactoryTileCache();
+
+    private FactoryPanelController.Snapshot sceneSnapshot = null;
+    private Map<GridPosition, MatterColor> sceneResources = null;
+    private GridManager.PlotAreaInfo sceneArea = null;
+    private boolean sceneAreaSet = false;
+    private int sceneLayer = Integer.MIN_VALUE;
+
+    private final long[] resourceSig = FactoryTileCache.newSignatures();
+    private final long[] lockSig = FactoryTileCache.newSignatures();
+    private final long[] machineSig = FactoryTileCache.newSignatures();
+
+    @SuppressWarnings("unchecked")
+    private final ArrayList<PlacedMachine>[] tileMachines = new ArrayList[FactoryTileCache.TILE_COUNT];
+
+    // Belts / splitters / mergers of the current layer: their items are drawn every frame on top of the tiles
+    private final ArrayList<PlacedMachine> animated = new ArrayList<>();
+
+    // Tiles with a structure whose label (meta) was not cached yet: re-checked every paint
+    private final BitSet pendingMetaTiles = new BitSet(FactoryTileCache.TILE_COUNT);
+
     FactoryPanelRenderer(BlockRegistry registry, FactoryPanelController controller, FactoryPanelState state) {
         this.registry = registry;
         this.controller = controller;
@@ -77,14 +108,15 @@ final class FactoryPanelRenderer {
     void invalidateAllCaches() {
         invalidateGhostCache();
 
-        gridImage = null;
-        gridKeyW = -1;
-        gridKeyH = -1;
-        gridKeyCell = -1;
-        gridKeyOffX = -999999;
-        gridKeyOffY = -999999;
+        tiles.clear();
+        sceneSnapshot = null;
+        sceneResources = null;
+        sceneArea = null;
+        sceneAreaSet = false;
+        sceneLayer = Integer.MIN_VALUE;
+        animated.clear();
+        pendingMetaTiles.clear();
 
-        occupancyFingerprint = Long.MIN_VALUE;
         occupancyCache = Map.of();
         machineGrid = Map.of();
     }
@@ -100,108 +132,266 @@ final class FactoryPanelRenderer {
         int OFF_X = vp.offX();
         int OFF_Y = vp.offY();
 
-        ensureGridImage(width, height, CELL, OFF_X, OFF_Y);
-        if (gridImage != null) g2.drawImage(gridImage, 0, 0, null);
+        int layer = state.currentLayer;
+        boolean ground = (layer == 0);
 
-        var snap = controller.getSnapshot();
-
-        Map<GridPosition, PlacedMachine> machines = (snap.machines() != null) ? snap.machines() : Map.of();
+        tiles.ensureCell(CELL, g2.getDeviceConfiguration());
+        updateScene(controller.getSnapshot(), controller.getPlotAreaInfoSnapshot(), layer);
+        this.machineGrid = occupancyCache;
 
-        // Cache expanded occupancy only when machines changed
-        long fp = fingerprintMachines(machines);
-        if (fp != occupancyFingerprint) {
-            occupancyCache = buildExpandedOccupancy(machines);
-            occupancyFingerprint = fp;
+        // Visible tile range only: zoomed-in views never build off-screen tiles
+        int span = tiles.spanPx();
+        int last = FactoryTileCache.TILES_PER_SIDE - 1;
+        int tx0 = Math.max(0, Math.floorDiv(-OFF_X, span));
+        int tz0 = Math.max(0, Math.floorDiv(-OFF_Y, span));
+        int tx1 = Math.min(last, Math.floorDiv(width - OFF_X, span));
+        int tz1 = Math.min(last, Math.floorDiv(height - OFF_Y, span));
+
+        FactoryTileCache.Plane terrain = tiles.terrain(ground);
+        for (int tz = tz0; tz <= tz1; tz++) {
+            for (int tx = tx0; tx <= tx1; tx++) {
+                Image img = terrainTile(terrain, tx, tz, ground, CELL);
+                if (img != null) g2.drawImage(img, OFF_X + tx * span, OFF_Y + tz * span, null);
+            }
         }
-        this.machineGrid = occupancyCache;
 
-        if (state.currentLayer == 0) {
-            drawTerrainResources(g2, snap.resources(), CELL, OFF_X, OFF_Y);
+        FactoryTileCache.Plane machines = tiles.machines(layer);
+        for (int tz = tz0; tz <= tz1; tz++) {
+            for (int tx = tx0; tx <= tx1; tx++) {
+                Image img = machineTile(machines, tx, tz, CELL);
+                if (img != null) g2.drawImage(img, OFF_X + tx * span, OFF_Y + tz * span, null);
+            }
         }
 
+        drawAnimatedOverlays(g2, CELL, OFF_X, OFF_Y, width, height);
+        drawGhost(g2, CELL, OFF_X, OFF_Y);
+    }
 
-        drawLockedOverlay(g2, controller.getPlotAreaInfoSnapshot(), CELL, OFF_X, OFF_Y);
+    // ==========================================================
+    // SCENE (per-tile content + signatures)
+    // ==========================================================
 
+    private void updateScene(FactoryPanelController.Snapshot snap, GridManager.PlotAreaInfo area, int layer) {
+        Map<GridPosition, MatterColor> resources = (snap != null && snap.resources() != null) ? snap.resources() : Map.of();
+        Map<GridPosition, PlacedMachine> machines = (snap != null && snap.machines() != null) ? snap.machines() : Map.of();
 
-        drawMachines(g2, machines, CELL, OFF_X, OFF_Y);
-        drawGhost(g2, CELL, OFF_X, OFF_Y);
-    }
+        if (resources != sceneResources) {
+            computeResourceSignatures(resources);
+            sceneResources = resources;
+        }
 
-    private void ensureGridImage(int w, int h, int cell, int offX, int offY) {
-        BufferedImage img = gridImage;
-        if (img != null && gridKeyW == w && gridKeyH == h && gridKeyCell == cell && gridKeyOffX == offX && gridKeyOffY == offY) {
-            return;
+        if (!sceneAreaSet || !Objects.equals(area, sceneArea)) {
+            computeLockSignatures(area);
+            sceneArea = area;
+            sceneAreaSet = true;
         }
 
-        BufferedImage newImg = new BufferedImage(Math.max(1, w), Math.max(1, h), BufferedImage.TYPE_INT_ARGB);
-        Graphics2D gg = newImg.createGraphics();
-        try {
-            gg.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_OFF);
-            gg.setColor(GRID_COLOR);
+        boolean snapshotChanged = (snap != sceneSnapshot);
+        if (snapshotChanged) {
+            occupancyCache = buildExpandedOccupancy(machines);
+        }
 
-            int x0 = offX;
-            int y0 = offY;
-            int x1 = offX + FactoryPanelState.GRID_SIZE * cell;
-            int y1 = offY + FactoryPanelState.GRID_SIZE * cell;
+        if (snapshotChanged || layer != sceneLayer) {
+            assignMachinesToTiles(machines, layer);
+            for (int t = 0; t < FactoryTileCache.TILE_COUNT; t++) machineSig[t] = computeMachineSignature(t);
+            sceneSnapshot = snap;
+            sceneLayer = layer;
+        } else if (!pendingMetaTiles.isEmpty()) {
+            for (int t = pendingMetaTiles.nextSetBit(0); t >= 0; t = pendingMetaTiles.nextSetBit(t + 1)) {
+                machineSig[t] = computeMachineSignature(t);
+            }
+        }
+    }
 
-            for (int i = 0; i <= FactoryPanelState.GRID_SIZE; i++) {
-                int x = x0 + i * cell;
-                gg.drawLine(x, y0, x, y1);
+    private void computeResourceSignatures(Map<GridPosition, MatterColor> resources) {
+        Arrays.fill(resourceSig, 0L);
+        for (var e : resources.entrySet()) {
+            GridPosition p = e.getKey();
+            MatterColor c = e.getValue();
+            if (p == null || c == null || !inGrid(p.x(), p.z())) continue;
 
-                int y = y0 + i * cell;
-                gg.drawLine(x0, y, x1, y);
-            }
-        } finally {
-            gg.dispose();
+            int t = FactoryTileCache.tileIndex(FactoryTileCache.tileOf(p.x()), FactoryTileCache.tileOf(p.z()));
+            resourceSig[t] += mix(p.x() * 0xBF58476D1CE4E5B9L ^ p.z() * 0x94D049BB133111EBL ^ (c.ordinal() + 1L));
         }
+    }
 
-        gridImage = newImg;
-        gridKeyW = w;
-        gridKeyH = h;
-        gridKeyCell = cell;
-        gridKeyOffX = offX;
-        gridKeyOffY = offY;
+    private void computeLockSignatures(GridManager.PlotAreaInfo info) {
+        for (int tz = 0; tz < FactoryTileCache.TILES_PER_SIDE; tz++) {
+            for (int tx = 0; tx < FactoryTileCache.TILES_PER_SIDE; tx++) {
+                long h;
+                if (info == null) {
+                    h = 1L;
+                } else {
+                    // unlocked rectangle clipped to the tile
+                    int cx0 = tx * FactoryTileCache.TILE_CELLS;
+                    int cz0 = tz * FactoryTileCache.TILE_CELLS;
+                    int cx1 = cx0 + FactoryTileCache.TILE_CELLS;
+                    int cz1 = cz0 + FactoryTileCache.TILE_CELLS;
+
+                    int ux0 = clamp(info.minX(), cx0, cx1);
+                    int ux1 = clamp(info.maxXExclusive(), cx0, cx1);
+                    int uz0 = clamp(info.minZ(), cz0, cz1);
+                    int uz1 = clamp(info.maxZExclusive(), cz0, cz1);
+                    if (ux1 <= ux0 || uz1 <= uz0) ux0 = ux1 = uz0 = uz1 = -1;
+
+                    h = mix(2L + ux0 * 31L + ux1 * 1009L + uz0 * 65537L + uz1 * 2147483647L);
+                }
+                lockSig[FactoryTileCache.tileIndex(tx, tz)] = h;
+            }
+        }
     }
 
-    /**
-     * Fingerprint of machines to decide when to rebuild expanded occupancy.
-     * We hash: typeId + pos + orientation for each unique machine instance.
-     */
-    private long fingerprintMachines(Map<GridPosition, PlacedMachine> machines) {
-        if (machines == null || machines.isEmpty()) return 0L;
+    private void assignMachinesToTiles(Map<GridPosition, PlacedMachine> machines, int layer) {
+        for (int t = 0; t < FactoryTileCache.TILE_COUNT; t++) {
+            if (tileMachines[t] != null) tileMachines[t].clear();
+        }
+        animated.clear();
 
-        long h = 1469598103934665603L; // FNV offset basis
         IdentityHashMap<PlacedMachine, Boolean> seen = new IdentityHashMap<>();
-
         for (PlacedMachine m : machines.values()) {
             if (m == null) continue;
             if (seen.put(m, Boolean.TRUE) != null) continue;
 
-            GridPosition p = m.getPos();
-            if (p != null) {
-                h ^= (p.x() * 73856093L) ^ (p.y() * 19349663L) ^ (p.z() * 83492791L);
-                h *= 1099511628211L;
-            }
+            GridPosition pos = m.getPos();
+            if (pos == null) continue;
+
+            Vector3Int base = registry.getDimensions(m.getTypeId());
+            if (base == null) base = Vector3Int.one();
+            if (layer < pos.y() || layer >= pos.y() + base.y()) continue;
+
+            if (m instanceof ConveyorBelt || m instanceof Splitter || m instanceof Merger) animated.add(m);
 
-            Direction o = m.getOrientation();
-            if (o != null) {
-                h ^= (o.ordinal() + 1L) * 2654435761L;
-                h *= 1099511628211L;
+            // Footprint + 1 cell margin: some port markers are drawn on the neighbouring cell
+            Vector3Int eff = getEffectiveFootprint(m.getTypeId(), m.getOrientation());
+            int last = FactoryTileCache.TILES_PER_SIDE - 1;
+            int tx0 = clamp(FactoryTileCache.tileOf(pos.x() - 1), 0, last);
+            int tx1 = clamp(FactoryTileCache.tileOf(pos.x() + eff.x()), 0, last);
+            int tz0 = clamp(FactoryTileCache.tileOf(pos.z() - 1), 0, last);
+            int tz1 = clamp(FactoryTileCache.tileOf(pos.z() + eff.z()), 0, last);
+
+            for (int tz = tz0; tz <= tz1; tz++) {
+                for (int tx = tx0; tx <= tx1; tx++) {
+                    int t = FactoryTileCache.tileIndex(tx, tz);
+                    if (tileMachines[t] == null) tileMachines[t] = new ArrayList<>();
+                    tileMachines[t].add(m);
+                }
             }
+        }
+    }
+
+    /** Commutative hash of what the machine plane of the tile shows (0 = nothing). */
+    private long computeMachineSignature(int tile) {
+        pendingMetaTiles.clear(tile);
+
+        List<PlacedMachine> list = tileMachines[tile];
+        if (list == null || list.isEmpty()) return 0L;
 
-            String id = m.getTypeId();
-            if (id != null) {
-                h ^= id.hashCode();
-                h *= 1099511628211L;
+        long acc = 0L;
+        for (PlacedMachine m : list) {
+            GridPosition p = m.getPos();
+            long h = System.identityHashCode(m);
+            h = h * 31L + p.x() * 0xBF58476D1CE4E5B9L + p.y() * 0x94D049BB133111EBL + p.z() * 0x9E3779B97F4A7C15L;
+            h = h * 31L + (m.getOrientation() != null ? m.getOrientation().ordinal() + 1 : 0);
+            h = h * 31L + Objects.hashCode(m.getTypeId());
+
+            if ("STRUCTURE_GENERIC".equals(m.getTypeId())) {
+                String label = structureLabel(m);
+                if (label == null) pendingMetaTiles.set(tile);
+                h = h * 31L + Objects.hashCode(label);
             }
+            acc += mix(h);
+        }
+        return acc;
+    }
+
+    // ==========================================================
+    // TILES
+    // ==========================================================
+
+    private Image terrainTile(FactoryTileCache.Plane plane, int tx, int tz, boolean ground, int CELL) {
+        int tile = FactoryTileCache.tileIndex(tx, tz);
+        long sig = ground ? mix(lockSig[tile] ^ resourceSig[tile]) : lockSig[tile];
+        if (plane.isCurrent(tile, sig)) return plane.images[tile];
+
+        int cx0 = tx * FactoryTileCache.TILE_CELLS;
+        int cz0 = tz * FactoryTileCache.TILE_CELLS;
+        int cx1 = Math.min(FactoryPanelState.GRID_SIZE, cx0 + FactoryTileCache.TILE_CELLS);
+        int cz1 = Math.min(FactoryPanelState.GRID_SIZE, cz0 + FactoryTileCache.TILE_CELLS);
+
+        Graphics2D g = tiles.beginTile(plane, tile, tx, tz);
+        try {
+            g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_OFF);
+            drawGridLines(g, cx0, cz0, cx1, cz1, CELL);
+            if (ground) drawTerrainResources(g, sceneResources, cx0, cz0, cx1, cz1, CELL, 0, 0);
+            drawLockedOverlay(g, sceneArea, cx0, cz0, cx1, cz1, CELL, 0, 0);
+        } finally {
+            g.dispose();
+        }
+
+        plane.markDrawn(tile, sig, plane.images[tile]);
+        return plane.images[tile];
+    }
+
+    private Image machineTile(FactoryTileCache.Plane plane, int tx, int tz, int CELL) {
+        int tile = FactoryTileCache.tileIndex(tx, tz);
+        long sig = machineSig[tile];
+        if (plane.isCurrent(tile, sig)) return plane.images[tile];
+
+        List<PlacedMachine> list = tileMachines[tile];
+        if (list == null || list.isEmpty()) {
+            FactoryTileCache.markEmpty(plane, tile, sig);
+            return null;
+        }
+
+        Graphics2D g = tiles.beginTile(plane, tile, tx, tz);
+        try {
+            for (PlacedMachine m : list) drawMachineBody(g, m, CELL, 0, 0);
+        } finally {
+            g.dispose();
+        }
+
+        plane.markDrawn(tile, sig, plane.images[tile]);
+        return plane.images[tile];
+    }
+
+    private void drawGridLines(Graphics2D g, int cx0, int cz0, int cx1, int cz1, int CELL) {
+        g.setColor(GRID_COLOR);
+
+        int x0 = cx0 * CELL;
+        int y0 = cz0 * CELL;
+        int x1 = cx1 * CELL;
+        int y1 = cz1 * CELL;
+
+        for (int i = cx0; i <= cx1; i++) {
+            int x = i * CELL;
+            g.drawLine(x, y0, x, y1);
         }
+        for (int i = cz0; i <= cz1; i++) {
+            int y = i * CELL;
+            g.drawLine(x0, y, x1, y);
+        }
+    }
 
+    private static long mix(long h) {
+        h ^= (h >>> 33);
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= (h >>> 33);
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= (h >>> 33);
         return h;
     }
 
+    private static int clamp(int v, int min, int max) {
+        return Math.max(min, Math.min(max, v));
+    }
+
+    private static boolean inGrid(int x, int z) {
+        return x >= 0 && x < FactoryPanelState.GRID_SIZE && z >= 0 && z < FactoryPanelState.GRID_SIZE;
+    }
+
     /**
      * Builds a "cell -> machine" map including multi-cell footprints.
-     * This MUST NOT be called every paint; it is cached via fingerprint.
+     * This MUST NOT be called every paint; it is rebuilt only when the snapshot changes.
      */
     private Map<GridPosition, PlacedMachine> buildExpandedOccupancy(Map<GridPosition, PlacedMachine> machines) {
         if (machines == null || machines.isEmpty()) return Map.of();
@@ -237,7 +427,9 @@ final class FactoryPanelRenderer {
         return out;
     }
 
-    private void drawTerrainResources(Graphics2D g, Map<GridPosition, MatterColor> resources, int CELL, int OFF_X, int OFF_Y) {
+    private void drawTerrainResources(Graphics2D g, Map<GridPosition, MatterColor> resources,
+                                      int cx0, int cz0, int cx1, int cz1,
+                                      int CELL, int OFF_X, int OFF_Y) {
         if (resources == null || resources.isEmpty()) return;
         g.setFont(FONT_TINY);
 
@@ -245,7 +437,7 @@ final class FactoryPanelRenderer {
             GridPosition pos = entry.getKey();
             MatterColor type = entry.getValue();
             if (pos == null || type == null) continue;
-            if (pos.x() < 0 || pos.x() >= FactoryPanelState.GRID_SIZE || pos.z() < 0 || pos.z() >= FactoryPanelState.GRID_SIZE) continue;
+            if (pos.x() < cx0 || pos.x() >= cx1 || pos.z() < cz0 || pos.z() >= cz1) continue;
 
             int x = OFF_X + (pos.x() * CELL);
             int z = OFF_Y + (pos.z() * CELL);
@@ -258,7 +450,9 @@ final class FactoryPanelRenderer {
         }
     }
 
-    private void drawLockedOverlay(Graphics2D g, com.matterworks.core.managers.GridManager.PlotAreaInfo info, int CELL, int OFF_X, int OFF_Y) {
+    private void drawLockedOverlay(Graphics2D g, GridManager.PlotAreaInfo info,
+                                   int cx0, int cz0, int cx1, int cz1,
+                                   int CELL, int OFF_X, int OFF_Y) {
         if (info == null) return;
 
         int minX = info.minX();
@@ -266,10 +460,10 @@ final class FactoryPanelRenderer {
         int maxXEx = info.maxXExclusive();
         int maxZEx = info.maxZExclusive();
 
-        g.setColor(new Color(255, 0, 0, 35));
+        g.setColor(LOCKED_OVERLAY);
 
-        for (int gx = 0; gx < FactoryPanelState.GRID_SIZE; gx++) {
-            for (int gz = 0; gz < FactoryPanelState.GRID_SIZE; gz++) {
+        for (int gx = cx0; gx < cx1; gx++) {
+            for (int gz = cz0; gz < cz1; gz++) {
                 boolean unlocked = gx >= minX && gx < maxXEx && gz >= minZ && gz < maxZEx;
                 if (unlocked) continue;
 
@@ -280,29 +474,36 @@ final class FactoryPanelRenderer {
         }
     }
 
-    private void drawMachines(Graphics2D g, Map<GridPosition, PlacedMachine> machines, int CELL, int OFF_X, int OFF_Y) {
-        if (machines == null || machines.isEmpty()) return;
-
-        IdentityHashMap<PlacedMachine, Boolean> seen = new IdentityHashMap<>();
-        for (PlacedMachine m : machines.values()) {
-            if (m == null) continue;
-            if (seen.put(m, Boolean.TRUE) != null) continue;
-
-            GridPosition pos = m.getPos();
-            if (pos == null) continue;
+    /** Items carried by belts / splitters / mergers: the only per-frame machine drawing. */
+    private void drawAnimatedOverlays(Graphics2D g, int CELL, int OFF_X, int OFF_Y, int width, int height) {
+        for (PlacedMachine m : animated) {
+            GridPosition p = m.getPos();
+            int x = OFF_X + (p.x() * CELL);
+            int z = OFF_Y + (p.z() * CELL);
+            if (x + CELL < 0 || z + CELL < 0 || x > width || z > height) continue;
 
-            Vector3Int base = registry.getDimensions(m.getTypeId());
-            if (base == null) base = Vector3Int.one();
+            if (m instanceof ConveyorBelt belt) drawBeltItem(g, belt, x, z, CELL);
+            else if (m instanceof Splitter splitter) drawSplitterItem(g, splitter, x, z, CELL);
+            else if (m instanceof Merger merger) drawMergerItem(g, merger, x, z, CELL);
+        }
+    }
 
-            int ySize = base.y();
-            int baseY = pos.y();
-            if (state.currentLayer < baseY || state.currentLayer >= baseY + ySize) continue;
+    /** Short native id of a structure block, or null while its meta is not cached yet. */
+    private String structureLabel(PlacedMachine m) {
+        JsonObject meta = controller.getMetaCached(m);
+        if (meta == null) return null;
+        if (!meta.has("native_id")) return "Block";
 
-            drawSingleMachine(g, m, CELL, OFF_X, OFF_Y);
+        String nativeId = meta.get("native_id").getAsString();
+        if (nativeId != null && nativeId.contains(":")) {
+            String[] parts = nativeId.split(":", 2);
+            nativeId = parts.length == 2 ? parts[1] : nativeId;
         }
+        return nativeId;
     }
 
-    private void drawSingleMachine(Graphics2D g, PlacedMachine m, int CELL, int OFF_X, int OFF_Y) {
+    /** Static part of a machine (body, ports, direction): drawn into the machine tiles. */
+    private void drawMachineBody(Graphics2D g, PlacedMachine m, int CELL, int OFF_X, int OFF_Y) {
         GridPosition p = m.getPos();
         int x = OFF_X + (p.x() * CELL);
         int z = OFF_Y + (p.z() * CELL);
@@ -318,16 +519,8 @@ final class FactoryPanelRenderer {
             g.setColor(Color.WHITE);
             g.setFont(FONT_SMALL);
 
-            String nativeId = "Block";
-            JsonObject meta = controller.getMetaCached(m);
-            if (meta != null && meta.has("native_id")) {
-                nativeId = meta.get("native_id").getAsString();
-                if (nativeId != null && nativeId.contains(":")) {
-                    String[] parts = nativeId.split(":", 2);
-                    nativeId = parts.length == 2 ? parts[1] : nativeId;
-                }
-            }
-            g.drawString(nativeId, x + 5, z + 25);
+            String nativeId = structureLabel(m);
+            g.drawString(nativeId != null ? nativeId : "Block", x + 5, z + 25);
             return;
         }
 
@@ -364,10 +557,7 @@ final class FactoryPanelRenderer {
             drawStandardPorts(g, m, x, z, w, h, CELL);
         }
 
-        // Items
-        if (m instanceof ConveyorBelt belt) drawBeltItem(g, belt, x, z, CELL);
-        if (m instanceof Splitter splitter) drawSplitterItem(g, splitter, x, z, CELL);
-        if (m instanceof Merger merger) drawMergerItem(g, merger, x, z, CELL);
+        // Items are drawn per frame by drawAnimatedOverlays
 
         // Direction dot
         drawDirectionDot(g, x, z, w, h, m.getOrientation());
@@ -0,0 +1,131 @@
+package com.matterworks.core.ui.swing.factory;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Offscreen tiles of the factory view (EDT only).
+ *
+ * The plot is split in TILE_CELLS x TILE_CELLS tiles. Each plane keeps one image per tile,
+ * drawn in plot space (independent of pan) and tagged with the signature it was drawn from:
+ * a tile is redrawn only when its signature changes, so a repaint costs one blit per visible tile.
+ *
+ * Planes:
+ * - terrain: grid lines + veins (ground layer only) + locked overlay, one plane for the
+ *   ground layer and one for upper layers
+ * - machines: structures + machine bodies, one plane per layer (the last MAX_MACHINE_LAYERS
+ *   visited layers are kept, so switching back is a blit)
+ *
+ * Everything is dropped when the cell size (zoom) changes.
+ * Images are 1px larger than the tile span so the closing grid line of the last row/column
+ * is kept (the overlap with the next tile draws the same pixels).
+ */
+final class FactoryTileCache {
+
+    static final int TILE_CELLS = 10;
+    static final int TILES_PER_SIDE = (FactoryPanelState.GRID_SIZE + TILE_CELLS - 1) / TILE_CELLS;
+    static final int TILE_COUNT = TILES_PER_SIDE * TILES_PER_SIDE;
+
+    private static final int MAX_MACHINE_LAYERS = 2;
+
+    static final class Plane {
+        final BufferedImage[] images = new BufferedImage[TILE_COUNT];
+        final long[] drawnSignatures = new long[TILE_COUNT];
+        final boolean[] drawn = new boolean[TILE_COUNT];
+
+        boolean isCurrent(int tile, long signature) {
+            return drawn[tile] && drawnSignatures[tile] == signature;
+        }
+
+        void markDrawn(int tile, long signature, BufferedImage img) {
+            images[tile] = img;
+            drawnSignatures[tile] = signature;
+            drawn[tile] = true;
+        }
+    }
+
+    private int cellPx = -1;
+    private GraphicsConfiguration gc;
+
+    private Plane terrainGround = new Plane();
+    private Plane terrainUpper = new Plane();
+    private final LinkedHashMap<Integer, Plane> machinePlanes = new LinkedHashMap<>(4, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, Plane> eldest) {
+            return size() > MAX_MACHINE_LAYERS;
+        }
+    };
+
+    /** Drops every tile when the zoom changed. */
+    void ensureCell(int cellPx, GraphicsConfiguration gc) {
+        this.gc = gc;
+        if (cellPx == this.cellPx) return;
+        this.cellPx = cellPx;
+        clear();
+    }
+
+    void clear() {
+        terrainGround = new Plane();
+        terrainUpper = new Plane();
+        machinePlanes.clear();
+    }
+
+    Plane terrain(boolean ground) {
+        return ground ? terrainGround : terrainUpper;
+    }
+
+    Plane machines(int layer) {
+        return machinePlanes.computeIfAbsent(layer, k -> new Plane());
+    }
+
+    int spanPx() {
+        return TILE_CELLS * cellPx;
+    }
+
+    static int tileIndex(int tx, int tz) {
+        return tz * TILES_PER_SIDE + tx;
+    }
+
+    static int tileOf(int cell) {
+        return Math.floorDiv(cell, TILE_CELLS);
+    }
+
+    /**
+     * Returns a cleared image for the tile (recycled when possible) and a Graphics translated
+     * to plot space, clipped to the tile. Caller disposes the Graphics.
+     */
+    Graphics2D beginTile(Plane plane, int tile, int tx, int tz) {
+        int size = spanPx() + 1;
+
+        BufferedImage img = plane.images[tile];
+        if (img == null || img.getWidth() != size) {
+            img = (gc != null)
+                    ? gc.createCompatibleImage(size, size, Transparency.TRANSLUCENT)
+                    : new BufferedImage(size, size, BufferedImage.TYPE_INT_ARGB);
+            plane.images[tile] = img;
+        }
+
+        Graphics2D g = img.createGraphics();
+        g.setComposite(AlphaComposite.Clear);
+        g.fillRect(0, 0, size, size);
+        g.setComposite(AlphaComposite.SrcOver);
+
+        g.clipRect(0, 0, size, size);
+        g.translate(-tx * spanPx(), -tz * spanPx());
+        return g;
+    }
+
+    /** Marks a tile with nothing to draw (no image is kept for it). */
+    static void markEmpty(Plane plane, int tile, long signature) {
+        plane.markDrawn(tile, signature, null);
+    }
+
+    static long[] newSignatures() {
+        long[] s = new long[TILE_COUNT];
+        Arrays.fill(s, Long.MIN_VALUE);
+        return s;
+    }
+}
@@ -63,6 +63,9 @@ public class ProductionPanel extends JPanel {
     private final JToggleButton btn1m = new JToggleButton("1m");
     private final JToggleButton btn5m = new JToggleButton("5m");
     private final JToggleButton btn10m = new JToggleButton("10m");
+    private final JToggleButton btn1h = new JToggleButton("1h");
+    private final JToggleButton btn24h = new JToggleButton("24h");
+    private final JToggleButton btn7d = new JToggleButton("7d");
 
     // Models (single view)
     private final LinesModel producedModel = new LinesModel(false);
@@ -125,14 +128,23 @@ public class ProductionPanel extends JPanel {
         setupToggle(btn1m);
         setupToggle(btn5m);
         setupToggle(btn10m);
+        setupToggle(btn1h);
+        setupToggle(btn24h);
+        setupToggle(btn7d);
         g.add(btn1m);
         g.add(btn5m);
         g.add(btn10m);
+        g.add(btn1h);
+        g.add(btn24h);
+        g.add(btn7d);
         btn1m.setSelected(true);
 
         btn1m.addActionListener(e -> setWindow(ProductionTimeWindow.ONE_MINUTE));
         btn5m.addActionListener(e -> setWindow(ProductionTimeWindow.FIVE_MINUTES));
         btn10m.addActionListener(e -> setWindow(ProductionTimeWindow.TEN_MINUTES));
+        btn1h.addActionListener(e -> setWindow(ProductionTimeWindow.ONE_HOUR));
+        btn24h.addActionListener(e -> setWindow(ProductionTimeWindow.ONE_DAY));
+        btn7d.addActionListener(e -> setWindow(ProductionTimeWindow.SEVEN_DAYS));
 
         JLabel lbl = new JLabel("Window: ");
         lbl.setForeground(Color.LIGHT_GRAY);
@@ -145,6 +157,12 @@ public class ProductionPanel extends JPanel {
         left.add(btn5m);
         left.add(Box.createHorizontalStrut(6));
         left.add(btn10m);
+        left.add(Box.createHorizontalStrut(6));
+        left.add(btn1h);
+        left.add(Box.createHorizontalStrut(6));
+        left.add(btn24h);
+        left.add(Box.createHorizontalStrut(6));
+        left.add(btn7d);
 
         lblSummary.setForeground(Color.WHITE);
         lblSummary.setFont(new Font("Monospaced", Font.PLAIN, 11));
@@ -0,0 +1,110 @@
+package com.matterworks.core;
+
+import com.matterworks.core.common.Direction;
+import com.matterworks.core.common.GridPosition;
+import com.matterworks.core.domain.machines.registry.BlockRegistry;
+import com.matterworks.core.domain.machines.registry.MachineStats;
+import com.matterworks.core.domain.matter.MatterColor;
+import com.matterworks.core.domain.matter.MatterShape;
+import com.matterworks.core.domain.player.PlayerProfile;
+import com.matterworks.core.managers.GridManager;
+import com.matterworks.core.managers.SessionReplayer;
+import com.matterworks.core.model.PlotUnlockState;
+import com.matterworks.core.ui.InMemoryRepository;
+import com.matterworks.core.ui.ServerConfig;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * A short session recorded live (drill -> belts -> nexus, one belt removed and put back)
+ * replays to the state hash written in the end line, twice in a row.
+ */
+class SessionReplayTest {
+
+    private static final UUID OWNER = UUID.fromString("00000000-0000-0000-0000-000000000001");
+    private static final long TICKS = 400L;
+
+    @TempDir
+    Path dir;
+
+    private static InMemoryRepository backend() {
+        InMemoryRepository repo = new InMemoryRepository();
+        repo.setServerConfig(new ServerConfig(1000, 10, 5, 5, 5, 10, 100, 20, 20, 40, 40, 2, 2, 3, 1, 1, 1,
+                30, 3, 6, 1, 1, 2, 0.1, 100, 1.5, true, true, true));
+
+        Map<String, MachineStats> defs = new HashMap<>();
+        for (String id : List.of("drill", "conveyor_belt", "nexus_core")) defs.put(id, MachineStats.fallback(id));
+        repo.setMachineDefinitions(defs);
+
+        Map<MatterShape, Double> shapes = new HashMap<>();
+        for (MatterShape s : MatterShape.values()) shapes.put(s, 2.0);
+        Map<MatterColor, Double> colors = new HashMap<>();
+        for (MatterColor c : MatterColor.values()) colors.put(c, 1.0);
+        repo.setMatterPrices(shapes, colors, Map.of());
+
+        PlayerProfile p = new PlayerProfile(OWNER);
+        p.setUsername("tester");
+        p.setMoney(5000);
+        p.setRank(PlayerProfile.PlayerRank.ADMIN);
+        repo.putPlayer(p, 100, Map.of("drill", 5, "conveyor_belt", 30, "nexus_core", 1));
+
+        Map<GridPosition, MatterColor> resources = new HashMap<>();
+        resources.put(new GridPosition(15, 0, 15), MatterColor.RAW);
+        repo.putPlot(OWNER, 1, PlotUnlockState.zero(), 0, resources, List.of());
+        return repo;
+    }
+
+    private String recordSession() {
+        InMemoryRepository repo = backend();
+        Main.MockWorld world = new Main.MockWorld();
+        BlockRegistry registry = new BlockRegistry(world, repo.machineDefinitionDAO());
+        registry.loadFromDatabase();
+        GridManager gm = new GridManager(repo, world, registry);
+        gm.preloadPlotFromDB(OWNER).join();
+
+        gm.startRecording(dir);
+        for (long t = 1; t <= TICKS; t++) {
+            if (t == 10) gm.placeMachine(OWNER, new GridPosition(15, 0, 15), "drill", Direction.EAST);
+            if (t == 12) {
+                for (int x = 16; x < 22; x++) gm.placeMachine(OWNER, new GridPosition(x, 0, 15), "conveyor_belt", Direction.EAST);
+            }
+            if (t == 15) gm.placeMachine(OWNER, new GridPosition(22, 0, 14), "nexus_core", Direction.EAST);
+            if (t == 200) gm.removeComponent(OWNER, new GridPosition(18, 0, 15));
+            if (t == 220) gm.placeMachine(OWNER, new GridPosition(18, 0, 15), "conveyor_belt", Direction.EAST);
+            if (t % 30 == 0) gm.touchPlayer(OWNER);
+            gm.tick(t);
+        }
+        String hash = gm.stateHash();
+        gm.stopRecording();
+        repo.close();
+        return hash;
+    }
+
+    @Test
+    void replayEndsOnTheRecordedHash() throws Exception {
+        String live = recordSession();
+
+        SessionReplayer.Result first = new SessionReplayer(dir, new Main.MockWorld()).run();
+        assertEquals(TICKS, first.ticks());
+        assertEquals(0L, first.mismatches(), "first diverging input: " + first.firstMismatch());
+        assertEquals(0L, first.unsupported());
+        assertNull(first.firstMismatch());
+        assertNotNull(first.recordedHash());
+        assertEquals(live, first.recordedHash());
+        assertTrue(first.hashMatches(), "replay " + first.hash() + " vs recorded " + first.recordedHash());
+
+        SessionReplayer.Result second = new SessionReplayer(dir, new Main.MockWorld()).run();
+        assertEquals(first.hash(), second.hash());
+    }
+}
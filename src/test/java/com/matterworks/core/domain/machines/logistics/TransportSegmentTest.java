@@ -0,0 +1,126 @@
+package com.matterworks.core.domain.machines.logistics;
+
+import com.matterworks.core.common.GridPosition;
+import com.matterworks.core.domain.matter.MatterColor;
+import com.matterworks.core.domain.matter.MatterPayload;
+import com.matterworks.core.domain.matter.MatterShape;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Standalone belts (no grid): the head has nothing in front of it, so the line fills up
+ * from the output end and every item stays where the per-belt rules put it.
+ */
+class TransportSegmentTest {
+
+    private static final UUID OWNER = UUID.fromString("00000000-0000-0000-0000-000000000001");
+
+    private static List<ConveyorBelt> belts(int n) {
+        List<ConveyorBelt> chain = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            chain.add(new ConveyorBelt(null, OWNER, new GridPosition(i, 0, 0), "conveyor_belt", null));
+        }
+        return chain;
+    }
+
+    private static MatterPayload item(int i) {
+        MatterColor[] colors = MatterColor.values();
+        return new MatterPayload(MatterShape.values()[i / colors.length], colors[i % colors.length]);
+    }
+
+    @Test
+    void cellTakesAtMostTwoItems() {
+        List<ConveyorBelt> chain = belts(3);
+        TransportSegment segment = new TransportSegment(chain);
+
+        assertTrue(segment.insert(0, item(0), 0L));
+        assertTrue(segment.hasRoom(0));
+        assertTrue(segment.insert(0, item(1), 0L));
+        assertFalse(segment.hasRoom(0));
+        assertFalse(segment.insert(0, item(2), 0L));
+        assertFalse(chain.get(0).canAccept(item(2), null));
+
+        assertEquals(2, segment.itemCount());
+        assertTrue(segment.hasRoom(1));
+    }
+
+    @Test
+    void blockedLineFillsTwoPerCellInFeedOrder() {
+        int length = 4;
+        List<ConveyorBelt> chain = belts(length);
+        TransportSegment segment = new TransportSegment(chain);
+
+        List<MatterPayload> fed = new ArrayList<>();
+        for (long t = 1; t <= 2_000; t++) {
+            if (segment.hasRoom(0)) {
+                MatterPayload next = item(fed.size());
+                assertTrue(chain.get(0).accept(next, null, t));
+                fed.add(next);
+            }
+            chain.get(length - 1).tick(t);
+        }
+
+        assertEquals(2 * length, fed.size());
+        assertEquals(2 * length, segment.itemCount());
+
+        // Head cell holds the first two items, the tail the last two; the current one is ahead
+        segment.dissolve();
+        for (int c = 0; c < length; c++) {
+            ConveyorBelt b = chain.get(c);
+            int first = 2 * (length - 1 - c);
+            assertSame(fed.get(first), b.currentItem(), "current of cell " + c);
+            assertSame(fed.get(first + 1), b.queuedItem(), "queued of cell " + c);
+        }
+    }
+
+    @Test
+    void queuedItemStartsOnlyAfterTheCurrentOneLeft() {
+        List<ConveyorBelt> chain = belts(2);
+        TransportSegment segment = new TransportSegment(chain);
+        ConveyorBelt head = chain.get(1);
+
+        segment.insert(0, item(0), 0L);
+        segment.insert(0, item(1), 0L);
+
+        // item 0 reaches the head cell after one hop, item 1 then becomes current at the tail
+        long hop = head.transportDelay();
+        for (long t = 1; t <= hop; t++) head.tick(t);
+
+        segment.exportCell(1);
+        segment.exportCell(0);
+        assertEquals(item(0), head.currentItem());
+        assertNull(head.queuedItem());
+        assertEquals(item(1), chain.get(0).currentItem());
+        assertNull(chain.get(0).queuedItem());
+    }
+
+    @Test
+    void dissolveHandsItemsBackToTheBelts() {
+        List<ConveyorBelt> chain = belts(3);
+        TransportSegment segment = new TransportSegment(chain);
+        segment.insert(2, item(0), 0L);
+        segment.insert(1, item(1), 0L);
+
+        segment.dissolve();
+
+        assertNull(chain.get(0).getSegment());
+        assertEquals(item(0), chain.get(2).currentItem());
+        assertEquals(item(1), chain.get(1).currentItem());
+        assertEquals(0, segment.itemCount());
+        assertFalse(segment.insert(0, item(2), 1L));
+
+        // a new segment over the same belts takes the items over again
+        TransportSegment again = new TransportSegment(chain);
+        assertEquals(2, again.itemCount());
+        assertNull(chain.get(2).currentItem());
+    }
+}
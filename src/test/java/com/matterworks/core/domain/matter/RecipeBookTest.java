@@ -0,0 +1,126 @@
+package com.matterworks.core.domain.matter;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The built-in tables must reproduce the transformations the processors used to hand-code
+ * (ShaperMachine, CuttingMachine, EffectApplicatorMachine, Chromator, ColorMixer), for every
+ * item id and every pair of item ids.
+ */
+class RecipeBookTest {
+
+    private static final Map<String, MatterEffect> APPLICATORS = Map.of(
+            "shiny_polisher", MatterEffect.SHINY,
+            "blazing_forge", MatterEffect.BLAZING,
+            "glitch_distorter", MatterEffect.GLITCH);
+
+    private final RecipeBook book = RecipeBook.defaults();
+
+    // ==========================================================
+    // OLD RULES (null = no job)
+    // ==========================================================
+
+    private static MatterPayload smoothing(MatterPayload in) {
+        if (in.shape() != MatterShape.CUBE) return null;
+        return new MatterPayload(MatterShape.SPHERE, in.color(), in.effects());
+    }
+
+    private static MatterPayload cutting(MatterPayload in) {
+        if (in.shape() != MatterShape.SPHERE) return null;
+        return new MatterPayload(MatterShape.PYRAMID, in.color(), in.effects());
+    }
+
+    private static MatterPayload applicator(MatterPayload in, MatterEffect effect) {
+        if (in.shape() == null) return null;
+        if (in.effects() != null && !in.effects().isEmpty()) return null;
+        return new MatterPayload(in.shape(), in.color(), List.of(effect));
+    }
+
+    private static MatterPayload chromator(MatterPayload base, MatterPayload dye) {
+        if (base.shape() == null || base.color() != MatterColor.RAW) return null;
+        if (dye.shape() != null || dye.color() == MatterColor.RAW) return null;
+        return new MatterPayload(base.shape(), dye.color());
+    }
+
+    private static MatterPayload colorMixer(MatterPayload c1, MatterPayload c2) {
+        if (c1.shape() != null || c2.shape() != null) return null;
+        if (c1.color() == MatterColor.RAW || c2.color() == MatterColor.RAW) return null;
+        if (c1.color() == c2.color()) return null;
+        MatterColor mixed = MatterColor.mix(c1.color(), c2.color());
+        if (mixed == MatterColor.RAW) mixed = MatterColor.WHITE;
+        return new MatterPayload(null, mixed);
+    }
+
+    // ==========================================================
+    // TESTS
+    // ==========================================================
+
+    @Test
+    void oneInputTablesMatchOldRules() {
+        for (int id = 0; id < MatterIds.COUNT; id++) {
+            MatterPayload in = MatterIds.payloadOf(id);
+            assertOutput("smoothing", id, -1, smoothing(in));
+            assertOutput("cutting", id, -1, cutting(in));
+            for (var e : APPLICATORS.entrySet()) {
+                assertOutput(e.getKey(), id, -1, applicator(in, e.getValue()));
+            }
+        }
+    }
+
+    @Test
+    void twoInputTablesMatchOldRules() {
+        for (int a = 0; a < MatterIds.COUNT; a++) {
+            MatterPayload pa = MatterIds.payloadOf(a);
+            for (int b = 0; b < MatterIds.COUNT; b++) {
+                MatterPayload pb = MatterIds.payloadOf(b);
+                assertOutput("chromator", a, b, chromator(pa, pb));
+                assertOutput("color_mixer", a, b, colorMixer(pa, pb));
+            }
+        }
+    }
+
+    @Test
+    void builtInTicksMatchOldProcessors() {
+        assertEquals(40, book.table("smoothing").defaultTicks());
+        assertEquals(40, book.table("cutting").defaultTicks());
+        assertEquals(20, book.table("chromator").defaultTicks());
+        assertEquals(30, book.table("color_mixer").defaultTicks());
+        for (String type : APPLICATORS.keySet()) assertEquals(40, book.table(type).defaultTicks(), type);
+    }
+
+    @Test
+    void definitionsOverrideAndRemoveCombinations() {
+        int redCube = MatterIds.of(new MatterPayload(MatterShape.CUBE, MatterColor.RED));
+        int bluePyramid = MatterIds.of(new MatterPayload(MatterShape.PYRAMID, MatterColor.BLUE));
+        int rawSphere = MatterIds.of(new MatterPayload(MatterShape.SPHERE, MatterColor.RAW));
+
+        RecipeBook custom = RecipeBook.compile(List.of(
+                new RecipeBook.Definition("smoothing", redCube, -1, bluePyramid, 7),
+                new RecipeBook.Definition("cutting", rawSphere, -1, -1, 0)));
+
+        RecipeTable smoothing = custom.table("smoothing");
+        int key = smoothing.match(redCube);
+        assertTrue(key >= 0);
+        assertEquals(bluePyramid, smoothing.outputId(key));
+        assertEquals(7, smoothing.ticks(key));
+
+        assertEquals(-1, custom.table("cutting").match(rawSphere));
+        assertFalse(custom.table("cutting").accepts(0, rawSphere));
+        assertEquals(book.recipeCount() - 1, custom.recipeCount());
+    }
+
+    private void assertOutput(String type, int a, int b, MatterPayload expected) {
+        RecipeTable t = book.table(type);
+        int key = (b < 0) ? t.match(a) : t.match(a, b);
+        int got = (key < 0) ? -1 : t.outputId(key);
+        int want = (expected == null) ? -1 : MatterIds.of(expected);
+        assertEquals(want, got, type + " " + MatterIds.payloadOf(a) + (b < 0 ? "" : " + " + MatterIds.payloadOf(b)));
+    }
+}
@@ -0,0 +1,145 @@
+package com.matterworks.core.managers;
+
+import com.google.gson.JsonObject;
+import com.matterworks.core.common.GridPosition;
+import com.matterworks.core.domain.matter.MatterColor;
+import com.matterworks.core.model.PlotObject;
+import com.matterworks.core.model.PlotUnlockState;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * WorldCheckpoint write -> open -> read gives back the plots that were written, and the
+ * readers fall back (null) instead of throwing on files they cannot trust.
+ */
+class WorldCheckpointTest {
+
+    private static final UUID ALICE = UUID.fromString("00000000-0000-0000-0000-0000000000a1");
+    private static final UUID BOB = UUID.fromString("00000000-0000-0000-0000-0000000000b2");
+
+    @TempDir
+    Path dir;
+
+    private static PlotObject machine(long id, long plotId, int x, int z, String type, int speed) {
+        JsonObject meta = new JsonObject();
+        meta.addProperty("orientation", "NORTH");
+        meta.addProperty("speed", speed);
+        return new PlotObject(id, plotId, x, 64, z, type, meta);
+    }
+
+    private static WorldCheckpoint.PlotImage alice() {
+        return new WorldCheckpoint.PlotImage(ALICE, 7L, 1_000L, new PlotUnlockState(2, 3),
+                Map.of(new GridPosition(1, 0, 2), MatterColor.RED,
+                        new GridPosition(5, 0, 9), MatterColor.BLUE),
+                List.of(machine(11L, 7L, 1, 2, "drill", 1), machine(12L, 7L, 2, 2, "conveyor_belt", 3)));
+    }
+
+    private static WorldCheckpoint.PlotImage bob() {
+        return new WorldCheckpoint.PlotImage(BOB, 8L, 2_000L, PlotUnlockState.zero(), Map.of(), List.of());
+    }
+
+    private static void assertSamePlot(WorldCheckpoint.PlotImage expected, WorldCheckpoint.PlotImage actual) {
+        assertNotNull(actual);
+        assertEquals(expected.ownerId(), actual.ownerId());
+        assertEquals(expected.plotId(), actual.plotId());
+        assertEquals(expected.stamp(), actual.stamp());
+        assertEquals(expected.unlock(), actual.unlock());
+        assertEquals(expected.resources(), actual.resources());
+        assertEquals(expected.machines().size(), actual.machines().size());
+        for (int i = 0; i < expected.machines().size(); i++) {
+            PlotObject e = expected.machines().get(i);
+            PlotObject a = actual.machines().get(i);
+            assertEquals(e.getId(), a.getId());
+            assertEquals(e.getPlotId(), a.getPlotId());
+            assertEquals(e.getX(), a.getX());
+            assertEquals(e.getY(), a.getY());
+            assertEquals(e.getZ(), a.getZ());
+            assertEquals(e.getTypeId(), a.getTypeId());
+            assertEquals(e.getMetaData(), a.getMetaData());
+        }
+    }
+
+    @Test
+    void writeThenReadGivesBackEveryPlot() throws IOException {
+        Path file = dir.resolve("world.ckpt");
+        WorldCheckpoint.write(file, List.of(alice(), bob()));
+
+        WorldCheckpoint ckpt = WorldCheckpoint.open(file);
+        assertNotNull(ckpt);
+        assertEquals(2, ckpt.plotCount());
+        assertTrue(ckpt.contains(ALICE));
+        assertTrue(ckpt.contains(BOB));
+        assertEquals(1_000L, ckpt.stampOf(ALICE));
+        assertEquals(2_000L, ckpt.stampOf(BOB));
+
+        assertSamePlot(alice(), ckpt.read(ALICE));
+        assertSamePlot(bob(), ckpt.read(BOB));
+        assertNull(ckpt.read(UUID.randomUUID()));
+    }
+
+    @Test
+    void rewriteReplacesTheFileAndLeavesNoTemporaries() throws IOException {
+        Path file = dir.resolve("world.ckpt");
+        WorldCheckpoint.write(file, List.of(alice(), bob()));
+        WorldCheckpoint.write(file, List.of(bob()));
+
+        WorldCheckpoint ckpt = WorldCheckpoint.open(file);
+        assertNotNull(ckpt);
+        assertEquals(1, ckpt.plotCount());
+        assertFalse(ckpt.contains(ALICE));
+        assertSamePlot(bob(), ckpt.read(BOB));
+
+        try (Stream<Path> files = Files.list(dir)) {
+            assertEquals(List.of(file), files.toList());
+        }
+    }
+
+    @Test
+    void untrustedFilesOpenAsNull() throws IOException {
+        assertNull(WorldCheckpoint.open(dir.resolve("missing.ckpt")));
+
+        Path foreign = dir.resolve("foreign.ckpt");
+        Files.write(foreign, new byte[64]);
+        assertNull(WorldCheckpoint.open(foreign));
+
+        Path file = dir.resolve("world.ckpt");
+        WorldCheckpoint.write(file, List.of(alice()));
+        byte[] bytes = Files.readAllBytes(file);
+        Path truncated = dir.resolve("truncated.ckpt");
+        Files.write(truncated, Arrays.copyOf(bytes, bytes.length - 8));
+        assertNull(WorldCheckpoint.open(truncated));
+    }
+
+    @Test
+    void corruptedSectionIsSkippedByCrc() throws IOException {
+        Path file = dir.resolve("world.ckpt");
+        WorldCheckpoint.write(file, List.of(alice(), bob()));
+
+        // flip the last byte: it belongs to the last plot section written
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[bytes.length - 1] ^= 0x5A;
+        Files.write(file, bytes);
+
+        WorldCheckpoint ckpt = WorldCheckpoint.open(file);
+        assertNotNull(ckpt);
+        int readable = 0;
+        if (ckpt.read(ALICE) != null) readable++;
+        if (ckpt.read(BOB) != null) readable++;
+        assertEquals(1, readable);
+    }
+}
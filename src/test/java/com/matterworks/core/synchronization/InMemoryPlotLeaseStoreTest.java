@@ -0,0 +1,100 @@
+package com.matterworks.core.synchronization;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * PlotLeaseStore contract on the in-process store (PlotLeaseDAO has the same semantics on
+ * the DB clock): fencing tokens only grow, and a write with an old token is refused.
+ */
+class InMemoryPlotLeaseStoreTest {
+
+    private static final UUID PLOT = UUID.fromString("00000000-0000-0000-0000-00000000000a");
+    private static final long TTL_MS = 60_000L;
+
+    private final InMemoryPlotLeaseStore store = new InMemoryPlotLeaseStore();
+
+    private static void sleep(long ms) {
+        try {
+            Thread.sleep(ms);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Test
+    void tokenGrowsOnEveryChangeOfHolder() {
+        PlotLeaseStore.Lease a1 = store.tryAcquire(PLOT, "a", TTL_MS);
+        assertNotNull(a1);
+        assertNull(store.tryAcquire(PLOT, "b", TTL_MS), "live lease of another node");
+
+        // same holder again: token kept
+        PlotLeaseStore.Lease a2 = store.tryAcquire(PLOT, "a", TTL_MS);
+        assertEquals(a1.token(), a2.token());
+
+        // released -> new holder
+        store.release(PLOT, "a", a1.token());
+        PlotLeaseStore.Lease b1 = store.tryAcquire(PLOT, "b", 1L);
+        assertNotNull(b1);
+        assertTrue(b1.token() > a1.token());
+
+        // expired -> new holder
+        sleep(5L);
+        PlotLeaseStore.Lease a3 = store.tryAcquire(PLOT, "a", TTL_MS);
+        assertNotNull(a3);
+        assertTrue(a3.token() > b1.token());
+    }
+
+    @Test
+    void staleTokenCannotReleaseOrWrite() throws Exception {
+        PlotLeaseStore.Lease a = store.tryAcquire(PLOT, "a", 1L);
+        sleep(5L);
+        PlotLeaseStore.Lease b = store.tryAcquire(PLOT, "b", TTL_MS);
+        assertNotNull(b);
+
+        AtomicInteger writes = new AtomicInteger();
+        assertFalse(store.writeFenced(PLOT, "a", a.token(), g -> writes.incrementAndGet() > 0));
+        assertEquals(0, writes.get(), "write of the old holder must not run");
+
+        store.release(PLOT, "a", a.token()); // ignored: stale token
+        assertTrue(store.writeFenced(PLOT, "b", b.token(), g -> writes.incrementAndGet() > 0));
+        assertEquals(1, writes.get());
+    }
+
+    @Test
+    void renewReturnsOnlyLiveLeasesWithTheirTokens() {
+        UUID other = UUID.fromString("00000000-0000-0000-0000-00000000000b");
+        PlotLeaseStore.Lease a = store.tryAcquire(PLOT, "a", TTL_MS);
+        store.tryAcquire(other, "a", 1L);
+        sleep(5L);
+
+        Map<UUID, Long> held = store.renewAll("a", TTL_MS);
+        assertEquals(Map.of(PLOT, a.token()), held);
+    }
+
+    @Test
+    void parkedPlotIsNotClaimableUntilItsParkEnds() {
+        store.registerPlot(PLOT);
+        assertTrue(store.findClaimable(10).contains(PLOT));
+
+        PlotLeaseStore.Lease a = store.tryAcquire(PLOT, "a", TTL_MS);
+        assertFalse(store.findClaimable(10).contains(PLOT));
+
+        store.park(PLOT, "a", a.token(), 20L);
+        assertFalse(store.findClaimable(10).contains(PLOT));
+        sleep(30L);
+        assertTrue(store.findClaimable(10).contains(PLOT));
+
+        PlotLeaseStore.Lease b = store.tryAcquire(PLOT, "b", TTL_MS);
+        assertTrue(b.token() > a.token());
+    }
+}